@@ -0,0 +1,29 @@
+package com.kstore.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.security")
+public class GatewaySecurityProperties {
+
+    // Ant patterns, optionally prefixed with an HTTP method: "GET /products/**"
+    private List<String> publicPaths = new ArrayList<>();
+
+    private Jwt jwt = new Jwt();
+
+    @Data
+    public static class Jwt {
+
+        // Shared HMAC secret of tokens issued by user-service
+        private String secret;
+
+        // Authorization server key set for RS/ES tokens; empty disables them
+        private String jwkSetUri;
+
+        private String issuer;
+    }
+}
@@ -1,5 +1,6 @@
 package com.kstore.gateway.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
@@ -11,6 +12,7 @@ import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 
 @Configuration
 @EnableWebFluxSecurity
+@EnableConfigurationProperties(GatewaySecurityProperties.class)
 public class SecurityConfig {
 
     @Bean
@@ -18,9 +20,11 @@ public class SecurityConfig {
         return http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .httpBasic(httpBasic -> httpBasic.disable())
+                .formLogin(formLogin -> formLogin.disable())
+                // Routed requests are authenticated by JwtAuthenticationFilter
                 .authorizeExchange(exchanges -> exchanges
-                        .pathMatchers("/actuator/**", "/user-service/**", "/api/**", "/users/**").permitAll()
-                        .anyExchange().permitAll() // Allow all for development
+                        .anyExchange().permitAll()
                 )
                 .build();
     }
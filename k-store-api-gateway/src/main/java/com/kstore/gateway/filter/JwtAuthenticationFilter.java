@@ -0,0 +1,200 @@
+package com.kstore.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.gateway.config.GatewaySecurityProperties;
+import com.kstore.gateway.security.TokenVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Authenticates every routed request at the edge. The bearer token is verified locally and the
+ * caller's identity is passed downstream in X-User-* headers, so services do not have to look the
+ * user up again. Identity headers sent by clients are always removed first.
+ *
+ * <p>Public paths ({@code gateway.security.public-paths}, optionally prefixed with an HTTP method, e.g.
+ * {@code GET /products/**}) go through without a token; a valid token on them still adds the headers.
+ */
+@Slf4j
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_NAME_HEADER = "X-User-Name";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_ROLES_HEADER = "X-User-Roles";
+    public static final String USER_SCOPES_HEADER = "X-User-Scopes";
+
+    private static final List<String> IDENTITY_HEADERS = List.of(USER_ID_HEADER, USER_NAME_HEADER,
+            USER_EMAIL_HEADER, USER_ROLES_HEADER, USER_SCOPES_HEADER);
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenVerifier tokenVerifier;
+    private final ObjectMapper objectMapper;
+    private final List<PublicPath> publicPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtAuthenticationFilter(TokenVerifier tokenVerifier,
+                                   ObjectMapper objectMapper,
+                                   GatewaySecurityProperties properties) {
+        this.tokenVerifier = tokenVerifier;
+        this.objectMapper = objectMapper;
+        this.publicPaths = properties.getPublicPaths().stream()
+                .filter(StringUtils::hasText)
+                .map(PublicPath::parse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> IDENTITY_HEADERS.forEach(headers::remove))
+                .build();
+        boolean isPublic = request.getMethod() == HttpMethod.OPTIONS || isPublic(request);
+
+        String token = bearerToken(request);
+        if (token == null) {
+            return isPublic
+                    ? chain.filter(exchange.mutate().request(request).build())
+                    : unauthorized(exchange, "Authentication required");
+        }
+
+        return tokenVerifier.verify(token)
+                .map(jwt -> Optional.of(withIdentity(request, jwt)))
+                .onErrorResume(e -> {
+                    if (e instanceof JwtException) {
+                        log.debug("Rejected token for {} {}: {}", request.getMethod(), request.getPath(), e.getMessage());
+                        return Mono.just(Optional.empty());
+                    }
+                    return Mono.error(new KeySetUnavailableException(e));
+                })
+                .flatMap(authenticated -> {
+                    if (authenticated.isPresent()) {
+                        return chain.filter(exchange.mutate().request(authenticated.get()).build());
+                    }
+                    return isPublic
+                            ? chain.filter(exchange.mutate().request(request).build())
+                            : unauthorized(exchange, "Invalid or expired token");
+                })
+                .onErrorResume(KeySetUnavailableException.class, e -> {
+                    log.warn("Could not verify token for {} {}: {}", request.getMethod(), request.getPath(),
+                            e.getCause().toString());
+                    return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, "Token verification is unavailable",
+                            "AUTH_UNAVAILABLE");
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // Before load balancing and routing
+        return -100;
+    }
+
+    private ServerHttpRequest withIdentity(ServerHttpRequest request, Jwt jwt) {
+        return request.mutate().headers(headers -> {
+            setIfPresent(headers, USER_NAME_HEADER, jwt.getSubject());
+            setIfPresent(headers, USER_ID_HEADER, claimAsString(jwt.getClaim("userId")));
+            setIfPresent(headers, USER_EMAIL_HEADER, claimAsString(jwt.getClaim("email")));
+            setIfPresent(headers, USER_ROLES_HEADER, claimAsString(jwt.getClaim("roles")));
+            Object scopes = jwt.hasClaim("scope") ? jwt.getClaim("scope") : jwt.getClaim("scp");
+            setIfPresent(headers, USER_SCOPES_HEADER, claimAsString(scopes));
+        }).build();
+    }
+
+    private boolean isPublic(ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        for (PublicPath publicPath : publicPaths) {
+            if ((publicPath.method() == null || publicPath.method() == request.getMethod())
+                    && pathMatcher.match(publicPath.pattern(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange, String message) {
+        exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        return reject(exchange, HttpStatus.UNAUTHORIZED, message, "UNAUTHORIZED");
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, String message, String errorCode) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(ApiResponse.error(message, errorCode));
+        } catch (JsonProcessingException e) {
+            body = message.getBytes(StandardCharsets.UTF_8);
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static String bearerToken(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private static String claimAsString(Object claim) {
+        if (claim == null) {
+            return null;
+        }
+        if (claim instanceof Collection<?> values) {
+            return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+        }
+        return String.valueOf(claim);
+    }
+
+    private static void setIfPresent(HttpHeaders headers, String name, String value) {
+        if (StringUtils.hasText(value)) {
+            headers.set(name, value);
+        }
+    }
+
+    // The key set could not be fetched; says nothing about the token itself
+    private static class KeySetUnavailableException extends RuntimeException {
+
+        KeySetUnavailableException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private record PublicPath(HttpMethod method, String pattern) {
+
+        static PublicPath parse(String value) {
+            String trimmed = value.trim();
+            int space = trimmed.indexOf(' ');
+            if (space < 0) {
+                return new PublicPath(null, trimmed);
+            }
+            return new PublicPath(HttpMethod.valueOf(trimmed.substring(0, space).toUpperCase()),
+                    trimmed.substring(space + 1).trim());
+        }
+    }
+}
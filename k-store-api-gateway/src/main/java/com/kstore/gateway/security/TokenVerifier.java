@@ -0,0 +1,77 @@
+package com.kstore.gateway.security;
+
+import com.kstore.gateway.config.GatewaySecurityProperties;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jwt.JWTParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+/**
+ * Verifies bearer tokens locally. HMAC tokens are the ones user-service issues with {@code jwt.secret};
+ * RSA/EC tokens come from the authorization server and are checked against its JWK set, which Nimbus
+ * caches and only refetches when it meets an unknown key id.
+ */
+@Slf4j
+@Component
+public class TokenVerifier {
+
+    private final NimbusReactiveJwtDecoder hmacDecoder;
+    private final NimbusReactiveJwtDecoder jwksDecoder;
+
+    public TokenVerifier(GatewaySecurityProperties properties) {
+        String jwkSetUri = properties.getJwt().getJwkSetUri();
+        String issuer = properties.getJwt().getIssuer();
+        byte[] key = properties.getJwt().getSecret().getBytes(StandardCharsets.UTF_8);
+        // Same choice jjwt's Keys.hmacShaKeyFor makes in user-service: the strongest HS the key length allows
+        MacAlgorithm algorithm = key.length >= 64 ? MacAlgorithm.HS512 : key.length >= 48 ? MacAlgorithm.HS384 : MacAlgorithm.HS256;
+        this.hmacDecoder = NimbusReactiveJwtDecoder
+                .withSecretKey(new SecretKeySpec(key, algorithm.getName().replace("HS", "HmacSHA")))
+                .macAlgorithm(algorithm)
+                .build();
+        this.hmacDecoder.setJwtValidator(JwtValidators.createDefault());
+
+        if (StringUtils.hasText(jwkSetUri)) {
+            this.jwksDecoder = NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri)
+                    .jwsAlgorithm(SignatureAlgorithm.RS256)
+                    .jwsAlgorithm(SignatureAlgorithm.ES256)
+                    .build();
+            this.jwksDecoder.setJwtValidator(StringUtils.hasText(issuer)
+                    ? JwtValidators.createDefaultWithIssuer(issuer)
+                    : JwtValidators.createDefault());
+        } else {
+            this.jwksDecoder = null;
+        }
+    }
+
+    /**
+     * Emits the verified token, or errors with a {@code JwtException} when it is malformed, has a bad
+     * signature or has expired.
+     */
+    public Mono<Jwt> verify(String token) {
+        JWSAlgorithm algorithm;
+        try {
+            algorithm = (JWSAlgorithm) JWTParser.parse(token).getHeader().getAlgorithm();
+        } catch (ParseException | ClassCastException e) {
+            return Mono.error(new BadJwtException("Malformed token"));
+        }
+        if (JWSAlgorithm.Family.HMAC_SHA.contains(algorithm)) {
+            return hmacDecoder.decode(token);
+        }
+        if (jwksDecoder == null) {
+            return Mono.error(new BadJwtException("Unsupported token algorithm " + algorithm));
+        }
+        return jwksDecoder.decode(token);
+    }
+}
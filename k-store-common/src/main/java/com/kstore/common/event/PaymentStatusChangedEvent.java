@@ -0,0 +1,29 @@
+package com.kstore.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentStatusChangedEvent {
+
+    private String eventId;
+    private String paymentReference;
+    private Long orderId;
+    private String orderNumber;
+    private Long userId;
+    private BigDecimal amount;
+    private String currency;
+    private String provider;
+    private String oldStatus;
+    private String newStatus;
+    private String failureReason;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,17 @@
+package com.kstore.common.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Request refused because of load or a rate limit; handlers answer 429 with a Retry-After header.
+ */
+@Getter
+public class RateLimitExceededException extends BusinessException {
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, String errorCode, long retryAfterSeconds) {
+        super(message, errorCode, HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
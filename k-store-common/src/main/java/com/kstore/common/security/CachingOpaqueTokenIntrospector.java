@@ -0,0 +1,101 @@
+package com.kstore.common.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenException;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches introspection results by a SHA-256 of the token. Active results are kept for {@code positiveTtl},
+ * capped at the token's exp; inactive results for {@code negativeTtl}. Transport failures are never cached.
+ */
+@Slf4j
+public class CachingOpaqueTokenIntrospector implements OpaqueTokenIntrospector {
+
+    private final OpaqueTokenIntrospector delegate;
+    private final Duration positiveTtl;
+    private final Duration negativeTtl;
+    private final int maxEntries;
+    private final Map<String, CachedResult> results = new ConcurrentHashMap<>();
+
+    public CachingOpaqueTokenIntrospector(OpaqueTokenIntrospector delegate, Duration positiveTtl,
+                                          Duration negativeTtl, int maxEntries) {
+        this.delegate = delegate;
+        this.positiveTtl = positiveTtl;
+        this.negativeTtl = negativeTtl;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public OAuth2AuthenticatedPrincipal introspect(String token) {
+        String key = sha256(token);
+        Instant now = Instant.now();
+        CachedResult cached = results.get(key);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(now)) {
+                if (cached.principal() == null) {
+                    throw new BadOpaqueTokenException("Provided token isn't active");
+                }
+                return cached.principal();
+            }
+            results.remove(key, cached);
+        }
+
+        OAuth2AuthenticatedPrincipal principal;
+        try {
+            principal = delegate.introspect(token);
+        } catch (BadOpaqueTokenException e) {
+            if (!negativeTtl.isZero()) {
+                cache(key, new CachedResult(null, now.plus(negativeTtl)));
+            }
+            throw e;
+        }
+
+        Instant expiresAt = now.plus(positiveTtl);
+        Instant tokenExpiresAt = principal.getAttribute(OAuth2TokenIntrospectionClaimNames.EXP);
+        if (tokenExpiresAt != null && tokenExpiresAt.isBefore(expiresAt)) {
+            expiresAt = tokenExpiresAt;
+        }
+        if (expiresAt.isAfter(now)) {
+            cache(key, new CachedResult(principal, expiresAt));
+        }
+        return principal;
+    }
+
+    private void cache(String key, CachedResult result) {
+        if (results.size() >= maxEntries) {
+            Instant now = Instant.now();
+            results.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+            // Still full of live entries: drop an arbitrary tenth rather than grow without bound
+            Iterator<String> keys = results.keySet().iterator();
+            for (int i = maxEntries / 10; i >= 0 && keys.hasNext() && results.size() >= maxEntries; i--) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        results.put(key, result);
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedResult(OAuth2AuthenticatedPrincipal principal, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.kstore.common.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtIssuerValidator;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+import org.springframework.security.oauth2.server.resource.introspection.SpringOpaqueTokenIntrospector;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Token validation against the user-service authorization server, enabled with
+ * {@code kstore.security.resource-server.enabled=true}. JWTs are verified locally against the issuer's
+ * JWK set; the Nimbus key source refetches the set when it meets an unknown kid, so key rotation needs no
+ * restart. Introspection, when selected, goes through {@link CachingOpaqueTokenIntrospector}.
+ */
+@Slf4j
+@AutoConfiguration(before = OAuth2ResourceServerAutoConfiguration.class)
+@ConditionalOnClass({JwtDecoder.class, NimbusJwtDecoder.class})
+@ConditionalOnProperty(prefix = "kstore.security.resource-server", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ResourceServerProperties.class)
+public class ResourceServerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtDecoder jwtDecoder(ResourceServerProperties properties, ObjectProvider<RestTemplateBuilder> builders) {
+        RestTemplate jwkSetClient = builders.getIfAvailable(RestTemplateBuilder::new)
+                .setConnectTimeout(properties.getConnectTimeout())
+                .setReadTimeout(properties.getReadTimeout())
+                .build();
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withJwkSetUri(properties.resolveJwkSetUri())
+                .restOperations(jwkSetClient)
+                .build();
+
+        List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+        validators.add(new JwtTimestampValidator(properties.getClockSkew()));
+        validators.add(new JwtIssuerValidator(properties.getIssuerUri()));
+        if (!properties.getAudiences().isEmpty()) {
+            validators.add(new JwtClaimValidator<Collection<String>>(JwtClaimNames.AUD,
+                    audiences -> audiences != null && audiences.stream().anyMatch(properties.getAudiences()::contains)));
+        }
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(validators));
+
+        log.info("Validating bearer JWTs from {} against {}", properties.getIssuerUri(), properties.resolveJwkSetUri());
+        return decoder;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "kstore.security.resource-server.introspection", name = "client-id")
+    public OpaqueTokenIntrospector opaqueTokenIntrospector(ResourceServerProperties properties) {
+        ResourceServerProperties.Introspection introspection = properties.getIntrospection();
+        return new CachingOpaqueTokenIntrospector(
+                new SpringOpaqueTokenIntrospector(properties.resolveIntrospectionUri(),
+                        introspection.getClientId(), introspection.getClientSecret()),
+                introspection.getPositiveTtl(), introspection.getNegativeTtl(), introspection.getMaxEntries());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ResourceServerConfigurer resourceServerConfigurer(ResourceServerProperties properties,
+                                                             JwtDecoder jwtDecoder,
+                                                             ObjectProvider<OpaqueTokenIntrospector> introspector) {
+        if (properties.getMode() == ResourceServerProperties.Mode.INTROSPECTION && introspector.getIfAvailable() == null) {
+            throw new IllegalStateException(
+                    "kstore.security.resource-server.mode=introspection requires introspection.client-id");
+        }
+        return new ResourceServerConfigurer(properties, jwtDecoder, introspector.getIfAvailable());
+    }
+}
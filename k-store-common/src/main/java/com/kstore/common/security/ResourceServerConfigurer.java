@@ -0,0 +1,32 @@
+package com.kstore.common.security;
+
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+
+/**
+ * Applied by a service's own SecurityFilterChain to validate bearer tokens with the shared decoder or
+ * introspector, e.g. {@code resourceServerConfigurer.configure(http)} before {@code http.build()}.
+ */
+public class ResourceServerConfigurer {
+
+    private final ResourceServerProperties properties;
+    private final JwtDecoder jwtDecoder;
+    private final OpaqueTokenIntrospector opaqueTokenIntrospector;
+
+    public ResourceServerConfigurer(ResourceServerProperties properties, JwtDecoder jwtDecoder,
+                                    OpaqueTokenIntrospector opaqueTokenIntrospector) {
+        this.properties = properties;
+        this.jwtDecoder = jwtDecoder;
+        this.opaqueTokenIntrospector = opaqueTokenIntrospector;
+    }
+
+    public HttpSecurity configure(HttpSecurity http) throws Exception {
+        if (properties.getMode() == ResourceServerProperties.Mode.INTROSPECTION) {
+            return http.oauth2ResourceServer(resourceServer -> resourceServer
+                    .opaqueToken(opaqueToken -> opaqueToken.introspector(opaqueTokenIntrospector)));
+        }
+        return http.oauth2ResourceServer(resourceServer -> resourceServer
+                .jwt(jwt -> jwt.decoder(jwtDecoder)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.kstore.common.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "kstore.security.resource-server")
+public class ResourceServerProperties {
+
+    private boolean enabled = false;
+
+    private Mode mode = Mode.JWT;
+
+    // Issuer of the user-service authorization server
+    private String issuerUri = "http://localhost:8081";
+
+    // Defaults to {issuerUri}/oauth2/jwks
+    private String jwkSetUri;
+
+    // When set, tokens must name at least one of these in "aud"
+    private List<String> audiences = new ArrayList<>();
+
+    private Duration clockSkew = Duration.ofSeconds(60);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(2);
+
+    private Introspection introspection = new Introspection();
+
+    public String resolveJwkSetUri() {
+        if (jwkSetUri != null && !jwkSetUri.isBlank()) {
+            return jwkSetUri;
+        }
+        return issuerUri.replaceAll("/+$", "") + "/oauth2/jwks";
+    }
+
+    public String resolveIntrospectionUri() {
+        if (introspection.getUri() != null && !introspection.getUri().isBlank()) {
+            return introspection.getUri();
+        }
+        return issuerUri.replaceAll("/+$", "") + "/oauth2/introspect";
+    }
+
+    public enum Mode {
+        // Verify signatures locally against the issuer's JWK set
+        JWT,
+        // Ask the issuer, with results cached
+        INTROSPECTION
+    }
+
+    @Data
+    public static class Introspection {
+
+        private String uri;
+
+        private String clientId;
+
+        private String clientSecret;
+
+        // Active tokens are cached this long, never past their own exp
+        private Duration positiveTtl = Duration.ofMinutes(5);
+
+        // Inactive tokens are cached briefly so a replayed bad token does not hit the issuer every time
+        private Duration negativeTtl = Duration.ofSeconds(30);
+
+        private int maxEntries = 10000;
+    }
+}
@@ -0,0 +1,87 @@
+package com.kstore.notification.entity;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts a bulk send of {@code notifications} notifications, each with two template parameters, in one
+ * transaction on the migrated schema, as {@code sendBulkNotificationsAsync} does. {@code batchSize=1} sends one
+ * INSERT per row, as the former identity ids forced; {@code batchSize=50} is the configured JDBC batching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkNotificationInsertBenchmark {
+
+    @Param({"10000"})
+    public int notifications;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private EmbeddedPostgres postgres;
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        dataSource = new HikariDataSource();
+        dataSource.setDataSource(postgres.getPostgresDatabase());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(Notification.class)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "validate")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sessionFactory.close();
+        dataSource.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public int insertBulkSend() {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < notifications; i++) {
+                session.persist(Notification.builder()
+                        .userId((long) i)
+                        .recipient("user" + i + "@example.com")
+                        .type(Notification.NotificationType.PROMOTIONAL)
+                        .channel(Notification.NotificationChannel.EMAIL)
+                        .subject("Weekend sale")
+                        .content("Hello user " + i + ", everything is 20% off this weekend.")
+                        .templateName("weekend-sale")
+                        .parameters(Map.of("name", "user " + i, "discount", "20%"))
+                        .priority(2)
+                        .build());
+            }
+        });
+        return notifications;
+    }
+}
@@ -1,6 +1,7 @@
 package com.kstore.notification.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.common.event.UserRegisteredEvent;
 import com.kstore.notification.dto.NotificationRequest;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -13,6 +14,7 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -72,6 +74,32 @@ public class KafkaConfig {
         return factory;
     }
 
+    /**
+     * user-events carries pre-serialised JSON without type headers, so the payload type is fixed here.
+     * Records that fail to deserialise go to the error handler instead of blocking the partition.
+     */
+    @Bean
+    public ConsumerFactory<String, UserRegisteredEvent> userEventsConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        JsonDeserializer<UserRegisteredEvent> valueDeserializer = new JsonDeserializer<>(UserRegisteredEvent.class);
+        valueDeserializer.setUseTypeHeaders(false);
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(valueDeserializer));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserRegisteredEvent> userEventsListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, UserRegisteredEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(userEventsConsumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        return factory;
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         return new ObjectMapper();
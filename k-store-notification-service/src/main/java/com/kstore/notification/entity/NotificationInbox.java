@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class NotificationInbox {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_inbox_seq")
+    @SequenceGenerator(name = "notification_inbox_seq", sequenceName = "notification_inbox_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
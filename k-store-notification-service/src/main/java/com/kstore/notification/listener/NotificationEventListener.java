@@ -1,5 +1,6 @@
 package com.kstore.notification.listener;
 
+import com.kstore.common.event.UserRegisteredEvent;
 import com.kstore.notification.dto.NotificationRequest;
 import com.kstore.notification.dto.BulkNotificationRequest;
 import com.kstore.notification.entity.Notification;
@@ -15,9 +16,9 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -79,25 +80,25 @@ public class NotificationEventListener {
         }
     }
 
-    @KafkaListener(topics = "user-events", groupId = "notification-service")
+    @KafkaListener(topics = "user-events", groupId = "notification-service",
+            containerFactory = "userEventsListenerContainerFactory")
     public void handleUserEvent(
-            @Payload String message,
+            @Payload UserRegisteredEvent event,
+            @Header(name = "eventType", required = false) String eventType,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             Acknowledgment acknowledgment) {
         
         try {
-            log.info("Received user event from topic: {}", topic);
+            log.info("Received user event: {} from topic: {}", eventType, topic);
             
-            // Parse user event and create appropriate notification
-            // This is a simplified example - you'd parse the actual user event
-            if (message.contains("USER_REGISTERED")) {
-                createWelcomeNotification(message);
+            if (NotificationEvent.USER_REGISTERED.equals(eventType)) {
+                createWelcomeNotification(event);
             }
             
             acknowledgment.acknowledge();
             
         } catch (Exception e) {
-            log.error("Error processing user event", e);
+            log.error("Error processing user event: {}", event.getEventId(), e);
         }
     }
 
@@ -155,22 +156,33 @@ public class NotificationEventListener {
                 .build();
     }
 
-    private void createWelcomeNotification(String userEvent) {
-        // Extract user data from event and create welcome notification
-        // This is a simplified implementation
-        NotificationEvent event = NotificationEvent.builder()
-                .eventId(UUID.randomUUID().toString())
-                .eventType("USER_WELCOME")
-                .userId(1L) // Extract from event
-                .recipient("user@example.com") // Extract from event
-                .notificationType("WELCOME")
-                .channel("EMAIL")
+    private void createWelcomeNotification(UserRegisteredEvent userEvent) {
+        if (userEvent.getUserId() == null || userEvent.getEmail() == null) {
+            log.warn("Skipping welcome notification for incomplete user event: {}", userEvent.getEventId());
+            return;
+        }
+        
+        Map<String, String> parameters = new HashMap<>();
+        if (userEvent.getFirstName() != null) {
+            parameters.put("firstName", userEvent.getFirstName());
+        }
+        if (userEvent.getLastName() != null) {
+            parameters.put("lastName", userEvent.getLastName());
+        }
+        
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userEvent.getUserId())
+                .recipient(userEvent.getEmail())
+                .type(Notification.NotificationType.WELCOME)
+                .channel(Notification.NotificationChannel.EMAIL)
                 .templateName("WELCOME_EMAIL")
+                .parameters(parameters)
                 .priority(2)
-                .createdAt(LocalDateTime.now())
                 .build();
-
-        handleNotificationEvent(event, "notification-events", 0, 0, null);
+        
+        var notification = notificationService.createNotification(request);
+        notificationService.sendNotificationAsync(notification.getId());
+        log.info("Created welcome notification for user {} from event {}", userEvent.getUserId(), userEvent.getEventId());
     }
 
     private void createOrderConfirmationNotification(String orderEvent) {
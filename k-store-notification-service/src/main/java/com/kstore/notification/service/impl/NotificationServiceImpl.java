@@ -111,7 +111,7 @@ public class NotificationServiceImpl implements NotificationService {
             NotificationTemplate template = templateRepository.findByName(request.getTemplateName())
                     .orElseThrow(() -> new ResourceNotFoundException("Template not found: " + request.getTemplateName()));
 
-            List<CompletableFuture<NotificationResponse>> futures = new ArrayList<>();
+            List<Notification> notifications = new ArrayList<>(request.getRecipients().size());
 
             for (BulkNotificationRequest.RecipientData recipient : request.getRecipients()) {
                 Map<String, String> mergedParameters = new HashMap<>();
@@ -137,7 +137,16 @@ public class NotificationServiceImpl implements NotificationService {
                         .priority(2) // Medium priority for bulk
                         .build();
 
-                NotificationResponse notification = createNotification(notificationRequest);
+                notifications.add(buildNotificationFromRequest(notificationRequest));
+            }
+
+            // Insert the whole batch up front so Hibernate can group the inserts into JDBC batches
+            notificationRepository.saveAll(notifications);
+            notificationRepository.flush();
+            log.info("Created {} bulk notifications from template {}", notifications.size(), template.getName());
+
+            List<CompletableFuture<NotificationResponse>> futures = new ArrayList<>(notifications.size());
+            for (Notification notification : notifications) {
                 futures.add(sendNotificationAsync(notification.getId()));
             }
 
@@ -0,0 +1,42 @@
+-- Notifications and templates; schemas created before migrations already have these tables
+CREATE TABLE IF NOT EXISTS notifications (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT,
+    recipient VARCHAR(255),
+    type VARCHAR(255),
+    channel VARCHAR(255),
+    subject VARCHAR(255),
+    content TEXT,
+    template_name VARCHAR(255),
+    status VARCHAR(255),
+    priority INTEGER,
+    scheduled_at TIMESTAMP(6),
+    sent_at TIMESTAMP(6),
+    delivery_attempts INTEGER,
+    max_attempts INTEGER,
+    error_message VARCHAR(255),
+    external_message_id VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS notification_parameters (
+    notification_id BIGINT NOT NULL REFERENCES notifications (id),
+    parameter_key VARCHAR(255) NOT NULL,
+    parameter_value VARCHAR(255),
+    PRIMARY KEY (notification_id, parameter_key)
+);
+
+CREATE TABLE IF NOT EXISTS notification_templates (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) UNIQUE,
+    type VARCHAR(255),
+    channel VARCHAR(255),
+    subject_template VARCHAR(255),
+    content_template TEXT,
+    language VARCHAR(255),
+    is_active BOOLEAN,
+    description VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
@@ -1,5 +1,5 @@
 -- Create notification_inbox table for storing user notifications
-CREATE TABLE notification_inbox (
+CREATE TABLE IF NOT EXISTS notification_inbox (
     id BIGSERIAL PRIMARY KEY,
     user_id BIGINT NOT NULL,
     notification_id BIGINT,
@@ -17,10 +17,10 @@ CREATE TABLE notification_inbox (
 );
 
 -- Create indexes for better query performance
-CREATE INDEX idx_notification_inbox_user_id ON notification_inbox(user_id);
-CREATE INDEX idx_notification_inbox_user_created ON notification_inbox(user_id, created_at DESC);
-CREATE INDEX idx_notification_inbox_unread ON notification_inbox(user_id, is_read);
-CREATE INDEX idx_notification_inbox_active ON notification_inbox(user_id, is_archived);
-CREATE INDEX idx_notification_inbox_type ON notification_inbox(user_id, type);
-CREATE INDEX idx_notification_inbox_priority ON notification_inbox(user_id, priority);
-CREATE INDEX idx_notification_inbox_expires ON notification_inbox(expires_at);
+CREATE INDEX IF NOT EXISTS idx_notification_inbox_user_id ON notification_inbox(user_id);
+CREATE INDEX IF NOT EXISTS idx_notification_inbox_user_created ON notification_inbox(user_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_notification_inbox_unread ON notification_inbox(user_id, is_read);
+CREATE INDEX IF NOT EXISTS idx_notification_inbox_active ON notification_inbox(user_id, is_archived);
+CREATE INDEX IF NOT EXISTS idx_notification_inbox_type ON notification_inbox(user_id, type);
+CREATE INDEX IF NOT EXISTS idx_notification_inbox_priority ON notification_inbox(user_id, priority);
+CREATE INDEX IF NOT EXISTS idx_notification_inbox_expires ON notification_inbox(expires_at);
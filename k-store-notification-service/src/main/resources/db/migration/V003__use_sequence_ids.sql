@@ -0,0 +1,11 @@
+-- Sequence-backed ids for notifications and inbox entries (pooled-lo, blocks of 50)
+CREATE SEQUENCE IF NOT EXISTS notifications_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS notification_inbox_seq START WITH 1 INCREMENT BY 50;
+
+-- Continue after ids handed out by the former identity columns
+SELECT setval('notifications_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM notifications), false);
+SELECT setval('notification_inbox_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM notification_inbox), false);
+
+-- Ids now come from the sequences; drop the identity and BIGSERIAL defaults
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE notification_inbox ALTER COLUMN id DROP DEFAULT;
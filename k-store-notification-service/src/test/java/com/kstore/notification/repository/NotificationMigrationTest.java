@@ -0,0 +1,121 @@
+package com.kstore.notification.repository;
+
+import com.kstore.notification.entity.Notification;
+import com.kstore.notification.entity.NotificationInbox;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts from a schema as {@code ddl-auto: update} left it before Flyway (identity ids, existing rows, no Flyway
+ * history), lets the application's Flyway settings migrate it and Hibernate validate it against the entities.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = NotificationMigrationTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationMigrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = startWithLegacySchema();
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationInboxRepository inboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Test
+    void newIdsContinueAfterTheLegacyRows() {
+        Notification notification = notificationRepository.save(Notification.builder()
+                .userId(7L)
+                .recipient("user@example.com")
+                .type(Notification.NotificationType.WELCOME)
+                .channel(Notification.NotificationChannel.EMAIL)
+                .content("Welcome")
+                .parameters(Map.of("name", "Ada"))
+                .build());
+        NotificationInbox entry = inboxRepository.save(NotificationInbox.builder()
+                .userId(7L)
+                .notificationId(notification.getId())
+                .title("Welcome")
+                .build());
+
+        assertThat(notification.getId()).isGreaterThan(3);
+        assertThat(entry.getId()).isGreaterThan(3);
+        assertThat(notificationRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void sequenceColumnsNoLongerHaveDefaults() {
+        assertThat(jdbc.queryForList("SELECT table_name FROM information_schema.columns "
+                        + "WHERE table_name IN ('notifications', 'notification_inbox') AND column_name = 'id' "
+                        + "AND (is_identity = 'YES' OR column_default IS NOT NULL)",
+                String.class)).isEmpty();
+    }
+
+    private static EmbeddedPostgres startWithLegacySchema() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            JdbcTemplate legacy = new JdbcTemplate(postgres.getPostgresDatabase());
+            legacy.execute("""
+                    CREATE TABLE notifications (
+                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        user_id BIGINT, recipient VARCHAR(255), type VARCHAR(255), channel VARCHAR(255),
+                        subject VARCHAR(255), content TEXT, template_name VARCHAR(255), status VARCHAR(255),
+                        priority INTEGER, scheduled_at TIMESTAMP(6), sent_at TIMESTAMP(6),
+                        delivery_attempts INTEGER, max_attempts INTEGER, error_message VARCHAR(255),
+                        external_message_id VARCHAR(255), created_at TIMESTAMP(6), updated_at TIMESTAMP(6))""");
+            legacy.execute("""
+                    CREATE TABLE notification_inbox (
+                        id BIGSERIAL PRIMARY KEY, user_id BIGINT NOT NULL, notification_id BIGINT,
+                        title VARCHAR(255) NOT NULL, message TEXT, type VARCHAR(50), priority VARCHAR(20),
+                        is_read BOOLEAN, is_archived BOOLEAN, read_at TIMESTAMP, archived_at TIMESTAMP,
+                        expires_at TIMESTAMP, created_at TIMESTAMP, updated_at TIMESTAMP)""");
+            for (int i = 0; i < 3; i++) {
+                legacy.update("INSERT INTO notifications (user_id, content, status) VALUES (7, 'Hello', 'SENT')");
+                legacy.update("INSERT INTO notification_inbox (user_id, title) VALUES (7, 'Hello')");
+            }
+            return postgres;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    @Configuration
+    @EntityScan(basePackageClasses = Notification.class)
+    @EnableJpaRepositories(basePackageClasses = NotificationMigrationTest.class)
+    static class Config {
+    }
+}
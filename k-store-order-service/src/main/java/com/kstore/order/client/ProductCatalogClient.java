@@ -0,0 +1,113 @@
+package com.kstore.order.client;
+
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.common.exception.BusinessException;
+import com.kstore.order.dto.ProductBatchLookup;
+import com.kstore.order.dto.ProductSnapshot;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batched product lookups for order validation, fronted by a short-lived price cache
+ * and a circuit breaker so a slow catalog cannot stall order creation.
+ */
+@Slf4j
+@Component
+public class ProductCatalogClient {
+
+    private final ProductServiceClient productServiceClient;
+    private final CircuitBreaker circuitBreaker;
+    private final long cacheTtlNanos;
+    private final int cacheMaxEntries;
+    private final Map<Long, CachedProduct> cache = new ConcurrentHashMap<>();
+
+    public ProductCatalogClient(ProductServiceClient productServiceClient,
+                                CircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                                @Value("${order.product-client.cache-ttl:5s}") Duration cacheTtl,
+                                @Value("${order.product-client.cache-max-entries:10000}") int cacheMaxEntries) {
+        this.productServiceClient = productServiceClient;
+        this.circuitBreaker = circuitBreakerFactory.create("product-service");
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    /**
+     * Returns the products that exist in the catalog; ids missing from the result are unknown to it.
+     */
+    public Map<Long, ProductSnapshot> getProducts(Collection<Long> productIds) {
+        long now = System.nanoTime();
+        Map<Long, ProductSnapshot> result = new HashMap<>();
+        Set<Long> toFetch = new LinkedHashSet<>();
+
+        for (Long id : productIds) {
+            CachedProduct cached = cache.get(id);
+            if (cached != null && cached.expiresAt() - now > 0) {
+                result.put(id, cached.product());
+            } else {
+                toFetch.add(id);
+            }
+        }
+        if (toFetch.isEmpty()) {
+            return result;
+        }
+
+        ProductBatchLookup.Response response = circuitBreaker.run(
+                () -> fetch(toFetch),
+                throwable -> {
+                    // 4xx is ignored by the breaker (see resilience4j config) and reaches the caller as-is
+                    if (throwable instanceof FeignException.FeignClientException rejected) {
+                        HttpStatus status = HttpStatus.resolve(rejected.status());
+                        throw new BusinessException("Product lookup rejected by product-service",
+                                "PRODUCT_LOOKUP_REJECTED", status != null ? status : HttpStatus.BAD_REQUEST);
+                    }
+                    log.warn("Product catalog lookup failed for {} products: {}", toFetch.size(), throwable.toString());
+                    throw new BusinessException("Product catalog is temporarily unavailable, please retry",
+                            "PRODUCT_CATALOG_UNAVAILABLE", HttpStatus.SERVICE_UNAVAILABLE);
+                });
+
+        long expiresAt = System.nanoTime() + cacheTtlNanos;
+        evictIfFull();
+        response.getById().forEach((id, product) -> {
+            result.put(id, product);
+            cache.put(id, new CachedProduct(product, expiresAt));
+        });
+        return result;
+    }
+
+    private ProductBatchLookup.Response fetch(Set<Long> productIds) {
+        ApiResponse<ProductBatchLookup.Response> response =
+                productServiceClient.getProductsBatch(ProductBatchLookup.Request.ofIds(productIds));
+        if (response == null || !response.isSuccess() || response.getData() == null) {
+            throw new IllegalStateException("Unexpected product batch response: "
+                    + (response != null ? response.getMessage() : null));
+        }
+        return response.getData();
+    }
+
+    private void evictIfFull() {
+        if (cache.size() < cacheMaxEntries) {
+            return;
+        }
+        long now = System.nanoTime();
+        cache.values().removeIf(cached -> cached.expiresAt() - now <= 0);
+        if (cache.size() >= cacheMaxEntries) {
+            cache.clear();
+        }
+    }
+
+    private record CachedProduct(ProductSnapshot product, long expiresAt) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.kstore.order.client;
+
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.order.dto.ProductBatchLookup;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@FeignClient(name = "${order.product-client.service-id:K-STORE-PRODUCT-SERVICE}",
+        contextId = "productServiceClient", path = "/api/products")
+public interface ProductServiceClient {
+
+    @PostMapping("/batch")
+    ApiResponse<ProductBatchLookup.Response> getProductsBatch(@RequestBody ProductBatchLookup.Request request);
+}
@@ -0,0 +1,59 @@
+package com.kstore.order.client;
+
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.common.exception.BusinessException;
+import com.kstore.order.dto.AddressBatchLookup;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Resolves address references against user-service in a single batched call. Addresses are not
+ * cached here; user-service keeps the per-user defaults warm.
+ */
+@Slf4j
+@Component
+public class UserAddressClient {
+
+    private final UserServiceClient userServiceClient;
+    private final CircuitBreaker circuitBreaker;
+
+    public UserAddressClient(UserServiceClient userServiceClient, CircuitBreakerFactory<?, ?> circuitBreakerFactory) {
+        this.userServiceClient = userServiceClient;
+        this.circuitBreaker = circuitBreakerFactory.create("user-service");
+    }
+
+    /**
+     * Looks up the given addresses and, when {@code defaultsForUserId} is set, that user's default addresses.
+     */
+    public AddressBatchLookup.Response lookup(Collection<Long> addressIds, Long defaultsForUserId) {
+        List<Long> userIds = new ArrayList<>();
+        if (defaultsForUserId != null) {
+            userIds.add(defaultsForUserId);
+        }
+        AddressBatchLookup.Request request = new AddressBatchLookup.Request(new ArrayList<>(addressIds), userIds);
+
+        return circuitBreaker.run(
+                () -> fetch(request),
+                throwable -> {
+                    log.warn("Address lookup failed for {} addresses: {}", addressIds.size(), throwable.toString());
+                    throw new BusinessException("Address service is temporarily unavailable, please retry",
+                            "ADDRESS_SERVICE_UNAVAILABLE", HttpStatus.SERVICE_UNAVAILABLE);
+                });
+    }
+
+    private AddressBatchLookup.Response fetch(AddressBatchLookup.Request request) {
+        ApiResponse<AddressBatchLookup.Response> response = userServiceClient.getAddressesBatch(request);
+        if (response == null || !response.isSuccess() || response.getData() == null) {
+            throw new IllegalStateException("Unexpected address batch response: "
+                    + (response != null ? response.getMessage() : null));
+        }
+        return response.getData();
+    }
+}
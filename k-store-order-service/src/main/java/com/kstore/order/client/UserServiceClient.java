@@ -0,0 +1,16 @@
+package com.kstore.order.client;
+
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.order.dto.AddressBatchLookup;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@FeignClient(name = "${order.user-client.service-id:K-STORE-USER-SERVICE}",
+        contextId = "userServiceClient", path = "/api/users",
+        configuration = UserServiceClientConfiguration.class)
+public interface UserServiceClient {
+
+    @PostMapping("/addresses/batch")
+    ApiResponse<AddressBatchLookup.Response> getAddressesBatch(@RequestBody AddressBatchLookup.Request request);
+}
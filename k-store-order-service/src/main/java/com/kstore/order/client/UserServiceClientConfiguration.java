@@ -0,0 +1,19 @@
+package com.kstore.order.client;
+
+import com.kstore.order.config.UserServiceAuthConfig;
+import feign.RequestInterceptor;
+import org.springframework.cloud.openfeign.security.OAuth2AccessTokenInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+
+/**
+ * Feign configuration for {@link UserServiceClient} only; deliberately not a {@code @Configuration}, so
+ * the bearer token is not sent to other services.
+ */
+public class UserServiceClientConfiguration {
+
+    @Bean
+    public RequestInterceptor userServiceTokenInterceptor(OAuth2AuthorizedClientManager userServiceAuthorizedClientManager) {
+        return new OAuth2AccessTokenInterceptor(UserServiceAuthConfig.REGISTRATION_ID, userServiceAuthorizedClientManager);
+    }
+}
@@ -0,0 +1,70 @@
+package com.kstore.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.InMemoryOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.endpoint.DefaultClientCredentialsTokenResponseClient;
+import org.springframework.security.oauth2.client.http.OAuth2ErrorResponseErrorHandler;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.http.converter.OAuth2AccessTokenResponseHttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Service credentials for calls to user-service. Tokens come from its authorization server with the
+ * client_credentials grant and are reused until shortly before they expire, so a token request is not
+ * made per call. Registered here rather than under spring.security.oauth2.client so Boot does not add
+ * an OAuth2 login to this service.
+ */
+@Configuration
+public class UserServiceAuthConfig {
+
+    public static final String REGISTRATION_ID = "user-service";
+
+    @Bean
+    public OAuth2AuthorizedClientManager userServiceAuthorizedClientManager(
+            @Value("${order.user-client.oauth2.token-uri}") String tokenUri,
+            @Value("${order.user-client.oauth2.client-id}") String clientId,
+            @Value("${order.user-client.oauth2.client-secret}") String clientSecret,
+            @Value("${order.user-client.oauth2.scope}") String scope,
+            @Value("${order.user-client.oauth2.timeout:2s}") Duration timeout) {
+        ClientRegistration registration = ClientRegistration.withRegistrationId(REGISTRATION_ID)
+                .tokenUri(tokenUri)
+                .clientId(clientId)
+                .clientSecret(clientSecret)
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .scope(scope)
+                .build();
+        InMemoryClientRegistrationRepository registrations = new InMemoryClientRegistrationRepository(registration);
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        RestTemplate tokenEndpoint = new RestTemplate(requestFactory);
+        tokenEndpoint.setMessageConverters(List.of(new FormHttpMessageConverter(),
+                new OAuth2AccessTokenResponseHttpMessageConverter()));
+        tokenEndpoint.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        DefaultClientCredentialsTokenResponseClient tokenClient = new DefaultClientCredentialsTokenResponseClient();
+        tokenClient.setRestOperations(tokenEndpoint);
+
+        // Not tied to a request, so it also works from async and scheduled threads
+        AuthorizedClientServiceOAuth2AuthorizedClientManager manager = new AuthorizedClientServiceOAuth2AuthorizedClientManager(
+                registrations, new InMemoryOAuth2AuthorizedClientService(registrations));
+        manager.setAuthorizedClientProvider(OAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials(clientCredentials -> clientCredentials.accessTokenResponseClient(tokenClient))
+                .build());
+        return manager;
+    }
+}
@@ -1,18 +1,28 @@
 package com.kstore.order.controller;
 
 import com.kstore.common.dto.ApiResponse;
+import com.kstore.common.exception.BusinessException;
+import com.kstore.order.dto.OrderBulkStatusRequest;
+import com.kstore.order.dto.OrderBulkStatusResponse;
+import com.kstore.order.dto.OrderExportFormat;
 import com.kstore.order.dto.OrderRequest;
 import com.kstore.order.dto.OrderResponse;
 import com.kstore.order.entity.Order;
+import com.kstore.order.service.OrderExportService;
 import com.kstore.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -20,14 +30,35 @@ import jakarta.validation.Valid;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
 
     @PostMapping
-    public ResponseEntity<ApiResponse<OrderResponse>> createOrder(@Valid @RequestBody OrderRequest request) {
-        OrderResponse order = orderService.createOrder(request);
+    public ResponseEntity<ApiResponse<OrderResponse>> createOrder(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderResponse order = orderService.createOrder(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(order, "Order created successfully"));
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        // Validate before the response is committed; errors inside the body can no longer change the status
+        if (from.isAfter(to)) {
+            throw new BusinessException("'from' must not be after 'to'", "INVALID_DATE_RANGE", HttpStatus.BAD_REQUEST);
+        }
+        OrderExportFormat exportFormat = OrderExportFormat.fromName(format);
+        StreamingResponseBody body = outputStream -> orderExportService.exportOrders(from, to, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders-" + from + "_" + to + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<OrderResponse>> getOrderById(@PathVariable Long id) {
         OrderResponse order = orderService.getOrderById(id);
@@ -70,6 +101,14 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success(order, "Payment status updated successfully"));
     }
 
+    @PostMapping("/status/bulk")
+    public ResponseEntity<ApiResponse<OrderBulkStatusResponse>> bulkUpdateStatus(
+            @Valid @RequestBody OrderBulkStatusRequest request) {
+        OrderBulkStatusResponse response = orderService.bulkUpdateStatus(request);
+        return ResponseEntity.ok(ApiResponse.success(response,
+                response.getUpdated() + " of " + response.getRequested() + " orders updated"));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> cancelOrder(@PathVariable Long id) {
         orderService.cancelOrder(id);
@@ -0,0 +1,41 @@
+package com.kstore.order.controller;
+
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.order.dto.OrderReport;
+import com.kstore.order.service.OrderRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/orders/reports")
+@RequiredArgsConstructor
+public class OrderReportController {
+
+    private final OrderRollupService orderRollupService;
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<ApiResponse<OrderReport.UserReport>> getUserReport(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(ApiResponse.success(orderRollupService.getUserReport(userId, from, to)));
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse<OrderReport.StatusReport>> getStatusReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(ApiResponse.success(orderRollupService.getStatusReport(from, to)));
+    }
+
+    @GetMapping("/revenue")
+    public ResponseEntity<ApiResponse<OrderReport.RevenueReport>> getRevenueReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(ApiResponse.success(orderRollupService.getRevenueReport(from, to)));
+    }
+}
@@ -0,0 +1,24 @@
+package com.kstore.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AddressSnapshot {
+
+    private Long id;
+    private Long userId;
+    private String type;
+    private String streetAddress;
+    private String city;
+    private String state;
+    private String postalCode;
+    private String country;
+    private Boolean isDefault;
+    private String fullAddress;
+}
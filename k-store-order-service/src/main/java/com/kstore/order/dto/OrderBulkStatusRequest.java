@@ -0,0 +1,30 @@
+package com.kstore.order.dto;
+
+import com.kstore.order.entity.Order;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBulkStatusRequest {
+
+    @Builder.Default
+    @Size(max = 10000, message = "At most 10000 order ids per request")
+    private List<Long> ids = new ArrayList<>();
+
+    @Builder.Default
+    @Size(max = 10000, message = "At most 10000 order numbers per request")
+    private List<String> orderNumbers = new ArrayList<>();
+
+    @NotNull(message = "Target status is required")
+    private Order.OrderStatus status;
+}
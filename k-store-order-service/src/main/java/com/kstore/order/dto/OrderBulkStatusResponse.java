@@ -0,0 +1,43 @@
+package com.kstore.order.dto;
+
+import com.kstore.order.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBulkStatusResponse {
+
+    private Order.OrderStatus status;
+    private int requested;
+    private int updated;
+
+    @Builder.Default
+    private List<Outcome> results = new ArrayList<>();
+
+    public enum Result {
+        UPDATED,
+        ALREADY_IN_STATUS,
+        INVALID_TRANSITION,
+        NOT_FOUND,
+        CONFLICT
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Outcome {
+        private Long id;
+        private String orderNumber;
+        private Result result;
+        private Order.OrderStatus currentStatus;
+    }
+}
@@ -0,0 +1,25 @@
+package com.kstore.order.dto;
+
+import com.kstore.common.exception.BusinessException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum OrderExportFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    public static OrderExportFormat fromName(String name) {
+        for (OrderExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name) || format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new BusinessException("Unsupported file format: " + name, "UNSUPPORTED_FILE_FORMAT");
+    }
+}
@@ -0,0 +1,105 @@
+package com.kstore.order.dto;
+
+import com.kstore.order.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Report shapes served from the daily rollup tables
+public final class OrderReport {
+
+    private OrderReport() {
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class UserReport {
+        private Long userId;
+        private LocalDate from;
+        private LocalDate to;
+        private long orderCount;
+        private BigDecimal orderedAmount;
+        private long deliveredCount;
+        private BigDecimal deliveredAmount;
+        private long cancelledCount;
+        private List<UserDay> days;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class UserDay {
+        private LocalDate date;
+        private long orderCount;
+        private BigDecimal orderedAmount;
+        private long deliveredCount;
+        private BigDecimal deliveredAmount;
+        private long cancelledCount;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StatusReport {
+        private LocalDate from;
+        private LocalDate to;
+        private Map<Order.OrderStatus, StatusTotal> totals;
+        private List<StatusDay> days;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StatusTotal {
+        private long orderCount;
+        private BigDecimal totalAmount;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StatusDay {
+        private LocalDate date;
+        private Order.OrderStatus status;
+        private long orderCount;
+        private BigDecimal totalAmount;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RevenueReport {
+        private LocalDate from;
+        private LocalDate to;
+        private long orderCount;
+        private BigDecimal grossAmount;
+        private BigDecimal deliveredAmount;
+        private BigDecimal refundedAmount;
+        private List<RevenueDay> days;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RevenueDay {
+        private LocalDate date;
+        private long orderCount;
+        private BigDecimal grossAmount;
+        private BigDecimal deliveredAmount;
+        private BigDecimal refundedAmount;
+    }
+}
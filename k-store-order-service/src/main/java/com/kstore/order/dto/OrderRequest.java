@@ -22,11 +22,15 @@ public class OrderRequest {
     @NotEmpty(message = "Order items cannot be empty")
     private List<OrderItemRequest> orderItems;
 
-    @NotBlank(message = "Shipping address is required")
+    // Saved addresses in user-service; when set they take precedence over the free-text fields below
+    private Long shippingAddressId;
+
+    private Long billingAddressId;
+
+    // Optional; when neither an id nor text is given the user's default address is used
     @Size(max = 500, message = "Shipping address cannot exceed 500 characters")
     private String shippingAddress;
 
-    @NotBlank(message = "Billing address is required")
     @Size(max = 500, message = "Billing address cannot exceed 500 characters")
     private String billingAddress;
 
@@ -49,14 +53,13 @@ public class OrderRequest {
         @Min(value = 1, message = "Quantity must be at least 1")
         private Integer quantity;
 
-        @NotNull(message = "Unit price is required")
+        // Optional; when present it must match the catalog price at order time
         @DecimalMin(value = "0.01", message = "Unit price must be greater than 0")
         private BigDecimal unitPrice;
 
-        @NotBlank(message = "Product name is required")
+        // Name, SKU and image are snapshotted from the catalog; client values are ignored
         private String productName;
 
-        @NotBlank(message = "Product SKU is required")
         private String productSku;
 
         private String productImageUrl;
@@ -21,7 +21,9 @@ public class OrderResponse {
     private Long userId;
     private Order.OrderStatus status;
     private BigDecimal totalAmount;
+    private Long shippingAddressId;
     private String shippingAddress;
+    private Long billingAddressId;
     private String billingAddress;
     private String paymentMethod;
     private Order.PaymentStatus paymentStatus;
@@ -0,0 +1,43 @@
+package com.kstore.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Request and response shapes of product-service POST /api/products/batch
+public final class ProductBatchLookup {
+
+    private ProductBatchLookup() {
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Request {
+        private List<Long> ids;
+
+        public static Request ofIds(Collection<Long> ids) {
+            return new Request(new ArrayList<>(ids));
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        @Builder.Default
+        private Map<Long, ProductSnapshot> byId = new HashMap<>();
+
+        @Builder.Default
+        private List<Long> missingIds = new ArrayList<>();
+    }
+}
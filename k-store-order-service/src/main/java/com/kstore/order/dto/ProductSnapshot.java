@@ -0,0 +1,23 @@
+package com.kstore.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSnapshot {
+
+    private Long id;
+    private String name;
+    private String sku;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private String imageUrl;
+    private Boolean active;
+}
@@ -20,7 +20,8 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_number", unique = true)
@@ -36,9 +37,15 @@ public class Order {
     @Column(name = "total_amount", precision = 19, scale = 2)
     private BigDecimal totalAmount;
 
+    @Column(name = "shipping_address_id")
+    private Long shippingAddressId;
+
     @Column(name = "shipping_address")
     private String shippingAddress;
 
+    @Column(name = "billing_address_id")
+    private Long billingAddressId;
+
     @Column(name = "billing_address")
     private String billingAddress;
 
@@ -69,6 +76,10 @@ public class Order {
     @Column(name = "notes")
     private String notes;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public enum OrderStatus {
         PENDING,
         CONFIRMED,
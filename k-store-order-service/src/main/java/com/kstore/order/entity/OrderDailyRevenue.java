@@ -0,0 +1,39 @@
+package com.kstore.order.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_daily_revenue")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderDailyRevenue {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "summary_date", nullable = false, unique = true)
+    private LocalDate summaryDate;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "gross_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal grossAmount;
+
+    @Column(name = "delivered_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal deliveredAmount;
+
+    @Column(name = "refunded_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal refundedAmount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.kstore.order.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_daily_user_summary",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_daily_user_summary", columnNames = {"user_id", "summary_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderDailyUserSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "ordered_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal orderedAmount;
+
+    @Column(name = "delivered_count", nullable = false)
+    private long deliveredCount;
+
+    // Net of refunds booked on the day they happen
+    @Column(name = "delivered_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal deliveredAmount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
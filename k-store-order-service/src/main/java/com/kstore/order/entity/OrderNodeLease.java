@@ -0,0 +1,26 @@
+package com.kstore.order.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_node_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderNodeLease {
+
+    // Node id embedded in order numbers (0-1023); a row is held while its heartbeat is fresh
+    @Id
+    @Column(name = "node_id")
+    private Integer nodeId;
+
+    @Column(name = "instance_id", length = 64, nullable = false)
+    private String instanceId;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,48 @@
+package com.kstore.order.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One order event's contribution to the shared daily status and revenue rollups. Rows are only
+ * inserted by order transactions and folded into the rollup tables in batches.
+ */
+@Entity
+@Table(name = "order_rollup_deltas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderRollupDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "status_count", nullable = false)
+    private long statusCount;
+
+    @Column(name = "status_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal statusAmount;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "gross_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal grossAmount;
+
+    @Column(name = "delivered_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal deliveredAmount;
+
+    @Column(name = "refunded_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal refundedAmount;
+}
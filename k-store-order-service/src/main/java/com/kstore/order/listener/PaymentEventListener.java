@@ -0,0 +1,52 @@
+package com.kstore.order.listener;
+
+import com.kstore.common.event.PaymentStatusChangedEvent;
+import com.kstore.common.exception.BusinessException;
+import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.order.entity.Order;
+import com.kstore.order.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentEventListener {
+
+    private final OrderService orderService;
+
+    @KafkaListener(topics = "${order.events.payment-topic:payment-events}", groupId = "order-service")
+    public void handlePaymentEvent(@Payload PaymentStatusChangedEvent event) {
+        Order.PaymentStatus paymentStatus = mapStatus(event.getNewStatus());
+        if (paymentStatus == null || event.getOrderId() == null) {
+            log.debug("Ignoring payment event {} with status {}", event.getEventId(), event.getNewStatus());
+            return;
+        }
+
+        try {
+            // Transitions are conditional, so redelivered events are no-ops
+            orderService.updatePaymentStatus(event.getOrderId(), paymentStatus);
+            log.info("Order {} payment status set to {} from payment {}",
+                    event.getOrderId(), paymentStatus, event.getPaymentReference());
+        } catch (BusinessException | ResourceNotFoundException e) {
+            // Retrying cannot fix an unknown order or a disallowed transition
+            log.warn("Payment event {} for order {} not applied: {}",
+                    event.getEventId(), event.getOrderId(), e.getMessage());
+        }
+    }
+
+    private Order.PaymentStatus mapStatus(String paymentServiceStatus) {
+        if (paymentServiceStatus == null) {
+            return null;
+        }
+        return switch (paymentServiceStatus) {
+            case "SUCCEEDED" -> Order.PaymentStatus.PAID;
+            case "FAILED" -> Order.PaymentStatus.FAILED;
+            case "REFUNDED", "CHARGED_BACK" -> Order.PaymentStatus.REFUNDED;
+            default -> null;
+        };
+    }
+}
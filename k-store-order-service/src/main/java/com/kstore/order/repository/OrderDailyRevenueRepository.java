@@ -0,0 +1,14 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.OrderDailyRevenue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OrderDailyRevenueRepository extends JpaRepository<OrderDailyRevenue, Long> {
+
+    List<OrderDailyRevenue> findBySummaryDateBetweenOrderBySummaryDate(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,14 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.OrderDailyStatusSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OrderDailyStatusSummaryRepository extends JpaRepository<OrderDailyStatusSummary, Long> {
+
+    List<OrderDailyStatusSummary> findBySummaryDateBetweenOrderBySummaryDateAscStatusAsc(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,39 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.OrderDailyUserSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OrderDailyUserSummaryRepository extends JpaRepository<OrderDailyUserSummary, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO order_daily_user_summary " +
+            "(user_id, summary_date, order_count, ordered_amount, delivered_count, delivered_amount, cancelled_count, updated_at) " +
+            "VALUES (:userId, :summaryDate, :orderCount, :orderedAmount, :deliveredCount, :deliveredAmount, :cancelledCount, now()) " +
+            "ON CONFLICT (user_id, summary_date) DO UPDATE SET " +
+            "order_count = order_daily_user_summary.order_count + EXCLUDED.order_count, " +
+            "ordered_amount = order_daily_user_summary.ordered_amount + EXCLUDED.ordered_amount, " +
+            "delivered_count = order_daily_user_summary.delivered_count + EXCLUDED.delivered_count, " +
+            "delivered_amount = order_daily_user_summary.delivered_amount + EXCLUDED.delivered_amount, " +
+            "cancelled_count = order_daily_user_summary.cancelled_count + EXCLUDED.cancelled_count, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    void increment(@Param("userId") Long userId,
+                   @Param("summaryDate") LocalDate summaryDate,
+                   @Param("orderCount") long orderCount,
+                   @Param("orderedAmount") BigDecimal orderedAmount,
+                   @Param("deliveredCount") long deliveredCount,
+                   @Param("deliveredAmount") BigDecimal deliveredAmount,
+                   @Param("cancelledCount") long cancelledCount);
+
+    List<OrderDailyUserSummary> findByUserIdAndSummaryDateBetweenOrderBySummaryDate(
+            Long userId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,49 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, String> {
+
+    // The primary key decides which request owns the key; an expired record (or abandoned claim) may be taken over
+    @Modifying
+    @Query(value = "INSERT INTO order_idempotency_keys " +
+            "(idempotency_key, request_hash, status, created_at, expires_at) " +
+            "VALUES (:key, :requestHash, 'PENDING', :now, :expiresAt) " +
+            "ON CONFLICT (idempotency_key) DO UPDATE SET " +
+            "request_hash = EXCLUDED.request_hash, status = 'PENDING', order_id = NULL, response_body = NULL, " +
+            "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE order_idempotency_keys.expires_at < :now",
+            nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    // A claim is identified by its expiry; once another request has taken the key over, nothing matches
+    @Modifying
+    @Query("UPDATE OrderIdempotencyKey k SET k.status = 'COMPLETED', " +
+           "k.orderId = :orderId, k.responseBody = :responseBody, k.expiresAt = :expiresAt " +
+           "WHERE k.idempotencyKey = :key AND k.status = 'PENDING' AND k.expiresAt = :claimedExpiry")
+    int complete(@Param("key") String key,
+                 @Param("claimedExpiry") LocalDateTime claimedExpiry,
+                 @Param("orderId") Long orderId,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyKey k WHERE k.idempotencyKey = :key " +
+           "AND k.status = 'PENDING' AND k.expiresAt = :claimedExpiry")
+    int releasePending(@Param("key") String key, @Param("claimedExpiry") LocalDateTime claimedExpiry);
+
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
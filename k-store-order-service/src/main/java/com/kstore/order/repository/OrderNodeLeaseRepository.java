@@ -0,0 +1,47 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.OrderNodeLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Leases are timed with the database clock so replicas with skewed clocks agree on expiry
+@Repository
+public interface OrderNodeLeaseRepository extends JpaRepository<OrderNodeLease, Integer> {
+
+    @Query(value = "SELECT node_id FROM order_node_leases " +
+            "WHERE heartbeat_at >= LOCALTIMESTAMP - :ttlSeconds * INTERVAL '1 second'",
+            nativeQuery = true)
+    List<Integer> findLiveNodeIds(@Param("ttlSeconds") long ttlSeconds);
+
+    // The primary key decides who holds a node id; an expired lease may be taken over
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO order_node_leases (node_id, instance_id, heartbeat_at) " +
+            "VALUES (:nodeId, :instanceId, LOCALTIMESTAMP) " +
+            "ON CONFLICT (node_id) DO UPDATE SET " +
+            "instance_id = EXCLUDED.instance_id, heartbeat_at = EXCLUDED.heartbeat_at " +
+            "WHERE order_node_leases.heartbeat_at < LOCALTIMESTAMP - :ttlSeconds * INTERVAL '1 second'",
+            nativeQuery = true)
+    int claim(@Param("nodeId") int nodeId,
+              @Param("instanceId") String instanceId,
+              @Param("ttlSeconds") long ttlSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE order_node_leases SET heartbeat_at = LOCALTIMESTAMP " +
+            "WHERE node_id = :nodeId AND instance_id = :instanceId",
+            nativeQuery = true)
+    int renew(@Param("nodeId") int nodeId, @Param("instanceId") String instanceId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM order_node_leases WHERE node_id = :nodeId AND instance_id = :instanceId",
+            nativeQuery = true)
+    int release(@Param("nodeId") int nodeId, @Param("instanceId") String instanceId);
+}
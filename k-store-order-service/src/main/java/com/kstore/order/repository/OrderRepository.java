@@ -1,17 +1,22 @@
 package com.kstore.order.repository;
 
 import com.kstore.order.entity.Order;
+import com.kstore.order.entity.OrderItem;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -27,15 +32,68 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                                       @Param("status") Order.OrderStatus status, 
                                       Pageable pageable);
 
+    // Aggregates are served from the daily rollup tables (see OrderRollupService)
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
-    List<Order> findOrdersByDateRange(@Param("startDate") LocalDateTime startDate, 
-                                      @Param("endDate") LocalDateTime endDate);
-
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.userId = :userId")
-    Long countOrdersByUserId(@Param("userId") Long userId);
+    Page<Order> findOrdersByDateRange(@Param("startDate") LocalDateTime startDate,
+                                      @Param("endDate") LocalDateTime endDate,
+                                      Pageable pageable);
 
-    @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.userId = :userId AND o.status = 'DELIVERED'")
-    BigDecimal getTotalSpentByUser(@Param("userId") Long userId);
+    // One [Order, OrderItem] row per item; an order without items comes back once with a null item
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o, i FROM Order o LEFT JOIN OrderItem i ON i.order = o " +
+           "WHERE o.createdAt >= :startDate AND o.createdAt < :endDate ORDER BY o.id, i.id")
+    Stream<Object[]> streamOrderRowsCreatedBetween(@Param("startDate") LocalDateTime startDate,
+                                                   @Param("endDate") LocalDateTime endDate);
 
     boolean existsByOrderNumber(String orderNumber);
+
+    // Conditional transitions: the status guard replaces a read-validate-save round trip
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, " +
+           "o.shippedAt = COALESCE(:shippedAt, o.shippedAt), " +
+           "o.deliveredAt = COALESCE(:deliveredAt, o.deliveredAt), " +
+           "o.updatedAt = :now, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.status IN :sources")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("target") Order.OrderStatus target,
+                         @Param("sources") Collection<Order.OrderStatus> sources,
+                         @Param("shippedAt") LocalDateTime shippedAt,
+                         @Param("deliveredAt") LocalDateTime deliveredAt,
+                         @Param("now") LocalDateTime now);
+
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.userId AS userId, " +
+           "o.status AS status, o.totalAmount AS totalAmount FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusView> findStatusViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.userId AS userId, " +
+           "o.status AS status, o.totalAmount AS totalAmount FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<OrderStatusView> findStatusViewsByOrderNumberIn(@Param("orderNumbers") Collection<String> orderNumbers);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, " +
+           "o.shippedAt = COALESCE(:shippedAt, o.shippedAt), " +
+           "o.deliveredAt = COALESCE(:deliveredAt, o.deliveredAt), " +
+           "o.updatedAt = :now, o.version = o.version + 1 " +
+           "WHERE o.id IN :ids AND o.status IN :sources")
+    int transitionStatusBulk(@Param("ids") Collection<Long> ids,
+                             @Param("target") Order.OrderStatus target,
+                             @Param("sources") Collection<Order.OrderStatus> sources,
+                             @Param("shippedAt") LocalDateTime shippedAt,
+                             @Param("deliveredAt") LocalDateTime deliveredAt,
+                             @Param("now") LocalDateTime now);
+
+    // updatedAt doubles as a marker to tell our bulk update apart from concurrent writers
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status = :status AND o.updatedAt = :updatedAt")
+    List<Long> findIdsByStatusAndUpdatedAt(@Param("ids") Collection<Long> ids,
+                                           @Param("status") Order.OrderStatus status,
+                                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.paymentStatus = :target, " +
+           "o.updatedAt = :now, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.paymentStatus IN :sources")
+    int transitionPaymentStatus(@Param("id") Long id,
+                                @Param("target") Order.PaymentStatus target,
+                                @Param("sources") Collection<Order.PaymentStatus> sources,
+                                @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,44 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.OrderRollupDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OrderRollupDeltaRepository extends JpaRepository<OrderRollupDelta, Long> {
+
+    // Moves up to :limit deltas into the rollup tables in one statement: one upsert per day/status and per day.
+    // SKIP LOCKED lets replicas fold disjoint batches; the data-modifying CTEs run even though only the count is read.
+    @Transactional
+    @Query(value = "WITH folded AS (" +
+            "DELETE FROM order_rollup_deltas WHERE id IN (" +
+            "SELECT id FROM order_rollup_deltas ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING summary_date, status, status_count, status_amount, " +
+            "order_count, gross_amount, delivered_amount, refunded_amount), " +
+            "status_rows AS (" +
+            "INSERT INTO order_daily_status_summary (summary_date, status, order_count, total_amount, updated_at) " +
+            "SELECT summary_date, status, SUM(status_count), SUM(status_amount), now() FROM folded " +
+            "WHERE status_count <> 0 GROUP BY summary_date, status " +
+            "ON CONFLICT (summary_date, status) DO UPDATE SET " +
+            "order_count = order_daily_status_summary.order_count + EXCLUDED.order_count, " +
+            "total_amount = order_daily_status_summary.total_amount + EXCLUDED.total_amount, " +
+            "updated_at = EXCLUDED.updated_at), " +
+            "revenue_rows AS (" +
+            "INSERT INTO order_daily_revenue " +
+            "(summary_date, order_count, gross_amount, delivered_amount, refunded_amount, updated_at) " +
+            "SELECT summary_date, SUM(order_count), SUM(gross_amount), SUM(delivered_amount), SUM(refunded_amount), now() " +
+            "FROM folded WHERE order_count <> 0 OR gross_amount <> 0 OR delivered_amount <> 0 OR refunded_amount <> 0 " +
+            "GROUP BY summary_date " +
+            "ON CONFLICT (summary_date) DO UPDATE SET " +
+            "order_count = order_daily_revenue.order_count + EXCLUDED.order_count, " +
+            "gross_amount = order_daily_revenue.gross_amount + EXCLUDED.gross_amount, " +
+            "delivered_amount = order_daily_revenue.delivered_amount + EXCLUDED.delivered_amount, " +
+            "refunded_amount = order_daily_revenue.refunded_amount + EXCLUDED.refunded_amount, " +
+            "updated_at = EXCLUDED.updated_at) " +
+            "SELECT COUNT(*) FROM folded",
+            nativeQuery = true)
+    long fold(@Param("limit") int limit);
+}
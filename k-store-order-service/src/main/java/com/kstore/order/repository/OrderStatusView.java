@@ -0,0 +1,19 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.Order;
+
+import java.math.BigDecimal;
+
+// Columns needed to classify and book a status transition without loading the order graph
+public interface OrderStatusView {
+
+    Long getId();
+
+    String getOrderNumber();
+
+    Long getUserId();
+
+    Order.OrderStatus getStatus();
+
+    BigDecimal getTotalAmount();
+}
@@ -0,0 +1,30 @@
+package com.kstore.order.scheduler;
+
+import com.kstore.order.service.impl.OrderIdempotencyStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyPurgeScheduler {
+
+    private final OrderIdempotencyStore orderIdempotencyStore;
+
+    /**
+     * Remove expired idempotency keys every hour
+     */
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        try {
+            int deletedCount = orderIdempotencyStore.purgeExpired();
+            if (deletedCount > 0) {
+                log.info("Purged {} expired idempotency keys", deletedCount);
+            }
+        } catch (Exception e) {
+            log.error("Error purging expired idempotency keys", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.kstore.order.scheduler;
+
+import com.kstore.order.service.impl.OrderNumberGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderNodeLeaseScheduler {
+
+    private final OrderNumberGenerator orderNumberGenerator;
+
+    /**
+     * Keep this replica's order node id leased; renew well within order.number.lease-ttl
+     */
+    @Scheduled(fixedDelayString = "${order.number.lease-renew-interval-ms:10000}")
+    public void renewLease() {
+        try {
+            orderNumberGenerator.renewLease();
+        } catch (Exception e) {
+            log.error("Error renewing order node id lease", e);
+        }
+    }
+}
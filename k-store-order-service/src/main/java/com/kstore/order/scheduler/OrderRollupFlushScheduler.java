@@ -0,0 +1,30 @@
+package com.kstore.order.scheduler;
+
+import com.kstore.order.service.OrderRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderRollupFlushScheduler {
+
+    private final OrderRollupService orderRollupService;
+
+    /**
+     * Fold pending status and revenue deltas into the daily rollups every few seconds
+     */
+    @Scheduled(fixedDelayString = "${order.rollups.flush-interval-ms:5000}")
+    public void flushDeltas() {
+        try {
+            long folded = orderRollupService.flushDeltas();
+            if (folded > 0) {
+                log.debug("Folded {} order rollup deltas", folded);
+            }
+        } catch (Exception e) {
+            log.error("Error folding order rollup deltas", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.kstore.order.service;
+
+import com.kstore.common.event.OrderStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${order.events.order-topic:order-events}")
+    private String orderTopic;
+
+    /**
+     * Publishes status change events once the surrounding transaction commits, so consumers never
+     * see a transition that was rolled back. The producer batches the records (linger.ms).
+     */
+    public void publishStatusChanges(List<OrderStatusChangedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(events);
+                }
+            });
+        } else {
+            send(events);
+        }
+    }
+
+    private void send(List<OrderStatusChangedEvent> events) {
+        log.info("Publishing {} order status events to topic: {}", events.size(), orderTopic);
+        for (int i = 0; i < events.size(); i++) {
+            OrderStatusChangedEvent event = events.get(i);
+            try {
+                kafkaTemplate.send(orderTopic, String.valueOf(event.getOrderId()), event)
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                log.error("Failed to publish order status event: {}", event.getEventId(), ex);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                // Metadata timeouts surface synchronously and would repeat for every record of the batch
+                log.error("Failed to publish order status events, dropping {} of {}",
+                        events.size() - i, events.size(), e);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.kstore.order.service;
+
+import com.kstore.order.dto.OrderExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface OrderExportService {
+
+    /**
+     * Writes orders created between {@code from} and {@code to} (inclusive) in id order without materializing them
+     * in memory. CSV has one row per item; an order without items gets a single row with empty item columns.
+     */
+    void exportOrders(LocalDate from, LocalDate to, OrderExportFormat format, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,40 @@
+package com.kstore.order.service;
+
+import com.kstore.order.dto.OrderReport;
+import com.kstore.order.entity.Order;
+import com.kstore.order.repository.OrderStatusView;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface OrderRollupService {
+
+    /**
+     * Adds a newly placed order to the daily rollups. Must run in the transaction that saves the order.
+     */
+    void recordOrderCreated(Order order);
+
+    /**
+     * Books an order entering {@code newStatus} at {@code at}. Must run in the transaction that changes the status.
+     */
+    void recordStatusChange(Long userId, BigDecimal amount, Order.OrderStatus newStatus, LocalDateTime at);
+
+    /**
+     * Bulk variant of {@link #recordStatusChange}: books all orders that entered {@code newStatus} with one upsert per user.
+     */
+    void recordStatusChanges(Collection<OrderStatusView> orders, Order.OrderStatus newStatus, LocalDateTime at);
+
+    /**
+     * Folds the pending status and revenue deltas into the daily rollups and returns how many were folded.
+     * Until then the status and revenue reports trail recent orders.
+     */
+    long flushDeltas();
+
+    OrderReport.UserReport getUserReport(Long userId, LocalDate from, LocalDate to);
+
+    OrderReport.StatusReport getStatusReport(LocalDate from, LocalDate to);
+
+    OrderReport.RevenueReport getRevenueReport(LocalDate from, LocalDate to);
+}
@@ -1,5 +1,7 @@
 package com.kstore.order.service;
 
+import com.kstore.order.dto.OrderBulkStatusRequest;
+import com.kstore.order.dto.OrderBulkStatusResponse;
 import com.kstore.order.dto.OrderRequest;
 import com.kstore.order.dto.OrderResponse;
 import com.kstore.order.entity.Order;
@@ -10,6 +12,11 @@ public interface OrderService {
 
     OrderResponse createOrder(OrderRequest request);
 
+    /**
+     * Creates the order at most once per idempotency key; a repeated key returns the stored response.
+     */
+    OrderResponse createOrder(OrderRequest request, String idempotencyKey);
+
     OrderResponse getOrderById(Long id);
 
     OrderResponse getOrderByOrderNumber(String orderNumber);
@@ -24,6 +31,8 @@ public interface OrderService {
 
     void cancelOrder(Long id);
 
+    OrderBulkStatusResponse bulkUpdateStatus(OrderBulkStatusRequest request);
+
     Page<OrderResponse> getOrdersByStatus(Order.OrderStatus status, Pageable pageable);
 
     Page<OrderResponse> getUserOrdersByStatus(Long userId, Order.OrderStatus status, Pageable pageable);
@@ -0,0 +1,85 @@
+package com.kstore.order.service.impl;
+
+import com.kstore.common.exception.BusinessException;
+import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.order.client.UserAddressClient;
+import com.kstore.order.dto.AddressBatchLookup;
+import com.kstore.order.dto.AddressSnapshot;
+import com.kstore.order.dto.OrderRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Turns the addresses of an order request into references plus text snapshots. An address id wins over
+ * free text; when neither is given the user's default address of that kind is used.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderAddressResolver {
+
+    private final UserAddressClient userAddressClient;
+
+    public OrderAddresses resolve(OrderRequest request) {
+        Long shippingId = request.getShippingAddressId();
+        Long billingId = request.getBillingAddressId();
+        boolean defaultShipping = shippingId == null && !StringUtils.hasText(request.getShippingAddress());
+        boolean defaultBilling = billingId == null && !StringUtils.hasText(request.getBillingAddress());
+        if (shippingId == null && billingId == null && !defaultShipping && !defaultBilling) {
+            return new OrderAddresses(null, request.getShippingAddress(), null, request.getBillingAddress());
+        }
+
+        Set<Long> addressIds = new LinkedHashSet<>();
+        if (shippingId != null) {
+            addressIds.add(shippingId);
+        }
+        if (billingId != null) {
+            addressIds.add(billingId);
+        }
+        AddressBatchLookup.Response response = userAddressClient.lookup(addressIds,
+                defaultShipping || defaultBilling ? request.getUserId() : null);
+        AddressBatchLookup.DefaultAddresses defaults = response.getDefaultsByUserId().get(request.getUserId());
+
+        AddressSnapshot shipping = pick(request, shippingId, defaultShipping, response, defaults,
+                AddressBatchLookup.DefaultAddresses::getShipping, "Shipping");
+        AddressSnapshot billing = pick(request, billingId, defaultBilling, response, defaults,
+                AddressBatchLookup.DefaultAddresses::getBilling, "Billing");
+        return new OrderAddresses(
+                shipping != null ? shipping.getId() : null,
+                shipping != null ? shipping.getFullAddress() : request.getShippingAddress(),
+                billing != null ? billing.getId() : null,
+                billing != null ? billing.getFullAddress() : request.getBillingAddress());
+    }
+
+    private AddressSnapshot pick(OrderRequest request, Long addressId, boolean useDefault,
+                                 AddressBatchLookup.Response response, AddressBatchLookup.DefaultAddresses defaults,
+                                 Function<AddressBatchLookup.DefaultAddresses, AddressSnapshot> defaultOf, String kind) {
+        if (addressId != null) {
+            AddressSnapshot address = response.getById().get(addressId);
+            // Someone else's address id is reported exactly like an unknown one
+            if (address == null || !request.getUserId().equals(address.getUserId())) {
+                throw new ResourceNotFoundException("Address not found with id: " + addressId);
+            }
+            return address;
+        }
+        if (!useDefault) {
+            return null;
+        }
+        AddressSnapshot address = defaults != null ? defaultOf.apply(defaults) : null;
+        if (address == null) {
+            throw new BusinessException(kind + " address is required", "ADDRESS_REQUIRED");
+        }
+        return address;
+    }
+
+    /**
+     * Address references of an order; the text is a snapshot so order history survives later address edits.
+     */
+    public record OrderAddresses(Long shippingAddressId, String shippingAddress,
+                                 Long billingAddressId, String billingAddress) {
+    }
+}
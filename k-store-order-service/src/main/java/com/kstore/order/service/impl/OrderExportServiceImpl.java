@@ -0,0 +1,174 @@
+package com.kstore.order.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.order.dto.OrderExportFormat;
+import com.kstore.order.dto.OrderResponse;
+import com.kstore.order.entity.Order;
+import com.kstore.order.entity.OrderItem;
+import com.kstore.order.repository.OrderRepository;
+import com.kstore.order.service.OrderExportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "orderNumber", "userId", "status", "paymentStatus", "paymentMethod", "totalAmount", "createdAt",
+            "shippedAt", "deliveredAt", "productId", "productSku", "productName", "quantity", "unitPrice", "totalPrice");
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order.export.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDate from, LocalDate to, OrderExportFormat format, OutputStream outputStream)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == OrderExportFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+
+        // Rows arrive ordered by order id, so an order is complete once the next one starts
+        long orders = 0;
+        long rows = 0;
+        Order current = null;
+        List<OrderItem> currentItems = new ArrayList<>();
+        try (Stream<Object[]> orderRows = orderRepository.streamOrderRowsCreatedBetween(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            Iterator<Object[]> iterator = orderRows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Order order = (Order) row[0];
+                OrderItem item = (OrderItem) row[1];
+                if (current != null && !current.getId().equals(order.getId())) {
+                    writeOrder(writer, format, current, currentItems);
+                    currentItems.clear();
+                    // Keep the persistence context from growing with the export
+                    if (++orders % chunkSize == 0) {
+                        entityManager.clear();
+                        writer.flush();
+                    }
+                }
+                current = order;
+                if (item != null) {
+                    currentItems.add(item);
+                    rows++;
+                }
+            }
+        }
+        if (current != null) {
+            writeOrder(writer, format, current, currentItems);
+            orders++;
+        }
+        writer.flush();
+        log.info("Exported {} orders ({} items) created between {} and {} as {}", orders, rows, from, to, format);
+    }
+
+    private void writeOrder(Writer writer, OrderExportFormat format, Order order, List<OrderItem> items)
+            throws IOException {
+        if (format == OrderExportFormat.CSV) {
+            if (items.isEmpty()) {
+                // Still list the order; its item columns stay empty
+                writeCsvRow(writer, order, null);
+            }
+            for (OrderItem item : items) {
+                writeCsvRow(writer, order, item);
+            }
+        } else {
+            writer.write(objectMapper.writeValueAsString(mapToRow(order, items)));
+            writer.write('\n');
+        }
+    }
+
+    private OrderResponse mapToRow(Order order, List<OrderItem> items) {
+        List<OrderResponse.OrderItemResponse> itemRows = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            itemRows.add(OrderResponse.OrderItemResponse.builder()
+                    .id(item.getId())
+                    .productId(item.getProductId())
+                    .productName(item.getProductName())
+                    .productSku(item.getProductSku())
+                    .quantity(item.getQuantity())
+                    .unitPrice(item.getUnitPrice())
+                    .totalPrice(item.getTotalPrice())
+                    .productImageUrl(item.getProductImageUrl())
+                    .build());
+        }
+
+        return OrderResponse.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .shippingAddressId(order.getShippingAddressId())
+                .shippingAddress(order.getShippingAddress())
+                .billingAddressId(order.getBillingAddressId())
+                .billingAddress(order.getBillingAddress())
+                .paymentMethod(order.getPaymentMethod())
+                .paymentStatus(order.getPaymentStatus())
+                .orderItems(itemRows)
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .shippedAt(order.getShippedAt())
+                .deliveredAt(order.getDeliveredAt())
+                .notes(order.getNotes())
+                .build();
+    }
+
+    private void writeCsvRow(Writer writer, Order order, OrderItem item) throws IOException {
+        Object[] values = {
+                order.getOrderNumber(), order.getUserId(), order.getStatus(), order.getPaymentStatus(),
+                order.getPaymentMethod(), order.getTotalAmount(), order.getCreatedAt(), order.getShippedAt(),
+                order.getDeliveredAt(),
+                item != null ? item.getProductId() : null,
+                item != null ? item.getProductSku() : null,
+                item != null ? item.getProductName() : null,
+                item != null ? item.getQuantity() : null,
+                item != null ? item.getUnitPrice() : null,
+                item != null ? item.getTotalPrice() : null
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,231 @@
+package com.kstore.order.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.common.exception.BusinessException;
+import com.kstore.order.dto.OrderRequest;
+import com.kstore.order.dto.OrderResponse;
+import com.kstore.order.entity.OrderIdempotencyKey;
+import com.kstore.order.repository.OrderIdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Idempotency-Key handling for order creation. Completed responses are served from an in-memory LRU,
+ * concurrent duplicates on this instance wait for the first in-flight request, and the
+ * order_idempotency_keys table arbitrates between instances.
+ */
+@Slf4j
+@Component
+public class OrderIdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderIdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration pendingLease;
+    private final Duration waitTimeout;
+    private final Map<String, CachedResponse> completed;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public OrderIdempotencyStore(OrderIdempotencyKeyRepository repository,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${order.idempotency.ttl:24h}") Duration ttl,
+                                 @Value("${order.idempotency.pending-lease:30s}") Duration pendingLease,
+                                 @Value("${order.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                                 @Value("${order.idempotency.cache-max-entries:10000}") int cacheMaxEntries) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.pendingLease = pendingLease;
+        this.waitTimeout = waitTimeout;
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        });
+    }
+
+    public String hash(OrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash order request", e);
+        }
+    }
+
+    /**
+     * Runs {@code creator} at most once per key. The creator must call {@link #complete} with its claim inside
+     * the transaction that saves the order, so the stored response commits together with the order.
+     */
+    public OrderResponse execute(String key, String requestHash, Function<Claim, OrderResponse> creator) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters",
+                    "INVALID_IDEMPOTENCY_KEY", HttpStatus.BAD_REQUEST);
+        }
+
+        CachedResponse cached = completed.get(key);
+        if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+            checkHash(cached.requestHash(), requestHash);
+            return cached.response();
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            checkHash(existing.requestHash(), requestHash);
+            return await(existing.future());
+        }
+
+        try {
+            OrderResponse response = claimAndRun(key, requestHash, creator);
+            mine.future().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.future().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Stores the response for a claimed key. Fails, rolling back the caller's transaction, when the claim's lease
+     * ran out and another request has taken the key over.
+     */
+    public void complete(Claim claim, OrderResponse response) {
+        String key = claim.key();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        int updated;
+        try {
+            updated = repository.complete(key, claim.expiresAt(), response.getId(),
+                    objectMapper.writeValueAsString(response), expiresAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order response", e);
+        }
+        if (updated == 0) {
+            log.warn("Lost the claim on Idempotency-Key {} before the order was saved", key);
+            throw inProgress();
+        }
+        CachedResponse cached = new CachedResponse(claim.requestHash(), response, expiresAt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    completed.put(key, cached);
+                }
+            });
+        } else {
+            completed.put(key, cached);
+        }
+    }
+
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        completed.values().removeIf(cached -> !cached.expiresAt().isAfter(now));
+        return transactionTemplate.execute(status -> repository.deleteExpired(now));
+    }
+
+    private OrderResponse claimAndRun(String key, String requestHash, Function<Claim, OrderResponse> creator) {
+        LocalDateTime now = LocalDateTime.now();
+        // Matched exactly later on, so keep to the column's microsecond precision
+        Claim claim = new Claim(key, requestHash, now.plus(pendingLease).truncatedTo(ChronoUnit.MICROS));
+        Integer claimed = transactionTemplate.execute(status ->
+                repository.claim(key, requestHash, now, claim.expiresAt()));
+        if (claimed == null || claimed == 0) {
+            return replayStored(key, requestHash);
+        }
+
+        try {
+            return creator.apply(claim);
+        } catch (RuntimeException e) {
+            // Let the client retry with the same key after a failed attempt
+            transactionTemplate.executeWithoutResult(status -> repository.releasePending(key, claim.expiresAt()));
+            throw e;
+        }
+    }
+
+    private OrderResponse replayStored(String key, String requestHash) {
+        OrderIdempotencyKey record = repository.findById(key).orElse(null);
+        if (record == null) {
+            throw inProgress();
+        }
+        checkHash(record.getRequestHash(), requestHash);
+        if (record.getStatus() != OrderIdempotencyKey.Status.COMPLETED) {
+            throw inProgress();
+        }
+        try {
+            OrderResponse response = objectMapper.readValue(record.getResponseBody(), OrderResponse.class);
+            completed.put(key, new CachedResponse(requestHash, response, record.getExpiresAt()));
+            return response;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored order response for key " + key, e);
+        }
+    }
+
+    private OrderResponse await(CompletableFuture<OrderResponse> future) {
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private void checkHash(String stored, String requestHash) {
+        if (!stored.equals(requestHash)) {
+            throw new BusinessException("Idempotency-Key was already used with a different request",
+                    "IDEMPOTENCY_KEY_REUSED", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+    }
+
+    private BusinessException inProgress() {
+        return new BusinessException("A request with this Idempotency-Key is still in progress",
+                "IDEMPOTENCY_KEY_IN_PROGRESS", HttpStatus.CONFLICT);
+    }
+
+    /** A key claimed by this request; {@code expiresAt} is the end of its pending lease. */
+    public record Claim(String key, String requestHash, LocalDateTime expiresAt) {
+    }
+
+    private record CachedResponse(String requestHash, OrderResponse response, LocalDateTime expiresAt) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<OrderResponse> future) {
+    }
+}
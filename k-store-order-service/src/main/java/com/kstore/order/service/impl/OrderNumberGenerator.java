@@ -0,0 +1,189 @@
+package com.kstore.order.service.impl;
+
+import com.kstore.common.exception.BusinessException;
+import com.kstore.order.repository.OrderNodeLeaseRepository;
+import com.netflix.appinfo.ApplicationInfoManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order numbers: 41 bits of milliseconds since 2024-01-01, a 10 bit node id and a
+ * 12 bit per-millisecond sequence, rendered as 13 Crockford base32 characters. Ids are unique
+ * without coordination as long as node ids are unique, and never go backwards on a node.
+ *
+ * <p>The node id comes from {@code order.number.node-id} or the instance's Eureka metadata when set;
+ * otherwise a free id is leased from {@code order_node_leases}. A leased id is only used while the lease
+ * is known to be fresh, so a replica that cannot renew stops issuing numbers before another may take it.
+ */
+@Slf4j
+@Component
+public class OrderNumberGenerator {
+
+    static final String NODE_ID_METADATA_KEY = "order-node-id";
+
+    private static final String PREFIX = "ORD-";
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final OrderNodeLeaseRepository leaseRepository;
+    private final int configuredNodeId;
+    private final long leaseTtlSeconds;
+    private final long leaseTtlNanos;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // Packed (timestamp << SEQUENCE_BITS | sequence) of the last issued id
+    private final AtomicLong lastState = new AtomicLong();
+    private volatile long nodeBits;
+    // Set while the node id is leased rather than configured
+    private volatile Integer leasedNodeId;
+    private volatile long leaseDeadlineNanos;
+
+    public OrderNumberGenerator(ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                                OrderNodeLeaseRepository leaseRepository,
+                                @Value("${order.number.node-id:-1}") int configuredNodeId,
+                                @Value("${order.number.lease-ttl:30s}") Duration leaseTtl) {
+        this.applicationInfoManager = applicationInfoManager;
+        this.leaseRepository = leaseRepository;
+        this.configuredNodeId = configuredNodeId;
+        this.leaseTtlSeconds = Math.max(1, leaseTtl.toSeconds());
+        this.leaseTtlNanos = TimeUnit.SECONDS.toNanos(leaseTtlSeconds);
+    }
+
+    @PostConstruct
+    void init() {
+        Integer assigned = assignedNodeId();
+        if (assigned != null) {
+            nodeBits = (long) assigned << SEQUENCE_BITS;
+            log.info("Order number generator using configured node id {}", assigned);
+            return;
+        }
+        long started = System.nanoTime();
+        adoptLease(claimLease(), started);
+    }
+
+    @PreDestroy
+    void releaseLease() {
+        Integer nodeId = leasedNodeId;
+        if (nodeId != null) {
+            leaseDeadlineNanos = System.nanoTime();
+            leaseRepository.release(nodeId, instanceId);
+        }
+    }
+
+    public String nextOrderNumber() {
+        return PREFIX + encode(nextId());
+    }
+
+    long nextId() {
+        if (leasedNodeId != null && System.nanoTime() - leaseDeadlineNanos >= 0) {
+            throw new BusinessException("Order numbers are temporarily unavailable, please retry",
+                    "ORDER_NUMBER_UNAVAILABLE", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        while (true) {
+            long current = lastState.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            // A new millisecond restarts the sequence; otherwise bump it, letting an exhausted
+            // sequence or a clock step backwards carry into the timestamp so ids stay monotonic
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (lastState.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Extends the node id lease; if it was lost meanwhile, claims a new node id.
+     */
+    public void renewLease() {
+        Integer nodeId = leasedNodeId;
+        if (nodeId == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        if (leaseRepository.renew(nodeId, instanceId) > 0) {
+            leaseDeadlineNanos = started + leaseTtlNanos;
+            return;
+        }
+        log.error("Lease on order node id {} was lost, claiming a new node id", nodeId);
+        adoptLease(claimLease(), started);
+    }
+
+    Integer leasedNodeId() {
+        return leasedNodeId;
+    }
+
+    private Integer assignedNodeId() {
+        if (configuredNodeId >= 0) {
+            return checkRange(configuredNodeId);
+        }
+        ApplicationInfoManager infoManager = applicationInfoManager.getIfAvailable();
+        if (infoManager != null) {
+            String assigned = infoManager.getInfo().getMetadata().get(NODE_ID_METADATA_KEY);
+            if (assigned != null && !assigned.isBlank()) {
+                return checkRange(Integer.parseInt(assigned));
+            }
+        }
+        return null;
+    }
+
+    private int claimLease() {
+        BitSet live = new BitSet(MAX_NODE_ID + 1);
+        leaseRepository.findLiveNodeIds(leaseTtlSeconds).forEach(live::set);
+        for (int nodeId = live.nextClearBit(0); nodeId <= MAX_NODE_ID; nodeId = live.nextClearBit(nodeId + 1)) {
+            // Losing a race for this id just moves on to the next one
+            if (leaseRepository.claim(nodeId, instanceId, leaseTtlSeconds) > 0) {
+                return nodeId;
+            }
+        }
+        throw new IllegalStateException("No free order node id: all " + (MAX_NODE_ID + 1) + " leases are held");
+    }
+
+    private void adoptLease(int nodeId, long claimStartedNanos) {
+        // Switch node bits before the new deadline makes ids issuable again
+        nodeBits = (long) nodeId << SEQUENCE_BITS;
+        leasedNodeId = nodeId;
+        leaseDeadlineNanos = claimStartedNanos + leaseTtlNanos;
+        log.info("Order number generator leased node id {}", nodeId);
+
+        ApplicationInfoManager infoManager = applicationInfoManager.getIfAvailable();
+        if (infoManager != null) {
+            infoManager.registerAppMetadata(Map.of(NODE_ID_METADATA_KEY, String.valueOf(nodeId)));
+        }
+    }
+
+    private static int checkRange(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("Order node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        return nodeId;
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = BASE32[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,268 @@
+package com.kstore.order.service.impl;
+
+import com.kstore.common.exception.BusinessException;
+import com.kstore.order.dto.OrderReport;
+import com.kstore.order.entity.Order;
+import com.kstore.order.entity.OrderDailyRevenue;
+import com.kstore.order.entity.OrderDailyStatusSummary;
+import com.kstore.order.entity.OrderDailyUserSummary;
+import com.kstore.order.entity.OrderRollupDelta;
+import com.kstore.order.repository.OrderDailyRevenueRepository;
+import com.kstore.order.repository.OrderDailyStatusSummaryRepository;
+import com.kstore.order.repository.OrderDailyUserSummaryRepository;
+import com.kstore.order.repository.OrderRollupDeltaRepository;
+import com.kstore.order.repository.OrderStatusView;
+import com.kstore.order.service.OrderRollupService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class OrderRollupServiceImpl implements OrderRollupService {
+
+    private static final long MAX_REPORT_DAYS = 366;
+
+    private final OrderDailyUserSummaryRepository userSummaryRepository;
+    private final OrderDailyStatusSummaryRepository statusSummaryRepository;
+    private final OrderDailyRevenueRepository revenueRepository;
+    private final OrderRollupDeltaRepository deltaRepository;
+    private final int flushBatchSize;
+
+    public OrderRollupServiceImpl(OrderDailyUserSummaryRepository userSummaryRepository,
+                                  OrderDailyStatusSummaryRepository statusSummaryRepository,
+                                  OrderDailyRevenueRepository revenueRepository,
+                                  OrderRollupDeltaRepository deltaRepository,
+                                  @Value("${order.rollups.flush-batch-size:5000}") int flushBatchSize) {
+        this.userSummaryRepository = userSummaryRepository;
+        this.statusSummaryRepository = statusSummaryRepository;
+        this.revenueRepository = revenueRepository;
+        this.deltaRepository = deltaRepository;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderCreated(Order order) {
+        LocalDate day = dayOf(order.getCreatedAt());
+        BigDecimal amount = order.getTotalAmount();
+
+        userSummaryRepository.increment(order.getUserId(), day, 1, amount, 0, BigDecimal.ZERO, 0);
+        recordDelta(day, order.getStatus(), 1, amount, 1, amount, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Long userId, BigDecimal amount, Order.OrderStatus newStatus, LocalDateTime at) {
+        LocalDate day = dayOf(at);
+
+        switch (newStatus) {
+            case DELIVERED:
+                userSummaryRepository.increment(userId, day, 0, BigDecimal.ZERO, 1, amount, 0);
+                recordDelta(day, newStatus, 1, amount, 0, BigDecimal.ZERO, amount, BigDecimal.ZERO);
+                break;
+            case REFUNDED:
+                // Refunds are booked on the day they happen, not against the original delivery day
+                userSummaryRepository.increment(userId, day, 0, BigDecimal.ZERO, 0, amount.negate(), 0);
+                recordDelta(day, newStatus, 1, amount, 0, BigDecimal.ZERO, BigDecimal.ZERO, amount);
+                break;
+            case CANCELLED:
+                userSummaryRepository.increment(userId, day, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO, 1);
+                recordDelta(day, newStatus, 1, amount, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+                break;
+            default:
+                recordDelta(day, newStatus, 1, amount, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+                break;
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(Collection<OrderStatusView> orders, Order.OrderStatus newStatus, LocalDateTime at) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        LocalDate day = dayOf(at);
+        BigDecimal total = BigDecimal.ZERO;
+        Map<Long, long[]> countsByUser = new HashMap<>();
+        Map<Long, BigDecimal> amountsByUser = new HashMap<>();
+        for (OrderStatusView order : orders) {
+            total = total.add(order.getTotalAmount());
+            countsByUser.computeIfAbsent(order.getUserId(), userId -> new long[1])[0]++;
+            amountsByUser.merge(order.getUserId(), order.getTotalAmount(), BigDecimal::add);
+        }
+        int count = orders.size();
+
+        switch (newStatus) {
+            case DELIVERED:
+                countsByUser.forEach((userId, userCount) -> userSummaryRepository.increment(
+                        userId, day, 0, BigDecimal.ZERO, userCount[0], amountsByUser.get(userId), 0));
+                recordDelta(day, newStatus, count, total, 0, BigDecimal.ZERO, total, BigDecimal.ZERO);
+                break;
+            case REFUNDED:
+                amountsByUser.forEach((userId, amount) -> userSummaryRepository.increment(
+                        userId, day, 0, BigDecimal.ZERO, 0, amount.negate(), 0));
+                recordDelta(day, newStatus, count, total, 0, BigDecimal.ZERO, BigDecimal.ZERO, total);
+                break;
+            case CANCELLED:
+                countsByUser.forEach((userId, userCount) -> userSummaryRepository.increment(
+                        userId, day, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO, userCount[0]));
+                recordDelta(day, newStatus, count, total, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+                break;
+            default:
+                recordDelta(day, newStatus, count, total, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+                break;
+        }
+    }
+
+    @Override
+    public long flushDeltas() {
+        long folded = 0;
+        long batch;
+        do {
+            batch = deltaRepository.fold(flushBatchSize);
+            folded += batch;
+        } while (batch == flushBatchSize);
+        return folded;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderReport.UserReport getUserReport(Long userId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        List<OrderDailyUserSummary> rows =
+                userSummaryRepository.findByUserIdAndSummaryDateBetweenOrderBySummaryDate(userId, from, to);
+
+        OrderReport.UserReport report = OrderReport.UserReport.builder()
+                .userId(userId)
+                .from(from)
+                .to(to)
+                .orderedAmount(BigDecimal.ZERO)
+                .deliveredAmount(BigDecimal.ZERO)
+                .days(rows.stream()
+                        .map(row -> OrderReport.UserDay.builder()
+                                .date(row.getSummaryDate())
+                                .orderCount(row.getOrderCount())
+                                .orderedAmount(row.getOrderedAmount())
+                                .deliveredCount(row.getDeliveredCount())
+                                .deliveredAmount(row.getDeliveredAmount())
+                                .cancelledCount(row.getCancelledCount())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+
+        for (OrderDailyUserSummary row : rows) {
+            report.setOrderCount(report.getOrderCount() + row.getOrderCount());
+            report.setOrderedAmount(report.getOrderedAmount().add(row.getOrderedAmount()));
+            report.setDeliveredCount(report.getDeliveredCount() + row.getDeliveredCount());
+            report.setDeliveredAmount(report.getDeliveredAmount().add(row.getDeliveredAmount()));
+            report.setCancelledCount(report.getCancelledCount() + row.getCancelledCount());
+        }
+        return report;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderReport.StatusReport getStatusReport(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        List<OrderDailyStatusSummary> rows =
+                statusSummaryRepository.findBySummaryDateBetweenOrderBySummaryDateAscStatusAsc(from, to);
+
+        Map<Order.OrderStatus, OrderReport.StatusTotal> totals = new EnumMap<>(Order.OrderStatus.class);
+        for (OrderDailyStatusSummary row : rows) {
+            OrderReport.StatusTotal total = totals.computeIfAbsent(row.getStatus(),
+                    status -> new OrderReport.StatusTotal(0, BigDecimal.ZERO));
+            total.setOrderCount(total.getOrderCount() + row.getOrderCount());
+            total.setTotalAmount(total.getTotalAmount().add(row.getTotalAmount()));
+        }
+
+        return OrderReport.StatusReport.builder()
+                .from(from)
+                .to(to)
+                .totals(totals)
+                .days(rows.stream()
+                        .map(row -> OrderReport.StatusDay.builder()
+                                .date(row.getSummaryDate())
+                                .status(row.getStatus())
+                                .orderCount(row.getOrderCount())
+                                .totalAmount(row.getTotalAmount())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderReport.RevenueReport getRevenueReport(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        List<OrderDailyRevenue> rows = revenueRepository.findBySummaryDateBetweenOrderBySummaryDate(from, to);
+
+        OrderReport.RevenueReport report = OrderReport.RevenueReport.builder()
+                .from(from)
+                .to(to)
+                .grossAmount(BigDecimal.ZERO)
+                .deliveredAmount(BigDecimal.ZERO)
+                .refundedAmount(BigDecimal.ZERO)
+                .days(rows.stream()
+                        .map(row -> OrderReport.RevenueDay.builder()
+                                .date(row.getSummaryDate())
+                                .orderCount(row.getOrderCount())
+                                .grossAmount(row.getGrossAmount())
+                                .deliveredAmount(row.getDeliveredAmount())
+                                .refundedAmount(row.getRefundedAmount())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+
+        for (OrderDailyRevenue row : rows) {
+            report.setOrderCount(report.getOrderCount() + row.getOrderCount());
+            report.setGrossAmount(report.getGrossAmount().add(row.getGrossAmount()));
+            report.setDeliveredAmount(report.getDeliveredAmount().add(row.getDeliveredAmount()));
+            report.setRefundedAmount(report.getRefundedAmount().add(row.getRefundedAmount()));
+        }
+        return report;
+    }
+
+    // The day-wide status and revenue rows are shared by every order, so their updates are appended
+    // as deltas and folded in by flushDeltas() instead of locking those rows in each order transaction
+    private void recordDelta(LocalDate day, Order.OrderStatus status, long statusCount, BigDecimal statusAmount,
+                             long orderCount, BigDecimal grossAmount, BigDecimal deliveredAmount,
+                             BigDecimal refundedAmount) {
+        deltaRepository.save(OrderRollupDelta.builder()
+                .summaryDate(day)
+                .status(status.name())
+                .statusCount(statusCount)
+                .statusAmount(statusAmount)
+                .orderCount(orderCount)
+                .grossAmount(grossAmount)
+                .deliveredAmount(deliveredAmount)
+                .refundedAmount(refundedAmount)
+                .build());
+    }
+
+    private LocalDate dayOf(LocalDateTime at) {
+        return at != null ? at.toLocalDate() : LocalDate.now();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BusinessException("'from' must not be after 'to'", "INVALID_DATE_RANGE", HttpStatus.BAD_REQUEST);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            throw new BusinessException("Report range must not exceed " + MAX_REPORT_DAYS + " days",
+                    "INVALID_DATE_RANGE", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
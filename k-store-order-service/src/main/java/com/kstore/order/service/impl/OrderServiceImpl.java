@@ -2,39 +2,125 @@ package com.kstore.order.service.impl;
 
 import com.kstore.common.exception.BusinessException;
 import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.order.client.ProductCatalogClient;
+import com.kstore.common.event.OrderStatusChangedEvent;
+import com.kstore.order.dto.OrderBulkStatusRequest;
+import com.kstore.order.dto.OrderBulkStatusResponse;
 import com.kstore.order.dto.OrderRequest;
 import com.kstore.order.dto.OrderResponse;
+import com.kstore.order.dto.ProductSnapshot;
 import com.kstore.order.entity.Order;
 import com.kstore.order.entity.OrderItem;
 import com.kstore.order.repository.OrderRepository;
+import com.kstore.order.repository.OrderStatusView;
+import com.kstore.order.service.OrderEventPublisher;
+import com.kstore.order.service.OrderRollupService;
 import com.kstore.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
+    private final ProductCatalogClient productCatalogClient;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor orderLookupExecutor;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderRollupService orderRollupService;
+    private final OrderEventPublisher orderEventPublisher;
+    private final OrderIdempotencyStore orderIdempotencyStore;
+    private final OrderAddressResolver orderAddressResolver;
+
+    @Value("${order.bulk-status.chunk-size:500}")
+    private int bulkChunkSize;
+
+    public OrderServiceImpl(OrderRepository orderRepository,
+                            ProductCatalogClient productCatalogClient,
+                            TransactionTemplate transactionTemplate,
+                            @Qualifier("orderLookupExecutor") Executor orderLookupExecutor,
+                            OrderNumberGenerator orderNumberGenerator,
+                            OrderRollupService orderRollupService,
+                            OrderEventPublisher orderEventPublisher,
+                            OrderIdempotencyStore orderIdempotencyStore,
+                            OrderAddressResolver orderAddressResolver) {
+        this.orderRepository = orderRepository;
+        this.productCatalogClient = productCatalogClient;
+        this.transactionTemplate = transactionTemplate;
+        this.orderLookupExecutor = orderLookupExecutor;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.orderRollupService = orderRollupService;
+        this.orderEventPublisher = orderEventPublisher;
+        this.orderIdempotencyStore = orderIdempotencyStore;
+        this.orderAddressResolver = orderAddressResolver;
+    }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponse createOrder(OrderRequest request) {
+        return createOrder(request, response -> { });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderResponse createOrder(OrderRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createOrder(request);
+        }
+        String requestHash = orderIdempotencyStore.hash(request);
+        return orderIdempotencyStore.execute(idempotencyKey, requestHash, claim -> createOrder(request,
+                response -> orderIdempotencyStore.complete(claim, response)));
+    }
+
+    private OrderResponse createOrder(OrderRequest request, Consumer<OrderResponse> onSaved) {
+        // Fetch the catalog and addresses while the order number is generated; none holds a DB connection
+        Set<Long> productIds = request.getOrderItems().stream()
+                .map(OrderRequest.OrderItemRequest::getProductId)
+                .collect(Collectors.toSet());
+        CompletableFuture<Map<Long, ProductSnapshot>> productsFuture = CompletableFuture.supplyAsync(
+                () -> productCatalogClient.getProducts(productIds), orderLookupExecutor);
+        CompletableFuture<OrderAddressResolver.OrderAddresses> addressesFuture = CompletableFuture.supplyAsync(
+                () -> orderAddressResolver.resolve(request), orderLookupExecutor);
+
         // Generate unique order number
-        String orderNumber = generateOrderNumber();
-        
-        // Calculate total amount
+        String orderNumber = orderNumberGenerator.nextOrderNumber();
+
+        Map<Long, ProductSnapshot> products = await(productsFuture);
+        OrderAddressResolver.OrderAddresses addresses = await(addressesFuture);
+        validateItems(request.getOrderItems(), products);
+
+        // Calculate total amount from catalog prices
         BigDecimal totalAmount = request.getOrderItems().stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .map(item -> products.get(item.getProductId()).getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         // Create order
@@ -43,8 +129,10 @@ public class OrderServiceImpl implements OrderService {
                 .userId(request.getUserId())
                 .status(Order.OrderStatus.PENDING)
                 .totalAmount(totalAmount)
-                .shippingAddress(request.getShippingAddress())
-                .billingAddress(request.getBillingAddress())
+                .shippingAddressId(addresses.shippingAddressId())
+                .shippingAddress(addresses.shippingAddress())
+                .billingAddressId(addresses.billingAddressId())
+                .billingAddress(addresses.billingAddress())
                 .paymentMethod(request.getPaymentMethod())
                 .paymentStatus(Order.PaymentStatus.PENDING)
                 .notes(request.getNotes())
@@ -53,26 +141,32 @@ public class OrderServiceImpl implements OrderService {
         // Create order items
         List<OrderItem> orderItems = request.getOrderItems().stream()
                 .map(itemRequest -> {
-                    BigDecimal itemTotal = itemRequest.getUnitPrice()
+                    ProductSnapshot product = products.get(itemRequest.getProductId());
+                    BigDecimal itemTotal = product.getPrice()
                             .multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-                    
+
                     return OrderItem.builder()
                             .order(order)
-                            .productId(itemRequest.getProductId())
-                            .productName(itemRequest.getProductName())
-                            .productSku(itemRequest.getProductSku())
+                            .productId(product.getId())
+                            .productName(product.getName())
+                            .productSku(product.getSku())
                             .quantity(itemRequest.getQuantity())
-                            .unitPrice(itemRequest.getUnitPrice())
+                            .unitPrice(product.getPrice())
                             .totalPrice(itemTotal)
-                            .productImageUrl(itemRequest.getProductImageUrl())
+                            .productImageUrl(product.getImageUrl())
                             .build();
                 })
                 .collect(Collectors.toList());
 
         order.setOrderItems(orderItems);
 
-        Order savedOrder = orderRepository.save(order);
-        return mapToResponse(savedOrder);
+        return transactionTemplate.execute(status -> {
+            Order savedOrder = orderRepository.save(order);
+            orderRollupService.recordOrderCreated(savedOrder);
+            OrderResponse response = mapToResponse(savedOrder);
+            onSaved.accept(response);
+            return response;
+        });
     }
 
     @Override
@@ -107,57 +201,106 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderResponse updateOrderStatus(Long id, Order.OrderStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = orderRepository.transitionStatus(id, status, OrderStatusTransitions.sourcesFor(status),
+                status == Order.OrderStatus.SHIPPED ? now : null,
+                status == Order.OrderStatus.DELIVERED ? now : null,
+                now);
+
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
-
-        // Business logic for status transitions
-        validateStatusTransition(order.getStatus(), status);
-
-        order.setStatus(status);
-        
-        // Set timestamps based on status
-        switch (status) {
-            case SHIPPED:
-                order.setShippedAt(LocalDateTime.now());
-                break;
-            case DELIVERED:
-                order.setDeliveredAt(LocalDateTime.now());
-                break;
+        if (updated == 0) {
+            // Repeated callbacks for a transition that already happened are not errors
+            if (order.getStatus() == status) {
+                return mapToResponse(order);
+            }
+            throw statusTransitionFailure(order.getStatus(), status);
         }
 
-        Order updatedOrder = orderRepository.save(order);
-        return mapToResponse(updatedOrder);
+        orderRollupService.recordStatusChange(order.getUserId(), order.getTotalAmount(), status, now);
+        return mapToResponse(order);
     }
 
     @Override
     public OrderResponse updatePaymentStatus(Long id, Order.PaymentStatus paymentStatus) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        LocalDateTime now = LocalDateTime.now();
+        int updated = orderRepository.transitionPaymentStatus(id, paymentStatus,
+                OrderStatusTransitions.sourcesFor(paymentStatus), now);
 
-        order.setPaymentStatus(paymentStatus);
-        
+        boolean confirmed = false;
         // If payment is successful, move order to confirmed status
-        if (paymentStatus == Order.PaymentStatus.PAID && order.getStatus() == Order.OrderStatus.PENDING) {
-            order.setStatus(Order.OrderStatus.CONFIRMED);
+        if (updated > 0 && paymentStatus == Order.PaymentStatus.PAID) {
+            confirmed = orderRepository.transitionStatus(id, Order.OrderStatus.CONFIRMED,
+                    Set.of(Order.OrderStatus.PENDING), null, null, now) > 0;
+        }
+
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        if (updated == 0 && order.getPaymentStatus() != paymentStatus) {
+            throw new BusinessException("Invalid payment status transition from " + order.getPaymentStatus()
+                    + " to " + paymentStatus, "INVALID_PAYMENT_STATUS_TRANSITION", HttpStatus.CONFLICT);
         }
 
-        Order updatedOrder = orderRepository.save(order);
-        return mapToResponse(updatedOrder);
+        if (confirmed) {
+            orderRollupService.recordStatusChange(order.getUserId(), order.getTotalAmount(),
+                    Order.OrderStatus.CONFIRMED, now);
+        }
+        return mapToResponse(order);
     }
 
     @Override
     public void cancelOrder(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = orderRepository.transitionStatus(id, Order.OrderStatus.CANCELLED,
+                OrderStatusTransitions.sourcesFor(Order.OrderStatus.CANCELLED), null, null, now);
+
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        if (updated == 0) {
+            if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+                return;
+            }
+            // Can only cancel orders that are not yet shipped
+            throw new BusinessException("Cannot cancel order in status " + order.getStatus(),
+                    "INVALID_STATUS_TRANSITION", HttpStatus.CONFLICT);
+        }
+
+        orderRollupService.recordStatusChange(order.getUserId(), order.getTotalAmount(),
+                Order.OrderStatus.CANCELLED, now);
+    }
 
-        // Can only cancel orders that are not yet shipped
-        if (order.getStatus() == Order.OrderStatus.SHIPPED || 
-            order.getStatus() == Order.OrderStatus.DELIVERED) {
-            throw new BusinessException("Cannot cancel order that has been shipped or delivered");
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderBulkStatusResponse bulkUpdateStatus(OrderBulkStatusRequest request) {
+        Order.OrderStatus target = request.getStatus();
+        Set<Long> ids = request.getIds() != null ? new LinkedHashSet<>(request.getIds()) : Set.of();
+        Set<String> orderNumbers = request.getOrderNumbers() != null
+                ? new LinkedHashSet<>(request.getOrderNumbers()) : Set.of();
+        if (ids.isEmpty() && orderNumbers.isEmpty()) {
+            throw new BusinessException("At least one order id or order number is required",
+                    "EMPTY_BATCH_REQUEST", HttpStatus.BAD_REQUEST);
         }
 
-        order.setStatus(Order.OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        OrderBulkStatusResponse response = OrderBulkStatusResponse.builder()
+                .status(target)
+                .requested(ids.size() + orderNumbers.size())
+                .build();
+
+        // Each chunk commits on its own so a wave of thousands never holds one long transaction
+        for (List<Long> chunk : chunks(ids)) {
+            response.getResults().addAll(transactionTemplate.execute(status ->
+                    applyBulkTransition(chunk, orderRepository.findStatusViewsByIdIn(chunk), OrderStatusView::getId, target)));
+        }
+        for (List<String> chunk : chunks(orderNumbers)) {
+            response.getResults().addAll(transactionTemplate.execute(status ->
+                    applyBulkTransition(chunk, orderRepository.findStatusViewsByOrderNumberIn(chunk),
+                            OrderStatusView::getOrderNumber, target)));
+        }
+
+        response.setUpdated((int) response.getResults().stream()
+                .filter(outcome -> outcome.getResult() == OrderBulkStatusResponse.Result.UPDATED)
+                .count());
+        return response;
     }
 
     @Override
@@ -174,42 +317,143 @@ public class OrderServiceImpl implements OrderService {
                 .map(this::mapToResponse);
     }
 
-    private String generateOrderNumber() {
-        String uuid = UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
-        return "ORD-" + uuid;
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
-    private void validateStatusTransition(Order.OrderStatus currentStatus, Order.OrderStatus newStatus) {
-        // Define valid status transitions
-        switch (currentStatus) {
-            case PENDING:
-                if (newStatus != Order.OrderStatus.CONFIRMED && newStatus != Order.OrderStatus.CANCELLED) {
-                    throw new BusinessException("Invalid status transition from PENDING to " + newStatus);
-                }
-                break;
-            case CONFIRMED:
-                if (newStatus != Order.OrderStatus.PROCESSING && newStatus != Order.OrderStatus.CANCELLED) {
-                    throw new BusinessException("Invalid status transition from CONFIRMED to " + newStatus);
-                }
-                break;
-            case PROCESSING:
-                if (newStatus != Order.OrderStatus.SHIPPED && newStatus != Order.OrderStatus.CANCELLED) {
-                    throw new BusinessException("Invalid status transition from PROCESSING to " + newStatus);
-                }
-                break;
-            case SHIPPED:
-                if (newStatus != Order.OrderStatus.DELIVERED) {
-                    throw new BusinessException("Invalid status transition from SHIPPED to " + newStatus);
-                }
-                break;
-            case DELIVERED:
-                if (newStatus != Order.OrderStatus.REFUNDED) {
-                    throw new BusinessException("Invalid status transition from DELIVERED to " + newStatus);
+    private void validateItems(List<OrderRequest.OrderItemRequest> items, Map<Long, ProductSnapshot> products) {
+        Map<Long, Integer> requestedQuantities = new HashMap<>();
+        for (OrderRequest.OrderItemRequest item : items) {
+            ProductSnapshot product = products.get(item.getProductId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + item.getProductId());
+            }
+            if (!Boolean.TRUE.equals(product.getActive())) {
+                throw new BusinessException("Product is not available: " + product.getSku(), "PRODUCT_UNAVAILABLE");
+            }
+            // A client-supplied price is only accepted if it still matches the catalog
+            if (item.getUnitPrice() != null && item.getUnitPrice().compareTo(product.getPrice()) != 0) {
+                throw new BusinessException("Price has changed for product: " + product.getSku(),
+                        "PRICE_MISMATCH", HttpStatus.CONFLICT);
+            }
+            requestedQuantities.merge(product.getId(), item.getQuantity(), Integer::sum);
+        }
+
+        requestedQuantities.forEach((productId, quantity) -> {
+            ProductSnapshot product = products.get(productId);
+            if (product.getStockQuantity() != null && product.getStockQuantity() < quantity) {
+                throw new BusinessException("Insufficient stock for product: " + product.getSku(), "INSUFFICIENT_STOCK");
+            }
+        });
+    }
+
+    private <K> List<OrderBulkStatusResponse.Outcome> applyBulkTransition(List<K> keys, List<OrderStatusView> views,
+                                                                      Function<OrderStatusView, K> keyOf,
+                                                                      Order.OrderStatus target) {
+        Map<K, OrderStatusView> found = views.stream().collect(Collectors.toMap(keyOf, Function.identity()));
+        Set<Order.OrderStatus> sources = OrderStatusTransitions.sourcesFor(target);
+
+        Map<K, OrderBulkStatusResponse.Outcome> outcomes = new LinkedHashMap<>();
+        Map<Long, OrderStatusView> candidates = new LinkedHashMap<>();
+        for (K key : keys) {
+            OrderStatusView view = found.get(key);
+            OrderBulkStatusResponse.Outcome outcome = new OrderBulkStatusResponse.Outcome();
+            outcomes.put(key, outcome);
+            if (view == null) {
+                if (key instanceof Long id) {
+                    outcome.setId(id);
+                } else {
+                    outcome.setOrderNumber((String) key);
                 }
-                break;
-            default:
-                throw new BusinessException("Cannot transition from status: " + currentStatus);
+                outcome.setResult(OrderBulkStatusResponse.Result.NOT_FOUND);
+                continue;
+            }
+            outcome.setId(view.getId());
+            outcome.setOrderNumber(view.getOrderNumber());
+            outcome.setCurrentStatus(view.getStatus());
+            if (view.getStatus() == target) {
+                outcome.setResult(OrderBulkStatusResponse.Result.ALREADY_IN_STATUS);
+            } else if (!sources.contains(view.getStatus())) {
+                outcome.setResult(OrderBulkStatusResponse.Result.INVALID_TRANSITION);
+            } else {
+                candidates.put(view.getId(), view);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new ArrayList<>(outcomes.values());
+        }
+
+        // Postgres keeps microseconds; the truncated value is matched back as the update marker
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int updated = orderRepository.transitionStatusBulk(candidates.keySet(), target, sources,
+                target == Order.OrderStatus.SHIPPED ? now : null,
+                target == Order.OrderStatus.DELIVERED ? now : null,
+                now);
+        Set<Long> updatedIds = updated == candidates.size()
+                ? candidates.keySet()
+                : new HashSet<>(orderRepository.findIdsByStatusAndUpdatedAt(candidates.keySet(), target, now));
+
+        List<OrderStatusView> applied = new ArrayList<>(updatedIds.size());
+        List<OrderStatusChangedEvent> events = new ArrayList<>(updatedIds.size());
+        for (OrderStatusView view : candidates.values()) {
+            OrderBulkStatusResponse.Outcome outcome = outcomes.get(keyOf.apply(view));
+            if (updatedIds.contains(view.getId())) {
+                outcome.setResult(OrderBulkStatusResponse.Result.UPDATED);
+                outcome.setCurrentStatus(target);
+                applied.add(view);
+                events.add(OrderStatusChangedEvent.builder()
+                        .eventId(UUID.randomUUID().toString())
+                        .orderId(view.getId())
+                        .orderNumber(view.getOrderNumber())
+                        .userId(view.getUserId())
+                        .oldStatus(view.getStatus().name())
+                        .newStatus(target.name())
+                        .changedAt(now)
+                        .metadata(Map.of("eventType", "ORDER_" + target.name()))
+                        .build());
+            } else {
+                // Another writer moved the order between our read and the guarded update
+                outcome.setResult(OrderBulkStatusResponse.Result.CONFLICT);
+                outcome.setCurrentStatus(null);
+            }
+        }
+
+        orderRollupService.recordStatusChanges(applied, target, now);
+        orderEventPublisher.publishStatusChanges(events);
+        return new ArrayList<>(outcomes.values());
+    }
+
+    private <T> List<List<T>> chunks(Collection<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(bulkChunkSize, values.size()));
+        for (T value : values) {
+            current.add(value);
+            if (current.size() == bulkChunkSize) {
+                chunks.add(current);
+                current = new ArrayList<>(bulkChunkSize);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private BusinessException statusTransitionFailure(Order.OrderStatus current, Order.OrderStatus target) {
+        // The matrix allows the move, so another writer changed the status between our update and read
+        if (OrderStatusTransitions.isAllowed(current, target)) {
+            return new BusinessException("Order status changed concurrently, please retry",
+                    "ORDER_STATUS_CONFLICT", HttpStatus.CONFLICT);
         }
+        return new BusinessException("Invalid status transition from " + current + " to " + target,
+                "INVALID_STATUS_TRANSITION", HttpStatus.CONFLICT);
     }
 
     private OrderResponse mapToResponse(Order order) {
@@ -232,7 +476,9 @@ public class OrderServiceImpl implements OrderService {
                 .userId(order.getUserId())
                 .status(order.getStatus())
                 .totalAmount(order.getTotalAmount())
+                .shippingAddressId(order.getShippingAddressId())
                 .shippingAddress(order.getShippingAddress())
+                .billingAddressId(order.getBillingAddressId())
                 .billingAddress(order.getBillingAddress())
                 .paymentMethod(order.getPaymentMethod())
                 .paymentStatus(order.getPaymentStatus())
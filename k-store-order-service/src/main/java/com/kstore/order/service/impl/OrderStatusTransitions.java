@@ -0,0 +1,61 @@
+package com.kstore.order.service.impl;
+
+import com.kstore.order.entity.Order;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed order and payment status transitions. The inverse lookups feed the
+ * {@code WHERE status IN (...)} guard of the conditional updates in OrderRepository.
+ */
+final class OrderStatusTransitions {
+
+    private static final Map<Order.OrderStatus, Set<Order.OrderStatus>> ORDER_TARGETS =
+            new EnumMap<>(Order.OrderStatus.class);
+    private static final Map<Order.PaymentStatus, Set<Order.PaymentStatus>> PAYMENT_TARGETS =
+            new EnumMap<>(Order.PaymentStatus.class);
+
+    private static final Map<Order.OrderStatus, Set<Order.OrderStatus>> ORDER_SOURCES;
+    private static final Map<Order.PaymentStatus, Set<Order.PaymentStatus>> PAYMENT_SOURCES;
+
+    static {
+        ORDER_TARGETS.put(Order.OrderStatus.PENDING, EnumSet.of(Order.OrderStatus.CONFIRMED, Order.OrderStatus.CANCELLED));
+        ORDER_TARGETS.put(Order.OrderStatus.CONFIRMED, EnumSet.of(Order.OrderStatus.PROCESSING, Order.OrderStatus.CANCELLED));
+        ORDER_TARGETS.put(Order.OrderStatus.PROCESSING, EnumSet.of(Order.OrderStatus.SHIPPED, Order.OrderStatus.CANCELLED));
+        ORDER_TARGETS.put(Order.OrderStatus.SHIPPED, EnumSet.of(Order.OrderStatus.DELIVERED));
+        ORDER_TARGETS.put(Order.OrderStatus.DELIVERED, EnumSet.of(Order.OrderStatus.REFUNDED));
+
+        PAYMENT_TARGETS.put(Order.PaymentStatus.PENDING, EnumSet.of(Order.PaymentStatus.PAID, Order.PaymentStatus.FAILED));
+        PAYMENT_TARGETS.put(Order.PaymentStatus.FAILED, EnumSet.of(Order.PaymentStatus.PAID, Order.PaymentStatus.PENDING));
+        PAYMENT_TARGETS.put(Order.PaymentStatus.PAID, EnumSet.of(Order.PaymentStatus.REFUNDED));
+
+        ORDER_SOURCES = invert(ORDER_TARGETS, Order.OrderStatus.class);
+        PAYMENT_SOURCES = invert(PAYMENT_TARGETS, Order.PaymentStatus.class);
+    }
+
+    private OrderStatusTransitions() {
+    }
+
+    static boolean isAllowed(Order.OrderStatus from, Order.OrderStatus to) {
+        return ORDER_TARGETS.getOrDefault(from, Collections.emptySet()).contains(to);
+    }
+
+    static Set<Order.OrderStatus> sourcesFor(Order.OrderStatus target) {
+        return ORDER_SOURCES.getOrDefault(target, Collections.emptySet());
+    }
+
+    static Set<Order.PaymentStatus> sourcesFor(Order.PaymentStatus target) {
+        return PAYMENT_SOURCES.getOrDefault(target, Collections.emptySet());
+    }
+
+    private static <E extends Enum<E>> Map<E, Set<E>> invert(Map<E, Set<E>> targets, Class<E> type) {
+        Map<E, Set<E>> sources = new EnumMap<>(type);
+        targets.forEach((from, tos) -> tos.forEach(to -> sources.computeIfAbsent(to, t -> EnumSet.noneOf(type)).add(from)));
+        sources.replaceAll((to, froms) -> Collections.unmodifiableSet(froms));
+        return Collections.unmodifiableMap(sources);
+    }
+}
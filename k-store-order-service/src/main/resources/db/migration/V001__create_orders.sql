@@ -0,0 +1,40 @@
+-- Orders and their items; schemas created before migrations already have these tables
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT PRIMARY KEY,
+    order_number VARCHAR(255) UNIQUE,
+    user_id BIGINT,
+    status VARCHAR(255),
+    total_amount NUMERIC(19,2),
+    shipping_address VARCHAR(255),
+    billing_address VARCHAR(255),
+    payment_method VARCHAR(255),
+    payment_status VARCHAR(255),
+    notes VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    shipped_at TIMESTAMP(6),
+    delivered_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT REFERENCES orders (id),
+    product_id BIGINT,
+    product_name VARCHAR(255),
+    product_sku VARCHAR(255),
+    product_image_url VARCHAR(255),
+    quantity INTEGER,
+    unit_price NUMERIC(19,2),
+    total_price NUMERIC(19,2)
+);
+
+-- Sequence-backed ids for orders and order items (pooled-lo, blocks of 50)
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1 INCREMENT BY 50;
+
+-- Continue after ids handed out by the former identity columns, then drop the identity
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM orders), false);
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM order_items), false);
+
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,77 @@
+-- Daily rollups maintained incrementally by OrderRollupService
+CREATE TABLE IF NOT EXISTS order_daily_user_summary (
+    id               BIGSERIAL PRIMARY KEY,
+    user_id          BIGINT         NOT NULL,
+    summary_date     DATE           NOT NULL,
+    order_count      BIGINT         NOT NULL DEFAULT 0,
+    ordered_amount   NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    delivered_count  BIGINT         NOT NULL DEFAULT 0,
+    delivered_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    cancelled_count  BIGINT         NOT NULL DEFAULT 0,
+    updated_at       TIMESTAMP,
+    CONSTRAINT uk_order_daily_user_summary UNIQUE (user_id, summary_date)
+);
+
+CREATE TABLE IF NOT EXISTS order_daily_status_summary (
+    id           BIGSERIAL PRIMARY KEY,
+    summary_date DATE           NOT NULL,
+    status       VARCHAR(255)   NOT NULL,
+    order_count  BIGINT         NOT NULL DEFAULT 0,
+    total_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at   TIMESTAMP,
+    CONSTRAINT uk_order_daily_status_summary UNIQUE (summary_date, status)
+);
+
+CREATE TABLE IF NOT EXISTS order_daily_revenue (
+    id               BIGSERIAL PRIMARY KEY,
+    summary_date     DATE           NOT NULL UNIQUE,
+    order_count      BIGINT         NOT NULL DEFAULT 0,
+    gross_amount     NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    delivered_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    refunded_amount  NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    updated_at       TIMESTAMP
+);
+
+-- One-off backfill from existing orders. Status history is not kept, so placed orders are
+-- counted on their creation day and terminal states on delivered_at / updated_at; the status
+-- summary can only seed each order's current status.
+INSERT INTO order_daily_user_summary (user_id, summary_date, order_count, ordered_amount,
+                                      delivered_count, delivered_amount, cancelled_count, updated_at)
+SELECT user_id, day, SUM(placed), SUM(placed_amount), SUM(delivered), SUM(delivered_amount), SUM(cancelled), now()
+FROM (
+    SELECT user_id, CAST(created_at AS DATE) AS day, 1 AS placed, total_amount AS placed_amount,
+           0 AS delivered, 0 AS delivered_amount, 0 AS cancelled
+    FROM orders
+    UNION ALL
+    SELECT user_id, CAST(delivered_at AS DATE), 0, 0, 1, total_amount, 0
+    FROM orders WHERE status IN ('DELIVERED', 'REFUNDED') AND delivered_at IS NOT NULL
+    UNION ALL
+    SELECT user_id, CAST(updated_at AS DATE), 0, 0, 0, -total_amount, 0
+    FROM orders WHERE status = 'REFUNDED'
+    UNION ALL
+    SELECT user_id, CAST(updated_at AS DATE), 0, 0, 0, 0, 1
+    FROM orders WHERE status = 'CANCELLED'
+) events
+GROUP BY user_id, day
+ON CONFLICT (user_id, summary_date) DO NOTHING;
+
+INSERT INTO order_daily_status_summary (summary_date, status, order_count, total_amount, updated_at)
+SELECT CAST(COALESCE(delivered_at, shipped_at, updated_at, created_at) AS DATE), status, COUNT(*), SUM(total_amount), now()
+FROM orders
+GROUP BY 1, status
+ON CONFLICT (summary_date, status) DO NOTHING;
+
+INSERT INTO order_daily_revenue (summary_date, order_count, gross_amount, delivered_amount, refunded_amount, updated_at)
+SELECT day, SUM(placed), SUM(gross), SUM(delivered), SUM(refunded), now()
+FROM (
+    SELECT CAST(created_at AS DATE) AS day, 1 AS placed, total_amount AS gross, 0 AS delivered, 0 AS refunded
+    FROM orders
+    UNION ALL
+    SELECT CAST(delivered_at AS DATE), 0, 0, total_amount, 0
+    FROM orders WHERE status IN ('DELIVERED', 'REFUNDED') AND delivered_at IS NOT NULL
+    UNION ALL
+    SELECT CAST(updated_at AS DATE), 0, 0, 0, total_amount
+    FROM orders WHERE status = 'REFUNDED'
+) events
+GROUP BY day
+ON CONFLICT (summary_date) DO NOTHING;
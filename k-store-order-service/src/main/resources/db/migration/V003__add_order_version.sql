@@ -0,0 +1,2 @@
+-- Optimistic locking column; conditional status updates bump it as well
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- References to user-service addresses; the text columns keep the address as it was when ordered
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS shipping_address_id BIGINT;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS billing_address_id BIGINT;
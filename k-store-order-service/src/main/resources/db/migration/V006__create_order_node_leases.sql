@@ -0,0 +1,6 @@
+-- Node ids for order numbers are leased per replica and kept alive by a heartbeat
+CREATE TABLE IF NOT EXISTS order_node_leases (
+    node_id      INTEGER     PRIMARY KEY,
+    instance_id  VARCHAR(64) NOT NULL,
+    heartbeat_at TIMESTAMP   NOT NULL
+);
@@ -0,0 +1,12 @@
+-- Append-only deltas for the shared daily status/revenue rows, folded in by OrderRollupFlushScheduler
+CREATE TABLE IF NOT EXISTS order_rollup_deltas (
+    id               BIGSERIAL PRIMARY KEY,
+    summary_date     DATE           NOT NULL,
+    status           VARCHAR(255)   NOT NULL,
+    status_count     BIGINT         NOT NULL DEFAULT 0,
+    status_amount    NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    order_count      BIGINT         NOT NULL DEFAULT 0,
+    gross_amount     NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    delivered_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    refunded_amount  NUMERIC(19, 2) NOT NULL DEFAULT 0
+);
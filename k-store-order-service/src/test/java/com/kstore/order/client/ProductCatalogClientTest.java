@@ -0,0 +1,152 @@
+package com.kstore.order.client;
+
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.common.exception.BusinessException;
+import com.kstore.order.dto.ProductBatchLookup;
+import com.kstore.order.dto.ProductSnapshot;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.github.resilience4j.springboot3.timelimiter.autoconfigure.TimeLimiterAutoConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JAutoConfiguration;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the client through the real Resilience4J factory, configured from application.yml.
+ */
+@SpringBootTest(classes = ProductCatalogClientTest.class, properties = "spring.cloud.config.enabled=false")
+@ImportAutoConfiguration({CircuitBreakerAutoConfiguration.class, TimeLimiterAutoConfiguration.class,
+        Resilience4JAutoConfiguration.class})
+class ProductCatalogClientTest {
+
+    @Autowired
+    private CircuitBreakerFactory<?, ?> circuitBreakerFactory;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private ProductServiceClient productServiceClient;
+    private ProductCatalogClient client;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry.circuitBreaker("product-service").reset();
+        productServiceClient = mock(ProductServiceClient.class);
+        client = new ProductCatalogClient(productServiceClient, circuitBreakerFactory, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void servesRepeatLookupsFromTheCacheAndFetchesOnlyMisses() {
+        when(productServiceClient.getProductsBatch(any())).thenReturn(found(1L, 2L), found(3L));
+
+        assertThat(client.getProducts(List.of(1L, 2L))).containsOnlyKeys(1L, 2L);
+        assertThat(client.getProducts(List.of(1L, 2L, 3L))).containsOnlyKeys(1L, 2L, 3L);
+
+        verify(productServiceClient).getProductsBatch(argThat(request -> Set.copyOf(request.getIds()).equals(Set.of(1L, 2L))));
+        verify(productServiceClient).getProductsBatch(argThat(request -> request.getIds().equals(List.of(3L))));
+    }
+
+    @Test
+    void unknownIdsAreMissingFromTheResultAndNotCached() {
+        when(productServiceClient.getProductsBatch(any())).thenReturn(found(1L));
+
+        assertThat(client.getProducts(List.of(1L, 9L))).containsOnlyKeys(1L);
+        client.getProducts(List.of(9L));
+
+        verify(productServiceClient, times(2)).getProductsBatch(any());
+    }
+
+    @Test
+    void clientErrorsPassThroughWithoutOpeningTheBreaker() {
+        when(productServiceClient.getProductsBatch(any())).thenThrow(feignError(400));
+
+        for (int i = 0; i < 25; i++) {
+            long id = i;
+            assertThatThrownBy(() -> client.getProducts(List.of(id)))
+                    .isInstanceOfSatisfying(BusinessException.class, e -> {
+                        assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+                        assertThat(e.getErrorCode()).isEqualTo("PRODUCT_LOOKUP_REJECTED");
+                    });
+        }
+
+        CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker("product-service");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+
+    @Test
+    void serverErrorsOpenTheBreakerAndFailFast() {
+        when(productServiceClient.getProductsBatch(any())).thenThrow(feignError(500));
+
+        // minimum-number-of-calls is 10 in application.yml
+        for (int i = 0; i < 10; i++) {
+            long id = i;
+            assertThatThrownBy(() -> client.getProducts(List.of(id)))
+                    .isInstanceOfSatisfying(BusinessException.class, e -> {
+                        assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                        assertThat(e.getErrorCode()).isEqualTo("PRODUCT_CATALOG_UNAVAILABLE");
+                    });
+        }
+        assertThat(circuitBreakerRegistry.circuitBreaker("product-service").getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+
+        reset(productServiceClient);
+        assertThatThrownBy(() -> client.getProducts(List.of(99L)))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        verify(productServiceClient, never()).getProductsBatch(any());
+    }
+
+    private static ApiResponse<ProductBatchLookup.Response> found(Long... ids) {
+        ProductBatchLookup.Response response = new ProductBatchLookup.Response();
+        for (Long id : ids) {
+            response.getById().put(id, ProductSnapshot.builder()
+                    .id(id)
+                    .name("Product " + id)
+                    .price(BigDecimal.TEN)
+                    .stockQuantity(5)
+                    .active(true)
+                    .build());
+        }
+        return ApiResponse.success(response);
+    }
+
+    private static FeignException feignError(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/products/batch", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        Response response = Response.builder()
+                .status(status)
+                .reason("error")
+                .request(request)
+                .body("{\"success\":false}", StandardCharsets.UTF_8)
+                .build();
+        return FeignException.errorStatus("ProductServiceClient#getProductsBatch", response);
+    }
+}
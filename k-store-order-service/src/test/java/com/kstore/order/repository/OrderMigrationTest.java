@@ -0,0 +1,161 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.dto.OrderReport;
+import com.kstore.order.entity.Order;
+import com.kstore.order.service.OrderRollupService;
+import com.kstore.order.service.impl.OrderRollupServiceImpl;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Starts from a schema as {@code ddl-auto: update} left it before Flyway (identity ids, existing orders, no Flyway
+ * history), lets the application's Flyway settings migrate it and Hibernate validate it against the entities.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = OrderMigrationTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderMigrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = startWithLegacySchema();
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private OrderRollupService rollupService;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Test
+    void sequencesContinueAfterExistingIds() {
+        assertThat(jdbc.queryForObject("SELECT nextval('orders_seq')", Long.class)).isEqualTo(5);
+        assertThat(jdbc.queryForObject("SELECT nextval('order_items_seq')", Long.class)).isEqualTo(4);
+    }
+
+    @Test
+    void identityDefaultsAreDropped() {
+        assertThat(jdbc.queryForList("SELECT table_name FROM information_schema.columns "
+                + "WHERE table_name IN ('orders', 'order_items') AND column_name = 'id' AND is_identity = 'YES'",
+                String.class)).isEmpty();
+    }
+
+    @Test
+    void existingOrdersStartAtVersionZero() {
+        assertThat(jdbc.queryForList("SELECT DISTINCT version FROM orders", Long.class)).containsExactly(0L);
+        assertThat(jdbc.queryForObject("SELECT is_nullable FROM information_schema.columns "
+                + "WHERE table_name = 'orders' AND column_name = 'version'", String.class)).isEqualTo("NO");
+    }
+
+    @Test
+    void appliesEveryMigrationAboveTheBaseline() {
+        assertThat(jdbc.queryForList("SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank",
+                String.class)).containsExactly("0", "001", "002", "003", "004", "005", "006", "007");
+    }
+
+    @Test
+    void reportsCoverOrdersPlacedBeforeTheRollups() {
+        OrderReport.UserReport user = rollupService.getUserReport(7L, FROM, TO);
+        assertThat(user.getOrderCount()).isEqualTo(3);
+        assertThat(user.getOrderedAmount()).isEqualByComparingTo("75.00");
+        assertThat(user.getDeliveredCount()).isEqualTo(2);
+        assertThat(user.getDeliveredAmount()).as("refund booked against the delivery").isEqualByComparingTo("25.00");
+        assertThat(user.getDays())
+                .extracting(OrderReport.UserDay::getDate, OrderReport.UserDay::getOrderCount,
+                        OrderReport.UserDay::getDeliveredCount)
+                .containsExactly(
+                        tuple(LocalDate.of(2024, 3, 1), 2L, 0L),
+                        tuple(LocalDate.of(2024, 3, 2), 1L, 0L),
+                        tuple(LocalDate.of(2024, 3, 3), 0L, 2L),
+                        tuple(LocalDate.of(2024, 3, 5), 0L, 0L));
+        assertThat(rollupService.getUserReport(8L, FROM, TO).getCancelledCount()).isEqualTo(1);
+
+        OrderReport.RevenueReport revenue = rollupService.getRevenueReport(FROM, TO);
+        assertThat(revenue.getOrderCount()).isEqualTo(4);
+        assertThat(revenue.getGrossAmount()).isEqualByComparingTo("80.00");
+        assertThat(revenue.getDeliveredAmount()).isEqualByComparingTo("65.00");
+        assertThat(revenue.getRefundedAmount()).isEqualByComparingTo("40.00");
+
+        OrderReport.StatusReport status = rollupService.getStatusReport(FROM, TO);
+        assertThat(status.getTotals()).containsOnlyKeys(Order.OrderStatus.PENDING, Order.OrderStatus.DELIVERED,
+                Order.OrderStatus.CANCELLED, Order.OrderStatus.REFUNDED);
+        assertThat(status.getTotals().get(Order.OrderStatus.REFUNDED).getTotalAmount()).isEqualByComparingTo("40.00");
+    }
+
+    private static EmbeddedPostgres startWithLegacySchema() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            JdbcTemplate legacy = new JdbcTemplate(postgres.getPostgresDatabase());
+            legacy.execute("""
+                    CREATE TABLE orders (
+                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        order_number VARCHAR(255) UNIQUE, user_id BIGINT, status VARCHAR(255),
+                        total_amount NUMERIC(19,2), shipping_address VARCHAR(255), billing_address VARCHAR(255),
+                        payment_method VARCHAR(255), payment_status VARCHAR(255), notes VARCHAR(255),
+                        created_at TIMESTAMP(6), updated_at TIMESTAMP(6), shipped_at TIMESTAMP(6),
+                        delivered_at TIMESTAMP(6))""");
+            legacy.execute("""
+                    CREATE TABLE order_items (
+                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        order_id BIGINT REFERENCES orders (id), product_id BIGINT, product_name VARCHAR(255),
+                        product_sku VARCHAR(255), product_image_url VARCHAR(255), quantity INTEGER,
+                        unit_price NUMERIC(19,2), total_price NUMERIC(19,2))""");
+            legacyOrder(legacy, 7, "PENDING", "10.00", "2024-03-01 10:00", "2024-03-01 10:00", null);
+            legacyOrder(legacy, 7, "DELIVERED", "25.00", "2024-03-01 11:00", "2024-03-03 09:00", "2024-03-03 09:00");
+            legacyOrder(legacy, 8, "CANCELLED", "5.00", "2024-03-02 08:00", "2024-03-02 12:00", null);
+            legacyOrder(legacy, 7, "REFUNDED", "40.00", "2024-03-02 09:00", "2024-03-05 15:00", "2024-03-03 10:00");
+            for (int i = 1; i <= 3; i++) {
+                legacy.update("INSERT INTO order_items (order_id, product_id, quantity, unit_price, total_price) "
+                        + "VALUES (?, 1, 1, 10.00, 10.00)", i);
+            }
+            return postgres;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    private static void legacyOrder(JdbcTemplate legacy, long userId, String status, String amount, String createdAt,
+                                    String updatedAt, String deliveredAt) {
+        legacy.update("INSERT INTO orders (order_number, user_id, status, total_amount, created_at, updated_at, "
+                        + "delivered_at) VALUES ('ORD-' || gen_random_uuid(), ?, ?, CAST(? AS NUMERIC), "
+                        + "CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))",
+                userId, status, amount, createdAt, updatedAt, deliveredAt);
+    }
+
+    @Configuration
+    @EntityScan(basePackageClasses = Order.class)
+    @EnableJpaRepositories(basePackageClasses = OrderMigrationTest.class)
+    @Import(OrderRollupServiceImpl.class)
+    static class Config {
+    }
+}
@@ -0,0 +1,104 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.OrderNodeLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderNodeLeaseRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private OrderNodeLeaseRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void concurrentClaimsForTheSameNodeIdHaveOneWinner() throws Exception {
+        int contenders = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(contenders);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < contenders; i++) {
+                String instanceId = "instance-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return repository.claim(5, instanceId, 30);
+                }));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Integer> result : results) {
+                winners += result.get();
+            }
+            assertThat(winners).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void replicasClaimingTogetherGetDistinctNodeIds() throws Exception {
+        int replicas = 12;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(replicas);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < replicas; i++) {
+                String instanceId = "replica-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    // Same steps as OrderNumberGenerator: read live ids, then claim the first free one
+                    Set<Integer> live = new HashSet<>(repository.findLiveNodeIds(30));
+                    for (int nodeId = 0; nodeId < 1024; nodeId++) {
+                        if (!live.contains(nodeId) && repository.claim(nodeId, instanceId, 30) > 0) {
+                            return nodeId;
+                        }
+                    }
+                    return -1;
+                }));
+            }
+            start.countDown();
+            Set<Integer> claimed = new HashSet<>();
+            for (Future<Integer> result : results) {
+                claimed.add(result.get());
+            }
+            assertThat(claimed).hasSize(replicas).doesNotContain(-1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void onlyExpiredLeasesCanBeTakenOver() {
+        assertThat(repository.claim(3, "first", 30)).isEqualTo(1);
+        assertThat(repository.claim(3, "second", 30)).isZero();
+
+        jdbcTemplate.update("UPDATE order_node_leases SET heartbeat_at = LOCALTIMESTAMP - INTERVAL '31 seconds'");
+        assertThat(repository.findLiveNodeIds(30)).isEmpty();
+        assertThat(repository.claim(3, "second", 30)).isEqualTo(1);
+
+        // The previous holder can neither renew nor release the lease it lost
+        assertThat(repository.renew(3, "first")).isZero();
+        assertThat(repository.release(3, "first")).isZero();
+        assertThat(repository.findById(3)).map(OrderNodeLease::getInstanceId).contains("second");
+    }
+}
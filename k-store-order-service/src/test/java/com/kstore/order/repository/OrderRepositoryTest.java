@@ -0,0 +1,69 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        order = orderRepository.save(Order.builder()
+                .orderNumber("ORD-" + UUID.randomUUID())
+                .userId(7L)
+                .status(Order.OrderStatus.PENDING)
+                .paymentStatus(Order.PaymentStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .build());
+    }
+
+    @Test
+    void transitionsBumpTheVersion() {
+        assertThat(order.getVersion()).isZero();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(update(() -> orderRepository.transitionStatus(order.getId(), Order.OrderStatus.CONFIRMED,
+                List.of(Order.OrderStatus.PENDING), null, null, now))).isEqualTo(1);
+        assertThat(update(() -> orderRepository.transitionPaymentStatus(order.getId(), Order.PaymentStatus.PAID,
+                List.of(Order.PaymentStatus.PENDING), now))).isEqualTo(1);
+        assertThat(update(() -> orderRepository.transitionStatusBulk(List.of(order.getId()),
+                Order.OrderStatus.PROCESSING, List.of(Order.OrderStatus.CONFIRMED), null, null, now))).isEqualTo(1);
+
+        assertThat(orderRepository.findById(order.getId())).get()
+                .extracting(Order::getStatus, Order::getPaymentStatus, Order::getVersion)
+                .containsExactly(Order.OrderStatus.PROCESSING, Order.PaymentStatus.PAID, 3L);
+    }
+
+    @Test
+    void transitionFromAnotherStatusChangesNothing() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(update(() -> orderRepository.transitionStatus(order.getId(), Order.OrderStatus.DELIVERED,
+                List.of(Order.OrderStatus.SHIPPED), null, now, now))).isZero();
+
+        assertThat(orderRepository.findById(order.getId())).get()
+                .extracting(Order::getStatus, Order::getVersion)
+                .containsExactly(Order.OrderStatus.PENDING, 0L);
+    }
+
+    private int update(IntSupplier statement) {
+        return transactionTemplate.execute(status -> statement.getAsInt());
+    }
+}
@@ -0,0 +1,136 @@
+package com.kstore.order.repository;
+
+import com.kstore.order.entity.OrderDailyRevenue;
+import com.kstore.order.entity.OrderDailyStatusSummary;
+import com.kstore.order.entity.OrderRollupDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class OrderRollupDeltaRepositoryTest extends PostgresRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private OrderRollupDeltaRepository deltaRepository;
+
+    @Autowired
+    private OrderDailyStatusSummaryRepository statusSummaryRepository;
+
+    @Autowired
+    private OrderDailyRevenueRepository revenueRepository;
+
+    @BeforeEach
+    void clear() {
+        deltaRepository.deleteAll();
+        statusSummaryRepository.deleteAll();
+        revenueRepository.deleteAll();
+    }
+
+    @Test
+    void foldSumsDeltasIntoOneRowPerDayAndStatus() {
+        deltaRepository.save(delta("PENDING", 1, "10.00", 1, "10.00", "0", "0"));
+        deltaRepository.save(delta("PENDING", 1, "15.50", 1, "15.50", "0", "0"));
+        deltaRepository.save(delta("DELIVERED", 1, "10.00", 0, "0", "10.00", "0"));
+        deltaRepository.save(delta("CANCELLED", 2, "30.00", 0, "0", "0", "0"));
+
+        assertThat(deltaRepository.fold(100)).isEqualTo(4);
+        assertThat(deltaRepository.count()).isZero();
+
+        assertThat(statusSummaryRepository.findBySummaryDateBetweenOrderBySummaryDateAscStatusAsc(DAY, DAY))
+                .extracting(row -> row.getStatus().name(), OrderDailyStatusSummary::getOrderCount,
+                        row -> row.getTotalAmount().toPlainString())
+                .containsExactly(
+                        tuple("CANCELLED", 2L, "30.00"),
+                        tuple("DELIVERED", 1L, "10.00"),
+                        tuple("PENDING", 2L, "25.50"));
+
+        List<OrderDailyRevenue> revenue = revenueRepository.findBySummaryDateBetweenOrderBySummaryDate(DAY, DAY);
+        assertThat(revenue).hasSize(1);
+        assertThat(revenue.get(0).getOrderCount()).isEqualTo(2);
+        assertThat(revenue.get(0).getGrossAmount()).isEqualByComparingTo("25.50");
+        assertThat(revenue.get(0).getDeliveredAmount()).isEqualByComparingTo("10.00");
+        assertThat(revenue.get(0).getRefundedAmount()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void foldAddsToExistingRowsAndStopsAtTheLimit() {
+        for (int i = 0; i < 5; i++) {
+            deltaRepository.save(delta("PENDING", 1, "1.00", 1, "1.00", "0", "0"));
+        }
+        assertThat(deltaRepository.fold(3)).isEqualTo(3);
+        assertThat(deltaRepository.fold(3)).isEqualTo(2);
+        assertThat(deltaRepository.fold(3)).isZero();
+
+        OrderDailyRevenue revenue = revenueRepository.findBySummaryDateBetweenOrderBySummaryDate(DAY, DAY).get(0);
+        assertThat(revenue.getOrderCount()).isEqualTo(5);
+        assertThat(revenue.getGrossAmount()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void concurrentFoldsCountEveryDeltaOnce() throws Exception {
+        int deltas = 500;
+        List<OrderRollupDelta> batch = new ArrayList<>();
+        for (int i = 0; i < deltas; i++) {
+            batch.add(delta("PENDING", 1, "1.00", 1, "1.00", "0", "0"));
+        }
+        deltaRepository.saveAll(batch);
+
+        int folders = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(folders);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < folders; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    long folded = 0;
+                    long last;
+                    do {
+                        last = deltaRepository.fold(50);
+                        folded += last;
+                    } while (last > 0);
+                    return folded;
+                }));
+            }
+            start.countDown();
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            assertThat(total).isEqualTo(deltas);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        OrderDailyRevenue revenue = revenueRepository.findBySummaryDateBetweenOrderBySummaryDate(DAY, DAY).get(0);
+        assertThat(revenue.getOrderCount()).isEqualTo(deltas);
+        assertThat(revenue.getGrossAmount()).isEqualByComparingTo(String.valueOf(deltas));
+    }
+
+    private static OrderRollupDelta delta(String status, long statusCount, String statusAmount, long orderCount,
+                                          String grossAmount, String deliveredAmount, String refundedAmount) {
+        return OrderRollupDelta.builder()
+                .summaryDate(DAY)
+                .status(status)
+                .statusCount(statusCount)
+                .statusAmount(new BigDecimal(statusAmount))
+                .orderCount(orderCount)
+                .grossAmount(new BigDecimal(grossAmount))
+                .deliveredAmount(new BigDecimal(deliveredAmount))
+                .refundedAmount(new BigDecimal(refundedAmount))
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.kstore.order.service.impl;
+
+import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.order.client.UserAddressClient;
+import com.kstore.order.dto.AddressBatchLookup;
+import com.kstore.order.dto.AddressSnapshot;
+import com.kstore.order.dto.OrderRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderAddressResolverTest {
+
+    private UserAddressClient userAddressClient;
+    private OrderAddressResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        userAddressClient = mock(UserAddressClient.class);
+        resolver = new OrderAddressResolver(userAddressClient);
+        when(userAddressClient.lookup(any(), isNull())).thenReturn(AddressBatchLookup.Response.builder()
+                .byId(Map.of(
+                        10L, address(10L, 7L, "1 Main St"),
+                        20L, address(20L, 8L, "2 Other Rd")))
+                .missingIds(List.of(30L))
+                .build());
+    }
+
+    @Test
+    void ownAddressIsSnapshotted() {
+        OrderAddressResolver.OrderAddresses addresses = resolver.resolve(request(10L, 10L));
+
+        assertThat(addresses).isEqualTo(new OrderAddressResolver.OrderAddresses(10L, "1 Main St", 10L, "1 Main St"));
+    }
+
+    @Test
+    void anotherUsersAddressIsReportedAsNotFound() {
+        // Same response as for an id that does not exist, so ids of other users cannot be probed
+        assertThatThrownBy(() -> resolver.resolve(request(20L, 10L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Address not found with id: 20");
+        assertThatThrownBy(() -> resolver.resolve(request(10L, 30L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Address not found with id: 30");
+    }
+
+    private static OrderRequest request(Long shippingAddressId, Long billingAddressId) {
+        return OrderRequest.builder()
+                .userId(7L)
+                .shippingAddressId(shippingAddressId)
+                .billingAddressId(billingAddressId)
+                .build();
+    }
+
+    private static AddressSnapshot address(Long id, Long userId, String fullAddress) {
+        return AddressSnapshot.builder().id(id).userId(userId).fullAddress(fullAddress).build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.kstore.order.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.order.dto.OrderExportFormat;
+import com.kstore.order.entity.Order;
+import com.kstore.order.entity.OrderItem;
+import com.kstore.order.repository.OrderRepository;
+import com.kstore.order.repository.PostgresRepositoryTest;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderExportServiceImplTest extends PostgresRepositoryTest {
+
+    private static final int CHUNK_SIZE = 50;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OrderExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new OrderExportServiceImpl(orderRepository, entityManager, objectMapper);
+        ReflectionTestUtils.setField(exportService, "chunkSize", CHUNK_SIZE);
+    }
+
+    @Test
+    void streamsOrdersInIdOrderWithBoundedPersistenceContext() {
+        LocalDate day = LocalDate.of(2023, 5, 10);
+        int orderCount = 1_000;
+        int itemsPerOrder = 3;
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            orders.add(order("EXP-" + i, day, itemsPerOrder));
+        }
+        orderRepository.saveAll(orders);
+
+        PersistenceContextProbe out = new PersistenceContextProbe();
+        export(day, OrderExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().skip(1).collect(Collectors.toList());
+        assertThat(lines).hasSize(orderCount * itemsPerOrder);
+        List<String> exportedOrders = lines.stream().map(line -> line.substring(0, line.indexOf(','))).distinct()
+                .collect(Collectors.toList());
+        assertThat(exportedOrders).containsExactlyElementsOf(
+                orders.stream().map(Order::getOrderNumber).collect(Collectors.toList()));
+        assertThat(lines.subList(0, itemsPerOrder)).extracting(line -> line.split(",")[9])
+                .containsExactly("0", "1", "2");
+
+        // Cleared every CHUNK_SIZE orders, so never more than a chunk of orders and their items is managed
+        assertThat(out.maxManagedEntities).isPositive()
+                .isLessThanOrEqualTo((CHUNK_SIZE + 1) * (1 + itemsPerOrder));
+    }
+
+    @Test
+    void ordersWithoutItemsAreStillExported() throws Exception {
+        LocalDate day = LocalDate.of(2023, 6, 1);
+        orderRepository.saveAll(List.of(order("EMPTY-1", day, 0), order("FULL-1", day, 2)));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        export(day, OrderExportFormat.CSV, csv);
+        assertThat(csv.toString(StandardCharsets.UTF_8).lines().skip(1))
+                .extracting(line -> line.substring(0, line.indexOf(',')))
+                .containsExactly("EMPTY-1", "FULL-1", "FULL-1");
+        assertThat(csv.toString(StandardCharsets.UTF_8))
+                .contains("EMPTY-1,7,PENDING,PENDING,,10.00,2023-06-01T12:00,,,,,,,,\n");
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        export(day, OrderExportFormat.NDJSON, ndjson);
+        List<String> documents = ndjson.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertThat(documents).hasSize(2);
+        JsonNode empty = objectMapper.readTree(documents.get(0));
+        assertThat(empty.get("orderNumber").asText()).isEqualTo("EMPTY-1");
+        assertThat(empty.get("orderItems")).isEmpty();
+        assertThat(objectMapper.readTree(documents.get(1)).get("orderItems")).hasSize(2);
+    }
+
+    private void export(LocalDate day, OrderExportFormat format, ByteArrayOutputStream out) {
+        // The controller streams inside the service's read-only transaction; mirror that here
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                exportService.exportOrders(day, day, format, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static Order order(String orderNumber, LocalDate day, int items) {
+        Order order = Order.builder()
+                .orderNumber(orderNumber)
+                .userId(7L)
+                .status(Order.OrderStatus.PENDING)
+                .paymentStatus(Order.PaymentStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .createdAt(day.atTime(12, 0))
+                .build();
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            orderItems.add(OrderItem.builder()
+                    .order(order)
+                    .productId((long) i)
+                    .productName("Product " + i)
+                    .quantity(1)
+                    .unitPrice(new BigDecimal("5.00"))
+                    .totalPrice(new BigDecimal("5.00"))
+                    .build());
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+
+    // Records how many entities the export's persistence context holds whenever output is written
+    private class PersistenceContextProbe extends ByteArrayOutputStream {
+
+        private int maxManagedEntities;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+            maxManagedEntities = Math.max(maxManagedEntities,
+                    session.getPersistenceContextInternal().getNumberOfManagedEntities());
+            super.write(b, off, len);
+        }
+    }
+}
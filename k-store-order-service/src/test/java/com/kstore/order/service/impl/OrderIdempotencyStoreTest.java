@@ -0,0 +1,98 @@
+package com.kstore.order.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.common.exception.BusinessException;
+import com.kstore.order.dto.OrderResponse;
+import com.kstore.order.entity.OrderIdempotencyKey;
+import com.kstore.order.repository.OrderIdempotencyKeyRepository;
+import com.kstore.order.repository.PostgresRepositoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderIdempotencyStoreTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private OrderIdempotencyKeyRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        key = UUID.randomUUID().toString();
+    }
+
+    @Test
+    void completedKeyIsReplayedWithoutCreatingAgain() {
+        OrderIdempotencyStore first = store(Duration.ofSeconds(30));
+        AtomicInteger created = new AtomicInteger();
+
+        OrderResponse response = first.execute(key, "hash", claim -> save(first, claim, created));
+        // A fresh instance has an empty cache, so the replay comes from the table
+        OrderResponse replayed = store(Duration.ofSeconds(30))
+                .execute(key, "hash", claim -> save(first, claim, created));
+
+        assertThat(created).hasValue(1);
+        assertThat(replayed.getOrderNumber()).isEqualTo(response.getOrderNumber());
+        assertThat(repository.findById(key)).get()
+                .extracting(OrderIdempotencyKey::getStatus)
+                .isEqualTo(OrderIdempotencyKey.Status.COMPLETED);
+    }
+
+    @Test
+    void claimTakenOverAfterItsLeaseCannotComplete() {
+        OrderIdempotencyStore slow = store(Duration.ofMillis(1));
+
+        assertThatThrownBy(() -> slow.execute(key, "hash", claim -> {
+            // The lease runs out and another request takes the key over before this one saves its order
+            sleep(10);
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.execute(status -> repository.claim(key, "other", now, now.plusMinutes(1)));
+            return save(slow, claim, new AtomicInteger());
+        }))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.CONFLICT));
+
+        // Neither completed over nor released: the key still belongs to the request that took it over
+        assertThat(repository.findById(key)).get()
+                .extracting(OrderIdempotencyKey::getRequestHash, OrderIdempotencyKey::getStatus)
+                .containsExactly("other", OrderIdempotencyKey.Status.PENDING);
+    }
+
+    private OrderIdempotencyStore store(Duration pendingLease) {
+        return new OrderIdempotencyStore(repository, transactionTemplate, objectMapper, Duration.ofHours(24),
+                pendingLease, Duration.ofSeconds(1), 100);
+    }
+
+    // Stands in for the order transaction, which stores the response together with the order
+    private OrderResponse save(OrderIdempotencyStore store, OrderIdempotencyStore.Claim claim, AtomicInteger created) {
+        OrderResponse response = OrderResponse.builder()
+                .id((long) created.incrementAndGet())
+                .orderNumber("ORD-" + UUID.randomUUID())
+                .build();
+        transactionTemplate.executeWithoutResult(status -> store.complete(claim, response));
+        return response;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
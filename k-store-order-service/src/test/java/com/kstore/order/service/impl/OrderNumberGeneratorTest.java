@@ -0,0 +1,138 @@
+package com.kstore.order.service.impl;
+
+import com.kstore.common.exception.BusinessException;
+import com.kstore.order.repository.OrderNodeLeaseRepository;
+import com.netflix.appinfo.ApplicationInfoManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderNumberGeneratorTest {
+
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 100_000;
+
+    @Test
+    void idsAreUniqueAndMonotonicPerThreadUnderContention() throws Exception {
+        OrderNumberGenerator generator = configured(7);
+        Set<Long> seen = ConcurrentHashMap.newKeySet(THREADS * IDS_PER_THREAD);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    long previous = -1;
+                    boolean monotonic = true;
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        long id = generator.nextId();
+                        monotonic &= id > previous;
+                        previous = id;
+                        seen.add(id);
+                    }
+                    return monotonic;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(seen).hasSize(THREADS * IDS_PER_THREAD);
+    }
+
+    @Test
+    void generatorsWithDifferentNodeIdsNeverCollide() {
+        OrderNumberGenerator first = configured(1);
+        OrderNumberGenerator second = configured(2);
+        Set<String> seen = new java.util.HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            assertThat(seen.add(first.nextOrderNumber())).isTrue();
+            assertThat(seen.add(second.nextOrderNumber())).isTrue();
+        }
+    }
+
+    @Test
+    void orderNumbersAreFixedWidthBase32() {
+        assertThat(configured(1023).nextOrderNumber()).matches("ORD-[0-9A-HJKMNP-TV-Z]{13}");
+    }
+
+    @Test
+    void claimsTheFirstFreeNodeIdAndMovesOnWhenARaceIsLost() {
+        OrderNodeLeaseRepository repository = mock(OrderNodeLeaseRepository.class);
+        when(repository.findLiveNodeIds(anyLong())).thenReturn(List.of(0, 1, 3));
+        when(repository.claim(eq(2), anyString(), anyLong())).thenReturn(0);
+        when(repository.claim(eq(4), anyString(), anyLong())).thenReturn(1);
+
+        OrderNumberGenerator generator = leased(repository, Duration.ofSeconds(30));
+
+        assertThat(generator.leasedNodeId()).isEqualTo(4);
+        assertThat((generator.nextId() >>> 12) & 1023).isEqualTo(4);
+    }
+
+    @Test
+    void lostLeaseIsReplacedOnRenewal() {
+        OrderNodeLeaseRepository repository = mock(OrderNodeLeaseRepository.class);
+        when(repository.findLiveNodeIds(anyLong())).thenReturn(List.of(), List.of(0));
+        when(repository.claim(eq(0), anyString(), anyLong())).thenReturn(1);
+        when(repository.claim(eq(1), anyString(), anyLong())).thenReturn(1);
+        when(repository.renew(eq(0), anyString())).thenReturn(0);
+
+        OrderNumberGenerator generator = leased(repository, Duration.ofSeconds(30));
+        generator.renewLease();
+
+        assertThat(generator.leasedNodeId()).isEqualTo(1);
+        assertThat((generator.nextId() >>> 12) & 1023).isEqualTo(1);
+    }
+
+    @Test
+    void stopsIssuingOnceTheLeaseCanNoLongerBeRenewed() throws InterruptedException {
+        OrderNodeLeaseRepository repository = mock(OrderNodeLeaseRepository.class);
+        when(repository.findLiveNodeIds(anyLong())).thenReturn(List.of());
+        when(repository.claim(eq(0), anyString(), anyLong())).thenReturn(1);
+
+        OrderNumberGenerator generator = leased(repository, Duration.ofSeconds(1));
+        generator.nextId();
+        Thread.sleep(1100);
+
+        assertThatThrownBy(generator::nextId)
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("temporarily unavailable");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static OrderNumberGenerator configured(int nodeId) {
+        OrderNumberGenerator generator = new OrderNumberGenerator(mock(ObjectProvider.class),
+                mock(OrderNodeLeaseRepository.class), nodeId, Duration.ofSeconds(30));
+        generator.init();
+        return generator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static OrderNumberGenerator leased(OrderNodeLeaseRepository repository, Duration ttl) {
+        ObjectProvider<ApplicationInfoManager> infoManager = mock(ObjectProvider.class);
+        OrderNumberGenerator generator = new OrderNumberGenerator(infoManager, repository, -1, ttl);
+        generator.init();
+        return generator;
+    }
+}
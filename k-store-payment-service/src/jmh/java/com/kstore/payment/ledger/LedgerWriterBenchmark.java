@@ -0,0 +1,80 @@
+package com.kstore.payment.ledger;
+
+import com.kstore.payment.entity.LedgerEntry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journals per second through {@link LedgerWriter} with 32 posting threads that each wait for their commit.
+ * {@code batchSize=1} is one transaction per journal; larger sizes show what group commit buys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class LedgerWriterBenchmark {
+
+    @Param({"1", "500"})
+    public int batchSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final String run = UUID.randomUUID().toString();
+
+    private EmbeddedPostgres postgres;
+    private LedgerWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        writer = new LedgerWriter(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                new LedgerBalanceCache(Duration.ofSeconds(5)),
+                10_000, batchSize, Duration.ofMillis(2), Duration.ofSeconds(5));
+        writer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        writer.stop();
+        postgres.close();
+    }
+
+    @Benchmark
+    public boolean postJournal() {
+        long n = sequence.incrementAndGet();
+        return writer.submit(LedgerJournal.builder()
+                .journalKey(run + ":" + n)
+                .entryType(LedgerEntry.EntryType.CAPTURE)
+                .paymentReference(run + ":" + n)
+                .currency("USD")
+                .line(new LedgerJournal.Line(LedgerAccounts.providerClearing("bench", "USD"),
+                        LedgerEntry.Direction.DEBIT, 1_000))
+                .line(new LedgerJournal.Line(LedgerAccounts.merchantRevenue("USD"),
+                        LedgerEntry.Direction.CREDIT, 1_000))
+                .build()).join();
+    }
+}
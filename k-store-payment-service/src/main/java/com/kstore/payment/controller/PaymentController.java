@@ -0,0 +1,69 @@
+package com.kstore.payment.controller;
+
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.payment.dto.PaymentIntentRequest;
+import com.kstore.payment.dto.PaymentResponse;
+import com.kstore.payment.dto.WebhookReceipt;
+import com.kstore.payment.dto.LedgerBalanceResponse;
+import com.kstore.payment.dto.LedgerEntryResponse;
+import com.kstore.payment.service.LedgerService;
+import com.kstore.payment.service.PaymentService;
+import com.kstore.payment.service.WebhookService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/payments")
+@RequiredArgsConstructor
+public class PaymentController {
+
+    private final PaymentService paymentService;
+    private final WebhookService webhookService;
+    private final LedgerService ledgerService;
+
+    @PostMapping("/intents")
+    public ResponseEntity<ApiResponse<PaymentResponse>> createPaymentIntent(@Valid @RequestBody PaymentIntentRequest request) {
+        PaymentResponse payment = paymentService.createPaymentIntent(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(payment, "Payment accepted for processing"));
+    }
+
+    @GetMapping("/{paymentReference}")
+    public ResponseEntity<ApiResponse<PaymentResponse>> getPayment(@PathVariable String paymentReference) {
+        return ResponseEntity.ok(ApiResponse.success(paymentService.getPayment(paymentReference)));
+    }
+
+    @GetMapping("/order/{orderId}")
+    public ResponseEntity<ApiResponse<List<PaymentResponse>>> getPaymentsByOrderId(@PathVariable Long orderId) {
+        return ResponseEntity.ok(ApiResponse.success(paymentService.getPaymentsByOrderId(orderId)));
+    }
+
+    @GetMapping("/{paymentReference}/ledger")
+    public ResponseEntity<ApiResponse<List<LedgerEntryResponse>>> getLedgerEntries(@PathVariable String paymentReference) {
+        return ResponseEntity.ok(ApiResponse.success(ledgerService.getEntriesForPayment(paymentReference)));
+    }
+
+    @GetMapping("/ledger/accounts/{account}/balance")
+    public ResponseEntity<ApiResponse<LedgerBalanceResponse>> getLedgerBalance(@PathVariable String account) {
+        return ResponseEntity.ok(ApiResponse.success(ledgerService.getBalance(account)));
+    }
+
+    @PostMapping("/webhooks/{provider}")
+    public ResponseEntity<ApiResponse<WebhookReceipt>> receiveWebhook(
+            @PathVariable String provider,
+            @RequestBody String payload,
+            @RequestHeader HttpHeaders headers) {
+        Map<String, String> headerValues = new HashMap<>();
+        headers.forEach((name, values) -> headerValues.put(name.toLowerCase(), values.isEmpty() ? null : values.get(0)));
+        WebhookReceipt receipt = webhookService.receive(provider, payload, headerValues);
+        return ResponseEntity.ok(ApiResponse.success(receipt));
+    }
+}
@@ -0,0 +1,44 @@
+package com.kstore.payment.controller;
+
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.payment.dto.ReconciliationDiscrepancyResponse;
+import com.kstore.payment.dto.ReconciliationRequest;
+import com.kstore.payment.dto.ReconciliationRunResponse;
+import com.kstore.payment.entity.ReconciliationDiscrepancy;
+import com.kstore.payment.service.ReconciliationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/payments/reconciliations")
+@RequiredArgsConstructor
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReconciliationRunResponse>> startRun(@Valid @RequestBody ReconciliationRequest request) {
+        ReconciliationRunResponse run = reconciliationService.startRun(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(run, "Reconciliation started"));
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<ApiResponse<ReconciliationRunResponse>> getRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(ApiResponse.success(reconciliationService.getRun(runId)));
+    }
+
+    @GetMapping("/{runId}/discrepancies")
+    public ResponseEntity<ApiResponse<Page<ReconciliationDiscrepancyResponse>>> getDiscrepancies(
+            @PathVariable Long runId,
+            @RequestParam(required = false) ReconciliationDiscrepancy.DiscrepancyType type,
+            @PageableDefault(size = 50) Pageable pageable) {
+        return ResponseEntity.ok(ApiResponse.success(reconciliationService.getDiscrepancies(runId, type, pageable)));
+    }
+}
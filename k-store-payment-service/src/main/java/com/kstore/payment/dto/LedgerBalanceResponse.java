@@ -0,0 +1,21 @@
+package com.kstore.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerBalanceResponse {
+
+    private String account;
+    private String currency;
+    // Debits minus credits
+    private long balanceMinor;
+    private BigDecimal balance;
+}
@@ -0,0 +1,27 @@
+package com.kstore.payment.dto;
+
+import com.kstore.payment.entity.LedgerEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntryResponse {
+
+    private Long id;
+    private String journalKey;
+    private String account;
+    private LedgerEntry.Direction direction;
+    private BigDecimal amount;
+    private String currency;
+    private LedgerEntry.EntryType entryType;
+    private String paymentReference;
+    private LocalDateTime createdAt;
+}
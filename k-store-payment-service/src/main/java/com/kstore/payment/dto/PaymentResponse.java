@@ -0,0 +1,32 @@
+package com.kstore.payment.dto;
+
+import com.kstore.payment.entity.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentResponse {
+
+    private Long id;
+    private String paymentReference;
+    private Long orderId;
+    private String orderNumber;
+    private Long userId;
+    private BigDecimal amount;
+    private String currency;
+    private String paymentMethod;
+    private Payment.PaymentStatus status;
+    private String provider;
+    private String providerPaymentId;
+    private String failureReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package com.kstore.payment.dto;
+
+import com.kstore.payment.entity.Payment;
+import com.kstore.payment.entity.ReconciliationDiscrepancy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationDiscrepancyResponse {
+
+    private Long id;
+    private ReconciliationDiscrepancy.DiscrepancyType type;
+    private Long paymentId;
+    private String paymentReference;
+    private Long lineNumber;
+    private String settlementType;
+    private BigDecimal expectedAmount;
+    private BigDecimal settledAmount;
+    private String currency;
+    private Payment.PaymentStatus paymentStatus;
+}
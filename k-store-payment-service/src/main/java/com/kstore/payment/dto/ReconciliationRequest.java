@@ -0,0 +1,26 @@
+package com.kstore.payment.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationRequest {
+
+    @NotBlank(message = "Provider is required")
+    private String provider;
+
+    @NotNull(message = "Settlement date is required")
+    private LocalDate settlementDate;
+
+    // Resolved inside payment.reconciliation.settlement-dir
+    @NotBlank(message = "File name is required")
+    private String fileName;
+}
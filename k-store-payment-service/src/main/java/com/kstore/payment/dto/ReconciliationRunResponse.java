@@ -0,0 +1,30 @@
+package com.kstore.payment.dto;
+
+import com.kstore.payment.entity.ReconciliationRun;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationRunResponse {
+
+    private Long id;
+    private String provider;
+    private LocalDate settlementDate;
+    private String fileName;
+    private ReconciliationRun.RunStatus status;
+    private long paymentsIndexed;
+    private long rowsRead;
+    private long rowsMatched;
+    private long discrepancies;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
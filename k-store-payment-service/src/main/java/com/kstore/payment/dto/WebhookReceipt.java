@@ -0,0 +1,16 @@
+package com.kstore.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookReceipt {
+
+    private String eventId;
+    private boolean duplicate;
+}
@@ -0,0 +1,30 @@
+package com.kstore.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Balance of an account covering every ledger entry up to lastEntryId
+@Entity
+@Table(name = "account_balance_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceSnapshot {
+
+    @Id
+    @Column(name = "account")
+    private String account;
+
+    // Debits minus credits, in minor units
+    @Column(name = "balance_minor", nullable = false)
+    private long balanceMinor;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private long lastEntryId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
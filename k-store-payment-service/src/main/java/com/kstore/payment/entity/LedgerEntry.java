@@ -0,0 +1,72 @@
+package com.kstore.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of a double-entry journal. Rows are only ever inserted (by LedgerWriter); corrections
+ * are new journals, never updates.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ledger_entries_journal_line", columnNames = {"journal_key", "line_no"}),
+        indexes = {
+                @Index(name = "idx_ledger_entries_account_id", columnList = "account, id"),
+                @Index(name = "idx_ledger_entries_payment_reference", columnList = "payment_reference")
+        })
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Idempotency key of the journal, e.g. PAY-...:CAPTURE
+    @Column(name = "journal_key", nullable = false)
+    private String journalKey;
+
+    @Column(name = "line_no", nullable = false)
+    private int lineNo;
+
+    @Column(name = "account", nullable = false)
+    private String account;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false)
+    private Direction direction;
+
+    // Minor currency units (cents), always positive
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
+
+    @Column(name = "currency", length = 3, nullable = false)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false)
+    private EntryType entryType;
+
+    @Column(name = "payment_reference")
+    private String paymentReference;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum Direction {
+        DEBIT,
+        CREDIT
+    }
+
+    public enum EntryType {
+        CAPTURE,
+        REFUND,
+        CHARGEBACK
+    }
+}
@@ -0,0 +1,86 @@
+package com.kstore.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Partial indexes are declared in the migrations only, as JPA cannot express them: uk_payments_active_order
+// (V001) allows one PROCESSING or SUCCEEDED payment per order; idx_payments_processing_updated_at (V004)
+// and idx_payments_settled_updated_at (V005) serve the stale payment and ledger repost sweeps
+@Entity
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_order_id", columnList = "order_id"),
+        @Index(name = "idx_payments_provider_payment_id", columnList = "provider, provider_payment_id"),
+        @Index(name = "idx_payments_provider_created_at", columnList = "provider, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class Payment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payments_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "payment_reference", unique = true, nullable = false)
+    private String paymentReference;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "order_number")
+    private String orderNumber;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "currency", length = 3, nullable = false)
+    private String currency;
+
+    @Column(name = "payment_method")
+    private String paymentMethod;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private PaymentStatus status;
+
+    @Column(name = "provider", nullable = false)
+    private String provider;
+
+    @Column(name = "provider_payment_id")
+    private String providerPaymentId;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    @CreatedDate
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum PaymentStatus {
+        PROCESSING,
+        SUCCEEDED,
+        FAILED,
+        REFUNDED,
+        CHARGED_BACK
+    }
+}
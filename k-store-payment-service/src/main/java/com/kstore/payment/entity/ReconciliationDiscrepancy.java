@@ -0,0 +1,71 @@
+package com.kstore.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reconciliation_discrepancies", indexes = {
+        @Index(name = "idx_reconciliation_discrepancies_run", columnList = "run_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationDiscrepancy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliation_discrepancy_seq")
+    @SequenceGenerator(name = "reconciliation_discrepancy_seq", sequenceName = "reconciliation_discrepancies_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private DiscrepancyType type;
+
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    @Column(name = "payment_reference")
+    private String paymentReference;
+
+    // Line in the settlement file, null for payments missing from it
+    @Column(name = "line_number")
+    private Long lineNumber;
+
+    @Column(name = "settlement_type")
+    private String settlementType;
+
+    @Column(name = "expected_amount", precision = 19, scale = 2)
+    private BigDecimal expectedAmount;
+
+    @Column(name = "settled_amount", precision = 19, scale = 2)
+    private BigDecimal settledAmount;
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status")
+    private Payment.PaymentStatus paymentStatus;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public enum DiscrepancyType {
+        // Settled by the provider but unknown to us
+        MISSING_PAYMENT,
+        // Captured by us on the settlement date but not in the file
+        UNSETTLED_PAYMENT,
+        AMOUNT_MISMATCH,
+        CURRENCY_MISMATCH,
+        STATUS_MISMATCH,
+        DUPLICATE_SETTLEMENT,
+        MALFORMED_ROW
+    }
+}
@@ -0,0 +1,33 @@
+package com.kstore.payment.ledger;
+
+import java.util.Locale;
+
+/**
+ * Account naming for the payment ledger; every account is per currency.
+ */
+public final class LedgerAccounts {
+
+    // Funds the provider owes us for captured payments
+    public static final String PROVIDER_CLEARING = "provider_clearing";
+    public static final String MERCHANT_REVENUE = "merchant_revenue";
+    public static final String MERCHANT_CHARGEBACKS = "merchant_chargebacks";
+
+    private LedgerAccounts() {
+    }
+
+    public static String providerClearing(String provider, String currency) {
+        return PROVIDER_CLEARING + ":" + provider + ":" + currency.toUpperCase(Locale.ROOT);
+    }
+
+    public static String merchantRevenue(String currency) {
+        return MERCHANT_REVENUE + ":" + currency.toUpperCase(Locale.ROOT);
+    }
+
+    public static String merchantChargebacks(String currency) {
+        return MERCHANT_CHARGEBACKS + ":" + currency.toUpperCase(Locale.ROOT);
+    }
+
+    public static String currencyOf(String account) {
+        return account.substring(account.lastIndexOf(':') + 1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.kstore.payment.ledger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Running balance per account: a base loaded from the database plus the deltas this instance has
+ * committed since. Hot accounts are updated through a LongAdder so concurrent postings do not contend
+ * on one counter. Entries are reloaded after {@code payment.ledger.balance-ttl}, which also picks up
+ * postings made by other instances.
+ */
+@Component
+public class LedgerBalanceCache {
+
+    private final ConcurrentHashMap<String, AccountBalance> balances = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public LedgerBalanceCache(@Value("${payment.ledger.balance-ttl:5s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long get(String account, ToLongFunction<String> loader) {
+        AccountBalance balance = balances.get(account);
+        if (balance == null || System.nanoTime() - balance.loadedAt > ttlNanos) {
+            balance = new AccountBalance(loader.applyAsLong(account), System.nanoTime());
+            balances.put(account, balance);
+        }
+        return balance.value();
+    }
+
+    // Accounts not cached yet are loaded, postings included, on first read
+    public void add(String account, long delta) {
+        AccountBalance balance = balances.get(account);
+        if (balance != null) {
+            balance.delta.add(delta);
+        }
+    }
+
+    public void clear() {
+        balances.clear();
+    }
+
+    private static final class AccountBalance {
+
+        private final long base;
+        private final long loadedAt;
+        private final LongAdder delta = new LongAdder();
+
+        private AccountBalance(long base, long loadedAt) {
+            this.base = base;
+            this.loadedAt = loadedAt;
+        }
+
+        private long value() {
+            return base + delta.sum();
+        }
+    }
+}
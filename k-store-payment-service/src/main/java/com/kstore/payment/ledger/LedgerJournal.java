@@ -0,0 +1,51 @@
+package com.kstore.payment.ledger;
+
+import com.kstore.payment.entity.LedgerEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.List;
+
+/**
+ * A balanced set of ledger lines written atomically. The journal key makes a re-submitted journal a no-op.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class LedgerJournal {
+
+    private final String journalKey;
+    private final LedgerEntry.EntryType entryType;
+    private final String paymentReference;
+    private final String currency;
+    @Singular
+    private final List<Line> lines;
+
+    public void validate() {
+        long debits = 0;
+        long credits = 0;
+        for (Line line : lines) {
+            if (line.amountMinor() <= 0) {
+                throw new IllegalArgumentException("Ledger amounts must be positive in journal " + journalKey);
+            }
+            if (line.direction() == LedgerEntry.Direction.DEBIT) {
+                debits = Math.addExact(debits, line.amountMinor());
+            } else {
+                credits = Math.addExact(credits, line.amountMinor());
+            }
+        }
+        if (lines.size() < 2 || debits != credits) {
+            throw new IllegalArgumentException("Journal " + journalKey + " is not balanced");
+        }
+    }
+
+    public record Line(String account, LedgerEntry.Direction direction, long amountMinor) {
+
+        // Balances are kept as debits minus credits
+        public long signedAmount() {
+            return direction == LedgerEntry.Direction.DEBIT ? amountMinor : -amountMinor;
+        }
+    }
+}
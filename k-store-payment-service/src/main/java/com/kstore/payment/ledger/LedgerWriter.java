@@ -0,0 +1,201 @@
+package com.kstore.payment.ledger;
+
+import com.kstore.common.exception.BusinessException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for ledger journals. Callers enqueue journals and a single writer thread drains the
+ * queue, inserting everything that accumulated while the previous batch was being written as one JDBC
+ * batch in one transaction. Inserts are {@code ON CONFLICT DO NOTHING} on (journal_key, line_no), so a
+ * journal that was already written completes with {@code false}.
+ */
+@Slf4j
+@Component
+public class LedgerWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO ledger_entries " +
+            "(journal_key, line_no, account, direction, amount_minor, currency, entry_type, payment_reference, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, now()) ON CONFLICT (journal_key, line_no) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerBalanceCache balanceCache;
+    private final BlockingQueue<PendingJournal> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Duration enqueueTimeout;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public LedgerWriter(JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        LedgerBalanceCache balanceCache,
+                        @Value("${payment.ledger.queue-capacity:10000}") int queueCapacity,
+                        @Value("${payment.ledger.batch-size:500}") int batchSize,
+                        @Value("${payment.ledger.max-delay:2ms}") Duration maxDelay,
+                        @Value("${payment.ledger.enqueue-timeout:1s}") Duration enqueueTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.balanceCache = balanceCache;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.enqueueTimeout = enqueueTimeout;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writerThread = new Thread(this::run, "ledger-writer");
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // The writer drains what is already queued before it exits
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Completes with true once the journal is committed, or false if it had been written before.
+     */
+    public CompletableFuture<Boolean> submit(LedgerJournal journal) {
+        journal.validate();
+        PendingJournal pending = new PendingJournal(journal, new CompletableFuture<>());
+        boolean queued;
+        try {
+            queued = running && queue.offer(pending, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            pending.result().completeExceptionally(new BusinessException("Ledger writer is saturated",
+                    "LEDGER_BUSY", HttpStatus.SERVICE_UNAVAILABLE));
+        }
+        return pending.result();
+    }
+
+    private void run() {
+        List<PendingJournal> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingJournal first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingJournal next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Ledger writer failed on a batch of {} journals", batch.size(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingJournal> batch) {
+        try {
+            complete(batch, transactionTemplate.execute(status -> insert(batch)));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                throw e;
+            }
+            // Isolate the journal that broke the batch so the rest still commit
+            log.warn("Ledger batch of {} journals failed, retrying one by one: {}", batch.size(), e.toString());
+            for (PendingJournal pending : batch) {
+                try {
+                    complete(List.of(pending), transactionTemplate.execute(status -> insert(List.of(pending))));
+                } catch (RuntimeException single) {
+                    log.error("Ledger journal {} could not be written", pending.journal().getJournalKey(), single);
+                    pending.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private int[] insert(List<PendingJournal> batch) {
+        List<Row> rows = new ArrayList<>();
+        for (PendingJournal pending : batch) {
+            List<LedgerJournal.Line> lines = pending.journal().getLines();
+            for (int i = 0; i < lines.size(); i++) {
+                rows.add(new Row(pending.journal(), i, lines.get(i)));
+            }
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Row row = rows.get(i);
+                ps.setString(1, row.journal().getJournalKey());
+                ps.setInt(2, row.lineNo());
+                ps.setString(3, row.line().account());
+                ps.setString(4, row.line().direction().name());
+                ps.setLong(5, row.line().amountMinor());
+                ps.setString(6, row.journal().getCurrency());
+                ps.setString(7, row.journal().getEntryType().name());
+                ps.setString(8, row.journal().getPaymentReference());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    // Runs after commit: counts line up with the journals' lines in batch order
+    private void complete(List<PendingJournal> batch, int[] counts) {
+        int offset = 0;
+        for (PendingJournal pending : batch) {
+            List<LedgerJournal.Line> lines = pending.journal().getLines();
+            boolean inserted = counts[offset] > 0;
+            if (inserted) {
+                lines.forEach(line -> balanceCache.add(line.account(), line.signedAmount()));
+            }
+            offset += lines.size();
+            pending.result().complete(inserted);
+        }
+    }
+
+    private record PendingJournal(LedgerJournal journal, CompletableFuture<Boolean> result) {
+    }
+
+    private record Row(LedgerJournal journal, int lineNo, LedgerJournal.Line line) {
+    }
+}
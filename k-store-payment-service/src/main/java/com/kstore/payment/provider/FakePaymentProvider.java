@@ -0,0 +1,104 @@
+package com.kstore.payment.provider;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.common.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a real provider. Charges complete after a configurable delay and are
+ * declined above {@code payment.fake.decline-above}. Webhooks are signed with HMAC-SHA256
+ * in the {@code X-Fake-Signature} header.
+ */
+@Slf4j
+@Component
+public class FakePaymentProvider implements PaymentProvider {
+
+    public static final String NAME = "fake";
+    public static final String SIGNATURE_HEADER = "x-fake-signature";
+
+    private final ObjectMapper objectMapper;
+    private final Duration latency;
+    private final BigDecimal declineAbove;
+    private final byte[] webhookSecret;
+
+    public FakePaymentProvider(ObjectMapper objectMapper,
+                               @Value("${payment.fake.latency:200ms}") Duration latency,
+                               @Value("${payment.fake.decline-above:10000}") BigDecimal declineAbove,
+                               @Value("${payment.fake.webhook-secret:fake-webhook-secret}") String webhookSecret) {
+        this.objectMapper = objectMapper;
+        this.latency = latency;
+        this.declineAbove = declineAbove;
+        this.webhookSecret = webhookSecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public CompletableFuture<ProviderChargeResult> charge(ProviderChargeRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            String providerPaymentId = "fake_" + UUID.nameUUIDFromBytes(
+                    request.getPaymentReference().getBytes(StandardCharsets.UTF_8));
+            if (request.getAmount().compareTo(declineAbove) > 0) {
+                return ProviderChargeResult.builder()
+                        .providerPaymentId(providerPaymentId)
+                        .outcome(ProviderChargeResult.Outcome.FAILED)
+                        .failureReason("card_declined")
+                        .build();
+            }
+            return ProviderChargeResult.builder()
+                    .providerPaymentId(providerPaymentId)
+                    .outcome(ProviderChargeResult.Outcome.SUCCEEDED)
+                    .build();
+        }, CompletableFuture.delayedExecutor(latency.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public ProviderWebhookEvent parseWebhook(String payload, Map<String, String> headers) {
+        String signature = headers.get(SIGNATURE_HEADER);
+        if (signature == null || !MessageDigest.isEqual(
+                sign(payload).getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII))) {
+            throw new BusinessException("Invalid webhook signature", "INVALID_WEBHOOK_SIGNATURE", HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            ProviderWebhookEvent event = objectMapper.readValue(payload, ProviderWebhookEvent.class);
+            if (event.getEventId() == null || event.getPaymentReference() == null) {
+                throw new BusinessException("Webhook payload is missing eventId or paymentReference",
+                        "INVALID_WEBHOOK_PAYLOAD", HttpStatus.BAD_REQUEST);
+            }
+            return event;
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Malformed webhook payload: " + e.getOriginalMessage(),
+                    "INVALID_WEBHOOK_PAYLOAD", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret, "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.kstore.payment.provider;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SPI for payment providers. Implementations must not block the caller: provider I/O happens
+ * behind the returned future, and final outcomes may also arrive later through webhooks.
+ */
+public interface PaymentProvider {
+
+    /** Name used in payment records and in the webhook path, e.g. {@code /api/payments/webhooks/fake}. */
+    String getName();
+
+    CompletableFuture<ProviderChargeResult> charge(ProviderChargeRequest request);
+
+    /**
+     * Verifies the webhook signature and parses the payload.
+     *
+     * @throws com.kstore.common.exception.BusinessException if the signature or payload is invalid
+     */
+    ProviderWebhookEvent parseWebhook(String payload, Map<String, String> headers);
+}
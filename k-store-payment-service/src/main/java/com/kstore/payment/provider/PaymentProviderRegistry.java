@@ -0,0 +1,40 @@
+package com.kstore.payment.provider;
+
+import com.kstore.common.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class PaymentProviderRegistry {
+
+    private final Map<String, PaymentProvider> providers;
+    private final String defaultProvider;
+
+    public PaymentProviderRegistry(List<PaymentProvider> providers,
+                                   @Value("${payment.provider:fake}") String defaultProvider) {
+        this.providers = providers.stream().collect(Collectors.toMap(PaymentProvider::getName, Function.identity()));
+        if (!this.providers.containsKey(defaultProvider)) {
+            throw new IllegalStateException("No payment provider named '" + defaultProvider + "', available: "
+                    + this.providers.keySet());
+        }
+        this.defaultProvider = defaultProvider;
+    }
+
+    public PaymentProvider getDefault() {
+        return providers.get(defaultProvider);
+    }
+
+    public PaymentProvider get(String name) {
+        PaymentProvider provider = providers.get(name);
+        if (provider == null) {
+            throw new BusinessException("Unknown payment provider: " + name, "UNKNOWN_PAYMENT_PROVIDER", HttpStatus.NOT_FOUND);
+        }
+        return provider;
+    }
+}
@@ -0,0 +1,21 @@
+package com.kstore.payment.provider;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderChargeRequest {
+
+    // Sent to the provider as its idempotency key, so a retried charge is never taken twice
+    private String paymentReference;
+    private BigDecimal amount;
+    private String currency;
+    private String paymentMethod;
+}
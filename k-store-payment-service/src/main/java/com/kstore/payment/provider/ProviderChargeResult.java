@@ -0,0 +1,24 @@
+package com.kstore.payment.provider;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderChargeResult {
+
+    private String providerPaymentId;
+    private Outcome outcome;
+    private String failureReason;
+
+    public enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        // Accepted by the provider; the final outcome arrives by webhook
+        PENDING
+    }
+}
@@ -0,0 +1,22 @@
+package com.kstore.payment.provider;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderWebhookEvent {
+
+    private String eventId;
+    private String eventType;
+    private String paymentReference;
+    private String providerPaymentId;
+    private ProviderChargeResult.Outcome outcome;
+    private String failureReason;
+    private boolean refund;
+    private boolean chargeback;
+}
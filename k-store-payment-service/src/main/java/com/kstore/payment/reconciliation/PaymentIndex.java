@@ -0,0 +1,183 @@
+package com.kstore.payment.reconciliation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Open-addressing hash table of payments in a direct buffer, keyed by a 64-bit hash of the payment
+ * reference. Each slot is 32 bytes, so a day of payments stays off the heap and out of GC; probes hash
+ * the bytes of the settlement row directly and never allocate.
+ *
+ * <p>Slot layout: key hash (8), payment id (8), amount in minor units (8), status ordinal (1),
+ * flags (1), currency (3 ASCII bytes). A zero hash marks an empty slot. The table doubles when it is
+ * three quarters full, which moves entries to new slots. Not thread-safe.
+ */
+public class PaymentIndex {
+
+    public static final int FLAG_CHARGE = 1;
+    public static final int FLAG_REFUND = 1 << 1;
+    public static final int FLAG_CHARGEBACK = 1 << 2;
+    // Payment was created on the settlement date, so the file must contain its capture
+    public static final int FLAG_EXPECTED = 1 << 7;
+
+    private static final int SLOT_SIZE = 32;
+    private static final int OFFSET_ID = 8;
+    private static final int OFFSET_AMOUNT = 16;
+    private static final int OFFSET_STATUS = 24;
+    private static final int OFFSET_FLAGS = 25;
+    private static final int OFFSET_CURRENCY = 26;
+    // 1 GiB of slots, the most a single direct buffer addresses comfortably
+    private static final int MAX_SLOTS = 1 << 25;
+
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+
+    public PaymentIndex(long expectedEntries) {
+        long wanted = Math.max(16, expectedEntries * 2);
+        if (wanted > MAX_SLOTS) {
+            throw new IllegalArgumentException("Too many payments for one index: " + expectedEntries);
+        }
+        int capacity = Integer.highestOneBit((int) wanted - 1) << 1;
+        this.slots = allocate(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds a payment and returns its slot, or -1 when the index is full and already at its largest size.
+     * Growing the table moves entries, so slots returned by earlier calls are only valid until the next put.
+     */
+    public int put(String paymentReference, long paymentId, long amountMinor, int status, int flags, String currency) {
+        byte[] reference = paymentReference.getBytes(StandardCharsets.US_ASCII);
+        long hash = hash(reference, 0, reference.length);
+        int slot = probe(slots, mask, hash);
+        int base = slot * SLOT_SIZE;
+        if (slots.getLong(base) == 0) {
+            if (size >= (mask + 1) * 3 / 4) {
+                if (mask + 1 >= MAX_SLOTS) {
+                    return -1;
+                }
+                grow();
+                slot = probe(slots, mask, hash);
+                base = slot * SLOT_SIZE;
+            }
+            size++;
+        }
+        slots.putLong(base, hash);
+        slots.putLong(base + OFFSET_ID, paymentId);
+        slots.putLong(base + OFFSET_AMOUNT, amountMinor);
+        slots.put(base + OFFSET_STATUS, (byte) status);
+        slots.put(base + OFFSET_FLAGS, (byte) flags);
+        for (int i = 0; i < 3; i++) {
+            slots.put(base + OFFSET_CURRENCY + i, i < currency.length() ? (byte) currency.charAt(i) : 0);
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot holding the reference in {@code bytes[from, to)}, or -1.
+     */
+    public int find(byte[] bytes, int from, int to) {
+        int slot = probe(slots, mask, hash(bytes, from, to));
+        return slots.getLong(slot * SLOT_SIZE) == 0 ? -1 : slot;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isOccupied(int slot) {
+        return slots.getLong(slot * SLOT_SIZE) != 0;
+    }
+
+    public long paymentId(int slot) {
+        return slots.getLong(slot * SLOT_SIZE + OFFSET_ID);
+    }
+
+    public long amountMinor(int slot) {
+        return slots.getLong(slot * SLOT_SIZE + OFFSET_AMOUNT);
+    }
+
+    public int status(int slot) {
+        return slots.get(slot * SLOT_SIZE + OFFSET_STATUS);
+    }
+
+    public int flags(int slot) {
+        return slots.get(slot * SLOT_SIZE + OFFSET_FLAGS) & 0xFF;
+    }
+
+    public void addFlags(int slot, int flags) {
+        int offset = slot * SLOT_SIZE + OFFSET_FLAGS;
+        slots.put(offset, (byte) (slots.get(offset) | flags));
+    }
+
+    public boolean currencyEquals(int slot, byte[] bytes, int from, int to) {
+        int base = slot * SLOT_SIZE + OFFSET_CURRENCY;
+        for (int i = 0; i < 3; i++) {
+            byte expected = slots.get(base + i);
+            byte actual = from + i < to ? toUpper(bytes[from + i]) : 0;
+            if (expected != actual) {
+                return false;
+            }
+        }
+        return to - from <= 3;
+    }
+
+    // FNV-1a folded through a 64-bit finalizer; a reference collision at 64 bits is not a practical concern
+    static long hash(byte[] bytes, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= bytes[i];
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    // First slot holding the hash, or the empty slot where it belongs
+    private static int probe(ByteBuffer slots, int mask, long hash) {
+        int slot = (int) hash & mask;
+        while (true) {
+            long existing = slots.getLong(slot * SLOT_SIZE);
+            if (existing == hash || existing == 0) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        int capacity = (mask + 1) << 1;
+        ByteBuffer grown = allocate(capacity);
+        int grownMask = capacity - 1;
+        for (int slot = 0; slot <= mask; slot++) {
+            int base = slot * SLOT_SIZE;
+            long hash = slots.getLong(base);
+            if (hash != 0) {
+                int target = probe(grown, grownMask, hash) * SLOT_SIZE;
+                for (int i = 0; i < SLOT_SIZE; i += 8) {
+                    grown.putLong(target + i, slots.getLong(base + i));
+                }
+            }
+        }
+        slots = grown;
+        mask = grownMask;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * SLOT_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    private static byte toUpper(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - 32) : b;
+    }
+}
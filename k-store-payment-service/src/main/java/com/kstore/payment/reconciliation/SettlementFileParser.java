@@ -0,0 +1,128 @@
+package com.kstore.payment.reconciliation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams a comma-separated settlement file through a fixed buffer and hands each row to a
+ * {@link RowHandler} as offsets into that buffer, so rows are never turned into Strings. The first line
+ * is the header. Fields are not quoted; settlement exports use plain references, codes and amounts.
+ */
+public class SettlementFileParser {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_FIELDS = 32;
+
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * Field {@code i} of the row is {@code buffer[starts[i], ends[i])}; the arrays are reused.
+         */
+        void row(long lineNumber, byte[] buffer, int[] starts, int[] ends, int fieldCount);
+    }
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private List<String> header;
+
+    public SettlementFileParser(InputStream in) {
+        this.in = in;
+    }
+
+    public List<String> getHeader() {
+        return header;
+    }
+
+    /**
+     * Parses the whole stream and returns the number of data rows.
+     */
+    public long parse(RowHandler handler) throws IOException {
+        long lineNumber = 0;
+        long rows = 0;
+        int start = 0;
+        int limit = 0;
+        boolean eof = false;
+        while (true) {
+            int newline = indexOf(buffer, (byte) '\n', start, limit);
+            if (newline < 0) {
+                if (eof) {
+                    if (start < limit) {
+                        lineNumber++;
+                        int end = buffer[limit - 1] == '\r' ? limit - 1 : limit;
+                        rows += line(lineNumber, start, end, handler);
+                    }
+                    return rows;
+                }
+                // Move the partial line to the front and refill behind it
+                int remaining = limit - start;
+                if (remaining == buffer.length) {
+                    throw new IOException("Settlement line " + (lineNumber + 1) + " is longer than " + buffer.length + " bytes");
+                }
+                System.arraycopy(buffer, start, buffer, 0, remaining);
+                start = 0;
+                limit = remaining;
+                int read = in.read(buffer, limit, buffer.length - limit);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    limit += read;
+                }
+                continue;
+            }
+            lineNumber++;
+            int end = newline > start && buffer[newline - 1] == '\r' ? newline - 1 : newline;
+            rows += line(lineNumber, start, end, handler);
+            start = newline + 1;
+        }
+    }
+
+    private int line(long lineNumber, int from, int to, RowHandler handler) throws IOException {
+        if (from == to) {
+            return 0;
+        }
+        int fieldCount = split(from, to);
+        if (header == null) {
+            header = new ArrayList<>(fieldCount);
+            for (int i = 0; i < fieldCount; i++) {
+                header.add(new String(buffer, starts[i], ends[i] - starts[i], StandardCharsets.UTF_8)
+                        .trim().toLowerCase(Locale.ROOT));
+            }
+            return 0;
+        }
+        handler.row(lineNumber, buffer, starts, ends, fieldCount);
+        return 1;
+    }
+
+    private int split(int from, int to) throws IOException {
+        int field = 0;
+        int fieldStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || buffer[i] == ',') {
+                if (field == MAX_FIELDS) {
+                    throw new IOException("Settlement row has more than " + MAX_FIELDS + " fields");
+                }
+                starts[field] = fieldStart;
+                ends[field] = i;
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+        return field;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
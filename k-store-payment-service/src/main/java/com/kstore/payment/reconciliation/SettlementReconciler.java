@@ -0,0 +1,296 @@
+package com.kstore.payment.reconciliation;
+
+import com.kstore.payment.entity.Payment;
+import com.kstore.payment.entity.ReconciliationDiscrepancy;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Probe side of the hash join: every settlement row is looked up in the {@link PaymentIndex} built
+ * from our payments, and discrepancies are handed to the sink as soon as they are found. After the
+ * file, {@link #finish()} reports expected captures that never showed up.
+ *
+ * <p>Required columns: payment_reference, type (CHARGE, REFUND or CHARGEBACK), amount, currency.
+ * The sign of the amount is ignored; the type gives the direction.
+ */
+public class SettlementReconciler implements SettlementFileParser.RowHandler {
+
+    private static final byte[] CHARGE = "CHARGE".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REFUND = "REFUND".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHARGEBACK = "CHARGEBACK".getBytes(StandardCharsets.US_ASCII);
+    private static final Payment.PaymentStatus[] STATUSES = Payment.PaymentStatus.values();
+
+    private final PaymentIndex index;
+    private final Supplier<List<String>> header;
+    private final Consumer<ReconciliationDiscrepancy> sink;
+
+    private int referenceColumn = -1;
+    private int typeColumn;
+    private int amountColumn;
+    private int currencyColumn;
+    private int requiredFields;
+
+    // Single-entry cache: a settlement file is almost always in one currency
+    private int lastCurrencyCode = -1;
+    private int lastFractionDigits;
+
+    private long rowsRead;
+    private long rowsMatched;
+    private long discrepancies;
+
+    public SettlementReconciler(PaymentIndex index, Supplier<List<String>> header,
+                                Consumer<ReconciliationDiscrepancy> sink) {
+        this.index = index;
+        this.header = header;
+        this.sink = sink;
+    }
+
+    @Override
+    public void row(long lineNumber, byte[] buffer, int[] starts, int[] ends, int fieldCount) {
+        if (referenceColumn < 0) {
+            resolveColumns(header.get());
+        }
+        rowsRead++;
+        for (int i = 0; i < fieldCount; i++) {
+            while (starts[i] < ends[i] && buffer[starts[i]] == ' ') {
+                starts[i]++;
+            }
+            while (ends[i] > starts[i] && buffer[ends[i] - 1] == ' ') {
+                ends[i]--;
+            }
+        }
+        if (fieldCount < requiredFields) {
+            emit(discrepancy(ReconciliationDiscrepancy.DiscrepancyType.MALFORMED_ROW, lineNumber).build());
+            return;
+        }
+
+        int refStart = starts[referenceColumn];
+        int refEnd = ends[referenceColumn];
+        int flag = typeFlag(buffer, starts[typeColumn], ends[typeColumn]);
+        int currencyCode = currencyCode(buffer, starts[currencyColumn], ends[currencyColumn]);
+        int digits = currencyCode < 0 ? -1 : fractionDigits(currencyCode);
+        long settled = digits < 0 ? Long.MIN_VALUE : parseMinor(buffer, starts[amountColumn], ends[amountColumn], digits);
+        if (refStart == refEnd || flag == 0 || settled == Long.MIN_VALUE) {
+            emit(discrepancy(ReconciliationDiscrepancy.DiscrepancyType.MALFORMED_ROW, lineNumber)
+                    .paymentReference(refStart == refEnd ? null : text(buffer, refStart, refEnd))
+                    .settlementType(text(buffer, starts[typeColumn], ends[typeColumn]))
+                    .build());
+            return;
+        }
+
+        int slot = index.find(buffer, refStart, refEnd);
+        if (slot < 0) {
+            emit(discrepancy(ReconciliationDiscrepancy.DiscrepancyType.MISSING_PAYMENT, lineNumber)
+                    .paymentReference(text(buffer, refStart, refEnd))
+                    .settlementType(typeName(flag))
+                    .settledAmount(BigDecimal.valueOf(settled, digits))
+                    .currency(text(buffer, starts[currencyColumn], ends[currencyColumn]))
+                    .build());
+            return;
+        }
+        rowsMatched++;
+
+        ReconciliationDiscrepancy.DiscrepancyType type = null;
+        Payment.PaymentStatus status = STATUSES[index.status(slot)];
+        if ((index.flags(slot) & flag) != 0) {
+            type = ReconciliationDiscrepancy.DiscrepancyType.DUPLICATE_SETTLEMENT;
+        } else if (!index.currencyEquals(slot, buffer, starts[currencyColumn], ends[currencyColumn])) {
+            type = ReconciliationDiscrepancy.DiscrepancyType.CURRENCY_MISMATCH;
+        } else if (index.amountMinor(slot) != settled) {
+            type = ReconciliationDiscrepancy.DiscrepancyType.AMOUNT_MISMATCH;
+        } else if (!statusAllows(status, flag)) {
+            type = ReconciliationDiscrepancy.DiscrepancyType.STATUS_MISMATCH;
+        }
+        index.addFlags(slot, flag);
+        if (type != null) {
+            emit(discrepancy(type, lineNumber)
+                    .paymentId(index.paymentId(slot))
+                    .paymentReference(text(buffer, refStart, refEnd))
+                    .settlementType(typeName(flag))
+                    .expectedAmount(BigDecimal.valueOf(index.amountMinor(slot), digits))
+                    .settledAmount(BigDecimal.valueOf(settled, digits))
+                    .currency(text(buffer, starts[currencyColumn], ends[currencyColumn]))
+                    .paymentStatus(status)
+                    .build());
+        }
+    }
+
+    /**
+     * Reports captures we expected in this file that it did not contain. References are left for the
+     * caller to fill in from the payment id.
+     */
+    public void finish() {
+        for (int slot = 0; slot < index.capacity(); slot++) {
+            if (!index.isOccupied(slot)) {
+                continue;
+            }
+            int flags = index.flags(slot);
+            if ((flags & PaymentIndex.FLAG_EXPECTED) != 0 && (flags & PaymentIndex.FLAG_CHARGE) == 0) {
+                emit(discrepancy(ReconciliationDiscrepancy.DiscrepancyType.UNSETTLED_PAYMENT, null)
+                        .paymentId(index.paymentId(slot))
+                        .paymentStatus(STATUSES[index.status(slot)])
+                        .build());
+            }
+        }
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsMatched() {
+        return rowsMatched;
+    }
+
+    public long getDiscrepancies() {
+        return discrepancies;
+    }
+
+    private void resolveColumns(List<String> columns) {
+        referenceColumn = requireColumn(columns, "payment_reference");
+        typeColumn = requireColumn(columns, "type");
+        amountColumn = requireColumn(columns, "amount");
+        currencyColumn = requireColumn(columns, "currency");
+        requiredFields = Math.max(Math.max(referenceColumn, typeColumn), Math.max(amountColumn, currencyColumn)) + 1;
+    }
+
+    private static int requireColumn(List<String> columns, String name) {
+        int column = columns == null ? -1 : columns.indexOf(name);
+        if (column < 0) {
+            throw new IllegalArgumentException("Settlement file has no '" + name + "' column");
+        }
+        return column;
+    }
+
+    private void emit(ReconciliationDiscrepancy discrepancy) {
+        discrepancies++;
+        sink.accept(discrepancy);
+    }
+
+    private static ReconciliationDiscrepancy.ReconciliationDiscrepancyBuilder discrepancy(
+            ReconciliationDiscrepancy.DiscrepancyType type, Long lineNumber) {
+        return ReconciliationDiscrepancy.builder().type(type).lineNumber(lineNumber);
+    }
+
+    private static boolean statusAllows(Payment.PaymentStatus status, int flag) {
+        return switch (flag) {
+            case PaymentIndex.FLAG_CHARGE -> status == Payment.PaymentStatus.SUCCEEDED
+                    || status == Payment.PaymentStatus.REFUNDED
+                    || status == Payment.PaymentStatus.CHARGED_BACK;
+            case PaymentIndex.FLAG_REFUND -> status == Payment.PaymentStatus.REFUNDED;
+            case PaymentIndex.FLAG_CHARGEBACK -> status == Payment.PaymentStatus.CHARGED_BACK;
+            default -> false;
+        };
+    }
+
+    private static int typeFlag(byte[] buffer, int from, int to) {
+        if (equalsIgnoreCase(buffer, from, to, CHARGE)) {
+            return PaymentIndex.FLAG_CHARGE;
+        }
+        if (equalsIgnoreCase(buffer, from, to, REFUND)) {
+            return PaymentIndex.FLAG_REFUND;
+        }
+        if (equalsIgnoreCase(buffer, from, to, CHARGEBACK)) {
+            return PaymentIndex.FLAG_CHARGEBACK;
+        }
+        return 0;
+    }
+
+    private static String typeName(int flag) {
+        return switch (flag) {
+            case PaymentIndex.FLAG_CHARGE -> "CHARGE";
+            case PaymentIndex.FLAG_REFUND -> "REFUND";
+            default -> "CHARGEBACK";
+        };
+    }
+
+    private static boolean equalsIgnoreCase(byte[] buffer, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            byte b = buffer[from + i];
+            if ((b >= 'a' && b <= 'z' ? b - 32 : b) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int currencyCode(byte[] buffer, int from, int to) {
+        if (to - from != 3) {
+            return -1;
+        }
+        int code = 0;
+        for (int i = from; i < to; i++) {
+            int b = buffer[i] >= 'a' && buffer[i] <= 'z' ? buffer[i] - 32 : buffer[i];
+            if (b < 'A' || b > 'Z') {
+                return -1;
+            }
+            code = code << 8 | b;
+        }
+        return code;
+    }
+
+    private int fractionDigits(int currencyCode) {
+        if (currencyCode != lastCurrencyCode) {
+            String code = new String(new char[]{(char) (currencyCode >> 16), (char) (currencyCode >> 8 & 0xFF),
+                    (char) (currencyCode & 0xFF)});
+            try {
+                lastFractionDigits = Math.max(Currency.getInstance(code).getDefaultFractionDigits(), 0);
+            } catch (IllegalArgumentException e) {
+                lastFractionDigits = -1;
+            }
+            lastCurrencyCode = currencyCode;
+        }
+        return lastFractionDigits;
+    }
+
+    // Decimal text to minor units; Long.MIN_VALUE if malformed or more precise than the currency allows
+    static long parseMinor(byte[] buffer, int from, int to, int digits) {
+        int i = from;
+        if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+            i++;
+        }
+        long value = 0;
+        int fraction = -1;
+        boolean any = false;
+        for (; i < to; i++) {
+            byte b = buffer[i];
+            if (b == '.' && fraction < 0) {
+                fraction = 0;
+                continue;
+            }
+            if (b < '0' || b > '9') {
+                return Long.MIN_VALUE;
+            }
+            any = true;
+            if (fraction >= 0 && ++fraction > digits) {
+                if (b != '0') {
+                    return Long.MIN_VALUE;
+                }
+                continue;
+            }
+            if (value > (Long.MAX_VALUE - 9) / 10) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (b - '0');
+        }
+        if (!any) {
+            return Long.MIN_VALUE;
+        }
+        for (int scale = Math.max(fraction, 0); scale < digits; scale++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    private static String text(byte[] buffer, int from, int to) {
+        return new String(buffer, from, to - from, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,27 @@
+package com.kstore.payment.repository;
+
+import com.kstore.payment.entity.AccountBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, String> {
+
+    // Rolls every account forward by the entries between its snapshot and the high-water mark
+    @Modifying
+    @Query(value = "INSERT INTO account_balance_snapshots (account, balance_minor, last_entry_id, updated_at) " +
+            "SELECT e.account, " +
+            "COALESCE(MAX(s.balance_minor), 0) + SUM(CASE WHEN e.direction = 'DEBIT' THEN e.amount_minor ELSE -e.amount_minor END), " +
+            "MAX(e.id), now() " +
+            "FROM ledger_entries e LEFT JOIN account_balance_snapshots s ON s.account = e.account " +
+            "WHERE e.id > COALESCE(s.last_entry_id, 0) AND e.id <= :highWater " +
+            "GROUP BY e.account " +
+            "ON CONFLICT (account) DO UPDATE SET balance_minor = EXCLUDED.balance_minor, " +
+            "last_entry_id = EXCLUDED.last_entry_id, updated_at = EXCLUDED.updated_at " +
+            "WHERE account_balance_snapshots.last_entry_id < EXCLUDED.last_entry_id",
+            nativeQuery = true)
+    int rollForward(@Param("highWater") long highWater);
+}
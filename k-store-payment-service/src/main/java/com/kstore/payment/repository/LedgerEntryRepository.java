@@ -0,0 +1,27 @@
+package com.kstore.payment.repository;
+
+import com.kstore.payment.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    List<LedgerEntry> findByPaymentReferenceOrderById(String paymentReference);
+
+    // Entries written after the account's snapshot; bounded by the snapshot interval
+    @Query(value = "SELECT COALESCE(SUM(CASE WHEN direction = 'DEBIT' THEN amount_minor ELSE -amount_minor END), 0) " +
+            "FROM ledger_entries WHERE account = :account AND id > :afterId",
+            nativeQuery = true)
+    long sumSince(@Param("account") String account, @Param("afterId") long afterId);
+
+    // Highest id that is safely committed: a settle window covers transactions still in flight with lower ids
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM ledger_entries " +
+            "WHERE created_at < now() - make_interval(secs => :settleSeconds)",
+            nativeQuery = true)
+    long findHighWaterMark(@Param("settleSeconds") long settleSeconds);
+}
@@ -0,0 +1,95 @@
+package com.kstore.payment.repository;
+
+import com.kstore.payment.entity.Payment;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    Optional<Payment> findByPaymentReference(String paymentReference);
+
+    List<Payment> findByOrderIdOrderByIdDesc(Long orderId);
+
+    Optional<Payment> findFirstByOrderIdAndStatusInOrderByIdDesc(Long orderId, Collection<Payment.PaymentStatus> statuses);
+
+    // Compare-and-set on the status that was read, so concurrent results for one payment apply once
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :target, " +
+           "p.providerPaymentId = COALESCE(:providerPaymentId, p.providerPaymentId), " +
+           "p.failureReason = :failureReason, p.updatedAt = :now, p.version = COALESCE(p.version, 0) + 1 " +
+           "WHERE p.id = :id AND p.status = :expected")
+    int transition(@Param("id") Long id,
+                   @Param("expected") Payment.PaymentStatus expected,
+                   @Param("target") Payment.PaymentStatus target,
+                   @Param("providerPaymentId") String providerPaymentId,
+                   @Param("failureReason") String failureReason,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.providerPaymentId = :providerPaymentId, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.providerPaymentId IS NULL")
+    int assignProviderPaymentId(@Param("id") Long id,
+                                @Param("providerPaymentId") String providerPaymentId,
+                                @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.id FROM Payment p WHERE p.status = 'PROCESSING' AND p.updatedAt < :before ORDER BY p.id")
+    List<Long> findProcessingIdsBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    // SKIP LOCKED: a payment being settled or recovered elsewhere is left alone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM Payment p WHERE p.id = :id AND p.status = 'PROCESSING' AND p.updatedAt < :before")
+    Optional<Payment> lockProcessingBefore(@Param("id") Long id, @Param("before") LocalDateTime before);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.updatedAt = :now WHERE p.id = :id AND p.status = 'PROCESSING'")
+    int touchProcessing(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Settled payments whose capture, refund or chargeback journal never reached the ledger
+    @Query(value = "SELECT p.* FROM payments p " +
+            "WHERE p.status IN ('SUCCEEDED', 'REFUNDED', 'CHARGED_BACK') " +
+            "AND p.updated_at >= :from AND p.updated_at < :before " +
+            "AND (NOT EXISTS (SELECT 1 FROM ledger_entries e WHERE e.journal_key = p.payment_reference || ':CAPTURE') " +
+            "OR (p.status = 'REFUNDED' AND NOT EXISTS " +
+            "(SELECT 1 FROM ledger_entries e WHERE e.journal_key = p.payment_reference || ':REFUND')) " +
+            "OR (p.status = 'CHARGED_BACK' AND NOT EXISTS " +
+            "(SELECT 1 FROM ledger_entries e WHERE e.journal_key = p.payment_reference || ':CHARGEBACK'))) " +
+            "ORDER BY p.id LIMIT :limit",
+            nativeQuery = true)
+    List<Payment> findSettledWithoutJournals(@Param("from") LocalDateTime from,
+                                             @Param("before") LocalDateTime before,
+                                             @Param("limit") int limit);
+
+    long countByProviderAndCreatedAtBetween(String provider, LocalDateTime from, LocalDateTime to);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.kstore.payment.repository.PaymentSettlementView(p.id, p.paymentReference, p.amount, " +
+           "p.currency, p.status, p.createdAt) " +
+           "FROM Payment p WHERE p.provider = :provider AND p.createdAt >= :from AND p.createdAt < :to")
+    Stream<PaymentSettlementView> streamForSettlement(@Param("provider") String provider,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.kstore.payment.repository.PaymentSettlementView(p.id, p.paymentReference, p.amount, " +
+           "p.currency, p.status, p.createdAt) " +
+           "FROM Payment p WHERE p.id IN :ids")
+    List<PaymentSettlementView> findSettlementViewsByIdIn(@Param("ids") Collection<Long> ids);
+}
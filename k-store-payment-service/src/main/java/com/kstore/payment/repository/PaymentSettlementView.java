@@ -0,0 +1,24 @@
+package com.kstore.payment.repository;
+
+import com.kstore.payment.entity.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The columns reconciliation indexes, selected with a constructor expression so millions of rows
+ * are read without entity or projection-proxy overhead.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentSettlementView {
+
+    private final Long id;
+    private final String paymentReference;
+    private final BigDecimal amount;
+    private final String currency;
+    private final Payment.PaymentStatus status;
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package com.kstore.payment.repository;
+
+import com.kstore.payment.entity.ReconciliationDiscrepancy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancy, Long> {
+
+    Page<ReconciliationDiscrepancy> findByRunIdOrderById(Long runId, Pageable pageable);
+
+    Page<ReconciliationDiscrepancy> findByRunIdAndTypeOrderById(Long runId, ReconciliationDiscrepancy.DiscrepancyType type,
+                                                                Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.kstore.payment.repository;
+
+import com.kstore.payment.entity.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+
+    boolean existsByProviderAndSettlementDateAndStatusIn(String provider, LocalDate settlementDate,
+                                                         Collection<ReconciliationRun.RunStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE ReconciliationRun r SET r.rowsRead = :rowsRead, r.rowsMatched = :rowsMatched, " +
+            "r.discrepancies = :discrepancies WHERE r.id = :id")
+    int updateProgress(@Param("id") Long id,
+                       @Param("rowsRead") long rowsRead,
+                       @Param("rowsMatched") long rowsMatched,
+                       @Param("discrepancies") long discrepancies);
+}
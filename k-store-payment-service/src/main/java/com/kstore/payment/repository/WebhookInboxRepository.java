@@ -0,0 +1,45 @@
+package com.kstore.payment.repository;
+
+import com.kstore.payment.entity.WebhookInboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEvent, Long> {
+
+    // The (provider, event_id) unique key drops provider redeliveries
+    @Modifying
+    @Query(value = "INSERT INTO payment_webhook_inbox " +
+            "(provider, event_id, event_type, payload, status, attempts, received_at) " +
+            "VALUES (:provider, :eventId, :eventType, :payload, 'RECEIVED', 0, :receivedAt) " +
+            "ON CONFLICT (provider, event_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("provider") String provider,
+                       @Param("eventId") String eventId,
+                       @Param("eventType") String eventType,
+                       @Param("payload") String payload,
+                       @Param("receivedAt") LocalDateTime receivedAt);
+
+    Optional<WebhookInboxEvent> findByProviderAndEventId(String provider, String eventId);
+
+    // SKIP LOCKED: an event being processed by another worker is left to it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM WebhookInboxEvent e WHERE e.id = :id AND e.status = 'RECEIVED'")
+    Optional<WebhookInboxEvent> lockReceived(@Param("id") Long id);
+
+    @Query("SELECT e.id FROM WebhookInboxEvent e WHERE e.status = 'RECEIVED' AND e.receivedAt < :before ORDER BY e.id")
+    List<Long> findReceivedIdsBefore(@Param("before") LocalDateTime before, Pageable pageable);
+}
@@ -0,0 +1,30 @@
+package com.kstore.payment.scheduler;
+
+import com.kstore.payment.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerRepostScheduler {
+
+    private final LedgerService ledgerService;
+
+    /**
+     * Post journals for settled payments whose queued journal was lost or failed
+     */
+    @Scheduled(fixedDelayString = "${payment.ledger.repost-interval-ms:60000}")
+    public void repostMissingJournals() {
+        try {
+            int journals = ledgerService.repostMissingJournals();
+            if (journals > 0) {
+                log.info("Re-posted {} missing ledger journals", journals);
+            }
+        } catch (Exception e) {
+            log.error("Error re-posting missing ledger journals", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.kstore.payment.scheduler;
+
+import com.kstore.payment.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerSnapshotScheduler {
+
+    private final LedgerService ledgerService;
+
+    /**
+     * Keep balance reads to a snapshot plus a short tail of journal entries
+     */
+    @Scheduled(fixedDelayString = "${payment.ledger.snapshot-interval-ms:60000}")
+    public void snapshotBalances() {
+        try {
+            int accounts = ledgerService.snapshotBalances();
+            if (accounts > 0) {
+                log.debug("Rolled {} ledger balance snapshots forward", accounts);
+            }
+        } catch (Exception e) {
+            log.error("Error taking ledger balance snapshots", e);
+        }
+    }
+}
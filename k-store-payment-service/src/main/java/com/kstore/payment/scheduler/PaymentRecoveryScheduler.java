@@ -0,0 +1,30 @@
+package com.kstore.payment.scheduler;
+
+import com.kstore.payment.service.PaymentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRecoveryScheduler {
+
+    private final PaymentService paymentService;
+
+    /**
+     * Re-send or fail payments whose charge was lost with an instance or never answered
+     */
+    @Scheduled(fixedDelayString = "${payment.charge-recovery.sweep-interval-ms:30000}")
+    public void recoverStalePayments() {
+        try {
+            int count = paymentService.recoverStalePayments();
+            if (count > 0) {
+                log.info("Recovered {} stale payments", count);
+            }
+        } catch (Exception e) {
+            log.error("Error recovering stale payments", e);
+        }
+    }
+}
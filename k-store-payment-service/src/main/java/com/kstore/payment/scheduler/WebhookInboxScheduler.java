@@ -0,0 +1,30 @@
+package com.kstore.payment.scheduler;
+
+import com.kstore.payment.service.WebhookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookInboxScheduler {
+
+    private final WebhookService webhookService;
+
+    /**
+     * Re-drive webhook inbox events left unprocessed by a crash or a failed attempt
+     */
+    @Scheduled(fixedDelayString = "${payment.webhooks.sweep-interval-ms:30000}")
+    public void processPendingWebhooks() {
+        try {
+            int count = webhookService.processPending();
+            if (count > 0) {
+                log.info("Re-processed {} pending webhook events", count);
+            }
+        } catch (Exception e) {
+            log.error("Error re-processing webhook events", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.kstore.payment.service;
+
+import com.kstore.payment.dto.LedgerBalanceResponse;
+import com.kstore.payment.dto.LedgerEntryResponse;
+import com.kstore.payment.entity.Payment;
+
+import java.util.List;
+
+public interface LedgerService {
+
+    /**
+     * Posts the journal for a payment that moved to {@code status} (capture, refund or chargeback)
+     * once the surrounding transaction commits. Other statuses post nothing.
+     */
+    void postPaymentTransition(Payment payment, Payment.PaymentStatus status);
+
+    LedgerBalanceResponse getBalance(String account);
+
+    List<LedgerEntryResponse> getEntriesForPayment(String paymentReference);
+
+    /**
+     * Re-posts the journals of recently settled payments that are missing from the ledger, e.g. because
+     * the instance stopped before its queued journals were written. Returns how many journals were written.
+     */
+    int repostMissingJournals();
+
+    /**
+     * Rolls the balance snapshots forward to the latest settled journal entry.
+     */
+    int snapshotBalances();
+}
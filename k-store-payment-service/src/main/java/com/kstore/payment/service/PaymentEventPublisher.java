@@ -0,0 +1,53 @@
+package com.kstore.payment.service;
+
+import com.kstore.common.event.PaymentStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentEventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${payment.events.topic:payment-events}")
+    private String paymentTopic;
+
+    /**
+     * Publishes after the surrounding transaction commits; events are keyed by order id so
+     * consumers see the changes of one order in sequence.
+     */
+    public void publish(PaymentStatusChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(PaymentStatusChangedEvent event) {
+        log.info("Publishing payment event: {} ({} -> {}) to topic: {}",
+                event.getPaymentReference(), event.getOldStatus(), event.getNewStatus(), paymentTopic);
+        try {
+            kafkaTemplate.send(paymentTopic, String.valueOf(event.getOrderId()), event)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Failed to publish payment event: {}", event.getEventId(), ex);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            log.error("Failed to publish payment event: {}", event.getEventId(), e);
+        }
+    }
+}
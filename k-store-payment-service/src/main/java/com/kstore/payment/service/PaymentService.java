@@ -0,0 +1,34 @@
+package com.kstore.payment.service;
+
+import com.kstore.payment.dto.PaymentIntentRequest;
+import com.kstore.payment.dto.PaymentResponse;
+import com.kstore.payment.entity.Payment;
+
+import java.util.List;
+
+public interface PaymentService {
+
+    /**
+     * Records the intent and returns immediately; the provider is charged asynchronously after commit.
+     * An order with a payment that is still processing or has succeeded gets that payment back.
+     */
+    PaymentResponse createPaymentIntent(PaymentIntentRequest request);
+
+    PaymentResponse getPayment(String paymentReference);
+
+    List<PaymentResponse> getPaymentsByOrderId(Long orderId);
+
+    /**
+     * Moves a payment to {@code target} if the transition is allowed and publishes the change.
+     * Returns false if the payment was already there or the transition is not allowed.
+     */
+    boolean applyOutcome(String paymentReference, Payment.PaymentStatus target,
+                         String providerPaymentId, String failureReason);
+
+    /**
+     * Re-sends the charge for payments left PROCESSING longer than the provider timeout, e.g. because the
+     * dispatch was lost with the instance, and fails those that stay unsettled past the give-up age.
+     * Returns how many payments were re-sent or failed.
+     */
+    int recoverStalePayments();
+}
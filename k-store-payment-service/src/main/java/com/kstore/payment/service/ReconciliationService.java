@@ -0,0 +1,22 @@
+package com.kstore.payment.service;
+
+import com.kstore.payment.dto.ReconciliationDiscrepancyResponse;
+import com.kstore.payment.dto.ReconciliationRequest;
+import com.kstore.payment.dto.ReconciliationRunResponse;
+import com.kstore.payment.entity.ReconciliationDiscrepancy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface ReconciliationService {
+
+    /**
+     * Records the run and reconciles the settlement file in the background; discrepancies are
+     * readable while the run is still going.
+     */
+    ReconciliationRunResponse startRun(ReconciliationRequest request);
+
+    ReconciliationRunResponse getRun(Long runId);
+
+    Page<ReconciliationDiscrepancyResponse> getDiscrepancies(Long runId, ReconciliationDiscrepancy.DiscrepancyType type,
+                                                             Pageable pageable);
+}
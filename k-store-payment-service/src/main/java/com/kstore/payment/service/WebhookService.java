@@ -0,0 +1,17 @@
+package com.kstore.payment.service;
+
+import com.kstore.payment.dto.WebhookReceipt;
+
+import java.util.Map;
+
+public interface WebhookService {
+
+    /** Verifies and stores a provider webhook in the inbox; processing happens after commit. */
+    WebhookReceipt receive(String provider, String payload, Map<String, String> headers);
+
+    /** Applies a stored inbox event. Safe to call repeatedly and from several instances. */
+    void process(Long inboxEventId);
+
+    /** Re-drives inbox events whose processing was interrupted. */
+    int processPending();
+}
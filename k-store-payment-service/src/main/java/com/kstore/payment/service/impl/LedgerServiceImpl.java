@@ -0,0 +1,220 @@
+package com.kstore.payment.service.impl;
+
+import com.kstore.common.exception.BusinessException;
+import com.kstore.payment.dto.LedgerBalanceResponse;
+import com.kstore.payment.dto.LedgerEntryResponse;
+import com.kstore.payment.entity.AccountBalanceSnapshot;
+import com.kstore.payment.entity.LedgerEntry;
+import com.kstore.payment.entity.Payment;
+import com.kstore.payment.ledger.LedgerAccounts;
+import com.kstore.payment.ledger.LedgerBalanceCache;
+import com.kstore.payment.ledger.LedgerJournal;
+import com.kstore.payment.ledger.LedgerWriter;
+import com.kstore.payment.repository.AccountBalanceSnapshotRepository;
+import com.kstore.payment.repository.LedgerEntryRepository;
+import com.kstore.payment.repository.PaymentRepository;
+import com.kstore.payment.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerServiceImpl implements LedgerService {
+
+    private final LedgerWriter ledgerWriter;
+    private final LedgerBalanceCache balanceCache;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountBalanceSnapshotRepository snapshotRepository;
+    private final PaymentRepository paymentRepository;
+
+    @Value("${payment.ledger.snapshot-settle:10s}")
+    private Duration snapshotSettle;
+
+    @Value("${payment.ledger.repost-after:30s}")
+    private Duration repostAfter;
+
+    @Value("${payment.ledger.repost-lookback:24h}")
+    private Duration repostLookback;
+
+    @Override
+    public void postPaymentTransition(Payment payment, Payment.PaymentStatus status) {
+        LedgerJournal journal = journalFor(payment, status);
+        if (journal == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    post(journal);
+                }
+            });
+        } else {
+            post(journal);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LedgerBalanceResponse getBalance(String account) {
+        String currency = LedgerAccounts.currencyOf(account);
+        long balanceMinor = balanceCache.get(account, this::loadBalance);
+        return LedgerBalanceResponse.builder()
+                .account(account)
+                .currency(currency)
+                .balanceMinor(balanceMinor)
+                .balance(fromMinor(balanceMinor, currency))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LedgerEntryResponse> getEntriesForPayment(String paymentReference) {
+        return ledgerEntryRepository.findByPaymentReferenceOrderById(paymentReference).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int repostMissingJournals() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Payment> payments = paymentRepository.findSettledWithoutJournals(now.minus(repostLookback),
+                now.minus(repostAfter), 500);
+        if (payments.isEmpty()) {
+            return 0;
+        }
+
+        // Every settled payment was captured first; journals already present are skipped by the writer
+        List<LedgerJournal> journals = new ArrayList<>();
+        for (Payment payment : payments) {
+            journals.add(journalFor(payment, Payment.PaymentStatus.SUCCEEDED));
+            if (payment.getStatus() != Payment.PaymentStatus.SUCCEEDED) {
+                journals.add(journalFor(payment, payment.getStatus()));
+            }
+        }
+        List<CompletableFuture<Boolean>> results = journals.stream().map(ledgerWriter::submit).toList();
+
+        int written = 0;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                if (results.get(i).get(30, TimeUnit.SECONDS)) {
+                    log.warn("Re-posted missing ledger journal {}", journals.get(i).getJournalKey());
+                    written++;
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                log.error("Failed to re-post ledger journal {}", journals.get(i).getJournalKey(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return written;
+    }
+
+    @Override
+    @Transactional
+    public int snapshotBalances() {
+        long highWater = ledgerEntryRepository.findHighWaterMark(snapshotSettle.toSeconds());
+        return highWater == 0 ? 0 : snapshotRepository.rollForward(highWater);
+    }
+
+    private void post(LedgerJournal journal) {
+        try {
+            ledgerWriter.submit(journal).whenComplete((inserted, ex) -> {
+                if (ex != null) {
+                    // repostMissingJournals picks it up from the payment's status
+                    log.error("Failed to post ledger journal {}", journal.getJournalKey(), ex);
+                } else if (!inserted) {
+                    log.info("Ledger journal {} was already posted", journal.getJournalKey());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to post ledger journal {}", journal.getJournalKey(), e);
+        }
+    }
+
+    // Snapshot plus the entries after it, so the read never sums the whole journal
+    private long loadBalance(String account) {
+        AccountBalanceSnapshot snapshot = snapshotRepository.findById(account).orElse(null);
+        long base = snapshot != null ? snapshot.getBalanceMinor() : 0L;
+        long after = snapshot != null ? snapshot.getLastEntryId() : 0L;
+        return base + ledgerEntryRepository.sumSince(account, after);
+    }
+
+    private LedgerJournal journalFor(Payment payment, Payment.PaymentStatus status) {
+        String currency = payment.getCurrency();
+        long amount = toMinor(payment.getAmount(), currency);
+        String clearing = LedgerAccounts.providerClearing(payment.getProvider(), currency);
+        return switch (status) {
+            case SUCCEEDED -> journal(payment, LedgerEntry.EntryType.CAPTURE,
+                    clearing, LedgerAccounts.merchantRevenue(currency), amount);
+            case REFUNDED -> journal(payment, LedgerEntry.EntryType.REFUND,
+                    LedgerAccounts.merchantRevenue(currency), clearing, amount);
+            case CHARGED_BACK -> journal(payment, LedgerEntry.EntryType.CHARGEBACK,
+                    LedgerAccounts.merchantChargebacks(currency), clearing, amount);
+            default -> null;
+        };
+    }
+
+    private LedgerJournal journal(Payment payment, LedgerEntry.EntryType type,
+                                  String debitAccount, String creditAccount, long amount) {
+        return LedgerJournal.builder()
+                .journalKey(payment.getPaymentReference() + ":" + type.name())
+                .entryType(type)
+                .paymentReference(payment.getPaymentReference())
+                .currency(payment.getCurrency().toUpperCase())
+                .line(new LedgerJournal.Line(debitAccount, LedgerEntry.Direction.DEBIT, amount))
+                .line(new LedgerJournal.Line(creditAccount, LedgerEntry.Direction.CREDIT, amount))
+                .build();
+    }
+
+    private long toMinor(BigDecimal amount, String currency) {
+        return amount.setScale(fractionDigits(currency), RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    private BigDecimal fromMinor(long amountMinor, String currency) {
+        return BigDecimal.valueOf(amountMinor, fractionDigits(currency));
+    }
+
+    private int fractionDigits(String currency) {
+        try {
+            return Math.max(Currency.getInstance(currency.toUpperCase()).getDefaultFractionDigits(), 0);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unknown currency: " + currency, "INVALID_CURRENCY", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private LedgerEntryResponse mapToResponse(LedgerEntry entry) {
+        return LedgerEntryResponse.builder()
+                .id(entry.getId())
+                .journalKey(entry.getJournalKey())
+                .account(entry.getAccount())
+                .direction(entry.getDirection())
+                .amount(fromMinor(entry.getAmountMinor(), entry.getCurrency()))
+                .currency(entry.getCurrency())
+                .entryType(entry.getEntryType())
+                .paymentReference(entry.getPaymentReference())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,288 @@
+package com.kstore.payment.service.impl;
+
+import com.kstore.common.event.PaymentStatusChangedEvent;
+import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.payment.dto.PaymentIntentRequest;
+import com.kstore.payment.dto.PaymentResponse;
+import com.kstore.payment.entity.Payment;
+import com.kstore.payment.provider.PaymentProvider;
+import com.kstore.payment.provider.PaymentProviderRegistry;
+import com.kstore.payment.provider.ProviderChargeRequest;
+import com.kstore.payment.provider.ProviderChargeResult;
+import com.kstore.payment.repository.PaymentRepository;
+import com.kstore.payment.service.LedgerService;
+import com.kstore.payment.service.PaymentEventPublisher;
+import com.kstore.payment.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional
+public class PaymentServiceImpl implements PaymentService {
+
+    private static final Map<Payment.PaymentStatus, Set<Payment.PaymentStatus>> TRANSITIONS =
+            new EnumMap<>(Payment.PaymentStatus.class);
+
+    static {
+        TRANSITIONS.put(Payment.PaymentStatus.PROCESSING,
+                EnumSet.of(Payment.PaymentStatus.SUCCEEDED, Payment.PaymentStatus.FAILED));
+        // Providers may report a late success after a timeout was recorded as a failure
+        TRANSITIONS.put(Payment.PaymentStatus.FAILED, EnumSet.of(Payment.PaymentStatus.SUCCEEDED));
+        TRANSITIONS.put(Payment.PaymentStatus.SUCCEEDED,
+                EnumSet.of(Payment.PaymentStatus.REFUNDED, Payment.PaymentStatus.CHARGED_BACK));
+        TRANSITIONS.put(Payment.PaymentStatus.REFUNDED, EnumSet.noneOf(Payment.PaymentStatus.class));
+        TRANSITIONS.put(Payment.PaymentStatus.CHARGED_BACK, EnumSet.noneOf(Payment.PaymentStatus.class));
+    }
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentProviderRegistry providerRegistry;
+    private final PaymentEventPublisher eventPublisher;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor paymentTaskExecutor;
+
+    @Value("${payment.provider-timeout:30s}")
+    private Duration providerTimeout;
+
+    @Value("${payment.charge-recovery.give-up-after:15m}")
+    private Duration giveUpAfter;
+
+    public PaymentServiceImpl(PaymentRepository paymentRepository,
+                              PaymentProviderRegistry providerRegistry,
+                              PaymentEventPublisher eventPublisher,
+                              LedgerService ledgerService,
+                              TransactionTemplate transactionTemplate,
+                              @Qualifier("paymentTaskExecutor") Executor paymentTaskExecutor) {
+        this.paymentRepository = paymentRepository;
+        this.providerRegistry = providerRegistry;
+        this.eventPublisher = eventPublisher;
+        this.ledgerService = ledgerService;
+        this.transactionTemplate = transactionTemplate;
+        this.paymentTaskExecutor = paymentTaskExecutor;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentResponse createPaymentIntent(PaymentIntentRequest request) {
+        Payment existing = findActivePayment(request.getOrderId());
+        if (existing != null) {
+            return mapToResponse(existing);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> mapToResponse(insertPayment(request)));
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent intent for the same order; uk_payments_active_order admits one
+            existing = findActivePayment(request.getOrderId());
+            if (existing == null) {
+                throw e;
+            }
+            return mapToResponse(existing);
+        }
+    }
+
+    private Payment insertPayment(PaymentIntentRequest request) {
+        PaymentProvider provider = providerRegistry.getDefault();
+        Payment payment = paymentRepository.saveAndFlush(Payment.builder()
+                .paymentReference("PAY-" + UUID.randomUUID().toString().replace("-", "").toUpperCase())
+                .orderId(request.getOrderId())
+                .orderNumber(request.getOrderNumber())
+                .userId(request.getUserId())
+                .amount(request.getAmount())
+                .currency(request.getCurrency())
+                .paymentMethod(request.getPaymentMethod())
+                .status(Payment.PaymentStatus.PROCESSING)
+                .provider(provider.getName())
+                .build());
+        dispatchChargeAfterCommit(provider, payment);
+        return payment;
+    }
+
+    private Payment findActivePayment(Long orderId) {
+        return paymentRepository.findFirstByOrderIdAndStatusInOrderByIdDesc(orderId,
+                EnumSet.of(Payment.PaymentStatus.PROCESSING, Payment.PaymentStatus.SUCCEEDED)).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentResponse getPayment(String paymentReference) {
+        return mapToResponse(findByReference(paymentReference));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentResponse> getPaymentsByOrderId(Long orderId) {
+        return paymentRepository.findByOrderIdOrderByIdDesc(orderId).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean applyOutcome(String paymentReference, Payment.PaymentStatus target,
+                                String providerPaymentId, String failureReason) {
+        Payment payment = findByReference(paymentReference);
+        Payment.PaymentStatus current = payment.getStatus();
+        if (current == target || !TRANSITIONS.get(current).contains(target)) {
+            log.info("Ignoring payment outcome {} for {} in status {}", target, paymentReference, current);
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = paymentRepository.transition(payment.getId(), current, target, providerPaymentId,
+                target == Payment.PaymentStatus.FAILED ? failureReason : null, now);
+        if (updated == 0) {
+            // Lost the race against a concurrent result for the same payment; it has been handled there
+            log.info("Payment {} changed concurrently while applying {}", paymentReference, target);
+            return false;
+        }
+
+        ledgerService.postPaymentTransition(payment, target);
+        eventPublisher.publish(PaymentStatusChangedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .paymentReference(payment.getPaymentReference())
+                .orderId(payment.getOrderId())
+                .orderNumber(payment.getOrderNumber())
+                .userId(payment.getUserId())
+                .amount(payment.getAmount())
+                .currency(payment.getCurrency())
+                .provider(payment.getProvider())
+                .oldStatus(current.name())
+                .newStatus(target.name())
+                .failureReason(target == Payment.PaymentStatus.FAILED ? failureReason : null)
+                .changedAt(now)
+                .build());
+        return true;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int recoverStalePayments() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(providerTimeout);
+        List<Long> ids = paymentRepository.findProcessingIdsBefore(staleBefore, PageRequest.of(0, 100));
+        int recovered = 0;
+        for (Long id : ids) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> recoverStalePayment(id, staleBefore)))) {
+                    recovered++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Recovering payment {} failed: {}", id, e.toString());
+            }
+        }
+        return recovered;
+    }
+
+    private boolean recoverStalePayment(Long id, LocalDateTime staleBefore) {
+        Payment payment = paymentRepository.lockProcessingBefore(id, staleBefore).orElse(null);
+        if (payment == null) {
+            // Settled meanwhile, or being recovered by another instance
+            return false;
+        }
+        if (payment.getCreatedAt().isBefore(LocalDateTime.now().minus(giveUpAfter))) {
+            log.warn("Payment {} still unsettled after {}, marking it failed", payment.getPaymentReference(), giveUpAfter);
+            return applyOutcome(payment.getPaymentReference(), Payment.PaymentStatus.FAILED, null, "provider_timeout");
+        }
+
+        // Pushes the next attempt out by another provider timeout; the provider de-duplicates on the reference
+        paymentRepository.touchProcessing(id, LocalDateTime.now());
+        log.info("Re-sending charge for payment {}", payment.getPaymentReference());
+        dispatchChargeAfterCommit(providerRegistry.get(payment.getProvider()), payment);
+        return true;
+    }
+
+    private void dispatchChargeAfterCommit(PaymentProvider provider, Payment payment) {
+        ProviderChargeRequest chargeRequest = ProviderChargeRequest.builder()
+                .paymentReference(payment.getPaymentReference())
+                .amount(payment.getAmount())
+                .currency(payment.getCurrency())
+                .paymentMethod(payment.getPaymentMethod())
+                .build();
+        Long paymentId = payment.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatchCharge(provider, paymentId, chargeRequest);
+            }
+        });
+    }
+
+    private void dispatchCharge(PaymentProvider provider, Long paymentId, ProviderChargeRequest request) {
+        CompletableFuture.supplyAsync(() -> provider.charge(request), paymentTaskExecutor)
+                .thenCompose(future -> future)
+                .orTimeout(providerTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenCompleteAsync((result, ex) -> {
+                    if (ex != null) {
+                        // Left in PROCESSING: the provider webhook settles it, or recoverStalePayments
+                        // re-sends the charge, which the provider de-duplicates on the payment reference
+                        log.warn("Charge for payment {} did not complete: {}", request.getPaymentReference(), ex.toString());
+                        return;
+                    }
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> applyChargeResult(paymentId, request, result));
+                    } catch (RuntimeException e) {
+                        log.error("Failed to record charge result for payment {}", request.getPaymentReference(), e);
+                    }
+                }, paymentTaskExecutor);
+    }
+
+    private void applyChargeResult(Long paymentId, ProviderChargeRequest request, ProviderChargeResult result) {
+        switch (result.getOutcome()) {
+            case SUCCEEDED -> applyOutcome(request.getPaymentReference(), Payment.PaymentStatus.SUCCEEDED,
+                    result.getProviderPaymentId(), null);
+            case FAILED -> applyOutcome(request.getPaymentReference(), Payment.PaymentStatus.FAILED,
+                    result.getProviderPaymentId(), result.getFailureReason());
+            case PENDING -> {
+                if (result.getProviderPaymentId() != null) {
+                    paymentRepository.assignProviderPaymentId(paymentId, result.getProviderPaymentId(), LocalDateTime.now());
+                }
+            }
+        }
+    }
+
+    private Payment findByReference(String paymentReference) {
+        return paymentRepository.findByPaymentReference(paymentReference)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with reference: " + paymentReference));
+    }
+
+    private PaymentResponse mapToResponse(Payment payment) {
+        return PaymentResponse.builder()
+                .id(payment.getId())
+                .paymentReference(payment.getPaymentReference())
+                .orderId(payment.getOrderId())
+                .orderNumber(payment.getOrderNumber())
+                .userId(payment.getUserId())
+                .amount(payment.getAmount())
+                .currency(payment.getCurrency())
+                .paymentMethod(payment.getPaymentMethod())
+                .status(payment.getStatus())
+                .provider(payment.getProvider())
+                .providerPaymentId(payment.getProviderPaymentId())
+                .failureReason(payment.getFailureReason())
+                .createdAt(payment.getCreatedAt())
+                .updatedAt(payment.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,284 @@
+package com.kstore.payment.service.impl;
+
+import com.kstore.common.exception.BusinessException;
+import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.payment.dto.ReconciliationDiscrepancyResponse;
+import com.kstore.payment.dto.ReconciliationRequest;
+import com.kstore.payment.dto.ReconciliationRunResponse;
+import com.kstore.payment.entity.Payment;
+import com.kstore.payment.entity.ReconciliationDiscrepancy;
+import com.kstore.payment.entity.ReconciliationRun;
+import com.kstore.payment.provider.PaymentProviderRegistry;
+import com.kstore.payment.reconciliation.PaymentIndex;
+import com.kstore.payment.reconciliation.SettlementFileParser;
+import com.kstore.payment.reconciliation.SettlementReconciler;
+import com.kstore.payment.repository.PaymentRepository;
+import com.kstore.payment.repository.PaymentSettlementView;
+import com.kstore.payment.repository.ReconciliationDiscrepancyRepository;
+import com.kstore.payment.repository.ReconciliationRunRepository;
+import com.kstore.payment.service.ReconciliationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final Set<Payment.PaymentStatus> CAPTURED = EnumSet.of(Payment.PaymentStatus.SUCCEEDED,
+            Payment.PaymentStatus.REFUNDED, Payment.PaymentStatus.CHARGED_BACK);
+
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationDiscrepancyRepository discrepancyRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentProviderRegistry providerRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Executor reconciliationExecutor;
+
+    @Value("${payment.reconciliation.settlement-dir:settlements}")
+    private Path settlementDir;
+
+    // Payments settle a few days after capture, so the index also covers the days before the settlement date
+    @Value("${payment.reconciliation.lookback-days:7}")
+    private int lookbackDays;
+
+    @Value("${payment.reconciliation.flush-size:500}")
+    private int flushSize;
+
+    public ReconciliationServiceImpl(ReconciliationRunRepository runRepository,
+                                     ReconciliationDiscrepancyRepository discrepancyRepository,
+                                     PaymentRepository paymentRepository,
+                                     PaymentProviderRegistry providerRegistry,
+                                     PlatformTransactionManager transactionManager,
+                                     @Qualifier("reconciliationExecutor") Executor reconciliationExecutor) {
+        this.runRepository = runRepository;
+        this.discrepancyRepository = discrepancyRepository;
+        this.paymentRepository = paymentRepository;
+        this.providerRegistry = providerRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.reconciliationExecutor = reconciliationExecutor;
+    }
+
+    @Override
+    public ReconciliationRunResponse startRun(ReconciliationRequest request) {
+        String provider = providerRegistry.get(request.getProvider()).getName();
+        Path file = resolveSettlementFile(request.getFileName());
+
+        ReconciliationRun run = transactionTemplate.execute(status -> {
+            if (runRepository.existsByProviderAndSettlementDateAndStatusIn(provider, request.getSettlementDate(),
+                    EnumSet.of(ReconciliationRun.RunStatus.RUNNING))) {
+                throw new BusinessException("A reconciliation for " + provider + " on " + request.getSettlementDate()
+                        + " is already running", "RECONCILIATION_IN_PROGRESS", HttpStatus.CONFLICT);
+            }
+            return runRepository.save(ReconciliationRun.builder()
+                    .provider(provider)
+                    .settlementDate(request.getSettlementDate())
+                    .fileName(request.getFileName())
+                    .status(ReconciliationRun.RunStatus.RUNNING)
+                    .startedAt(LocalDateTime.now())
+                    .build());
+        });
+
+        try {
+            reconciliationExecutor.execute(() -> execute(run.getId(), provider, request.getSettlementDate(), file));
+        } catch (RejectedExecutionException e) {
+            finish(run.getId(), ReconciliationRun.RunStatus.FAILED, "Rejected: too many reconciliations queued");
+            throw new BusinessException("Too many reconciliations are queued, try again later",
+                    "RECONCILIATION_BUSY", HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return mapToResponse(run);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReconciliationRunResponse getRun(Long runId) {
+        return runRepository.findById(runId)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Reconciliation run not found with id: " + runId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ReconciliationDiscrepancyResponse> getDiscrepancies(Long runId,
+                                                                    ReconciliationDiscrepancy.DiscrepancyType type,
+                                                                    Pageable pageable) {
+        if (!runRepository.existsById(runId)) {
+            throw new ResourceNotFoundException("Reconciliation run not found with id: " + runId);
+        }
+        Page<ReconciliationDiscrepancy> page = type == null
+                ? discrepancyRepository.findByRunIdOrderById(runId, pageable)
+                : discrepancyRepository.findByRunIdAndTypeOrderById(runId, type, pageable);
+        return page.map(this::mapToResponse);
+    }
+
+    private void execute(Long runId, String provider, LocalDate settlementDate, Path file) {
+        long started = System.nanoTime();
+        try {
+            LocalDateTime from = settlementDate.minusDays(lookbackDays).atStartOfDay();
+            LocalDateTime to = settlementDate.plusDays(1).atStartOfDay();
+            PaymentIndex index = buildIndex(provider, from, to, settlementDate.atStartOfDay());
+            log.debug("Indexed {} {} payments for run {} in {} ms", index.size(), provider, runId,
+                    (System.nanoTime() - started) / 1_000_000);
+            transactionTemplate.executeWithoutResult(status -> runRepository.findById(runId)
+                    .ifPresent(run -> run.setPaymentsIndexed(index.size())));
+
+            List<ReconciliationDiscrepancy> pending = new ArrayList<>(flushSize);
+            SettlementReconciler[] reconciler = new SettlementReconciler[1];
+            try (InputStream in = Files.newInputStream(file)) {
+                SettlementFileParser parser = new SettlementFileParser(in);
+                reconciler[0] = new SettlementReconciler(index, parser::getHeader, discrepancy -> {
+                    discrepancy.setRunId(runId);
+                    pending.add(discrepancy);
+                    if (pending.size() >= flushSize) {
+                        flush(runId, pending, reconciler[0]);
+                    }
+                });
+                parser.parse(reconciler[0]);
+            }
+            reconciler[0].finish();
+            flush(runId, pending, reconciler[0]);
+
+            finish(runId, ReconciliationRun.RunStatus.COMPLETED, null);
+            log.info("Reconciled {} settlement {} for {}: {} rows, {} matched, {} discrepancies in {} ms",
+                    provider, settlementDate, file.getFileName(), reconciler[0].getRowsRead(),
+                    reconciler[0].getRowsMatched(), reconciler[0].getDiscrepancies(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Reconciliation run {} failed", runId, e);
+            finish(runId, ReconciliationRun.RunStatus.FAILED, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private PaymentIndex buildIndex(String provider, LocalDateTime from, LocalDateTime to, LocalDateTime expectedFrom) {
+        long expected = paymentRepository.countByProviderAndCreatedAtBetween(provider, from, to);
+        PaymentIndex index = new PaymentIndex(expected);
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PaymentSettlementView> payments = paymentRepository.streamForSettlement(provider, from, to)) {
+                payments.forEach(payment -> {
+                    int flags = CAPTURED.contains(payment.getStatus()) && !payment.getCreatedAt().isBefore(expectedFrom)
+                            ? PaymentIndex.FLAG_EXPECTED : 0;
+                    String currency = payment.getCurrency().toUpperCase();
+                    int slot = index.put(payment.getPaymentReference(), payment.getId(),
+                            toMinor(payment, currency), payment.getStatus().ordinal(), flags, currency);
+                    if (slot < 0) {
+                        throw new IllegalStateException("Too many payments to index for " + provider);
+                    }
+                });
+            }
+        });
+        return index;
+    }
+
+    // Persists what has been found so far, so discrepancies show up while a long file is still running
+    private void flush(Long runId, List<ReconciliationDiscrepancy> pending, SettlementReconciler reconciler) {
+        List<Long> unresolved = pending.stream()
+                .filter(discrepancy -> discrepancy.getPaymentReference() == null && discrepancy.getPaymentId() != null)
+                .map(ReconciliationDiscrepancy::getPaymentId)
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!unresolved.isEmpty()) {
+                Map<Long, PaymentSettlementView> payments = paymentRepository.findSettlementViewsByIdIn(unresolved).stream()
+                        .collect(Collectors.toMap(PaymentSettlementView::getId, Function.identity()));
+                for (ReconciliationDiscrepancy discrepancy : pending) {
+                    PaymentSettlementView payment = payments.get(discrepancy.getPaymentId());
+                    if (discrepancy.getPaymentReference() == null && payment != null) {
+                        discrepancy.setPaymentReference(payment.getPaymentReference());
+                        discrepancy.setExpectedAmount(payment.getAmount());
+                        discrepancy.setCurrency(payment.getCurrency());
+                    }
+                }
+            }
+            LocalDateTime now = LocalDateTime.now();
+            pending.forEach(discrepancy -> discrepancy.setCreatedAt(now));
+            discrepancyRepository.saveAll(pending);
+            runRepository.updateProgress(runId, reconciler.getRowsRead(), reconciler.getRowsMatched(),
+                    reconciler.getDiscrepancies());
+        });
+        pending.clear();
+    }
+
+    private void finish(Long runId, ReconciliationRun.RunStatus status, String error) {
+        transactionTemplate.executeWithoutResult(tx -> runRepository.findById(runId).ifPresent(run -> {
+            run.setStatus(status);
+            run.setError(error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH));
+            run.setFinishedAt(LocalDateTime.now());
+        }));
+    }
+
+    private Path resolveSettlementFile(String fileName) {
+        Path dir = settlementDir.toAbsolutePath().normalize();
+        Path file = dir.resolve(fileName).normalize();
+        if (!file.startsWith(dir) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new BusinessException("Settlement file not found: " + fileName,
+                    "SETTLEMENT_FILE_NOT_FOUND", HttpStatus.BAD_REQUEST);
+        }
+        return file;
+    }
+
+    private static long toMinor(PaymentSettlementView payment, String currency) {
+        int digits = Math.max(Currency.getInstance(currency).getDefaultFractionDigits(), 0);
+        return payment.getAmount().movePointRight(digits).longValueExact();
+    }
+
+    private ReconciliationRunResponse mapToResponse(ReconciliationRun run) {
+        return ReconciliationRunResponse.builder()
+                .id(run.getId())
+                .provider(run.getProvider())
+                .settlementDate(run.getSettlementDate())
+                .fileName(run.getFileName())
+                .status(run.getStatus())
+                .paymentsIndexed(run.getPaymentsIndexed())
+                .rowsRead(run.getRowsRead())
+                .rowsMatched(run.getRowsMatched())
+                .discrepancies(run.getDiscrepancies())
+                .error(run.getError())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+    }
+
+    private ReconciliationDiscrepancyResponse mapToResponse(ReconciliationDiscrepancy discrepancy) {
+        return ReconciliationDiscrepancyResponse.builder()
+                .id(discrepancy.getId())
+                .type(discrepancy.getType())
+                .paymentId(discrepancy.getPaymentId())
+                .paymentReference(discrepancy.getPaymentReference())
+                .lineNumber(discrepancy.getLineNumber())
+                .settlementType(discrepancy.getSettlementType())
+                .expectedAmount(discrepancy.getExpectedAmount())
+                .settledAmount(discrepancy.getSettledAmount())
+                .currency(discrepancy.getCurrency())
+                .paymentStatus(discrepancy.getPaymentStatus())
+                .build();
+    }
+}
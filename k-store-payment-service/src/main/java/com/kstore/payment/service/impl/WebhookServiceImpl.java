@@ -0,0 +1,181 @@
+package com.kstore.payment.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.payment.dto.WebhookReceipt;
+import com.kstore.payment.entity.Payment;
+import com.kstore.payment.entity.WebhookInboxEvent;
+import com.kstore.payment.provider.PaymentProvider;
+import com.kstore.payment.provider.PaymentProviderRegistry;
+import com.kstore.payment.provider.ProviderWebhookEvent;
+import com.kstore.payment.repository.PaymentRepository;
+import com.kstore.payment.repository.WebhookInboxRepository;
+import com.kstore.payment.service.PaymentService;
+import com.kstore.payment.service.WebhookService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+@Slf4j
+@Service
+public class WebhookServiceImpl implements WebhookService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final WebhookInboxRepository inboxRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final PaymentProviderRegistry providerRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Executor paymentTaskExecutor;
+
+    @Value("${payment.webhooks.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${payment.webhooks.retry-after:30s}")
+    private Duration retryAfter;
+
+    public WebhookServiceImpl(WebhookInboxRepository inboxRepository,
+                              PaymentRepository paymentRepository,
+                              PaymentService paymentService,
+                              PaymentProviderRegistry providerRegistry,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Qualifier("paymentTaskExecutor") Executor paymentTaskExecutor) {
+        this.inboxRepository = inboxRepository;
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+        this.providerRegistry = providerRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.paymentTaskExecutor = paymentTaskExecutor;
+    }
+
+    @Override
+    public WebhookReceipt receive(String providerName, String payload, Map<String, String> headers) {
+        PaymentProvider provider = providerRegistry.get(providerName);
+        ProviderWebhookEvent event = provider.parseWebhook(payload, headers);
+        String normalized = toJson(event);
+
+        Boolean inserted = transactionTemplate.execute(status -> {
+            boolean stored = inboxRepository.insertIfAbsent(provider.getName(), event.getEventId(),
+                    event.getEventType(), normalized, LocalDateTime.now()) > 0;
+            if (stored) {
+                // Acknowledge the provider quickly and apply the event off the request thread
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        inboxRepository.findByProviderAndEventId(provider.getName(), event.getEventId())
+                                .ifPresent(inboxEvent -> paymentTaskExecutor.execute(() -> process(inboxEvent.getId())));
+                    }
+                });
+            }
+            return stored;
+        });
+
+        if (!Boolean.TRUE.equals(inserted)) {
+            log.info("Duplicate {} webhook {} ignored", provider.getName(), event.getEventId());
+        }
+        return WebhookReceipt.builder()
+                .eventId(event.getEventId())
+                .duplicate(!Boolean.TRUE.equals(inserted))
+                .build();
+    }
+
+    @Override
+    public void process(Long inboxEventId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> inboxRepository.lockReceived(inboxEventId)
+                    .ifPresent(this::apply));
+        } catch (RuntimeException e) {
+            log.warn("Processing webhook inbox event {} failed: {}", inboxEventId, e.toString());
+            transactionTemplate.executeWithoutResult(status -> inboxRepository.findById(inboxEventId)
+                    .filter(inboxEvent -> inboxEvent.getStatus() == WebhookInboxEvent.InboxStatus.RECEIVED)
+                    .ifPresent(inboxEvent -> recordFailure(inboxEvent, e)));
+        }
+    }
+
+    @Override
+    public int processPending() {
+        List<Long> ids = inboxRepository.findReceivedIdsBefore(LocalDateTime.now().minus(retryAfter),
+                PageRequest.of(0, 100));
+        ids.forEach(this::process);
+        return ids.size();
+    }
+
+    private void apply(WebhookInboxEvent inboxEvent) {
+        ProviderWebhookEvent event = fromJson(inboxEvent.getPayload());
+        Payment.PaymentStatus target = targetStatus(event);
+        if (target != null) {
+            paymentService.applyOutcome(event.getPaymentReference(), target,
+                    event.getProviderPaymentId(), event.getFailureReason());
+        } else if (event.getProviderPaymentId() != null) {
+            Payment payment = paymentRepository.findByPaymentReference(event.getPaymentReference())
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Payment not found with reference: " + event.getPaymentReference()));
+            paymentRepository.assignProviderPaymentId(payment.getId(), event.getProviderPaymentId(), LocalDateTime.now());
+        }
+
+        // applyOutcome clears the persistence context, so update the row by id rather than the loaded entity
+        WebhookInboxEvent processed = inboxRepository.findById(inboxEvent.getId()).orElseThrow();
+        processed.setStatus(WebhookInboxEvent.InboxStatus.PROCESSED);
+        processed.setAttempts(processed.getAttempts() + 1);
+        processed.setProcessedAt(LocalDateTime.now());
+    }
+
+    private void recordFailure(WebhookInboxEvent inboxEvent, RuntimeException e) {
+        inboxEvent.setAttempts(inboxEvent.getAttempts() + 1);
+        String message = String.valueOf(e.getMessage());
+        inboxEvent.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        if (inboxEvent.getAttempts() >= maxAttempts) {
+            inboxEvent.setStatus(WebhookInboxEvent.InboxStatus.FAILED);
+            log.error("Giving up on webhook inbox event {} after {} attempts", inboxEvent.getId(), inboxEvent.getAttempts());
+        }
+    }
+
+    private Payment.PaymentStatus targetStatus(ProviderWebhookEvent event) {
+        if (event.isChargeback()) {
+            return Payment.PaymentStatus.CHARGED_BACK;
+        }
+        if (event.isRefund()) {
+            return Payment.PaymentStatus.REFUNDED;
+        }
+        if (event.getOutcome() == null) {
+            return null;
+        }
+        return switch (event.getOutcome()) {
+            case SUCCEEDED -> Payment.PaymentStatus.SUCCEEDED;
+            case FAILED -> Payment.PaymentStatus.FAILED;
+            case PENDING -> null;
+        };
+    }
+
+    private String toJson(ProviderWebhookEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize webhook event", e);
+        }
+    }
+
+    private ProviderWebhookEvent fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, ProviderWebhookEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored webhook event", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+CREATE SEQUENCE IF NOT EXISTS payments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS payments (
+    id                  BIGINT PRIMARY KEY,
+    payment_reference   VARCHAR(255)   NOT NULL UNIQUE,
+    order_id            BIGINT         NOT NULL,
+    order_number        VARCHAR(255),
+    user_id             BIGINT         NOT NULL,
+    amount              NUMERIC(19, 2) NOT NULL,
+    currency            VARCHAR(3)     NOT NULL,
+    payment_method      VARCHAR(255),
+    status              VARCHAR(255)   NOT NULL,
+    provider            VARCHAR(255)   NOT NULL,
+    provider_payment_id VARCHAR(255),
+    failure_reason      VARCHAR(255),
+    version             BIGINT         NOT NULL DEFAULT 0,
+    created_at          TIMESTAMP,
+    updated_at          TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_payments_order_id ON payments (order_id);
+CREATE INDEX IF NOT EXISTS idx_payments_provider_payment_id ON payments (provider, provider_payment_id);
+-- At most one live payment per order, so concurrent intents cannot charge twice; failed ones may be retried
+CREATE UNIQUE INDEX IF NOT EXISTS uk_payments_active_order ON payments (order_id)
+    WHERE status IN ('PROCESSING', 'SUCCEEDED');
+
+-- Provider webhooks are stored first and applied afterwards; (provider, event_id) drops redeliveries
+CREATE TABLE IF NOT EXISTS payment_webhook_inbox (
+    id           BIGSERIAL PRIMARY KEY,
+    provider     VARCHAR(255) NOT NULL,
+    event_id     VARCHAR(255) NOT NULL,
+    event_type   VARCHAR(255),
+    payload      TEXT         NOT NULL,
+    status       VARCHAR(255) NOT NULL,
+    attempts     INTEGER      NOT NULL DEFAULT 0,
+    last_error   VARCHAR(255),
+    received_at  TIMESTAMP    NOT NULL,
+    processed_at TIMESTAMP,
+    CONSTRAINT uk_payment_webhook_inbox_event UNIQUE (provider, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_payment_webhook_inbox_status ON payment_webhook_inbox (status, id);
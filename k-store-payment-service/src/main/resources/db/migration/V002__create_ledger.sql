@@ -0,0 +1,39 @@
+-- Append-only double-entry journal; amounts are positive minor units, direction gives the side
+CREATE TABLE IF NOT EXISTS ledger_entries (
+    id                BIGSERIAL PRIMARY KEY,
+    journal_key       VARCHAR(255) NOT NULL,
+    line_no           INTEGER      NOT NULL,
+    account           VARCHAR(255) NOT NULL,
+    direction         VARCHAR(255) NOT NULL,
+    amount_minor      BIGINT       NOT NULL CHECK (amount_minor > 0),
+    currency          VARCHAR(3)   NOT NULL,
+    entry_type        VARCHAR(255) NOT NULL,
+    payment_reference VARCHAR(255),
+    created_at        TIMESTAMP    NOT NULL,
+    CONSTRAINT uk_ledger_entries_journal_line UNIQUE (journal_key, line_no)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_account_id ON ledger_entries (account, id);
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_payment_reference ON ledger_entries (payment_reference);
+
+CREATE OR REPLACE FUNCTION ledger_entries_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'ledger_entries is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_ledger_entries_append_only ON ledger_entries;
+CREATE TRIGGER trg_ledger_entries_append_only
+    BEFORE UPDATE OR DELETE ON ledger_entries
+    FOR EACH ROW EXECUTE FUNCTION ledger_entries_append_only();
+
+-- Balance (debits minus credits) of each account up to last_entry_id
+CREATE TABLE IF NOT EXISTS account_balance_snapshots (
+    account       VARCHAR(255) PRIMARY KEY,
+    balance_minor BIGINT       NOT NULL,
+    last_entry_id BIGINT       NOT NULL,
+    updated_at    TIMESTAMP
+);
+
+-- Schemas generated by ddl-auto carry an enum check on status that predates CHARGED_BACK
+ALTER TABLE payments DROP CONSTRAINT IF EXISTS payments_status_check;
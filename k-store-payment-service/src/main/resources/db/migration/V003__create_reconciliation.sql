@@ -0,0 +1,39 @@
+CREATE SEQUENCE IF NOT EXISTS reconciliation_runs_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS reconciliation_discrepancies_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS reconciliation_runs (
+    id               BIGINT PRIMARY KEY,
+    provider         VARCHAR(255) NOT NULL,
+    settlement_date  DATE         NOT NULL,
+    file_name        VARCHAR(255) NOT NULL,
+    status           VARCHAR(255) NOT NULL,
+    payments_indexed BIGINT       NOT NULL DEFAULT 0,
+    rows_read        BIGINT       NOT NULL DEFAULT 0,
+    rows_matched     BIGINT       NOT NULL DEFAULT 0,
+    discrepancies    BIGINT       NOT NULL DEFAULT 0,
+    error            VARCHAR(255),
+    started_at       TIMESTAMP,
+    finished_at      TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_reconciliation_runs_provider_date ON reconciliation_runs (provider, settlement_date);
+
+CREATE TABLE IF NOT EXISTS reconciliation_discrepancies (
+    id                BIGINT PRIMARY KEY,
+    run_id            BIGINT       NOT NULL REFERENCES reconciliation_runs (id),
+    type              VARCHAR(255) NOT NULL,
+    payment_id        BIGINT,
+    payment_reference VARCHAR(255),
+    line_number       BIGINT,
+    settlement_type   VARCHAR(255),
+    expected_amount   NUMERIC(19, 2),
+    settled_amount    NUMERIC(19, 2),
+    currency          VARCHAR(3),
+    payment_status    VARCHAR(255),
+    created_at        TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_reconciliation_discrepancies_run ON reconciliation_discrepancies (run_id, id);
+
+-- Reconciliation indexes a provider's payments by creation time
+CREATE INDEX IF NOT EXISTS idx_payments_provider_created_at ON payments (provider, created_at);
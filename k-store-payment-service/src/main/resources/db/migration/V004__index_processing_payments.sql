@@ -0,0 +1,3 @@
+-- Stale PROCESSING payments are swept by last update; settled payments never need this index
+CREATE INDEX IF NOT EXISTS idx_payments_processing_updated_at ON payments (updated_at)
+    WHERE status = 'PROCESSING';
@@ -0,0 +1,3 @@
+-- The ledger repost sweep scans recently settled payments by last update
+CREATE INDEX IF NOT EXISTS idx_payments_settled_updated_at ON payments (updated_at)
+    WHERE status IN ('SUCCEEDED', 'REFUNDED', 'CHARGED_BACK');
@@ -0,0 +1,181 @@
+package com.kstore.payment.ledger;
+
+import com.kstore.payment.entity.LedgerEntry;
+import com.kstore.payment.repository.PostgresRepositoryTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LedgerWriterTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CountingTransactionTemplate transactions;
+    private LedgerWriter writer;
+    private String run;
+
+    @BeforeEach
+    void startWriter() {
+        transactions = new CountingTransactionTemplate(transactionManager);
+        writer = new LedgerWriter(jdbcTemplate, transactions, new LedgerBalanceCache(Duration.ofMinutes(1)),
+                10_000, 500, Duration.ofMillis(2), Duration.ofSeconds(1));
+        writer.start();
+        run = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void stopWriter() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void concurrentJournalsAreGroupCommitted() throws Exception {
+        int threads = 32;
+        int perThread = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        if (!writer.submit(journal("t" + thread + "-" + i, 100)).join()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }, pool));
+            }
+            for (CompletableFuture<Boolean> result : results) {
+                assertThat(result.get(60, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int journals = threads * perThread;
+        assertThat(countEntries()).isEqualTo(2L * journals);
+        // Threads wait for their own commit, so each transaction carries the journals queued meanwhile
+        assertThat(transactions.count.get()).isLessThan(journals / 2);
+    }
+
+    @Test
+    void replayedJournalIsNotWrittenAgain() {
+        LedgerJournal journal = journal("replay", 250);
+
+        assertThat(writer.submit(journal).join()).isTrue();
+        assertThat(writer.submit(journal).join()).isFalse();
+
+        // Also when both copies land in the same batch
+        LedgerJournal twin = journal("twin", 250);
+        CompletableFuture<Boolean> first = writer.submit(twin);
+        CompletableFuture<Boolean> second = writer.submit(twin);
+        assertThat(List.of(first.join(), second.join())).containsExactlyInAnyOrder(true, false);
+        assertThat(countEntries()).isEqualTo(4);
+    }
+
+    @Test
+    void brokenJournalFailsAloneAndTheRestOfItsBatchCommits() {
+        List<CompletableFuture<Boolean>> good = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            good.add(writer.submit(journal("good-" + i, 10)));
+        }
+        CompletableFuture<Boolean> broken = writer.submit(LedgerJournal.builder()
+                .journalKey(run + ":broken")
+                .entryType(LedgerEntry.EntryType.CAPTURE)
+                .paymentReference(run)
+                .currency("TOO-LONG")
+                .line(new LedgerJournal.Line("a:USD", LedgerEntry.Direction.DEBIT, 10))
+                .line(new LedgerJournal.Line("b:USD", LedgerEntry.Direction.CREDIT, 10))
+                .build());
+
+        good.forEach(result -> assertThat(result.join()).isTrue());
+        assertThatThrownBy(() -> broken.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(countEntries()).isEqualTo(40);
+    }
+
+    @Test
+    void unbalancedJournalIsRejectedBeforeQueueing() {
+        assertThatThrownBy(() -> writer.submit(LedgerJournal.builder()
+                .journalKey(run + ":unbalanced")
+                .entryType(LedgerEntry.EntryType.CAPTURE)
+                .paymentReference(run)
+                .currency("USD")
+                .line(new LedgerJournal.Line("a:USD", LedgerEntry.Direction.DEBIT, 10))
+                .line(new LedgerJournal.Line("b:USD", LedgerEntry.Direction.CREDIT, 9))
+                .build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void ledgerEntriesAreAppendOnly() {
+        writer.submit(journal("immutable", 75)).join();
+
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "UPDATE ledger_entries SET amount_minor = 1 WHERE payment_reference = ?", run))
+                .isInstanceOf(DataAccessException.class)
+                .hasMessageContaining("append-only");
+        assertThatThrownBy(() -> jdbcTemplate.update("DELETE FROM ledger_entries WHERE payment_reference = ?", run))
+                .isInstanceOf(DataAccessException.class)
+                .hasMessageContaining("append-only");
+        assertThat(countEntries()).isEqualTo(2);
+    }
+
+    private LedgerJournal journal(String key, long amountMinor) {
+        return LedgerJournal.builder()
+                .journalKey(run + ":" + key)
+                .entryType(LedgerEntry.EntryType.CAPTURE)
+                .paymentReference(run)
+                .currency("USD")
+                .line(new LedgerJournal.Line(LedgerAccounts.providerClearing("test", "USD"),
+                        LedgerEntry.Direction.DEBIT, amountMinor))
+                .line(new LedgerJournal.Line(LedgerAccounts.merchantRevenue("USD"),
+                        LedgerEntry.Direction.CREDIT, amountMinor))
+                .build();
+    }
+
+    private long countEntries() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ledger_entries WHERE payment_reference = ?",
+                Long.class, run);
+    }
+
+    private static class CountingTransactionTemplate extends TransactionTemplate {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        CountingTransactionTemplate(PlatformTransactionManager transactionManager) {
+            super(transactionManager);
+        }
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            count.incrementAndGet();
+            return super.execute(action);
+        }
+    }
+}
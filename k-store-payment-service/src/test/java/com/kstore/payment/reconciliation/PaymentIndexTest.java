@@ -0,0 +1,148 @@
+package com.kstore.payment.reconciliation;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentIndexTest {
+
+    @Test
+    void sizesCapacityToTwiceTheExpectedEntries() {
+        assertThat(new PaymentIndex(0).capacity()).isEqualTo(16);
+        assertThat(new PaymentIndex(100).capacity()).isEqualTo(256);
+        assertThat(new PaymentIndex(128).capacity()).isEqualTo(256);
+        assertThatThrownBy(() -> new PaymentIndex(1 << 25))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findsReferencesInsideALargerBuffer() {
+        PaymentIndex index = new PaymentIndex(10);
+        int slot = index.put("PAY-1", 42L, 1999L, 3, PaymentIndex.FLAG_EXPECTED, "EUR");
+
+        byte[] row = "x,PAY-1,CHARGE".getBytes(StandardCharsets.US_ASCII);
+        assertThat(index.find(row, 2, 7)).isEqualTo(slot);
+        assertThat(index.find(row, 2, 6)).isEqualTo(-1);
+        assertThat(index.paymentId(slot)).isEqualTo(42L);
+        assertThat(index.amountMinor(slot)).isEqualTo(1999L);
+        assertThat(index.status(slot)).isEqualTo(3);
+        assertThat(index.flags(slot)).isEqualTo(PaymentIndex.FLAG_EXPECTED);
+    }
+
+    @Test
+    void sameReferenceOverwritesItsSlot() {
+        PaymentIndex index = new PaymentIndex(10);
+        int first = index.put("PAY-1", 1L, 100L, 0, 0, "USD");
+        int second = index.put("PAY-1", 2L, 200L, 1, 0, "USD");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.paymentId(first)).isEqualTo(2L);
+        assertThat(index.amountMinor(first)).isEqualTo(200L);
+    }
+
+    @Test
+    void collidingReferencesProbeToTheNextFreeSlot() {
+        PaymentIndex index = new PaymentIndex(0);
+        List<String> colliding = collidingReferences(index.capacity(), 3);
+        for (int i = 0; i < colliding.size(); i++) {
+            index.put(colliding.get(i), i + 1, 0L, 0, 0, "USD");
+        }
+
+        int home = (int) hash(colliding.get(0)) & (index.capacity() - 1);
+        for (int i = 0; i < colliding.size(); i++) {
+            byte[] reference = colliding.get(i).getBytes(StandardCharsets.US_ASCII);
+            int slot = index.find(reference, 0, reference.length);
+            assertThat(slot).isEqualTo((home + i) & (index.capacity() - 1));
+            assertThat(index.paymentId(slot)).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    void growsPastThreeQuartersLoadAndKeepsEveryEntry() {
+        PaymentIndex index = new PaymentIndex(0);
+        int entries = 1000;
+        for (int i = 0; i < entries; i++) {
+            int slot = index.put("PAY-" + i, i, i * 10L, 0, 0, "USD");
+            assertThat(slot).isNotNegative();
+            index.addFlags(slot, PaymentIndex.FLAG_CHARGE);
+        }
+
+        assertThat(index.size()).isEqualTo(entries);
+        assertThat(index.capacity()).isEqualTo(2048);
+        int occupied = 0;
+        for (int slot = 0; slot < index.capacity(); slot++) {
+            occupied += index.isOccupied(slot) ? 1 : 0;
+        }
+        assertThat(occupied).isEqualTo(entries);
+        for (int i = 0; i < entries; i++) {
+            byte[] reference = ("PAY-" + i).getBytes(StandardCharsets.US_ASCII);
+            int slot = index.find(reference, 0, reference.length);
+            assertThat(index.paymentId(slot)).isEqualTo(i);
+            assertThat(index.amountMinor(slot)).isEqualTo(i * 10L);
+            assertThat(index.flags(slot)).isEqualTo(PaymentIndex.FLAG_CHARGE);
+        }
+    }
+
+    @Test
+    void flagsAccumulate() {
+        PaymentIndex index = new PaymentIndex(1);
+        int slot = index.put("PAY-1", 1L, 0L, 0, PaymentIndex.FLAG_EXPECTED, "USD");
+        index.addFlags(slot, PaymentIndex.FLAG_CHARGE);
+        index.addFlags(slot, PaymentIndex.FLAG_REFUND);
+
+        assertThat(index.flags(slot))
+                .isEqualTo(PaymentIndex.FLAG_EXPECTED | PaymentIndex.FLAG_CHARGE | PaymentIndex.FLAG_REFUND);
+    }
+
+    @Test
+    void currencyComparisonIgnoresCaseAndRejectsLongerCodes() {
+        PaymentIndex index = new PaymentIndex(1);
+        int slot = index.put("PAY-1", 1L, 0L, 0, 0, "EUR");
+
+        assertThat(currencyEquals(index, slot, "eur")).isTrue();
+        assertThat(currencyEquals(index, slot, "EUR")).isTrue();
+        assertThat(currencyEquals(index, slot, "EURO")).isFalse();
+        assertThat(currencyEquals(index, slot, "EU")).isFalse();
+        assertThat(currencyEquals(index, slot, "USD")).isFalse();
+    }
+
+    @Test
+    void hashIsNeverTheEmptyMarker() {
+        assertThat(PaymentIndex.hash(new byte[0], 0, 0)).isNotZero();
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(hash("PAY-" + i)).isNotZero();
+        }
+    }
+
+    private static List<String> collidingReferences(int capacity, int count) {
+        List<String> references = new ArrayList<>();
+        int home = -1;
+        for (int i = 0; references.size() < count; i++) {
+            String reference = "PAY-" + i;
+            int slot = (int) hash(reference) & (capacity - 1);
+            if (home < 0) {
+                home = slot;
+            }
+            if (slot == home) {
+                references.add(reference);
+            }
+        }
+        return references;
+    }
+
+    private static boolean currencyEquals(PaymentIndex index, int slot, String currency) {
+        byte[] bytes = currency.getBytes(StandardCharsets.US_ASCII);
+        return index.currencyEquals(slot, bytes, 0, bytes.length);
+    }
+
+    private static long hash(String reference) {
+        byte[] bytes = reference.getBytes(StandardCharsets.US_ASCII);
+        return PaymentIndex.hash(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,119 @@
+package com.kstore.payment.reconciliation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SettlementFileParserTest {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    @Test
+    void readsHeaderAndRowsWithLineNumbers() throws IOException {
+        String file = " Payment_Reference , TYPE,amount,currency\r\n"
+                + "\r\n"
+                + "PAY-1,CHARGE,10.00,USD\r\n"
+                + "PAY-2,REFUND,,USD\n"
+                + "\n"
+                + "PAY-3,CHARGE,5.50,EUR\r";
+
+        SettlementFileParser parser = new SettlementFileParser(stream(file));
+        List<String> rows = new ArrayList<>();
+        long count = parser.parse((line, buffer, starts, ends, fields) -> rows.add(line + ":" + join(buffer, starts, ends, fields)));
+
+        assertThat(parser.getHeader()).containsExactly("payment_reference", "type", "amount", "currency");
+        assertThat(count).isEqualTo(3);
+        assertThat(rows).containsExactly(
+                "3:PAY-1|CHARGE|10.00|USD",
+                "4:PAY-2|REFUND||USD",
+                "6:PAY-3|CHARGE|5.50|EUR");
+    }
+
+    @Test
+    void rowsStraddlingTheBufferBoundaryAreReassembled() throws IOException {
+        StringBuilder file = new StringBuilder("payment_reference,type,amount,currency\n");
+        int rowCount = 0;
+        while (file.length() < 3 * BUFFER_SIZE) {
+            file.append("PAY-").append(rowCount).append(",CHARGE,").append(rowCount % 1000).append(".25,USD\n");
+            rowCount++;
+        }
+        int expected = rowCount;
+
+        List<String> rows = new ArrayList<>(expected);
+        // Short reads force refills at arbitrary offsets, not only when the buffer is full
+        long count = new SettlementFileParser(new ChunkedStream(file.toString(), 7919))
+                .parse((line, buffer, starts, ends, fields) -> rows.add(line + ":" + join(buffer, starts, ends, fields)));
+
+        assertThat(count).isEqualTo(expected);
+        for (int i = 0; i < expected; i++) {
+            assertThat(rows.get(i)).isEqualTo((i + 2) + ":PAY-" + i + "|CHARGE|" + (i % 1000) + ".25|USD");
+        }
+    }
+
+    @Test
+    void lineFillingTheWholeBufferIsRejected() {
+        String file = "payment_reference,type,amount,currency\n" + "x".repeat(BUFFER_SIZE) + "\n";
+
+        assertThatThrownBy(() -> new SettlementFileParser(stream(file)).parse((line, buffer, starts, ends, fields) -> { }))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Settlement line 2");
+    }
+
+    @Test
+    void rowWithTooManyFieldsIsRejected() {
+        String file = "payment_reference,type,amount,currency\n" + ",".repeat(32) + "\n";
+
+        assertThatThrownBy(() -> new SettlementFileParser(stream(file)).parse((line, buffer, starts, ends, fields) -> { }))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("more than 32 fields");
+    }
+
+    @Test
+    void duplicateRowsAreEachDelivered() throws IOException {
+        String file = "payment_reference,type,amount,currency\nPAY-1,CHARGE,1.00,USD\nPAY-1,CHARGE,1.00,USD\n";
+
+        List<Long> lines = new ArrayList<>();
+        long count = new SettlementFileParser(stream(file)).parse((line, buffer, starts, ends, fields) -> lines.add(line));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).containsExactly(2L, 3L);
+    }
+
+    private static String join(byte[] buffer, int[] starts, int[] ends, int fields) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < fields; i++) {
+            if (i > 0) {
+                joined.append('|');
+            }
+            joined.append(new String(buffer, starts[i], ends[i] - starts[i], StandardCharsets.US_ASCII));
+        }
+        return joined.toString();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static class ChunkedStream extends ByteArrayInputStream {
+
+        private final int chunk;
+
+        ChunkedStream(String content, int chunk) {
+            super(content.getBytes(StandardCharsets.US_ASCII));
+            this.chunk = chunk;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+    }
+}
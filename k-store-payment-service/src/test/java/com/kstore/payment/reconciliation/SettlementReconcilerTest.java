@@ -0,0 +1,108 @@
+package com.kstore.payment.reconciliation;
+
+import com.kstore.payment.entity.Payment;
+import com.kstore.payment.entity.ReconciliationDiscrepancy;
+import com.kstore.payment.entity.ReconciliationDiscrepancy.DiscrepancyType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SettlementReconcilerTest {
+
+    private static final String HEADER = "payment_reference,type,amount,currency\n";
+
+    @Test
+    void matchingRowsProduceNoDiscrepancies() throws IOException {
+        PaymentIndex index = new PaymentIndex(2);
+        index.put("PAY-1", 1L, 1000L, Payment.PaymentStatus.SUCCEEDED.ordinal(), PaymentIndex.FLAG_EXPECTED, "USD");
+        index.put("PAY-2", 2L, 250L, Payment.PaymentStatus.REFUNDED.ordinal(), 0, "USD");
+
+        List<ReconciliationDiscrepancy> found = reconcile(index, HEADER
+                + "PAY-1,CHARGE,10.00,USD\n"
+                + " PAY-2 , refund , -2.5 , usd \n");
+
+        assertThat(found).isEmpty();
+    }
+
+    @Test
+    void malformedRowsAreReportedAndSkipped() throws IOException {
+        PaymentIndex index = new PaymentIndex(1);
+        index.put("PAY-1", 1L, 1000L, Payment.PaymentStatus.SUCCEEDED.ordinal(), 0, "USD");
+
+        List<ReconciliationDiscrepancy> found = reconcile(index, HEADER
+                + "PAY-1,CHARGE\n"
+                + ",CHARGE,10.00,USD\n"
+                + "PAY-1,PAYOUT,10.00,USD\n"
+                + "PAY-1,CHARGE,ten,USD\n"
+                + "PAY-1,CHARGE,10.001,USD\n"
+                + "PAY-1,CHARGE,10.00,XX1\n");
+
+        assertThat(found).extracting(ReconciliationDiscrepancy::getType, ReconciliationDiscrepancy::getLineNumber)
+                .containsExactly(
+                        tuple(DiscrepancyType.MALFORMED_ROW, 2L),
+                        tuple(DiscrepancyType.MALFORMED_ROW, 3L),
+                        tuple(DiscrepancyType.MALFORMED_ROW, 4L),
+                        tuple(DiscrepancyType.MALFORMED_ROW, 5L),
+                        tuple(DiscrepancyType.MALFORMED_ROW, 6L),
+                        tuple(DiscrepancyType.MALFORMED_ROW, 7L));
+        assertThat(found.get(2).getPaymentReference()).isEqualTo("PAY-1");
+        assertThat(found.get(2).getSettlementType()).isEqualTo("PAYOUT");
+    }
+
+    @Test
+    void secondSettlementOfTheSameTypeIsADuplicate() throws IOException {
+        PaymentIndex index = new PaymentIndex(1);
+        index.put("PAY-1", 1L, 1000L, Payment.PaymentStatus.REFUNDED.ordinal(), 0, "USD");
+
+        List<ReconciliationDiscrepancy> found = reconcile(index, HEADER
+                + "PAY-1,CHARGE,10.00,USD\n"
+                + "PAY-1,REFUND,10.00,USD\n"
+                + "PAY-1,CHARGE,10.00,USD\n");
+
+        assertThat(found).extracting(ReconciliationDiscrepancy::getType, ReconciliationDiscrepancy::getLineNumber)
+                .containsExactly(tuple(DiscrepancyType.DUPLICATE_SETTLEMENT, 4L));
+        assertThat(found.get(0).getPaymentId()).isEqualTo(1L);
+    }
+
+    @Test
+    void reportsMismatchesMissingPaymentsAndUnsettledCaptures() throws IOException {
+        PaymentIndex index = new PaymentIndex(4);
+        index.put("PAY-1", 1L, 1000L, Payment.PaymentStatus.SUCCEEDED.ordinal(), 0, "USD");
+        index.put("PAY-2", 2L, 1000L, Payment.PaymentStatus.SUCCEEDED.ordinal(), 0, "USD");
+        index.put("PAY-3", 3L, 1000L, Payment.PaymentStatus.SUCCEEDED.ordinal(), 0, "USD");
+        index.put("PAY-4", 4L, 1000L, Payment.PaymentStatus.SUCCEEDED.ordinal(), PaymentIndex.FLAG_EXPECTED, "USD");
+
+        List<ReconciliationDiscrepancy> found = reconcile(index, HEADER
+                + "PAY-1,CHARGE,9.99,USD\n"
+                + "PAY-2,CHARGE,10.00,EUR\n"
+                + "PAY-3,REFUND,10.00,USD\n"
+                + "PAY-9,CHARGE,1,JPY\n");
+
+        assertThat(found).extracting(ReconciliationDiscrepancy::getType, ReconciliationDiscrepancy::getPaymentId)
+                .containsExactly(
+                        tuple(DiscrepancyType.AMOUNT_MISMATCH, 1L),
+                        tuple(DiscrepancyType.CURRENCY_MISMATCH, 2L),
+                        tuple(DiscrepancyType.STATUS_MISMATCH, 3L),
+                        tuple(DiscrepancyType.MISSING_PAYMENT, null),
+                        tuple(DiscrepancyType.UNSETTLED_PAYMENT, 4L));
+        assertThat(found.get(0).getSettledAmount()).isEqualByComparingTo(new BigDecimal("9.99"));
+        assertThat(found.get(3).getSettledAmount()).isEqualByComparingTo(BigDecimal.ONE);
+    }
+
+    private static List<ReconciliationDiscrepancy> reconcile(PaymentIndex index, String file) throws IOException {
+        List<ReconciliationDiscrepancy> found = new ArrayList<>();
+        SettlementFileParser parser = new SettlementFileParser(new ByteArrayInputStream(file.getBytes(StandardCharsets.US_ASCII)));
+        SettlementReconciler reconciler = new SettlementReconciler(index, parser::getHeader, found::add);
+        parser.parse(reconciler);
+        reconciler.finish();
+        return found;
+    }
+}
@@ -0,0 +1,57 @@
+package com.kstore.payment.repository;
+
+import com.kstore.payment.entity.Payment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @BeforeEach
+    void clear() {
+        paymentRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOneLivePaymentPerOrder() {
+        paymentRepository.saveAndFlush(payment(1L, Payment.PaymentStatus.PROCESSING));
+
+        assertThatThrownBy(() -> paymentRepository.saveAndFlush(payment(1L, Payment.PaymentStatus.PROCESSING)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> paymentRepository.saveAndFlush(payment(1L, Payment.PaymentStatus.SUCCEEDED)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(paymentRepository.saveAndFlush(payment(2L, Payment.PaymentStatus.PROCESSING)).getId()).isNotNull();
+    }
+
+    @Test
+    void failedPaymentsDoNotBlockARetry() {
+        paymentRepository.saveAndFlush(payment(1L, Payment.PaymentStatus.FAILED));
+        paymentRepository.saveAndFlush(payment(1L, Payment.PaymentStatus.FAILED));
+
+        paymentRepository.saveAndFlush(payment(1L, Payment.PaymentStatus.PROCESSING));
+        assertThat(paymentRepository.findByOrderIdOrderByIdDesc(1L)).hasSize(3);
+    }
+
+    private static Payment payment(Long orderId, Payment.PaymentStatus status) {
+        return Payment.builder()
+                .paymentReference("PAY-" + UUID.randomUUID())
+                .orderId(orderId)
+                .userId(7L)
+                .amount(new BigDecimal("25.00"))
+                .currency("USD")
+                .paymentMethod("CARD")
+                .status(status)
+                .provider("fake")
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.kstore.payment.service.impl;
+
+import com.kstore.payment.entity.LedgerEntry;
+import com.kstore.payment.entity.Payment;
+import com.kstore.payment.ledger.LedgerAccounts;
+import com.kstore.payment.ledger.LedgerBalanceCache;
+import com.kstore.payment.ledger.LedgerJournal;
+import com.kstore.payment.ledger.LedgerWriter;
+import com.kstore.payment.repository.LedgerEntryRepository;
+import com.kstore.payment.repository.PaymentRepository;
+import com.kstore.payment.repository.PostgresRepositoryTest;
+import com.kstore.payment.service.LedgerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Import({LedgerServiceImpl.class, LedgerWriter.class, LedgerBalanceCache.class})
+class LedgerServiceImplTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerWriter ledgerWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void capturedPaymentWithoutJournalIsRepostedOnce() {
+        Payment payment = settled(Payment.PaymentStatus.SUCCEEDED, "5 minutes");
+
+        assertThat(ledgerService.repostMissingJournals()).isEqualTo(1);
+        assertThat(ledgerService.repostMissingJournals()).isZero();
+        assertThat(ledgerEntryRepository.findByPaymentReferenceOrderById(payment.getPaymentReference()))
+                .extracting(LedgerEntry::getJournalKey, LedgerEntry::getDirection)
+                .containsExactly(
+                        tuple(payment.getPaymentReference() + ":CAPTURE", LedgerEntry.Direction.DEBIT),
+                        tuple(payment.getPaymentReference() + ":CAPTURE", LedgerEntry.Direction.CREDIT));
+    }
+
+    @Test
+    void refundedPaymentGetsOnlyItsMissingJournal() {
+        Payment payment = settled(Payment.PaymentStatus.SUCCEEDED, "5 minutes");
+        assertThat(ledgerService.repostMissingJournals()).isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE payments SET status = 'REFUNDED' WHERE id = ?", payment.getId());
+        assertThat(ledgerService.repostMissingJournals()).isEqualTo(1);
+        assertThat(ledgerEntryRepository.findByPaymentReferenceOrderById(payment.getPaymentReference()))
+                .extracting(LedgerEntry::getJournalKey)
+                .containsOnly(payment.getPaymentReference() + ":CAPTURE", payment.getPaymentReference() + ":REFUND")
+                .hasSize(4);
+    }
+
+    @Test
+    void recentlySettledAndUnsettledPaymentsAreLeftToTheWriter() {
+        Payment recent = settled(Payment.PaymentStatus.SUCCEEDED, "1 second");
+        Payment failed = settled(Payment.PaymentStatus.FAILED, "5 minutes");
+
+        ledgerService.repostMissingJournals();
+        assertThat(ledgerEntryRepository.findByPaymentReferenceOrderById(recent.getPaymentReference())).isEmpty();
+        assertThat(ledgerEntryRepository.findByPaymentReferenceOrderById(failed.getPaymentReference())).isEmpty();
+    }
+
+    @Test
+    void snapshotsRollForwardToTheJournalSum() {
+        LedgerServiceImpl target = AopTestUtils.getTargetObject(ledgerService);
+        ReflectionTestUtils.setField(target, "snapshotSettle", Duration.ZERO);
+        String clearing = LedgerAccounts.providerClearing("snapshot-" + UUID.randomUUID(), "USD");
+
+        post(clearing, 1, 1_000);
+        post(clearing, 2, 2_500);
+        ledgerService.snapshotBalances();
+        assertSnapshotsMatchJournal();
+
+        // Second roll only adds the entries written after the first
+        post(clearing, 3, 700);
+        ledgerService.snapshotBalances();
+        assertSnapshotsMatchJournal();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT balance_minor FROM account_balance_snapshots WHERE account = ?", Long.class, clearing))
+                .isEqualTo(4_200L);
+        // Reads use the snapshot plus the tail after it, which must agree with the full sum
+        post(clearing, 4, 300);
+        assertThat(ledgerService.getBalance(clearing).getBalanceMinor()).isEqualTo(4_500L);
+    }
+
+    private void post(String clearing, int n, long amountMinor) {
+        assertThat(ledgerWriter.submit(LedgerJournal.builder()
+                .journalKey(clearing + ":" + n)
+                .entryType(LedgerEntry.EntryType.CAPTURE)
+                .paymentReference(clearing)
+                .currency("USD")
+                .line(new LedgerJournal.Line(clearing, LedgerEntry.Direction.DEBIT, amountMinor))
+                .line(new LedgerJournal.Line(LedgerAccounts.merchantRevenue("USD"), LedgerEntry.Direction.CREDIT, amountMinor))
+                .build()).join()).isTrue();
+    }
+
+    private void assertSnapshotsMatchJournal() {
+        List<Map<String, Object>> snapshots = jdbcTemplate.queryForList(
+                "SELECT s.account, s.balance_minor, " +
+                "(SELECT COALESCE(SUM(CASE WHEN e.direction = 'DEBIT' THEN e.amount_minor ELSE -e.amount_minor END), 0) " +
+                "FROM ledger_entries e WHERE e.account = s.account AND e.id <= s.last_entry_id) AS journal_sum " +
+                "FROM account_balance_snapshots s");
+        assertThat(snapshots).isNotEmpty()
+                .allSatisfy(row -> assertThat(((Number) row.get("balance_minor")).longValue())
+                        .as("snapshot of %s", row.get("account"))
+                        .isEqualTo(((Number) row.get("journal_sum")).longValue()));
+    }
+
+    private Payment settled(Payment.PaymentStatus status, String age) {
+        Payment payment = paymentRepository.saveAndFlush(Payment.builder()
+                .paymentReference("PAY-" + UUID.randomUUID())
+                .orderId(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE))
+                .userId(5L)
+                .amount(new BigDecimal("40.00"))
+                .currency("USD")
+                .paymentMethod("CARD")
+                .status(status)
+                .provider("fake")
+                .build());
+        jdbcTemplate.update("UPDATE payments SET updated_at = LOCALTIMESTAMP - CAST(? AS INTERVAL) WHERE id = ?",
+                age, payment.getId());
+        return payment;
+    }
+}
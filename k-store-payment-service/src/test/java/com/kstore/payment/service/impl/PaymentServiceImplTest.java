@@ -0,0 +1,184 @@
+package com.kstore.payment.service.impl;
+
+import com.kstore.payment.dto.PaymentIntentRequest;
+import com.kstore.payment.dto.PaymentResponse;
+import com.kstore.payment.entity.Payment;
+import com.kstore.payment.provider.PaymentProvider;
+import com.kstore.payment.provider.PaymentProviderRegistry;
+import com.kstore.payment.provider.ProviderChargeRequest;
+import com.kstore.payment.provider.ProviderChargeResult;
+import com.kstore.payment.provider.ProviderWebhookEvent;
+import com.kstore.payment.repository.PaymentRepository;
+import com.kstore.payment.repository.PostgresRepositoryTest;
+import com.kstore.payment.service.LedgerService;
+import com.kstore.payment.service.PaymentEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PaymentServiceImplTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final RecordingProvider provider = new RecordingProvider();
+
+    private PaymentServiceImpl paymentService;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        paymentService = new PaymentServiceImpl(paymentRepository,
+                new PaymentProviderRegistry(List.of(provider), RecordingProvider.NAME),
+                mock(PaymentEventPublisher.class),
+                mock(LedgerService.class),
+                new TransactionTemplate(transactionManager),
+                Runnable::run);
+        ReflectionTestUtils.setField(paymentService, "providerTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(paymentService, "giveUpAfter", Duration.ofMinutes(15));
+    }
+
+    @Test
+    void concurrentIntentsForOneOrderCreateOnePaymentAndOneCharge() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<PaymentResponse>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return paymentService.createPaymentIntent(request(42L));
+                }));
+            }
+            start.countDown();
+
+            Set<String> references = ConcurrentHashMap.newKeySet();
+            for (Future<PaymentResponse> result : results) {
+                references.add(result.get().getPaymentReference());
+            }
+            assertThat(references).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(paymentRepository.findByOrderIdOrderByIdDesc(42L)).hasSize(1);
+        assertThat(provider.charges).hasValue(1);
+    }
+
+    @Test
+    void repeatedIntentReturnsTheLivePayment() {
+        PaymentResponse first = paymentService.createPaymentIntent(request(7L));
+        PaymentResponse second = paymentService.createPaymentIntent(request(7L));
+
+        assertThat(second.getPaymentReference()).isEqualTo(first.getPaymentReference());
+        assertThat(provider.charges).hasValue(1);
+    }
+
+    @Test
+    void stalePaymentIsChargedAgainOnce() {
+        PaymentResponse payment = paymentService.createPaymentIntent(request(11L));
+        age(payment, Duration.ofMinutes(2), Duration.ofMinutes(2));
+
+        assertThat(paymentService.recoverStalePayments()).isEqualTo(1);
+        assertThat(provider.charges).hasValue(2);
+
+        // Touched by the re-send, so the next sweep leaves it to the provider
+        assertThat(paymentService.recoverStalePayments()).isZero();
+        assertThat(provider.charges).hasValue(2);
+        assertThat(status(payment)).isEqualTo(Payment.PaymentStatus.PROCESSING);
+    }
+
+    @Test
+    void recentPaymentIsLeftAlone() {
+        PaymentResponse payment = paymentService.createPaymentIntent(request(12L));
+
+        assertThat(paymentService.recoverStalePayments()).isZero();
+        assertThat(provider.charges).hasValue(1);
+        assertThat(status(payment)).isEqualTo(Payment.PaymentStatus.PROCESSING);
+    }
+
+    @Test
+    void paymentUnsettledPastGiveUpAgeIsFailed() {
+        PaymentResponse payment = paymentService.createPaymentIntent(request(13L));
+        age(payment, Duration.ofMinutes(20), Duration.ofMinutes(2));
+
+        assertThat(paymentService.recoverStalePayments()).isEqualTo(1);
+        assertThat(provider.charges).hasValue(1);
+        Payment failed = paymentRepository.findByPaymentReference(payment.getPaymentReference()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(Payment.PaymentStatus.FAILED);
+        assertThat(failed.getFailureReason()).isEqualTo("provider_timeout");
+    }
+
+    private void age(PaymentResponse payment, Duration created, Duration updated) {
+        jdbcTemplate.update("UPDATE payments SET created_at = LOCALTIMESTAMP - CAST(? AS INTERVAL), " +
+                        "updated_at = LOCALTIMESTAMP - CAST(? AS INTERVAL) WHERE payment_reference = ?",
+                created.toSeconds() + " seconds", updated.toSeconds() + " seconds", payment.getPaymentReference());
+    }
+
+    private Payment.PaymentStatus status(PaymentResponse payment) {
+        return paymentRepository.findByPaymentReference(payment.getPaymentReference()).orElseThrow().getStatus();
+    }
+
+    private static PaymentIntentRequest request(Long orderId) {
+        return PaymentIntentRequest.builder()
+                .orderId(orderId)
+                .orderNumber("ORD-" + orderId)
+                .userId(3L)
+                .amount(new BigDecimal("19.99"))
+                .currency("USD")
+                .paymentMethod("CARD")
+                .build();
+    }
+
+    // Counts charges and never answers, so payments stay PROCESSING
+    private static class RecordingProvider implements PaymentProvider {
+
+        static final String NAME = "recording";
+
+        final AtomicInteger charges = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public CompletableFuture<ProviderChargeResult> charge(ProviderChargeRequest request) {
+            charges.incrementAndGet();
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public ProviderWebhookEvent parseWebhook(String payload, Map<String, String> headers) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
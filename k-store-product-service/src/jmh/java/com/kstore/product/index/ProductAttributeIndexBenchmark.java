@@ -0,0 +1,92 @@
+package com.kstore.product.index;
+
+import com.kstore.product.dto.ProductFilterRequest;
+import com.kstore.product.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Filtered catalog pages with facets served from {@link ProductAttributeIndex} over {@code products}
+ * synthetic products: a narrow brand+category filter, a broad active+in-stock filter and a seller filter
+ * paged deep into the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class ProductAttributeIndexBenchmark {
+
+    private static final int BRANDS = 200;
+    private static final int CATEGORIES = 50;
+    private static final int SELLERS = 5_000;
+
+    @Param({"1000000"})
+    public int products;
+
+    private ProductAttributeIndex index;
+    private final Pageable firstPage = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.streamIndexAttributes()).thenReturn(LongStream.rangeClosed(1, products)
+                .mapToObj(id -> new Object[]{
+                        id,
+                        random.nextInt(10) != 0,
+                        random.nextInt(20),
+                        "brand-" + random.nextInt(BRANDS),
+                        (long) random.nextInt(CATEGORIES),
+                        (long) random.nextInt(SELLERS),
+                        BigDecimal.valueOf(100 + random.nextInt(200_000), 2)}));
+
+        index = new ProductAttributeIndex(repository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public Object brandAndCategory() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ProductFilterRequest filter = ProductFilterRequest.builder()
+                .active(true)
+                .brands(List.of("brand-" + random.nextInt(BRANDS), "brand-" + random.nextInt(BRANDS)))
+                .build();
+        return index.search(filter, List.of((long) random.nextInt(CATEGORIES)), firstPage);
+    }
+
+    @Benchmark
+    public Object activeInStock() {
+        ProductFilterRequest filter = ProductFilterRequest.builder().active(true).inStock(true).build();
+        return index.search(filter, null, firstPage);
+    }
+
+    @Benchmark
+    public Object sellerDeepPage() {
+        ProductFilterRequest filter = ProductFilterRequest.builder()
+                .sellerId((long) ThreadLocalRandom.current().nextInt(SELLERS))
+                .build();
+        return index.search(filter, null, PageRequest.of(5, 20));
+    }
+}
@@ -1,5 +1,7 @@
 package com.kstore.product.config;
 
+import com.kstore.common.security.ResourceServerConfigurer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,7 +14,8 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           ObjectProvider<ResourceServerConfigurer> resourceServer) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -28,6 +31,12 @@ public class SecurityConfig {
         // Allow H2 console to be displayed in frames
         http.headers(headers -> headers.frameOptions().sameOrigin());
         
+        // Bearer tokens are validated locally when kstore.security.resource-server.enabled=true
+        ResourceServerConfigurer configurer = resourceServer.getIfAvailable();
+        if (configurer != null) {
+            configurer.configure(http);
+        }
+        
         return http.build();
     }
 }
@@ -1,17 +1,29 @@
 package com.kstore.product.controller;
 
 import com.kstore.common.dto.ApiResponse;
+import com.kstore.product.dto.ProductBatchRequest;
+import com.kstore.product.dto.ProductBatchResponse;
+import com.kstore.product.dto.ProductFileFormat;
+import com.kstore.product.dto.ProductFilterRequest;
+import com.kstore.product.dto.ProductImportResult;
 import com.kstore.product.dto.ProductRequest;
 import com.kstore.product.dto.ProductResponse;
+import com.kstore.product.dto.ProductSearchResponse;
+import com.kstore.product.service.ProductImportExportService;
 import com.kstore.product.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/products")
@@ -19,6 +31,7 @@ import jakarta.validation.Valid;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportExportService productImportExportService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<Page<ProductResponse>>> getAllProducts(Pageable pageable) {
@@ -68,4 +81,36 @@ public class ProductController {
         Page<ProductResponse> products = productService.getProductsByCategory(categoryId, pageable);
         return ResponseEntity.ok(ApiResponse.success(products));
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<ProductBatchResponse>> getProductsBatch(
+            @Valid @RequestBody ProductBatchRequest request) {
+        ProductBatchResponse products = productService.getProductsBatch(request);
+        return ResponseEntity.ok(ApiResponse.success(products));
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<ProductSearchResponse>> filterProducts(
+            @ModelAttribute ProductFilterRequest filter,
+            Pageable pageable) {
+        ProductSearchResponse result = productService.filterProducts(filter, pageable);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<ProductImportResult>> importProducts(HttpServletRequest request) throws IOException {
+        ProductFileFormat format = ProductFileFormat.fromContentType(request.getContentType());
+        ProductImportResult result = productImportExportService.importProducts(request.getInputStream(), format);
+        return ResponseEntity.ok(ApiResponse.success(result, "Product import completed"));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        ProductFileFormat fileFormat = ProductFileFormat.fromName(format);
+        StreamingResponseBody body = outputStream -> productImportExportService.exportProducts(outputStream, fileFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + fileFormat.getExtension() + "\"")
+                .body(body);
+    }
 }
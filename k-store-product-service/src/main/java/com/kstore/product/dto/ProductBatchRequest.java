@@ -0,0 +1,25 @@
+package com.kstore.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBatchRequest {
+
+    @Builder.Default
+    @Size(max = 500, message = "At most 500 product ids can be requested at once")
+    private List<Long> ids = new ArrayList<>();
+
+    @Builder.Default
+    @Size(max = 500, message = "At most 500 SKUs can be requested at once")
+    private List<String> skus = new ArrayList<>();
+}
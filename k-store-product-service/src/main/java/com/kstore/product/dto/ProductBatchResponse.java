@@ -0,0 +1,30 @@
+package com.kstore.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBatchResponse {
+
+    @Builder.Default
+    private Map<Long, ProductResponse> byId = new LinkedHashMap<>();
+
+    @Builder.Default
+    private Map<String, ProductResponse> bySku = new LinkedHashMap<>();
+
+    @Builder.Default
+    private List<Long> missingIds = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> missingSkus = new ArrayList<>();
+}
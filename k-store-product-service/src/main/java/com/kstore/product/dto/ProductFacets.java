@@ -0,0 +1,41 @@
+package com.kstore.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFacets {
+
+    @Builder.Default
+    private Map<String, Long> brands = new LinkedHashMap<>();
+
+    @Builder.Default
+    private Map<Long, Long> categories = new LinkedHashMap<>();
+
+    @Builder.Default
+    private List<PriceBucketCount> priceBuckets = new ArrayList<>();
+
+    private long inStock;
+    private long outOfStock;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PriceBucketCount {
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+    }
+}
@@ -0,0 +1,36 @@
+package com.kstore.product.dto;
+
+import com.kstore.common.exception.BusinessException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ProductFileFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    public static ProductFileFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            for (ProductFileFormat format : values()) {
+                if (contentType.toLowerCase().startsWith(format.contentType)) {
+                    return format;
+                }
+            }
+        }
+        throw new BusinessException("Unsupported content type: " + contentType, "UNSUPPORTED_FILE_FORMAT");
+    }
+
+    public static ProductFileFormat fromName(String name) {
+        for (ProductFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name) || format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new BusinessException("Unsupported file format: " + name, "UNSUPPORTED_FILE_FORMAT");
+    }
+}
@@ -0,0 +1,29 @@
+package com.kstore.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFilterRequest {
+
+    private Boolean active;
+    private Boolean inStock;
+    private List<String> brands;
+
+    // Matches the category and all of its subcategories
+    private Long categoryId;
+
+    private Long sellerId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal minWeight;
+    private BigDecimal maxWeight;
+}
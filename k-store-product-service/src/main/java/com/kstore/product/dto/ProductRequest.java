@@ -41,6 +41,14 @@ public class ProductRequest {
     @NotNull(message = "Category ID is required")
     private Long categoryId;
 
+    @Size(max = 100, message = "Brand cannot exceed 100 characters")
+    private String brand;
+
+    @DecimalMin(value = "0.0", message = "Weight cannot be negative")
+    private BigDecimal weight;
+
+    private Long sellerId;
+
     @Builder.Default
     private Boolean active = true;
 }
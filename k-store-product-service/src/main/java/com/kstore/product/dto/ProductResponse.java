@@ -22,6 +22,9 @@ public class ProductResponse {
     private String sku;
     private String imageUrl;
     private Boolean active;
+    private String brand;
+    private BigDecimal weight;
+    private Long sellerId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -11,7 +11,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_active_category_price", columnList = "is_active, category_id, price"),
+        @Index(name = "idx_products_brand_price", columnList = "brand, price"),
+        @Index(name = "idx_products_seller", columnList = "seller_id"),
+        @Index(name = "idx_products_stock", columnList = "stock_quantity")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,7 +24,8 @@ import java.util.List;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,415 @@
+package com.kstore.product.index;
+
+import com.kstore.product.dto.ProductFacets;
+import com.kstore.product.dto.ProductFilterRequest;
+import com.kstore.product.entity.Product;
+import com.kstore.product.repository.ProductRepository;
+import com.kstore.product.util.PriceBuckets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory secondary index over the catalog. Product ids are used directly as bitmap ordinals,
+ * so a filter is answered by AND/OR over compressed bitmaps and only the requested page is loaded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductAttributeIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductRepository productRepository;
+
+    @Value("${product.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap active = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byBrand = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<Long, RoaringBitmap> bySeller = new HashMap<>();
+    private final RoaringBitmap[] byPriceBucket = newBitmaps(PriceBuckets.count());
+
+    // Attributes currently indexed for each ordinal, so an update can clear the old postings
+    private String[] brands = new String[INITIAL_CAPACITY];
+    private long[] categoryIds = new long[INITIAL_CAPACITY];
+    private long[] sellerIds = new long[INITIAL_CAPACITY];
+    private byte[] priceBuckets = new byte[INITIAL_CAPACITY];
+
+    private List<ProductAttributes> writesDuringRebuild;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Product attribute index is disabled");
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            clear();
+            writesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long count = 0;
+        try (Stream<Object[]> rows = productRepository.streamIndexAttributes()) {
+            List<ProductAttributes> batch = new ArrayList<>(INITIAL_CAPACITY);
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                batch.add(ProductAttributes.fromRow(row));
+                if (batch.size() == INITIAL_CAPACITY) {
+                    count += applyBatch(batch);
+                    batch.clear();
+                }
+            }
+            count += applyBatch(batch);
+        } catch (IllegalStateException e) {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Product attribute index disabled: {}", e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Writes that committed while the table was being streamed are newer than what was read
+            writesDuringRebuild.forEach(this::apply);
+            writesDuringRebuild = null;
+            all.runOptimize();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product attribute index built with {} products", count);
+    }
+
+    public void onProductSaved(Product product) {
+        afterCommit(ProductAttributes.of(product));
+    }
+
+    public void onProductDeleted(Long productId) {
+        afterCommit(ProductAttributes.deleted(productId));
+    }
+
+    public boolean canServe(ProductFilterRequest filter, Pageable pageable) {
+        if (!ready) {
+            return false;
+        }
+        // Range predicates stay with the database
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null
+                || filter.getMinWeight() != null || filter.getMaxWeight() != null) {
+            return false;
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!"id".equals(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public IndexMatch search(ProductFilterRequest filter, Collection<Long> categoryFilter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = all.clone();
+            if (filter.getActive() != null) {
+                result = filter.getActive() ? RoaringBitmap.and(result, active) : RoaringBitmap.andNot(result, active);
+            }
+            if (filter.getInStock() != null) {
+                result = filter.getInStock() ? RoaringBitmap.and(result, inStock) : RoaringBitmap.andNot(result, inStock);
+            }
+            if (filter.getBrands() != null && !filter.getBrands().isEmpty()) {
+                result.and(union(filter.getBrands(), byBrand));
+            }
+            if (categoryFilter != null) {
+                result.and(union(categoryFilter, byCategory));
+            }
+            if (filter.getSellerId() != null) {
+                result.and(bySeller.getOrDefault(filter.getSellerId(), new RoaringBitmap()));
+            }
+
+            return new IndexMatch(pageIds(result, pageable), result.getLongCardinality(), facets(result));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> pageIds(RoaringBitmap result, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<Long> ids = new ArrayList<>(result.getCardinality());
+            result.forEach((int ordinal) -> ids.add((long) ordinal));
+            return ids;
+        }
+
+        long offset = pageable.getOffset();
+        int cardinality = result.getCardinality();
+        List<Long> ids = new ArrayList<>(pageable.getPageSize());
+        if (offset >= cardinality) {
+            return ids;
+        }
+
+        Sort.Order idOrder = pageable.getSort().getOrderFor("id");
+        if (idOrder != null && idOrder.isDescending()) {
+            IntIterator iterator = result.getReverseIntIterator();
+            for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+                iterator.next();
+            }
+            while (iterator.hasNext() && ids.size() < pageable.getPageSize()) {
+                ids.add((long) iterator.next());
+            }
+        } else {
+            PeekableIntIterator iterator = result.getIntIterator();
+            iterator.advanceIfNeeded(result.select((int) offset));
+            while (iterator.hasNext() && ids.size() < pageable.getPageSize()) {
+                ids.add((long) iterator.next());
+            }
+        }
+        return ids;
+    }
+
+    private ProductFacets facets(RoaringBitmap result) {
+        long total = result.getLongCardinality();
+        long[] bucketCounts = new long[byPriceBucket.length];
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            bucketCounts[i] = RoaringBitmap.andCardinality(result, byPriceBucket[i]);
+        }
+        long inStockCount = RoaringBitmap.andCardinality(result, inStock);
+
+        return ProductFacets.builder()
+                .brands(countPerKey(result, byBrand))
+                .categories(countPerKey(result, byCategory))
+                .priceBuckets(PriceBuckets.toFacets(bucketCounts))
+                .inStock(inStockCount)
+                .outOfStock(total - inStockCount)
+                .build();
+    }
+
+    private <K> Map<K, Long> countPerKey(RoaringBitmap result, Map<K, RoaringBitmap> postings) {
+        List<Map.Entry<K, Long>> counts = new ArrayList<>();
+        postings.forEach((key, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(result, bitmap);
+            if (count > 0) {
+                counts.add(Map.entry(key, count));
+            }
+        });
+        counts.sort(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()));
+
+        Map<K, Long> sorted = new LinkedHashMap<>();
+        counts.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private <K> RoaringBitmap union(Collection<K> keys, Map<K, RoaringBitmap> postings) {
+        return FastAggregation.or(keys.stream()
+                .map(postings::get)
+                .filter(bitmap -> bitmap != null)
+                .iterator());
+    }
+
+    private void afterCommit(ProductAttributes attributes) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyWrite(attributes);
+                }
+            });
+        } else {
+            applyWrite(attributes);
+        }
+    }
+
+    private void applyWrite(ProductAttributes attributes) {
+        lock.writeLock().lock();
+        try {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(attributes);
+            }
+            apply(attributes);
+        } catch (IllegalStateException e) {
+            ready = false;
+            log.error("Product attribute index disabled: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int applyBatch(List<ProductAttributes> batch) {
+        lock.writeLock().lock();
+        try {
+            batch.forEach(this::apply);
+            return batch.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ProductAttributes attributes) {
+        int ordinal = ordinal(attributes.id());
+        if (all.contains(ordinal)) {
+            removePostings(ordinal);
+        }
+        if (attributes.deleted()) {
+            return;
+        }
+
+        ensureCapacity(ordinal);
+        all.add(ordinal);
+        if (attributes.active()) {
+            active.add(ordinal);
+        }
+        if (attributes.inStock()) {
+            inStock.add(ordinal);
+        }
+        if (attributes.brand() != null) {
+            byBrand.computeIfAbsent(attributes.brand(), k -> new RoaringBitmap()).add(ordinal);
+        }
+        if (attributes.categoryId() != null) {
+            byCategory.computeIfAbsent(attributes.categoryId(), k -> new RoaringBitmap()).add(ordinal);
+        }
+        if (attributes.sellerId() != null) {
+            bySeller.computeIfAbsent(attributes.sellerId(), k -> new RoaringBitmap()).add(ordinal);
+        }
+        byPriceBucket[attributes.priceBucket()].add(ordinal);
+
+        brands[ordinal] = attributes.brand();
+        categoryIds[ordinal] = attributes.categoryId() != null ? attributes.categoryId() : 0L;
+        sellerIds[ordinal] = attributes.sellerId() != null ? attributes.sellerId() : 0L;
+        priceBuckets[ordinal] = (byte) attributes.priceBucket();
+    }
+
+    private void removePostings(int ordinal) {
+        all.remove(ordinal);
+        active.remove(ordinal);
+        inStock.remove(ordinal);
+        removeFrom(byBrand, brands[ordinal], ordinal);
+        removeFrom(byCategory, categoryIds[ordinal] != 0L ? categoryIds[ordinal] : null, ordinal);
+        removeFrom(bySeller, sellerIds[ordinal] != 0L ? sellerIds[ordinal] : null, ordinal);
+        byPriceBucket[priceBuckets[ordinal]].remove(ordinal);
+    }
+
+    private <K> void removeFrom(Map<K, RoaringBitmap> postings, K key, int ordinal) {
+        if (key == null) {
+            return;
+        }
+        RoaringBitmap bitmap = postings.get(key);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private void ensureCapacity(int ordinal) {
+        if (ordinal < brands.length) {
+            return;
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8L, Math.max((long) brands.length * 2, ordinal + 1L));
+        brands = Arrays.copyOf(brands, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        sellerIds = Arrays.copyOf(sellerIds, capacity);
+        priceBuckets = Arrays.copyOf(priceBuckets, capacity);
+    }
+
+    private void clear() {
+        all.clear();
+        active.clear();
+        inStock.clear();
+        byBrand.clear();
+        byCategory.clear();
+        bySeller.clear();
+        Arrays.stream(byPriceBucket).forEach(RoaringBitmap::clear);
+        Arrays.fill(brands, null);
+    }
+
+    private static int ordinal(Long id) {
+        if (id == null || id < 0 || id > Integer.MAX_VALUE - 9L) {
+            throw new IllegalStateException("product id " + id + " cannot be used as a bitmap ordinal");
+        }
+        return id.intValue();
+    }
+
+    private static RoaringBitmap[] newBitmaps(int count) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+        Arrays.setAll(bitmaps, i -> new RoaringBitmap());
+        return bitmaps;
+    }
+
+    public record IndexMatch(List<Long> pageIds, long total, ProductFacets facets) {
+    }
+
+    private record ProductAttributes(Long id, boolean deleted, boolean active, boolean inStock, String brand,
+                                     Long categoryId, Long sellerId, int priceBucket) {
+
+        static ProductAttributes of(Product product) {
+            return new ProductAttributes(
+                    product.getId(),
+                    false,
+                    product.isActive(),
+                    product.getStockQuantity() != null && product.getStockQuantity() > 0,
+                    product.getBrand(),
+                    product.getCategory() != null ? product.getCategory().getId() : null,
+                    product.getSellerId(),
+                    PriceBuckets.indexOf(product.getPrice()));
+        }
+
+        static ProductAttributes deleted(Long id) {
+            return new ProductAttributes(id, true, false, false, null, null, null, 0);
+        }
+
+        // Row layout of ProductRepository.streamIndexAttributes()
+        static ProductAttributes fromRow(Object[] row) {
+            Integer stockQuantity = (Integer) row[2];
+            return new ProductAttributes(
+                    (Long) row[0],
+                    false,
+                    Boolean.TRUE.equals(row[1]),
+                    stockQuantity != null && stockQuantity > 0,
+                    (String) row[3],
+                    (Long) row[4],
+                    (Long) row[5],
+                    PriceBuckets.indexOf((BigDecimal) row[6]));
+        }
+    }
+}
@@ -21,6 +21,9 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT c FROM Category c WHERE c.parent.id = :parentId")
     List<Category> findByParentCategoryId(Long parentId);
 
+    @Query("SELECT c.id, p.id FROM Category c LEFT JOIN c.parent p")
+    List<Object[]> findAllParentLinks();
+
     boolean existsByName(String name);
     
     boolean existsByNameAndIdNot(String name, Long id);
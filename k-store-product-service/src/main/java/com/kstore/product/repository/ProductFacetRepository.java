@@ -0,0 +1,10 @@
+package com.kstore.product.repository;
+
+import com.kstore.product.dto.ProductFacets;
+import com.kstore.product.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProductFacetRepository {
+
+    ProductFacets countFacets(Specification<Product> specification);
+}
@@ -0,0 +1,113 @@
+package com.kstore.product.repository;
+
+import com.kstore.product.dto.ProductFacets;
+import com.kstore.product.entity.Product;
+import com.kstore.product.util.PriceBuckets;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+    // Column of each facet's key in the union; the count follows them
+    private static final int BRAND = 0;
+    private static final int CATEGORY = 1;
+    private static final int PRICE_BUCKET = 2;
+    private static final int STOCK = 3;
+    private static final int FACET_COLUMNS = 4;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public ProductFacets countFacets(Specification<Product> specification) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+
+        // One UNION ALL statement with a grouped branch per facet; each row fills only its own facet's column
+        CriteriaQuery<Tuple> query = cb.unionAll(
+                facetBranch(cb, specification, BRAND, root -> root.get("brand")),
+                facetBranch(cb, specification, CATEGORY, root -> root.get("category").get("id")),
+                facetBranch(cb, specification, PRICE_BUCKET, root -> PriceBuckets.indexExpression(cb, root.get("price"))),
+                facetBranch(cb, specification, STOCK, root -> cb.<Boolean>selectCase()
+                        .when(cb.greaterThan(root.get("stockQuantity"), 0), true)
+                        .otherwise(false)));
+
+        Map<String, Long> brands = new HashMap<>();
+        Map<Long, Long> categories = new HashMap<>();
+        long[] priceBuckets = new long[PriceBuckets.count()];
+        long inStock = 0;
+        long outOfStock = 0;
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long count = row.get(FACET_COLUMNS, Long.class);
+            // Rows with no key are the "no brand" and "no category" groups, which are not facets
+            if (row.get(BRAND) != null) {
+                brands.merge(row.get(BRAND, String.class), count, Long::sum);
+            } else if (row.get(CATEGORY) != null) {
+                categories.merge(row.get(CATEGORY, Long.class), count, Long::sum);
+            } else if (row.get(PRICE_BUCKET) != null) {
+                priceBuckets[row.get(PRICE_BUCKET, Integer.class)] += count;
+            } else if (row.get(STOCK) != null) {
+                if (row.get(STOCK, Boolean.class)) {
+                    inStock += count;
+                } else {
+                    outOfStock += count;
+                }
+            }
+        }
+
+        return ProductFacets.builder()
+                .brands(sortByCountDesc(brands))
+                .categories(sortByCountDesc(categories))
+                .priceBuckets(PriceBuckets.toFacets(priceBuckets))
+                .inStock(inStock)
+                .outOfStock(outOfStock)
+                .build();
+    }
+
+    private JpaCriteriaQuery<Tuple> facetBranch(HibernateCriteriaBuilder cb, Specification<Product> specification,
+                                                int facet, Function<Root<Product>, Expression<?>> key) {
+        JpaCriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        Expression<?> keyExpression = key.apply(root);
+        List<Selection<?>> columns = new ArrayList<>(List.of(
+                cb.nullLiteral(String.class),
+                cb.nullLiteral(Long.class),
+                cb.nullLiteral(Integer.class),
+                cb.nullLiteral(Boolean.class)));
+        columns.set(facet, keyExpression);
+        columns.add(cb.count(root));
+        query.multiselect(columns);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(keyExpression);
+        return query;
+    }
+
+    private static <K> Map<K, Long> sortByCountDesc(Map<K, Long> counts) {
+        Map<K, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
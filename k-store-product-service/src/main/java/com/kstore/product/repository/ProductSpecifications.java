@@ -0,0 +1,54 @@
+package com.kstore.product.repository;
+
+import com.kstore.product.dto.ProductFilterRequest;
+import com.kstore.product.entity.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductFilterRequest filter, Collection<Long> categoryIds) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getActive() != null) {
+                predicates.add(cb.equal(root.get("active"), filter.getActive()));
+            }
+            if (filter.getInStock() != null) {
+                predicates.add(filter.getInStock()
+                        ? cb.greaterThan(root.get("stockQuantity"), 0)
+                        : cb.or(cb.isNull(root.get("stockQuantity")), cb.lessThanOrEqualTo(root.get("stockQuantity"), 0)));
+            }
+            if (filter.getBrands() != null && !filter.getBrands().isEmpty()) {
+                predicates.add(root.get("brand").in(filter.getBrands()));
+            }
+            if (categoryIds != null) {
+                predicates.add(root.get("category").get("id").in(categoryIds));
+            }
+            if (filter.getSellerId() != null) {
+                predicates.add(cb.equal(root.get("sellerId"), filter.getSellerId()));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+            }
+            if (filter.getMinWeight() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("weight"), filter.getMinWeight()));
+            }
+            if (filter.getMaxWeight() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("weight"), filter.getMaxWeight()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.kstore.product.service;
+
+import com.kstore.product.dto.ProductFileFormat;
+import com.kstore.product.dto.ProductImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ProductImportExportService {
+
+    /**
+     * Upserts products by SKU from a streamed file, committing one chunk at a time. A chunk the database
+     * rejects is retried row by row, so only the offending rows are reported.
+     */
+    ProductImportResult importProducts(InputStream inputStream, ProductFileFormat format);
+
+    /** Writes the whole catalog to the stream without materializing it in memory. */
+    void exportProducts(OutputStream outputStream, ProductFileFormat format) throws IOException;
+}
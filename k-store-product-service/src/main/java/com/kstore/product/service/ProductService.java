@@ -1,7 +1,11 @@
 package com.kstore.product.service;
 
+import com.kstore.product.dto.ProductBatchRequest;
+import com.kstore.product.dto.ProductBatchResponse;
+import com.kstore.product.dto.ProductFilterRequest;
 import com.kstore.product.dto.ProductRequest;
 import com.kstore.product.dto.ProductResponse;
+import com.kstore.product.dto.ProductSearchResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -20,4 +24,8 @@ public interface ProductService {
     Page<ProductResponse> searchProducts(String keyword, Pageable pageable);
     
     Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable);
+
+    ProductSearchResponse filterProducts(ProductFilterRequest filter, Pageable pageable);
+
+    ProductBatchResponse getProductsBatch(ProductBatchRequest request);
 }
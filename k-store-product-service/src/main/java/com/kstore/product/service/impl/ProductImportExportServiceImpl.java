@@ -0,0 +1,409 @@
+package com.kstore.product.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.kstore.common.exception.BusinessException;
+import com.kstore.product.dto.ProductFileFormat;
+import com.kstore.product.dto.ProductImportResult;
+import com.kstore.product.dto.ProductRequest;
+import com.kstore.product.entity.Category;
+import com.kstore.product.entity.Product;
+import com.kstore.product.index.ProductAttributeIndex;
+import com.kstore.product.repository.CategoryRepository;
+import com.kstore.product.repository.ProductRepository;
+import com.kstore.product.service.ProductImportExportService;
+import com.kstore.product.util.CsvUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportExportServiceImpl implements ProductImportExportService {
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "sku", "name", "description", "price", "stockQuantity", "categoryId", "imageUrl", "active",
+            "brand", "weight", "sellerId");
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductAttributeIndex attributeIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${product.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public ProductImportResult importProducts(InputStream inputStream, ProductFileFormat format) {
+        Set<Long> categoryIds = categoryRepository.findAll().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+        ProductImportResult result = new ProductImportResult();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            RowReader rowReader = format == ProductFileFormat.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+            ImportRow row;
+            while ((row = rowReader.next()) != null) {
+                result.setTotalRows(result.getTotalRows() + 1);
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, categoryIds, result);
+                    chunk.clear();
+                }
+            }
+            processChunk(chunk, categoryIds, result);
+        } catch (IOException e) {
+            throw new BusinessException("Failed to read import file: " + e.getMessage(), "PRODUCT_IMPORT_FAILED");
+        }
+
+        log.info("Product import finished: {} rows, {} created, {} updated, {} failed",
+                result.getTotalRows(), result.getCreated(), result.getUpdated(), result.getFailed());
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream outputStream, ProductFileFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ProductFileFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAllWithCategory()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                ProductRequest row = mapToRow(iterator.next());
+                if (format == ProductFileFormat.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                // Keep the persistence context from growing with the catalog
+                if (++count % chunkSize == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} products as {}", count, format);
+    }
+
+    private void processChunk(List<ImportRow> rows, Set<Long> categoryIds, ProductImportResult result) {
+        Map<String, ImportRow> rowsBySku = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            if (row.error() != null) {
+                addError(result, row.line(), null, row.error());
+                continue;
+            }
+            ProductRequest request = row.request();
+            String violation = validate(request);
+            if (violation != null) {
+                addError(result, row.line(), request.getSku(), violation);
+                continue;
+            }
+            if (!categoryIds.contains(request.getCategoryId())) {
+                addError(result, row.line(), request.getSku(), "Category not found with id: " + request.getCategoryId());
+                continue;
+            }
+            ImportRow superseded = rowsBySku.put(request.getSku(), row);
+            if (superseded != null) {
+                addError(result, superseded.line(), request.getSku(), "Duplicate SKU, superseded by line " + row.line());
+            }
+        }
+        if (rowsBySku.isEmpty()) {
+            return;
+        }
+
+        // The explicit flush surfaces constraint violations untranslated, hence PersistenceException
+        try {
+            commitChunk(rowsBySku, result);
+            return;
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            if (rowsBySku.size() == 1) {
+                ImportRow row = rowsBySku.values().iterator().next();
+                addError(result, row.line(), row.request().getSku(), rejectionMessage(e));
+                return;
+            }
+            log.warn("Product import chunk of {} rows failed, retrying row by row: {}",
+                    rowsBySku.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+
+        // Only the rows the database refuses on their own are reported; the rest of the chunk still lands
+        for (ImportRow row : rowsBySku.values()) {
+            try {
+                commitChunk(Map.of(row.request().getSku(), row), result);
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                addError(result, row.line(), row.request().getSku(), rejectionMessage(e));
+            }
+        }
+    }
+
+    private void commitChunk(Map<String, ImportRow> rowsBySku, ProductImportResult result) {
+        Integer created = transactionTemplate.execute(status -> upsertChunk(rowsBySku));
+        int createdCount = created != null ? created : 0;
+        result.setCreated(result.getCreated() + createdCount);
+        result.setUpdated(result.getUpdated() + rowsBySku.size() - createdCount);
+    }
+
+    private static String rejectionMessage(Exception e) {
+        return "Row rejected: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    }
+
+    private int upsertChunk(Map<String, ImportRow> rowsBySku) {
+        Map<String, Product> existing = productRepository.findBySkuIn(rowsBySku.keySet()).stream()
+                .collect(Collectors.toMap(Product::getSku, Function.identity()));
+        Map<Long, Category> categories = new HashMap<>();
+        List<Product> products = new ArrayList<>(rowsBySku.size());
+        int created = 0;
+
+        for (ImportRow row : rowsBySku.values()) {
+            ProductRequest request = row.request();
+            Product product = existing.get(request.getSku());
+            if (product == null) {
+                product = new Product();
+                created++;
+            }
+            product.setName(request.getName());
+            product.setDescription(request.getDescription());
+            product.setPrice(request.getPrice());
+            product.setStockQuantity(request.getStockQuantity());
+            product.setSku(request.getSku());
+            product.setImageUrl(request.getImageUrl());
+            product.setActive(request.getActive() != null ? request.getActive() : true);
+            product.setBrand(request.getBrand());
+            product.setWeight(request.getWeight());
+            product.setSellerId(request.getSellerId());
+            product.setCategory(categories.computeIfAbsent(request.getCategoryId(), categoryRepository::getReferenceById));
+            products.add(product);
+        }
+
+        productRepository.saveAll(products);
+        entityManager.flush();
+        products.forEach(attributeIndex::onProductSaved);
+        entityManager.clear();
+        return created;
+    }
+
+    private String validate(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void addError(ProductImportResult result, long line, String sku, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(ProductImportResult.RowError.builder()
+                    .line(line)
+                    .sku(sku)
+                    .message(message)
+                    .build());
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private ProductRequest mapToRow(Product product) {
+        return ProductRequest.builder()
+                .sku(product.getSku())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .stockQuantity(product.getStockQuantity())
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .imageUrl(product.getImageUrl())
+                .active(product.isActive())
+                .brand(product.getBrand())
+                .weight(product.getWeight())
+                .sellerId(product.getSellerId())
+                .build();
+    }
+
+    private void writeCsvRow(Writer writer, ProductRequest row) throws IOException {
+        writer.write(String.join(",",
+                CsvUtils.escape(row.getSku()),
+                CsvUtils.escape(row.getName()),
+                CsvUtils.escape(row.getDescription()),
+                CsvUtils.escape(row.getPrice() != null ? row.getPrice().toPlainString() : null),
+                CsvUtils.escape(row.getStockQuantity()),
+                CsvUtils.escape(row.getCategoryId()),
+                CsvUtils.escape(row.getImageUrl()),
+                CsvUtils.escape(row.getActive()),
+                CsvUtils.escape(row.getBrand()),
+                CsvUtils.escape(row.getWeight() != null ? row.getWeight().toPlainString() : null),
+                CsvUtils.escape(row.getSellerId())));
+        writer.write('\n');
+    }
+
+    private record ImportRow(long line, ProductRequest request, String error) {
+    }
+
+    private interface RowReader {
+        ImportRow next() throws IOException;
+    }
+
+    private class NdjsonRowReader implements RowReader {
+
+        private final BufferedReader reader;
+        private final ObjectReader rowReader = objectMapper.readerFor(ProductRequest.class);
+        private long lineNumber;
+
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ImportRow(lineNumber, rowReader.readValue(line), null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRow(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class CsvRowReader implements RowReader {
+
+        private final BufferedReader reader;
+        private Map<String, Integer> columns;
+        private long lineNumber;
+        private long recordLine;
+
+        CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            while ((line = readRecord()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> values = CsvUtils.parseLine(line);
+                if (columns == null) {
+                    columns = new HashMap<>();
+                    for (int i = 0; i < values.size(); i++) {
+                        columns.put(values.get(i).trim(), i);
+                    }
+                    if (!columns.containsKey("sku")) {
+                        throw new BusinessException("CSV header must contain a sku column", "PRODUCT_IMPORT_FAILED");
+                    }
+                    continue;
+                }
+                try {
+                    return new ImportRow(recordLine, toRequest(values), null);
+                } catch (IllegalArgumentException e) {
+                    return new ImportRow(recordLine, null, "Malformed value: " + e.getMessage());
+                }
+            }
+            return null;
+        }
+
+        private String readRecord() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            // Errors are reported against the line the record started on
+            recordLine = lineNumber;
+            StringBuilder record = new StringBuilder(line);
+            while (CsvUtils.hasOpenQuote(record.toString())) {
+                String continuation = reader.readLine();
+                if (continuation == null) {
+                    break;
+                }
+                lineNumber++;
+                record.append('\n').append(continuation);
+            }
+            return record.toString();
+        }
+
+        private ProductRequest toRequest(List<String> values) {
+            String price = value(values, "price");
+            String stockQuantity = value(values, "stockQuantity");
+            String categoryId = value(values, "categoryId");
+            String active = value(values, "active");
+            String weight = value(values, "weight");
+            String sellerId = value(values, "sellerId");
+            return ProductRequest.builder()
+                    .sku(value(values, "sku"))
+                    .name(value(values, "name"))
+                    .description(value(values, "description"))
+                    .price(price != null ? new BigDecimal(price) : null)
+                    .stockQuantity(stockQuantity != null ? Integer.valueOf(stockQuantity) : null)
+                    .categoryId(categoryId != null ? Long.valueOf(categoryId) : null)
+                    .imageUrl(value(values, "imageUrl"))
+                    .active(active != null ? Boolean.valueOf(active) : true)
+                    .brand(value(values, "brand"))
+                    .weight(weight != null ? new BigDecimal(weight) : null)
+                    .sellerId(sellerId != null ? Long.valueOf(sellerId) : null)
+                    .build();
+        }
+
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
@@ -1,19 +1,41 @@
 package com.kstore.product.service.impl;
 
+import com.kstore.common.exception.BusinessException;
 import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.product.dto.ProductBatchRequest;
+import com.kstore.product.dto.ProductBatchResponse;
+import com.kstore.product.dto.ProductFilterRequest;
 import com.kstore.product.dto.ProductRequest;
 import com.kstore.product.dto.ProductResponse;
+import com.kstore.product.dto.ProductSearchResponse;
 import com.kstore.product.entity.Category;
 import com.kstore.product.entity.Product;
+import com.kstore.product.index.ProductAttributeIndex;
 import com.kstore.product.repository.CategoryRepository;
 import com.kstore.product.repository.ProductRepository;
+import com.kstore.product.repository.ProductSpecifications;
 import com.kstore.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -21,6 +43,7 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductAttributeIndex attributeIndex;
 
     @Override
     @Transactional(readOnly = true)
@@ -50,10 +73,14 @@ public class ProductServiceImpl implements ProductService {
                 .sku(request.getSku())
                 .imageUrl(request.getImageUrl())
                 .active(request.getActive() != null ? request.getActive() : true)
+                .brand(request.getBrand())
+                .weight(request.getWeight())
+                .sellerId(request.getSellerId())
                 .category(category)
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        attributeIndex.onProductSaved(savedProduct);
         return mapToResponse(savedProduct);
     }
 
@@ -72,9 +99,13 @@ public class ProductServiceImpl implements ProductService {
         product.setSku(request.getSku());
         product.setImageUrl(request.getImageUrl());
         product.setActive(request.getActive() != null ? request.getActive() : true);
+        product.setBrand(request.getBrand());
+        product.setWeight(request.getWeight());
+        product.setSellerId(request.getSellerId());
         product.setCategory(category);
 
         Product updatedProduct = productRepository.save(product);
+        attributeIndex.onProductSaved(updatedProduct);
         return mapToResponse(updatedProduct);
     }
 
@@ -83,6 +114,7 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         productRepository.delete(product);
+        attributeIndex.onProductDeleted(id);
     }
 
     @Override
@@ -103,6 +135,104 @@ public class ProductServiceImpl implements ProductService {
                 .map(this::mapToResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ProductSearchResponse filterProducts(ProductFilterRequest filter, Pageable pageable) {
+        Set<Long> categoryIds = filter.getCategoryId() != null ? resolveCategorySubtree(filter.getCategoryId()) : null;
+
+        if (attributeIndex.canServe(filter, pageable)) {
+            ProductAttributeIndex.IndexMatch match = attributeIndex.search(filter, categoryIds, pageable);
+            Map<Long, Product> products = productRepository.findAllWithCategoryByIdIn(match.pageIds()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            List<ProductResponse> content = match.pageIds().stream()
+                    .map(products::get)
+                    .filter(Objects::nonNull)
+                    .map(this::mapToResponse)
+                    .toList();
+            return ProductSearchResponse.builder()
+                    .products(new PageImpl<>(content, pageable, match.total()))
+                    .facets(match.facets())
+                    .build();
+        }
+
+        Specification<Product> specification = ProductSpecifications.matching(filter, categoryIds);
+
+        Page<ProductResponse> products = productRepository.findAll(specification, pageable)
+                .map(this::mapToResponse);
+
+        return ProductSearchResponse.builder()
+                .products(products)
+                .facets(productRepository.countFacets(specification))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductBatchResponse getProductsBatch(ProductBatchRequest request) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (request.getIds() != null) {
+            request.getIds().stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        Set<String> skus = new LinkedHashSet<>();
+        if (request.getSkus() != null) {
+            request.getSkus().stream().filter(Objects::nonNull).forEach(skus::add);
+        }
+        if (ids.isEmpty() && skus.isEmpty()) {
+            throw new BusinessException("At least one product id or SKU is required", "EMPTY_BATCH_REQUEST");
+        }
+
+        Map<Long, ProductResponse> found = new HashMap<>();
+        for (Product product : productRepository.findAllWithCategoryByIdInOrSkuIn(ids, skus)) {
+            found.put(product.getId(), mapToResponse(product));
+        }
+        Map<String, ProductResponse> foundBySku = found.values().stream()
+                .filter(product -> product.getSku() != null)
+                .collect(Collectors.toMap(ProductResponse::getSku, Function.identity()));
+
+        ProductBatchResponse response = new ProductBatchResponse();
+        for (Long id : ids) {
+            ProductResponse product = found.get(id);
+            if (product != null) {
+                response.getById().put(id, product);
+            } else {
+                response.getMissingIds().add(id);
+            }
+        }
+        for (String sku : skus) {
+            ProductResponse product = foundBySku.get(sku);
+            if (product != null) {
+                response.getBySku().put(sku, product);
+            } else {
+                response.getMissingSkus().add(sku);
+            }
+        }
+        return response;
+    }
+
+    private Set<Long> resolveCategorySubtree(Long categoryId) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+        }
+
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (Object[] link : categoryRepository.findAllParentLinks()) {
+            if (link[1] != null) {
+                children.computeIfAbsent((Long) link[1], k -> new ArrayList<>()).add((Long) link[0]);
+            }
+        }
+
+        Set<Long> subtree = new HashSet<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.push(categoryId);
+        while (!pending.isEmpty()) {
+            Long current = pending.pop();
+            if (subtree.add(current)) {
+                children.getOrDefault(current, List.of()).forEach(pending::push);
+            }
+        }
+        return subtree;
+    }
+
     private ProductResponse mapToResponse(Product product) {
         return ProductResponse.builder()
                 .id(product.getId())
@@ -113,6 +243,9 @@ public class ProductServiceImpl implements ProductService {
                 .sku(product.getSku())
                 .imageUrl(product.getImageUrl())
                 .active(product.isActive())
+                .brand(product.getBrand())
+                .weight(product.getWeight())
+                .sellerId(product.getSellerId())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .category(ProductResponse.CategoryResponse.builder()
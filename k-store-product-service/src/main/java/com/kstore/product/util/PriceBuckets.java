@@ -0,0 +1,65 @@
+package com.kstore.product.util;
+
+import com.kstore.product.dto.ProductFacets;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PriceBuckets {
+
+    // Lower bounds of each bucket; the last bucket is open-ended
+    private static final BigDecimal[] LOWER_BOUNDS = {
+            BigDecimal.ZERO,
+            BigDecimal.valueOf(25),
+            BigDecimal.valueOf(50),
+            BigDecimal.valueOf(100),
+            BigDecimal.valueOf(250),
+            BigDecimal.valueOf(500),
+            BigDecimal.valueOf(1000)
+    };
+
+    private PriceBuckets() {
+    }
+
+    public static int count() {
+        return LOWER_BOUNDS.length;
+    }
+
+    public static int indexOf(BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        for (int i = LOWER_BOUNDS.length - 1; i > 0; i--) {
+            if (price.compareTo(LOWER_BOUNDS[i]) >= 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * SQL counterpart of {@link #indexOf(BigDecimal)}, for grouping by bucket in the database.
+     */
+    public static Expression<Integer> indexExpression(CriteriaBuilder cb, Expression<BigDecimal> price) {
+        CriteriaBuilder.Case<Integer> bucket = cb.selectCase();
+        for (int i = LOWER_BOUNDS.length - 1; i > 0; i--) {
+            bucket = bucket.when(cb.greaterThanOrEqualTo(price, LOWER_BOUNDS[i]), i);
+        }
+        return bucket.otherwise(0);
+    }
+
+    public static List<ProductFacets.PriceBucketCount> toFacets(long[] counts) {
+        List<ProductFacets.PriceBucketCount> facets = new ArrayList<>(LOWER_BOUNDS.length);
+        for (int i = 0; i < LOWER_BOUNDS.length; i++) {
+            facets.add(ProductFacets.PriceBucketCount.builder()
+                    .from(LOWER_BOUNDS[i])
+                    .to(i + 1 < LOWER_BOUNDS.length ? LOWER_BOUNDS[i + 1] : null)
+                    .count(counts[i])
+                    .build());
+        }
+        return facets;
+    }
+}
@@ -0,0 +1,177 @@
+package com.kstore.product.index;
+
+import com.kstore.product.dto.ProductFilterRequest;
+import com.kstore.product.entity.Category;
+import com.kstore.product.entity.Product;
+import com.kstore.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductAttributeIndexTest {
+
+    private ProductRepository productRepository;
+    private ProductAttributeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        index = new ProductAttributeIndex(productRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void canServeFallsBackToTheDatabase() {
+        ProductFilterRequest filter = new ProductFilterRequest();
+        Pageable byId = PageRequest.of(0, 20, Sort.by("id"));
+        assertThat(index.canServe(filter, byId)).as("not built yet").isFalse();
+
+        build(row(1, true, 5, "Acme", 10L, 100L, "20.00"));
+        assertThat(index.canServe(filter, byId)).isTrue();
+        assertThat(index.canServe(filter, PageRequest.of(0, 20))).isTrue();
+        assertThat(index.canServe(filter, PageRequest.of(0, 20, Sort.by("price")))).isFalse();
+        assertThat(index.canServe(ProductFilterRequest.builder().minPrice(BigDecimal.ONE).build(), byId)).isFalse();
+        assertThat(index.canServe(ProductFilterRequest.builder().maxWeight(BigDecimal.TEN).build(), byId)).isFalse();
+    }
+
+    @Test
+    void disabledIndexNeverServes() {
+        ReflectionTestUtils.setField(index, "enabled", false);
+        index.rebuild();
+        assertThat(index.canServe(new ProductFilterRequest(), Pageable.unpaged())).isFalse();
+    }
+
+    @Test
+    void searchAnswersFiltersAndPages() {
+        build(row(1, true, 5, "Acme", 10L, 100L, "20.00"),
+                row(2, true, 0, "Acme", 10L, 100L, "30.00"),
+                row(3, false, 1, "Bolt", 11L, 101L, "300.00"),
+                row(4, true, 2, "Bolt", 12L, 100L, "1200.00"));
+
+        ProductFilterRequest filter = ProductFilterRequest.builder().active(true).inStock(true).build();
+        ProductAttributeIndex.IndexMatch match = index.search(filter, List.of(10L, 12L), PageRequest.of(0, 1));
+        assertThat(match.total()).isEqualTo(2);
+        assertThat(match.pageIds()).containsExactly(1L);
+        assertThat(index.search(filter, List.of(10L, 12L), PageRequest.of(1, 1)).pageIds()).containsExactly(4L);
+        assertThat(index.search(filter, null, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"))).pageIds())
+                .containsExactly(4L, 1L);
+
+        ProductAttributeIndex.IndexMatch bySeller = index.search(
+                ProductFilterRequest.builder().sellerId(100L).brands(List.of("Acme")).build(), null, Pageable.unpaged());
+        assertThat(bySeller.pageIds()).containsExactly(1L, 2L);
+        assertThat(bySeller.facets().getInStock()).isEqualTo(1);
+        assertThat(bySeller.facets().getOutOfStock()).isEqualTo(1);
+    }
+
+    @Test
+    void writesApplyOnlyAfterCommit() {
+        build();
+        TransactionSynchronizationManager.initSynchronization();
+        index.onProductSaved(product(7L, "Acme", 3));
+        assertThat(ids()).as("uncommitted").isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(ids()).containsExactly(7L);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // A rolled-back transaction never calls afterCommit
+        TransactionSynchronizationManager.initSynchronization();
+        index.onProductDeleted(7L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(ids()).containsExactly(7L);
+    }
+
+    @Test
+    void updatesMovePostingsAndDeletesRemoveThem() {
+        build(row(1, true, 5, "Acme", 10L, 100L, "20.00"));
+
+        index.onProductSaved(product(1L, "Bolt", 0));
+        ProductAttributeIndex.IndexMatch match = index.search(new ProductFilterRequest(), null, Pageable.unpaged());
+        assertThat(match.facets().getBrands()).containsOnly(entry("Bolt", 1L));
+        assertThat(match.facets().getOutOfStock()).isEqualTo(1);
+
+        index.onProductDeleted(1L);
+        assertThat(ids()).isEmpty();
+        assertThat(index.search(new ProductFilterRequest(), null, Pageable.unpaged()).facets().getBrands()).isEmpty();
+    }
+
+    @Test
+    void writesCommittedDuringRebuildWinOverTheStreamedRows() {
+        Object[] stale = row(1, true, 5, "Old", 10L, 100L, "20.00");
+        Object[] deletedMeanwhile = row(2, true, 5, "Acme", 10L, 100L, "20.00");
+        when(productRepository.streamIndexAttributes()).thenReturn(Stream.of(stale, deletedMeanwhile)
+                .map(row -> {
+                    // Other transactions commit while the table is being streamed
+                    if (row == deletedMeanwhile) {
+                        index.onProductSaved(product(1L, "New", 5));
+                        index.onProductDeleted(2L);
+                        index.onProductSaved(product(3L, "Acme", 1));
+                    }
+                    return row;
+                }));
+
+        index.rebuild();
+
+        ProductAttributeIndex.IndexMatch match = index.search(new ProductFilterRequest(), null, Pageable.unpaged());
+        assertThat(match.pageIds()).containsExactly(1L, 3L);
+        assertThat(match.facets().getBrands()).containsOnly(entry("New", 1L), entry("Acme", 1L));
+    }
+
+    @Test
+    void unusableIdDisablesTheIndex() {
+        build(row(1, true, 5, "Acme", 10L, 100L, "20.00"));
+        index.onProductSaved(product((long) Integer.MAX_VALUE, "Acme", 1));
+        assertThat(index.canServe(new ProductFilterRequest(), Pageable.unpaged())).isFalse();
+    }
+
+    private void build(Object[]... rows) {
+        when(productRepository.streamIndexAttributes()).thenReturn(Stream.of(rows));
+        index.rebuild();
+    }
+
+    private List<Long> ids() {
+        return index.search(new ProductFilterRequest(), null, Pageable.unpaged()).pageIds();
+    }
+
+    // Row layout of ProductRepository.streamIndexAttributes()
+    private static Object[] row(long id, boolean active, int stock, String brand, Long categoryId, Long sellerId,
+                                String price) {
+        return new Object[]{id, active, stock, brand, categoryId, sellerId, new BigDecimal(price)};
+    }
+
+    private static Product product(Long id, String brand, int stock) {
+        Category category = new Category();
+        category.setId(10L);
+        return Product.builder()
+                .id(id)
+                .brand(brand)
+                .stockQuantity(stock)
+                .price(new BigDecimal("20.00"))
+                .sellerId(100L)
+                .category(category)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.kstore.product.repository;
+
+import com.kstore.product.dto.ProductFacets;
+import com.kstore.product.dto.ProductFilterRequest;
+import com.kstore.product.entity.Category;
+import com.kstore.product.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false"
+})
+class ProductFacetRepositoryImplTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category phones;
+    private Category shirts;
+
+    @BeforeEach
+    void setUp() {
+        phones = categoryRepository.save(Category.builder().name("Phones").build());
+        shirts = categoryRepository.save(Category.builder().name("Shirts").build());
+
+        productRepository.saveAll(List.of(
+                product("P-1", phones, "Acme", "199.99", 5, true),
+                product("P-2", phones, "Acme", "20.00", 0, true),
+                product("P-3", phones, "Bolt", "1500.00", 2, false),
+                product("S-1", shirts, "Tee", "19.50", null, true),
+                product("S-2", shirts, null, "30.00", 3, true),
+                product("S-3", null, "Tee", "25.00", 1, true)));
+    }
+
+    @Test
+    void countsEveryFacetOverTheWholeCatalog() {
+        ProductFacets facets = productRepository.countFacets(
+                ProductSpecifications.matching(new ProductFilterRequest(), null));
+
+        assertThat(facets.getBrands()).containsOnly(entry("Acme", 2L), entry("Tee", 2L), entry("Bolt", 1L));
+        assertThat(facets.getCategories()).containsOnly(entry(phones.getId(), 3L), entry(shirts.getId(), 2L));
+        assertThat(facets.getPriceBuckets())
+                .extracting(ProductFacets.PriceBucketCount::getCount)
+                .containsExactly(2L, 2L, 0L, 1L, 0L, 0L, 1L);
+        assertThat(facets.getInStock()).isEqualTo(4);
+        assertThat(facets.getOutOfStock()).isEqualTo(2);
+    }
+
+    @Test
+    void countsOnlyMatchingProducts() {
+        ProductFilterRequest filter = new ProductFilterRequest();
+        filter.setActive(true);
+        filter.setInStock(true);
+
+        ProductFacets facets = productRepository.countFacets(ProductSpecifications.matching(filter, null));
+
+        assertThat(facets.getBrands()).containsOnly(entry("Acme", 1L), entry("Tee", 1L));
+        assertThat(facets.getCategories()).containsOnly(entry(phones.getId(), 1L), entry(shirts.getId(), 1L));
+        assertThat(facets.getPriceBuckets())
+                .extracting(ProductFacets.PriceBucketCount::getCount)
+                .containsExactly(0L, 2L, 0L, 1L, 0L, 0L, 0L);
+        assertThat(facets.getInStock()).isEqualTo(3);
+        assertThat(facets.getOutOfStock()).isZero();
+    }
+
+    @Test
+    void emptyMatchGivesZeroCounts() {
+        ProductFilterRequest filter = new ProductFilterRequest();
+        filter.setBrands(List.of("Nobody"));
+
+        ProductFacets facets = productRepository.countFacets(ProductSpecifications.matching(filter, null));
+
+        assertThat(facets.getBrands()).isEmpty();
+        assertThat(facets.getCategories()).isEmpty();
+        assertThat(facets.getPriceBuckets()).allSatisfy(bucket -> assertThat(bucket.getCount()).isZero());
+        assertThat(facets.getInStock()).isZero();
+        assertThat(facets.getOutOfStock()).isZero();
+    }
+
+    private static Product product(String sku, Category category, String brand, String price, Integer stock,
+                                   boolean active) {
+        return Product.builder()
+                .sku(sku)
+                .name("Product " + sku)
+                .category(category)
+                .brand(brand)
+                .price(new BigDecimal(price))
+                .stockQuantity(stock)
+                .active(active)
+                .build();
+    }
+}
@@ -0,0 +1,194 @@
+package com.kstore.product.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.product.dto.ProductFileFormat;
+import com.kstore.product.dto.ProductImportResult;
+import com.kstore.product.entity.Category;
+import com.kstore.product.entity.Product;
+import com.kstore.product.index.ProductAttributeIndex;
+import com.kstore.product.repository.CategoryRepository;
+import com.kstore.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs against the in-memory H2 catalog; transactions are not wrapped so each chunk really commits or rolls back.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductImportExportServiceImplTest {
+
+    private static final String HEADER = "sku,name,description,price,stockQuantity,categoryId,brand\n";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private ProductImportExportServiceImpl service;
+    private long phones;
+    private long shirts;
+    private long books;
+
+    @BeforeEach
+    void setUp() {
+        phones = category("Phones");
+        shirts = category("Shirts");
+        books = category("Books");
+        service = new ProductImportExportServiceImpl(productRepository, categoryRepository,
+                new ProductAttributeIndex(productRepository), transactionTemplate, entityManager,
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "chunkSize", 3);
+    }
+
+    @AfterEach
+    void clear() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void importsCsvAndUpdatesExistingSkus() {
+        ProductImportResult first = importCsv(HEADER
+                + "SKU-1,Phone,A phone,199.99,5,%1$d,Acme\n"
+                + "SKU-2,Shirt,\"Cotton, blue\",19.50,0,%2$d,Tee\n");
+        assertThat(first.getCreated()).isEqualTo(2);
+        assertThat(first.getFailed()).isZero();
+
+        ProductImportResult second = importCsv(HEADER
+                + "SKU-1,Phone,A better phone,179.99,7,%1$d,Acme\n"
+                + "SKU-3,Book,A novel,9.99,1,%3$d,\n");
+        assertThat(second.getCreated()).isEqualTo(1);
+        assertThat(second.getUpdated()).isEqualTo(1);
+
+        assertThat(productRepository.findBySkuIn(List.of("SKU-1", "SKU-2", "SKU-3")))
+                .extracting(Product::getSku, Product::getDescription, Product::getStockQuantity)
+                .containsExactlyInAnyOrder(
+                        tuple("SKU-1", "A better phone", 7),
+                        tuple("SKU-2", "Cotton, blue", 0),
+                        tuple("SKU-3", "A novel", 1));
+    }
+
+    @Test
+    void reportsInvalidRowsWithoutRejectingTheRest() {
+        ProductImportResult result = importCsv(HEADER
+                + "SKU-1,Phone,A phone,199.99,5,%1$d,Acme\n"
+                + "SKU-2,Shirt,A shirt,not-a-price,1,%2$d,Tee\n"
+                + "SKU-3,Book,A novel,9.99,1,-1,\n"
+                + "SKU-4,Lamp,A lamp,-1,1,%3$d,\n"
+                + "SKU-1,Phone,Latest phone,189.99,5,%1$d,Acme\n");
+
+        assertThat(result.getTotalRows()).isEqualTo(5);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getErrors())
+                .extracting(ProductImportResult.RowError::getLine)
+                .containsExactlyInAnyOrder(3L, 4L, 5L);
+        assertThat(productRepository.findBySkuIn(List.of("SKU-1")))
+                .extracting(Product::getDescription)
+                .containsExactly("Latest phone");
+    }
+
+    @Test
+    void databaseErrorRejectsOnlyTheOffendingRow() {
+        // Passes bean validation (500 chars) but not the 255-character image_url column
+        String longUrl = "http://img/" + "x".repeat(300);
+        String ndjson = row("SKU-1", null) + row("SKU-2", longUrl) + row("SKU-3", null)
+                + row("SKU-4", null);
+
+        ProductImportResult result = service.importProducts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ProductFileFormat.NDJSON);
+
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getSku()).isEqualTo("SKU-2");
+            assertThat(error.getMessage()).startsWith("Row rejected: ");
+        });
+        assertThat(productRepository.findBySkuIn(List.of("SKU-1", "SKU-2", "SKU-3", "SKU-4")))
+                .extracting(Product::getSku)
+                .containsExactlyInAnyOrder("SKU-1", "SKU-3", "SKU-4");
+    }
+
+    @Test
+    void exportRoundTripsThroughImport() throws Exception {
+        importCsv(HEADER
+                + "SKU-1,Phone,\"Says \"\"hi\"\"\",199.99,5,%1$d,Acme\n"
+                + "SKU-2,Shirt,A shirt,19.50,0,%2$d,\n"
+                + "SKU-3,Book,A novel,9.99,1,%3$d,\n"
+                + "SKU-4,Lamp,A lamp,45.00,2,%3$d,Glow\n");
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        transactionTemplate.executeWithoutResult(status -> export(csv, ProductFileFormat.CSV));
+        String exported = csv.toString(StandardCharsets.UTF_8);
+        assertThat(exported.lines()).hasSize(5);
+        assertThat(exported).contains("SKU-1,Phone,\"Says \"\"hi\"\"\",199.99,5," + phones);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        transactionTemplate.executeWithoutResult(status -> export(ndjson, ProductFileFormat.NDJSON));
+        productRepository.deleteAll();
+
+        ProductImportResult reimported = service.importProducts(
+                new ByteArrayInputStream(ndjson.toByteArray()), ProductFileFormat.NDJSON);
+        assertThat(reimported.getCreated()).isEqualTo(4);
+        assertThat(reimported.getFailed()).isZero();
+        assertThat(productRepository.findBySkuIn(List.of("SKU-1")))
+                .extracting(Product::getDescription)
+                .containsExactly("Says \"hi\"");
+    }
+
+    // %1$d, %2$d and %3$d stand for the phones, shirts and books category ids
+    private ProductImportResult importCsv(String csv) {
+        String content = csv.formatted(phones, shirts, books);
+        return service.importProducts(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                ProductFileFormat.CSV);
+    }
+
+    private long category(String name) {
+        return categoryRepository.save(Category.builder().name(name).build()).getId();
+    }
+
+    private void export(ByteArrayOutputStream out, ProductFileFormat format) {
+        try {
+            service.exportProducts(out, format);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String row(String sku, String imageUrl) {
+        return "{\"sku\":\"" + sku + "\",\"name\":\"Product " + sku + "\",\"description\":\"Imported\","
+                + "\"price\":10.00,\"stockQuantity\":1,\"categoryId\":" + phones
+                + (imageUrl != null ? ",\"imageUrl\":\"" + imageUrl + "\"" : "") + "}\n";
+    }
+}
@@ -0,0 +1,76 @@
+package com.kstore.user.service.impl;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a request from its bearer token: {@code parseSignedClaims} is what every request
+ * paid before the claims cache, {@code verify} is {@link JwtTokenProvider} with {@code tokens} distinct
+ * users in flight (all of which fit in the cache).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "k-store-benchmark-secret-that-is-long-enough-for-hs256";
+
+    @Param({"1", "1000"})
+    public int tokens;
+
+    private JwtTokenProvider provider;
+    private JwtParser parser;
+    private String[] issued;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        provider = new JwtTokenProvider(SECRET, 3_600_000, 10_000);
+        parser = Jwts.parser().verifyWith(key).build();
+        issued = new String[tokens];
+        Date expiry = new Date(System.currentTimeMillis() + 3_600_000);
+        for (int i = 0; i < tokens; i++) {
+            issued[i] = Jwts.builder()
+                    .subject("user-" + i)
+                    .claim("userId", (long) i)
+                    .claim("email", "user-" + i + "@kstore.com")
+                    .claim("roles", "ROLE_USER")
+                    .issuedAt(new Date())
+                    .expiration(expiry)
+                    .signWith(key)
+                    .compact();
+        }
+    }
+
+    @Benchmark
+    public Object parseSignedClaims() {
+        return parser.parseSignedClaims(next()).getPayload();
+    }
+
+    @Benchmark
+    public Object verify() {
+        return provider.verify(next()).orElseThrow();
+    }
+
+    private String next() {
+        return issued[ThreadLocalRandom.current().nextInt(issued.length)];
+    }
+}
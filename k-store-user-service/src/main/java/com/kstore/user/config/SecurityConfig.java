@@ -1,11 +1,20 @@
 package com.kstore.user.config;
 
+import com.kstore.user.security.CachingOAuth2AuthorizationService;
+import com.kstore.user.security.UserPathAuthorizationManager;
+import com.kstore.user.service.impl.UserIdentityCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configurers.OAuth2AuthorizationServerConfigurer;
@@ -14,7 +23,11 @@ import org.springframework.security.web.authentication.LoginUrlAuthenticationEnt
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.core.oidc.OidcScopes;
-import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.JdbcRegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
@@ -23,13 +36,17 @@ import org.springframework.security.oauth2.server.authorization.settings.TokenSe
 import org.springframework.core.annotation.Order;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.UUID;
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @Profile({"dev", "prod"})
 public class SecurityConfig {
 
+    static final String ADDRESSES_READ_SCOPE = "addresses.read";
+
     @Bean
     @Order(1)
     public SecurityFilterChain authorizationServerSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -50,11 +67,17 @@ public class SecurityConfig {
 
     @Bean
     @Order(2)
-    public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http,
+                                                          UserIdentityCache userIdentityCache) throws Exception {
+        UserPathAuthorizationManager ownUserOrAdmin = new UserPathAuthorizationManager(userIdentityCache);
         http
             .authorizeHttpRequests(authorize -> authorize
                 .requestMatchers("/api/health", "/actuator/**", "/h2-console/**").permitAll()
                 .requestMatchers("/oauth2/**", "/login", "/logout").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/users/availability").permitAll()
+                // Checkout lookups from order-service, authenticated with its client_credentials token
+                .requestMatchers(HttpMethod.POST, "/api/users/addresses/batch").hasAuthority("SCOPE_" + ADDRESSES_READ_SCOPE)
+                .requestMatchers("/api/users/{userId}/addresses", "/api/users/{userId}/addresses/**").access(ownUserOrAdmin)
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
@@ -64,8 +87,15 @@ public class SecurityConfig {
             .logout(logout -> logout
                 .permitAll()
             )
+            // Access tokens from this server, verified against its own signing keys
+            .oauth2ResourceServer(resourceServer -> resourceServer.jwt(Customizer.withDefaults()))
             .csrf(csrf -> csrf
                 .ignoringRequestMatchers("/h2-console/**")
+                // A bearer token is never sent implicitly by the browser, so it cannot be forged cross-site
+                .ignoringRequestMatchers(request -> {
+                    String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+                    return authorization != null && authorization.startsWith("Bearer ");
+                })
             )
             .headers(headers -> headers
                 .frameOptions().sameOrigin()
@@ -74,11 +104,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Clients live in oauth2_registered_client so every replica sees the same registrations. The clients
+     * below are upserted at startup and keep their existing row id and secret hash.
+     */
     @Bean
-    public RegisteredClientRepository registeredClientRepository() {
+    public RegisteredClientRepository registeredClientRepository(JdbcTemplate jdbcTemplate,
+                                                                 PasswordEncoder passwordEncoder,
+                                                                 @Value("${user.clients.order-service.secret:order-service-secret}") String orderServiceSecret) {
         RegisteredClient kStoreClient = RegisteredClient.withId(UUID.randomUUID().toString())
             .clientId("k-store-client")
-            .clientSecret(passwordEncoder().encode("k-store-secret"))
+            .clientSecret("k-store-secret")
             .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
             .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
             .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
@@ -105,7 +141,7 @@ public class SecurityConfig {
 
         RegisteredClient apiGatewayClient = RegisteredClient.withId(UUID.randomUUID().toString())
             .clientId("api-gateway")
-            .clientSecret(passwordEncoder().encode("gateway-secret"))
+            .clientSecret("gateway-secret")
             .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
             .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
             .scope("read")
@@ -116,18 +152,66 @@ public class SecurityConfig {
                 .build())
             .build();
 
-        return new InMemoryRegisteredClientRepository(kStoreClient, apiGatewayClient);
+        RegisteredClient orderServiceClient = RegisteredClient.withId(UUID.randomUUID().toString())
+            .clientId("order-service")
+            .clientSecret(orderServiceSecret)
+            .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+            .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+            .scope(ADDRESSES_READ_SCOPE)
+            .tokenSettings(TokenSettings.builder()
+                .accessTokenTimeToLive(Duration.ofMinutes(30))
+                .build())
+            .build();
+
+        JdbcRegisteredClientRepository repository = new JdbcRegisteredClientRepository(jdbcTemplate);
+        seedClient(repository, passwordEncoder, kStoreClient);
+        seedClient(repository, passwordEncoder, apiGatewayClient);
+        seedClient(repository, passwordEncoder, orderServiceClient);
+        return repository;
     }
 
     @Bean
-    public AuthorizationServerSettings authorizationServerSettings() {
-        return AuthorizationServerSettings.builder()
-            .issuer("http://localhost:8081")
+    public OAuth2AuthorizationService authorizationService(JdbcTemplate jdbcTemplate,
+                                                           RegisteredClientRepository registeredClientRepository,
+                                                           @Value("${user.authorization.cache.ttl:30s}") Duration cacheTtl,
+                                                           @Value("${user.authorization.cache.max-entries:10000}") int cacheMaxEntries) {
+        return new CachingOAuth2AuthorizationService(
+            new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository),
+            cacheTtl, cacheMaxEntries);
+    }
+
+    @Bean
+    public OAuth2AuthorizationConsentService authorizationConsentService(JdbcTemplate jdbcTemplate,
+                                                                         RegisteredClientRepository registeredClientRepository) {
+        return new JdbcOAuth2AuthorizationConsentService(jdbcTemplate, registeredClientRepository);
+    }
+
+    private void seedClient(JdbcRegisteredClientRepository repository, PasswordEncoder passwordEncoder,
+                            RegisteredClient client) {
+        RegisteredClient existing = repository.findByClientId(client.getClientId());
+        String rawSecret = client.getClientSecret();
+        // Re-encoding on every start would churn the row; keep the stored hash while it still matches
+        String secret = existing != null && existing.getClientSecret() != null
+                && passwordEncoder.matches(rawSecret, existing.getClientSecret())
+            ? existing.getClientSecret()
+            : passwordEncoder.encode(rawSecret);
+        RegisteredClient seeded = RegisteredClient.from(client)
+            .id(existing != null ? existing.getId() : client.getId())
+            .clientIdIssuedAt(existing != null ? existing.getClientIdIssuedAt() : Instant.now())
+            .clientSecret(secret)
             .build();
+        try {
+            repository.save(seeded);
+        } catch (DuplicateKeyException e) {
+            // Another replica inserted it first
+            log.debug("Registered client {} was seeded concurrently", client.getClientId());
+        }
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AuthorizationServerSettings authorizationServerSettings() {
+        return AuthorizationServerSettings.builder()
+            .issuer("http://localhost:8081")
+            .build();
     }
 }
@@ -0,0 +1,66 @@
+package com.kstore.user.controller;
+
+import com.kstore.common.dto.ApiResponse;
+import com.kstore.user.dto.AddressBatchLookup;
+import com.kstore.user.dto.AddressRequest;
+import com.kstore.user.dto.AddressResponse;
+import com.kstore.user.service.AddressService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class AddressController {
+
+    private final AddressService addressService;
+
+    @GetMapping("/{userId}/addresses")
+    public ResponseEntity<ApiResponse<List<AddressResponse>>> getAddresses(@PathVariable Long userId) {
+        return ResponseEntity.ok(ApiResponse.success(addressService.getAddresses(userId)));
+    }
+
+    @PostMapping("/{userId}/addresses")
+    public ResponseEntity<ApiResponse<AddressResponse>> createAddress(@PathVariable Long userId,
+                                                                      @Valid @RequestBody AddressRequest request) {
+        AddressResponse address = addressService.createAddress(userId, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(address, "Address created successfully"));
+    }
+
+    @PutMapping("/{userId}/addresses/{addressId}")
+    public ResponseEntity<ApiResponse<AddressResponse>> updateAddress(@PathVariable Long userId,
+                                                                      @PathVariable Long addressId,
+                                                                      @Valid @RequestBody AddressRequest request) {
+        AddressResponse address = addressService.updateAddress(userId, addressId, request);
+        return ResponseEntity.ok(ApiResponse.success(address, "Address updated successfully"));
+    }
+
+    @DeleteMapping("/{userId}/addresses/{addressId}")
+    public ResponseEntity<ApiResponse<Void>> deleteAddress(@PathVariable Long userId, @PathVariable Long addressId) {
+        addressService.deleteAddress(userId, addressId);
+        return ResponseEntity.ok(ApiResponse.success(null, "Address deleted successfully"));
+    }
+
+    @PutMapping("/{userId}/addresses/{addressId}/default")
+    public ResponseEntity<ApiResponse<AddressResponse>> setDefaultAddress(@PathVariable Long userId,
+                                                                          @PathVariable Long addressId) {
+        AddressResponse address = addressService.setDefaultAddress(userId, addressId);
+        return ResponseEntity.ok(ApiResponse.success(address, "Default address updated"));
+    }
+
+    @GetMapping("/{userId}/addresses/default")
+    public ResponseEntity<ApiResponse<AddressBatchLookup.DefaultAddresses>> getDefaultAddresses(@PathVariable Long userId) {
+        return ResponseEntity.ok(ApiResponse.success(addressService.getDefaultAddresses(userId)));
+    }
+
+    @PostMapping("/addresses/batch")
+    public ResponseEntity<ApiResponse<AddressBatchLookup.Response>> lookup(@RequestBody AddressBatchLookup.Request request) {
+        return ResponseEntity.ok(ApiResponse.success(addressService.lookup(request)));
+    }
+}
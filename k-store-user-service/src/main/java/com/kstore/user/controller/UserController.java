@@ -1,6 +1,8 @@
 package com.kstore.user.controller;
 
 import com.kstore.common.dto.ApiResponse;
+import com.kstore.common.exception.BusinessException;
+import com.kstore.user.dto.AvailabilityResponse;
 import com.kstore.user.dto.UserRegistrationRequest;
 import com.kstore.user.dto.UserLoginRequest;
 import com.kstore.user.dto.UserResponse;
@@ -10,7 +12,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -27,9 +31,10 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<String>> login(@Valid @RequestBody UserLoginRequest request) {
-        String token = userService.login(request);
-        return ResponseEntity.ok(ApiResponse.success(token, "Login successful"));
+    public CompletableFuture<ResponseEntity<ApiResponse<String>>> login(@Valid @RequestBody UserLoginRequest request,
+                                                                        HttpServletRequest httpRequest) {
+        return userService.login(request, httpRequest.getRemoteAddr())
+                .thenApply(token -> ResponseEntity.ok(ApiResponse.success(token, "Login successful")));
     }
 
     @GetMapping("/profile")
@@ -44,6 +49,16 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(userResponse, "Profile updated successfully"));
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        if (username == null && email == null) {
+            throw new BusinessException("Either username or email is required", "INVALID_REQUEST");
+        }
+        return ResponseEntity.ok(ApiResponse.success(userService.checkAvailability(username, email)));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<UserResponse>> getUserById(@PathVariable Long id) {
         UserResponse userResponse = userService.getUserById(id);
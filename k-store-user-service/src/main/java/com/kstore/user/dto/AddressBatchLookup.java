@@ -0,0 +1,56 @@
+package com.kstore.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One round trip for checkout: addresses by id and/or the default addresses of a set of users.
+ */
+public final class AddressBatchLookup {
+
+    private AddressBatchLookup() {
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Request {
+        @Builder.Default
+        private List<Long> addressIds = new ArrayList<>();
+
+        @Builder.Default
+        private List<Long> userIds = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        @Builder.Default
+        private Map<Long, AddressResponse> byId = new HashMap<>();
+
+        @Builder.Default
+        private List<Long> missingIds = new ArrayList<>();
+
+        @Builder.Default
+        private Map<Long, DefaultAddresses> defaultsByUserId = new HashMap<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DefaultAddresses {
+        private AddressResponse shipping;
+        private AddressResponse billing;
+    }
+}
@@ -0,0 +1,40 @@
+package com.kstore.user.dto;
+
+import com.kstore.user.entity.Address;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressRequest {
+
+    @NotNull(message = "Address type is required")
+    private Address.AddressType type;
+
+    @NotBlank(message = "Street address is required")
+    @Size(max = 255, message = "Street address cannot exceed 255 characters")
+    private String streetAddress;
+
+    @NotBlank(message = "City is required")
+    @Size(max = 100, message = "City cannot exceed 100 characters")
+    private String city;
+
+    @Size(max = 100, message = "State cannot exceed 100 characters")
+    private String state;
+
+    @Size(max = 20, message = "Postal code cannot exceed 20 characters")
+    private String postalCode;
+
+    @NotBlank(message = "Country is required")
+    @Size(max = 100, message = "Country cannot exceed 100 characters")
+    private String country;
+
+    private Boolean isDefault;
+}
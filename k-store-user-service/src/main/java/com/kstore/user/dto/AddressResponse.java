@@ -0,0 +1,25 @@
+package com.kstore.user.dto;
+
+import com.kstore.user.entity.Address;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressResponse {
+
+    private Long id;
+    private Long userId;
+    private Address.AddressType type;
+    private String streetAddress;
+    private String city;
+    private String state;
+    private String postalCode;
+    private String country;
+    private Boolean isDefault;
+    private String fullAddress;
+}
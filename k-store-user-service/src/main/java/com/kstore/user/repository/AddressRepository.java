@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,9 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
     @Query("SELECT a FROM Address a WHERE a.user.id = :userId AND a.isDefault = true")
     Optional<Address> findDefaultByUserId(@Param("userId") Long userId);
     
+    @Query("SELECT a FROM Address a WHERE a.user.id IN :userIds AND a.isDefault = true")
+    List<Address> findDefaultsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+    
     @Query("SELECT a FROM Address a WHERE a.user.id = :userId AND a.type = :type AND a.isDefault = true")
     Optional<Address> findDefaultByUserIdAndType(@Param("userId") Long userId, @Param("type") Address.AddressType type);
 }
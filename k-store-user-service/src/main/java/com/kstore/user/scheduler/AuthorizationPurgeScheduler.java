@@ -0,0 +1,32 @@
+package com.kstore.user.scheduler;
+
+import com.kstore.user.security.ExpiredAuthorizationPurger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile({"dev", "prod"})
+@RequiredArgsConstructor
+@Slf4j
+public class AuthorizationPurgeScheduler {
+
+    private final ExpiredAuthorizationPurger expiredAuthorizationPurger;
+
+    /**
+     * Keep oauth2_authorization to live grants only
+     */
+    @Scheduled(fixedDelayString = "${user.authorization.purge.interval-ms:600000}")
+    public void purgeExpiredAuthorizations() {
+        try {
+            int count = expiredAuthorizationPurger.purgeExpired();
+            if (count > 0) {
+                log.info("Purged {} expired OAuth2 authorizations", count);
+            }
+        } catch (Exception e) {
+            log.error("Error purging expired OAuth2 authorizations", e);
+        }
+    }
+}
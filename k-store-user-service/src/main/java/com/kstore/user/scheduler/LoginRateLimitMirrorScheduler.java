@@ -0,0 +1,29 @@
+package com.kstore.user.scheduler;
+
+import com.kstore.user.security.LoginRateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "user.login-rate-limit.mirror.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class LoginRateLimitMirrorScheduler {
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    /**
+     * Share login attempt counts with the other replicas
+     */
+    @Scheduled(fixedDelayString = "${user.login-rate-limit.mirror.sync-interval-ms:1000}")
+    public void syncCounters() {
+        try {
+            loginRateLimiter.syncMirror();
+        } catch (Exception e) {
+            log.error("Error syncing login rate-limit counters", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.kstore.user.scheduler;
+
+import com.kstore.user.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayScheduler {
+
+    private final OutboxService outboxService;
+
+    /**
+     * Relay events committed to the outbox; registration itself never waits on the broker
+     */
+    @Scheduled(fixedDelayString = "${user.outbox.poll-interval-ms:500}")
+    public void relayOutbox() {
+        try {
+            int count = outboxService.relayPending();
+            if (count > 0) {
+                log.debug("Relayed {} outbox events", count);
+            }
+        } catch (Exception e) {
+            log.error("Error relaying outbox events", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user.outbox.purge-interval-ms:3600000}")
+    public void purgeOutbox() {
+        try {
+            int count = outboxService.purgePublished();
+            if (count > 0) {
+                log.info("Purged {} published outbox events", count);
+            }
+        } catch (Exception e) {
+            log.error("Error purging outbox events", e);
+        }
+    }
+}
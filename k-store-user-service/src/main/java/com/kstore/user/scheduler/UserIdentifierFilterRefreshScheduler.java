@@ -0,0 +1,30 @@
+package com.kstore.user.scheduler;
+
+import com.kstore.user.service.impl.UserIdentifierFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserIdentifierFilterRefreshScheduler {
+
+    private final UserIdentifierFilter userIdentifierFilter;
+
+    /**
+     * Pull registrations made on other replicas into this replica's filter
+     */
+    @Scheduled(fixedDelayString = "${user.identifier-filter.refresh-interval-ms:30000}")
+    public void refreshIdentifierFilter() {
+        try {
+            long count = userIdentifierFilter.refresh();
+            if (count > 0) {
+                log.debug("Added {} users to the username/email filter", count);
+            }
+        } catch (Exception e) {
+            log.error("Error refreshing the username/email filter", e);
+        }
+    }
+}
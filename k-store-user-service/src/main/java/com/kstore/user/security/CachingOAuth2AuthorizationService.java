@@ -0,0 +1,132 @@
+package com.kstore.user.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches access-token lookups in front of the JDBC authorization service. Only lookups that resolve to an
+ * access token are cached: codes, states and refresh tokens are single-use or rotate and always go to the
+ * database. Entries live for at most {@code ttl} and never past the token's own expiry. Writes on this
+ * instance evict immediately; other replicas see a revocation once their entry expires.
+ */
+@Slf4j
+public class CachingOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+    private final OAuth2AuthorizationService delegate;
+    private final Duration ttl;
+    private final int maxEntries;
+    // SHA-256 of the access token value -> authorization
+    private final Map<String, CachedAuthorization> byAccessToken = new ConcurrentHashMap<>();
+    private final Map<String, String> accessTokenKeyById = new ConcurrentHashMap<>();
+    // Bumped on every eviction so a lookup that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingOAuth2AuthorizationService(OAuth2AuthorizationService delegate, Duration ttl, int maxEntries) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        delegate.save(authorization);
+        evict(authorization.getId());
+    }
+
+    @Override
+    public void remove(OAuth2Authorization authorization) {
+        delegate.remove(authorization);
+        evict(authorization.getId());
+    }
+
+    @Override
+    public OAuth2Authorization findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+        // Introspection passes no type hint; any other explicit type is never cached
+        if (ttl.isZero() || (tokenType != null && !OAuth2TokenType.ACCESS_TOKEN.equals(tokenType))) {
+            return delegate.findByToken(token, tokenType);
+        }
+
+        String key = sha256(token);
+        CachedAuthorization cached = byAccessToken.get(key);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                return cached.authorization();
+            }
+            byAccessToken.remove(key, cached);
+        }
+
+        long lookupGeneration = generation.get();
+        OAuth2Authorization authorization = delegate.findByToken(token, tokenType);
+        if (authorization != null && generation.get() == lookupGeneration) {
+            cache(key, token, authorization);
+        }
+        return authorization;
+    }
+
+    private void cache(String key, String token, OAuth2Authorization authorization) {
+        OAuth2Authorization.Token<OAuth2AccessToken> accessToken = authorization.getAccessToken();
+        if (accessToken == null || !accessToken.isActive() || !token.equals(accessToken.getToken().getTokenValue())) {
+            return;
+        }
+        Instant expiresAt = Instant.now().plus(ttl);
+        Instant tokenExpiresAt = accessToken.getToken().getExpiresAt();
+        if (tokenExpiresAt != null && tokenExpiresAt.isBefore(expiresAt)) {
+            expiresAt = tokenExpiresAt;
+        }
+
+        if (byAccessToken.size() >= maxEntries) {
+            Instant now = Instant.now();
+            byAccessToken.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+            // Still full of live tokens: drop an arbitrary tenth rather than grow without bound
+            Iterator<CachedAuthorization> entries = byAccessToken.values().iterator();
+            for (int i = maxEntries / 10; i >= 0 && entries.hasNext() && byAccessToken.size() >= maxEntries; i--) {
+                accessTokenKeyById.remove(entries.next().authorization().getId());
+                entries.remove();
+            }
+        }
+        byAccessToken.put(key, new CachedAuthorization(authorization, expiresAt));
+        String previousKey = accessTokenKeyById.put(authorization.getId(), key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            byAccessToken.remove(previousKey);
+        }
+    }
+
+    private void evict(String authorizationId) {
+        generation.incrementAndGet();
+        String key = accessTokenKeyById.remove(authorizationId);
+        if (key != null) {
+            byAccessToken.remove(key);
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedAuthorization(OAuth2Authorization authorization, Instant expiresAt) {
+    }
+}
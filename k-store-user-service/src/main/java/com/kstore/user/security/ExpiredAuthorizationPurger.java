@@ -0,0 +1,51 @@
+package com.kstore.user.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Deletes authorizations whose every issued token or code has expired. Each chunk is its own statement,
+ * so a large backlog never holds row locks for long or bloats a single transaction.
+ */
+@Slf4j
+@Component
+@Profile({"dev", "prod"})
+public class ExpiredAuthorizationPurger {
+
+    // Rows with nothing issued yet (consent in progress) have no expiry and are left alone
+    private static final String DELETE_EXPIRED_CHUNK = "DELETE FROM oauth2_authorization WHERE id IN ("
+            + "SELECT id FROM oauth2_authorization WHERE "
+            + "(authorization_code_expires_at IS NOT NULL OR access_token_expires_at IS NOT NULL "
+            + "OR refresh_token_expires_at IS NOT NULL) "
+            + "AND (authorization_code_expires_at IS NULL OR authorization_code_expires_at < ?) "
+            + "AND (access_token_expires_at IS NULL OR access_token_expires_at < ?) "
+            + "AND (refresh_token_expires_at IS NULL OR refresh_token_expires_at < ?) "
+            + "AND (oidc_id_token_expires_at IS NULL OR oidc_id_token_expires_at < ?) "
+            + "LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+
+    public ExpiredAuthorizationPurger(JdbcTemplate jdbcTemplate,
+                                      @Value("${user.authorization.purge.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public int purgeExpired() {
+        Timestamp cutoff = Timestamp.from(Instant.now());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_EXPIRED_CHUNK, cutoff, cutoff, cutoff, cutoff, chunkSize);
+            total += deleted;
+        } while (deleted == chunkSize);
+        return total;
+    }
+}
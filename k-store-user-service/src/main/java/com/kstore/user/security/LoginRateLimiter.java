@@ -0,0 +1,125 @@
+package com.kstore.user.security;
+
+import com.kstore.common.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Brute-force guard for password logins, consulted before any database or password hashing work.
+ * Limits sign-in attempts per client IP and failed attempts per username over sliding windows.
+ * Check-then-count is not atomic, so a burst of concurrent requests may overshoot a limit slightly.
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final int ipLimit;
+    private final int usernameLimit;
+    private final SlidingWindowCounter attemptsByIp;
+    private final SlidingWindowCounter failuresByUsername;
+    private final StringRedisTemplate redisTemplate;
+    private final String mirrorKeyPrefix;
+    private final Counter ipRejections;
+    private final Counter usernameRejections;
+
+    public LoginRateLimiter(@Value("${user.login-rate-limit.enabled:true}") boolean enabled,
+                            @Value("${user.login-rate-limit.per-ip.limit:30}") int ipLimit,
+                            @Value("${user.login-rate-limit.per-ip.window:1m}") Duration ipWindow,
+                            @Value("${user.login-rate-limit.per-username.limit:10}") int usernameLimit,
+                            @Value("${user.login-rate-limit.per-username.window:15m}") Duration usernameWindow,
+                            @Value("${user.login-rate-limit.slots:6}") int slots,
+                            @Value("${user.login-rate-limit.max-entries:100000}") int maxEntries,
+                            @Value("${user.login-rate-limit.mirror.enabled:false}") boolean mirrorEnabled,
+                            @Value("${user.login-rate-limit.mirror.key-prefix:login-rl}") String mirrorKeyPrefix,
+                            ObjectProvider<StringRedisTemplate> redisTemplate,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ipLimit = ipLimit;
+        this.usernameLimit = usernameLimit;
+        this.redisTemplate = mirrorEnabled ? redisTemplate.getIfAvailable() : null;
+        if (mirrorEnabled && this.redisTemplate == null) {
+            log.warn("Login rate-limit mirror is enabled but no Redis connection is configured; limiting locally");
+        }
+        boolean mirrored = this.redisTemplate != null;
+        this.attemptsByIp = new SlidingWindowCounter("ip", ipWindow.toMillis(), slots, maxEntries, mirrored);
+        this.failuresByUsername = new SlidingWindowCounter("username", usernameWindow.toMillis(), slots, maxEntries, mirrored);
+        this.mirrorKeyPrefix = mirrorKeyPrefix;
+        this.ipRejections = Counter.builder("user.login.rate_limited").tag("scope", "ip").register(meterRegistry);
+        this.usernameRejections = Counter.builder("user.login.rate_limited").tag("scope", "username").register(meterRegistry);
+        Gauge.builder("user.login.rate_limit.keys", attemptsByIp, SlidingWindowCounter::size)
+                .tag("scope", "ip").register(meterRegistry);
+        Gauge.builder("user.login.rate_limit.keys", failuresByUsername, SlidingWindowCounter::size)
+                .tag("scope", "username").register(meterRegistry);
+    }
+
+    /**
+     * Counts a sign-in attempt from {@code clientIp}, or throws a RateLimitExceededException (429) when the
+     * IP or the username is over its limit. Rejected attempts are not counted.
+     */
+    public void checkAllowed(String clientIp, String username) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (username != null) {
+            String usernameKey = usernameKey(username);
+            if (failuresByUsername.count(usernameKey, now) >= usernameLimit) {
+                usernameRejections.increment();
+                log.warn("Too many failed sign-ins for username {}, rejecting attempt from {}", username, clientIp);
+                throw rejected(failuresByUsername.millisUntilDecay(usernameKey, now));
+            }
+        }
+        if (clientIp != null) {
+            if (attemptsByIp.count(clientIp, now) >= ipLimit) {
+                ipRejections.increment();
+                log.warn("Too many sign-in attempts from {}, rejecting", clientIp);
+                throw rejected(attemptsByIp.millisUntilDecay(clientIp, now));
+            }
+            attemptsByIp.increment(clientIp, now);
+        }
+    }
+
+    /**
+     * Records a failed sign-in, including one for an unknown username.
+     */
+    public void recordFailure(String username) {
+        if (enabled && username != null) {
+            failuresByUsername.increment(usernameKey(username), System.currentTimeMillis());
+        }
+    }
+
+    public boolean isMirrored() {
+        return enabled && redisTemplate != null;
+    }
+
+    /**
+     * Exchanges counts with the other replicas through Redis; called periodically when the mirror is on.
+     */
+    public void syncMirror() {
+        if (!isMirrored()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        attemptsByIp.sync(redisTemplate, mirrorKeyPrefix, now);
+        failuresByUsername.sync(redisTemplate, mirrorKeyPrefix, now);
+    }
+
+    private static String usernameKey(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static RateLimitExceededException rejected(long retryAfterMillis) {
+        return new RateLimitExceededException("Too many sign-in attempts, please retry later",
+                "TOO_MANY_LOGIN_ATTEMPTS", Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+}
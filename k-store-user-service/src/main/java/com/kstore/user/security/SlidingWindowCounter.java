@@ -0,0 +1,237 @@
+package com.kstore.user.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-key event counts over a sliding window, split into {@code slots} sub-windows. Each slot packs its
+ * sub-window index and count into one long that is updated by CAS, so counting never takes a lock.
+ * The window slides in steps of {@code window / slots}.
+ *
+ * <p>When mirrored, {@link #sync} pushes local increments to Redis and pulls back the cluster-wide count for
+ * every key touched since the previous sync; that count is used alongside the local one for one sub-window.
+ * A replica's view of the other replicas therefore trails by up to one sync.
+ */
+@Slf4j
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final String name;
+    private final int slots;
+    private final long slotMillis;
+    private final int maxEntries;
+    private final boolean mirrored;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Queue<Window> dirty = new ConcurrentLinkedQueue<>();
+
+    public SlidingWindowCounter(String name, long windowMillis, int slots, int maxEntries, boolean mirrored) {
+        this.name = name;
+        this.slots = slots;
+        this.slotMillis = Math.max(1, windowMillis / slots);
+        this.maxEntries = maxEntries;
+        this.mirrored = mirrored;
+    }
+
+    /**
+     * Events for {@code key} in the current window; with a mirror, the larger of the local and cluster counts.
+     */
+    public long count(String key, long nowMillis) {
+        Window window = windows.get(key);
+        if (window == null) {
+            if (mirrored) {
+                // Track the key so the next sync fetches what other replicas have seen
+                markDirty(window(key));
+            }
+            return 0;
+        }
+        if (mirrored) {
+            markDirty(window);
+        }
+        long local = window.localCount(nowMillis / slotMillis);
+        if (mirrored && nowMillis - window.remoteSyncedAt < slotMillis) {
+            return Math.max(local, window.remoteCount + window.pending.get());
+        }
+        return local;
+    }
+
+    public void increment(String key, long nowMillis) {
+        Window window = window(key);
+        long bucket = nowMillis / slotMillis;
+        int index = (int) (bucket % slots);
+        long current;
+        long next;
+        do {
+            current = window.slots.get(index);
+            if (current >>> COUNT_BITS == bucket) {
+                next = (current & COUNT_MASK) == COUNT_MASK ? current : current + 1;
+            } else {
+                next = (bucket << COUNT_BITS) | 1;
+            }
+        } while (!window.slots.compareAndSet(index, current, next));
+
+        if (mirrored) {
+            window.pending.incrementAndGet();
+            markDirty(window);
+        }
+    }
+
+    /**
+     * Milliseconds until the oldest sub-window still counted for {@code key} slides out.
+     */
+    public long millisUntilDecay(String key, long nowMillis) {
+        Window window = windows.get(key);
+        long bucket = nowMillis / slotMillis;
+        long oldest = bucket;
+        if (window != null) {
+            for (int i = 0; i < slots; i++) {
+                long slot = window.slots.get(i);
+                long slotBucket = slot >>> COUNT_BITS;
+                if ((slot & COUNT_MASK) > 0 && slotBucket > bucket - slots && slotBucket < oldest) {
+                    oldest = slotBucket;
+                }
+            }
+        }
+        return Math.max(1, (oldest + slots) * slotMillis - nowMillis);
+    }
+
+    /**
+     * Flushes local increments of recently touched keys to Redis and refreshes their cluster-wide counts in
+     * one pipelined round trip. On failure the increments are kept for the next attempt.
+     */
+    public void sync(StringRedisTemplate redisTemplate, String keyPrefix, long nowMillis) {
+        List<Window> batch = new ArrayList<>();
+        for (Window window = dirty.poll(); window != null; window = dirty.poll()) {
+            window.dirty.set(false);
+            batch.add(window);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long bucket = nowMillis / slotMillis;
+        long ttlSeconds = Math.max(1, slotMillis * (slots + 1) / 1000);
+        long[] deltas = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            deltas[i] = batch.get(i).pending.getAndSet(0);
+        }
+
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    sendSync(connection, keyPrefix + ":" + name + ":" + batch.get(i).key + ":", bucket, deltas[i], ttlSeconds);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).pending.addAndGet(deltas[i]);
+            }
+            log.warn("Could not mirror {} login rate-limit counters to Redis: {}", name, e.toString());
+            return;
+        }
+
+        long syncedAt = System.currentTimeMillis();
+        for (int i = 0; i < batch.size(); i++) {
+            // incrBy, expire, mGet per key
+            Object counts = results.get(i * 3 + 2);
+            long total = 0;
+            if (counts instanceof List<?> values) {
+                for (Object value : values) {
+                    if (value != null) {
+                        total += Long.parseLong(value.toString());
+                    }
+                }
+            }
+            Window window = batch.get(i);
+            window.remoteCount = total;
+            window.remoteSyncedAt = syncedAt;
+        }
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private void sendSync(RedisConnection connection, String keyBase, long bucket, long delta, long ttlSeconds) {
+        byte[] current = (keyBase + bucket).getBytes(StandardCharsets.UTF_8);
+        connection.stringCommands().incrBy(current, delta);
+        connection.keyCommands().expire(current, ttlSeconds);
+        byte[][] keys = new byte[slots][];
+        for (int i = 0; i < slots; i++) {
+            keys[i] = (keyBase + (bucket - i)).getBytes(StandardCharsets.UTF_8);
+        }
+        connection.stringCommands().mGet(keys);
+    }
+
+    private Window window(String key) {
+        Window window = windows.get(key);
+        if (window != null) {
+            return window;
+        }
+        if (windows.size() >= maxEntries) {
+            evict();
+        }
+        return windows.computeIfAbsent(key, k -> new Window(k, slots));
+    }
+
+    private void evict() {
+        long bucket = System.currentTimeMillis() / slotMillis;
+        windows.values().removeIf(window -> window.localCount(bucket) == 0 && window.pending.get() == 0);
+        // Still full: drop an arbitrary tenth rather than grow without bound
+        Iterator<Window> entries = windows.values().iterator();
+        for (int i = maxEntries / 10; i >= 0 && entries.hasNext() && windows.size() >= maxEntries; i--) {
+            entries.next();
+            entries.remove();
+        }
+    }
+
+    private void markDirty(Window window) {
+        if (window.dirty.compareAndSet(false, true)) {
+            dirty.add(window);
+        }
+    }
+
+    private static final class Window {
+
+        private final String key;
+        private final AtomicLongArray slots;
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile long remoteCount;
+        private volatile long remoteSyncedAt;
+
+        private Window(String key, int slots) {
+            this.key = key;
+            this.slots = new AtomicLongArray(slots);
+        }
+
+        private long localCount(long bucket) {
+            int length = slots.length();
+            long total = 0;
+            for (int i = 0; i < length; i++) {
+                long slot = slots.get(i);
+                if (slot >>> COUNT_BITS > bucket - length) {
+                    total += slot & COUNT_MASK;
+                }
+            }
+            return total;
+        }
+    }
+}
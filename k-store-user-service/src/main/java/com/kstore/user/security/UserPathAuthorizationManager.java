@@ -0,0 +1,55 @@
+package com.kstore.user.security;
+
+import com.kstore.user.service.impl.UserIdentityCache;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Grants {@code /api/users/{userId}/...} to that user's own session, or to an admin. Bearer tokens
+ * carry a client, not a user, so they only get through with the admin role.
+ */
+public class UserPathAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    private final UserIdentityCache userIdentityCache;
+
+    public UserPathAuthorizationManager(UserIdentityCache userIdentityCache) {
+        this.userIdentityCache = userIdentityCache;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication caller = authentication.get();
+        if (caller == null || !caller.isAuthenticated() || caller instanceof AnonymousAuthenticationToken) {
+            return new AuthorizationDecision(false);
+        }
+        for (GrantedAuthority authority : caller.getAuthorities()) {
+            if (ADMIN_ROLE.equals(authority.getAuthority())) {
+                return new AuthorizationDecision(true);
+            }
+        }
+        if (!(caller.getPrincipal() instanceof UserDetails user)) {
+            return new AuthorizationDecision(false);
+        }
+        Long userId = parseId(context.getVariables().get("userId"));
+        return new AuthorizationDecision(userId != null && userIdentityCache.getByUsername(user.getUsername())
+                .map(identity -> userId.equals(identity.getId()))
+                .orElse(false));
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return value == null ? null : Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
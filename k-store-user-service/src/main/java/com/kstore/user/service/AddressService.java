@@ -0,0 +1,27 @@
+package com.kstore.user.service;
+
+import com.kstore.user.dto.AddressBatchLookup;
+import com.kstore.user.dto.AddressRequest;
+import com.kstore.user.dto.AddressResponse;
+
+import java.util.List;
+
+public interface AddressService {
+
+    List<AddressResponse> getAddresses(Long userId);
+
+    AddressResponse createAddress(Long userId, AddressRequest request);
+
+    AddressResponse updateAddress(Long userId, Long addressId, AddressRequest request);
+
+    void deleteAddress(Long userId, Long addressId);
+
+    AddressResponse setDefaultAddress(Long userId, Long addressId);
+
+    /**
+     * Served from a per-user cache that is evicted whenever one of the user's addresses changes.
+     */
+    AddressBatchLookup.DefaultAddresses getDefaultAddresses(Long userId);
+
+    AddressBatchLookup.Response lookup(AddressBatchLookup.Request request);
+}
@@ -2,6 +2,8 @@ package com.kstore.user.service;
 
 import com.kstore.user.entity.User;
 import com.kstore.user.repository.UserRepository;
+import com.kstore.user.service.impl.UserIdentityCache;
+import com.kstore.user.service.impl.UserIdentityCache.UserIdentity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,20 +18,28 @@ import org.springframework.transaction.annotation.Transactional;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.debug("Loading user by username: {}", username);
         
-        User user = userRepository.findByUsernameWithRoles(username)
+        UserIdentity user = userIdentityCache.getByUsername(username)
             .orElseThrow(() -> {
                 log.warn("User not found with username: {}", username);
                 return new UsernameNotFoundException("User not found with username: " + username);
             });
         
         log.debug("User found: {} with roles: {}", user.getUsername(), user.getRoles().size());
-        return user;
+        // A plain security User is what the JDBC authorization service can (de)serialise as the principal
+        return org.springframework.security.core.userdetails.User.withUsername(user.getUsername())
+            .password(user.getPassword())
+            .authorities(user.getAuthorities())
+            .disabled(!user.isEnabled())
+            .accountExpired(!user.isAccountNonExpired())
+            .accountLocked(!user.isAccountNonLocked())
+            .credentialsExpired(!user.isCredentialsNonExpired())
+            .build();
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,16 @@
+package com.kstore.user.service;
+
+public interface OutboxService {
+
+    /**
+     * Stores the event in the outbox as part of the caller's transaction; the relay publishes it after commit.
+     */
+    void enqueue(String topic, String aggregateId, String eventType, String eventId, Object event);
+
+    /**
+     * Publishes unpublished events in batches until the outbox is drained or a batch makes no progress.
+     */
+    int relayPending();
+
+    int purgePublished();
+}
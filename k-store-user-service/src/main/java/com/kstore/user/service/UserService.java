@@ -1,18 +1,29 @@
 package com.kstore.user.service;
 
+import com.kstore.user.dto.AvailabilityResponse;
 import com.kstore.user.dto.UserRegistrationRequest;
 import com.kstore.user.dto.UserLoginRequest;
 import com.kstore.user.dto.UserResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface UserService {
     
     UserResponse register(UserRegistrationRequest request);
     
-    String login(UserLoginRequest request);
+    /**
+     * Completes with the token once the password has been checked on the hashing pool.
+     */
+    CompletableFuture<String> login(UserLoginRequest request, String clientIp);
     
     UserResponse getCurrentUserProfile();
     
     UserResponse updateProfile(UserRegistrationRequest request);
     
     UserResponse getUserById(Long id);
+    
+    /**
+     * Answers definite negatives from the in-memory filter and confirms possible matches with the database.
+     */
+    AvailabilityResponse checkAvailability(String username, String email);
 }
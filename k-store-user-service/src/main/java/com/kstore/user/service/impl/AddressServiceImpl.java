@@ -0,0 +1,303 @@
+package com.kstore.user.service.impl;
+
+import com.kstore.common.exception.BusinessException;
+import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.user.dto.AddressBatchLookup;
+import com.kstore.user.dto.AddressRequest;
+import com.kstore.user.dto.AddressResponse;
+import com.kstore.user.entity.Address;
+import com.kstore.user.entity.User;
+import com.kstore.user.repository.AddressRepository;
+import com.kstore.user.repository.UserRepository;
+import com.kstore.user.service.AddressService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@Transactional
+public class AddressServiceImpl implements AddressService {
+
+    private final AddressRepository addressRepository;
+    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final int maxBatchSize;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Long, CachedDefaults> defaultsByUserId = new ConcurrentHashMap<>();
+    // Bumped on every eviction so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public AddressServiceImpl(AddressRepository addressRepository,
+                              UserRepository userRepository,
+                              UserIdentityCache userIdentityCache,
+                              @Value("${user.addresses.max-batch-size:500}") int maxBatchSize,
+                              @Value("${user.addresses.default-cache.ttl:10m}") Duration ttl,
+                              @Value("${user.addresses.default-cache.max-entries:50000}") int maxEntries) {
+        this.addressRepository = addressRepository;
+        this.userRepository = userRepository;
+        this.userIdentityCache = userIdentityCache;
+        this.maxBatchSize = maxBatchSize;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AddressResponse> getAddresses(Long userId) {
+        requireUser(userId);
+        return addressRepository.findByUserId(userId).stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    @Override
+    public AddressResponse createAddress(Long userId, AddressRequest request) {
+        requireUser(userId);
+        List<Address> existing = addressRepository.findByUserId(userId);
+
+        Address address = new Address();
+        address.setUser(userRepository.getReferenceById(userId));
+        applyRequest(address, request);
+        // A user's first address becomes their default
+        address.setIsDefault(existing.isEmpty() || Boolean.TRUE.equals(request.getIsDefault()));
+        if (address.getIsDefault()) {
+            clearOverlappingDefaults(existing, address);
+        }
+
+        Address saved = addressRepository.save(address);
+        evictAfterCommit(userId);
+        log.info("Address {} created for user {}", saved.getId(), userId);
+        return mapToResponse(saved, userId);
+    }
+
+    @Override
+    public AddressResponse updateAddress(Long userId, Long addressId, AddressRequest request) {
+        Address address = findOwned(userId, addressId);
+        applyRequest(address, request);
+        if (Boolean.TRUE.equals(request.getIsDefault())) {
+            address.setIsDefault(true);
+        } else if (Boolean.FALSE.equals(request.getIsDefault())) {
+            address.setIsDefault(false);
+        }
+        if (Boolean.TRUE.equals(address.getIsDefault())) {
+            clearOverlappingDefaults(addressRepository.findByUserId(userId), address);
+        }
+
+        Address saved = addressRepository.save(address);
+        evictAfterCommit(userId);
+        return mapToResponse(saved, userId);
+    }
+
+    @Override
+    public void deleteAddress(Long userId, Long addressId) {
+        Address address = findOwned(userId, addressId);
+        addressRepository.delete(address);
+        evictAfterCommit(userId);
+        log.info("Address {} deleted for user {}", addressId, userId);
+    }
+
+    @Override
+    public AddressResponse setDefaultAddress(Long userId, Long addressId) {
+        Address address = findOwned(userId, addressId);
+        address.setIsDefault(true);
+        clearOverlappingDefaults(addressRepository.findByUserId(userId), address);
+
+        Address saved = addressRepository.save(address);
+        evictAfterCommit(userId);
+        return mapToResponse(saved, userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AddressBatchLookup.DefaultAddresses getDefaultAddresses(Long userId) {
+        CachedDefaults cached = defaultsByUserId.get(userId);
+        if (cached != null && !cached.isStale(ttlNanos)) {
+            return cached.defaults();
+        }
+        requireUser(userId);
+        return loadDefaults(List.of(userId)).get(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AddressBatchLookup.Response lookup(AddressBatchLookup.Request request) {
+        Set<Long> addressIds = distinct(request.getAddressIds());
+        Set<Long> userIds = distinct(request.getUserIds());
+        if (addressIds.size() + userIds.size() > maxBatchSize) {
+            throw new BusinessException("Batch lookup is limited to " + maxBatchSize + " ids", "BATCH_TOO_LARGE");
+        }
+
+        AddressBatchLookup.Response response = new AddressBatchLookup.Response();
+        if (!addressIds.isEmpty()) {
+            for (Address address : addressRepository.findAllById(addressIds)) {
+                response.getById().put(address.getId(), mapToResponse(address));
+            }
+            for (Long id : addressIds) {
+                if (!response.getById().containsKey(id)) {
+                    response.getMissingIds().add(id);
+                }
+            }
+        }
+
+        List<Long> uncached = new ArrayList<>();
+        for (Long userId : userIds) {
+            CachedDefaults cached = defaultsByUserId.get(userId);
+            if (cached != null && !cached.isStale(ttlNanos)) {
+                response.getDefaultsByUserId().put(userId, cached.defaults());
+            } else {
+                uncached.add(userId);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            response.getDefaultsByUserId().putAll(loadDefaults(uncached));
+        }
+        return response;
+    }
+
+    private Map<Long, AddressBatchLookup.DefaultAddresses> loadDefaults(Collection<Long> userIds) {
+        long loadGeneration = generation.get();
+        Map<Long, AddressBatchLookup.DefaultAddresses> loaded = new HashMap<>();
+        for (Long userId : userIds) {
+            loaded.put(userId, new AddressBatchLookup.DefaultAddresses());
+        }
+        for (Address address : addressRepository.findDefaultsByUserIdIn(userIds)) {
+            AddressBatchLookup.DefaultAddresses defaults = loaded.get(address.getUser().getId());
+            AddressResponse response = mapToResponse(address);
+            // An exact type match wins over a BOTH address
+            if (covers(address.getType(), Address.AddressType.SHIPPING)
+                    && (defaults.getShipping() == null || address.getType() == Address.AddressType.SHIPPING)) {
+                defaults.setShipping(response);
+            }
+            if (covers(address.getType(), Address.AddressType.BILLING)
+                    && (defaults.getBilling() == null || address.getType() == Address.AddressType.BILLING)) {
+                defaults.setBilling(response);
+            }
+        }
+        if (generation.get() == loadGeneration) {
+            loaded.forEach(this::putDefaults);
+        }
+        return loaded;
+    }
+
+    private void putDefaults(Long userId, AddressBatchLookup.DefaultAddresses defaults) {
+        if (defaultsByUserId.size() >= maxEntries) {
+            defaultsByUserId.values().removeIf(cached -> cached.isStale(ttlNanos));
+            // Still full: drop an arbitrary tenth rather than grow without bound
+            Iterator<CachedDefaults> entries = defaultsByUserId.values().iterator();
+            for (int i = maxEntries / 10; i >= 0 && entries.hasNext() && defaultsByUserId.size() >= maxEntries; i--) {
+                entries.next();
+                entries.remove();
+            }
+        }
+        defaultsByUserId.put(userId, new CachedDefaults(defaults, System.nanoTime()));
+    }
+
+    private void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private void evict(Long userId) {
+        generation.incrementAndGet();
+        defaultsByUserId.remove(userId);
+    }
+
+    private void clearOverlappingDefaults(List<Address> addresses, Address newDefault) {
+        for (Address other : addresses) {
+            if (!Objects.equals(other.getId(), newDefault.getId())
+                    && Boolean.TRUE.equals(other.getIsDefault())
+                    && overlaps(other.getType(), newDefault.getType())) {
+                other.setIsDefault(false);
+            }
+        }
+    }
+
+    private static boolean overlaps(Address.AddressType a, Address.AddressType b) {
+        return a == b || a == Address.AddressType.BOTH || b == Address.AddressType.BOTH;
+    }
+
+    private static boolean covers(Address.AddressType type, Address.AddressType wanted) {
+        return type == wanted || type == Address.AddressType.BOTH;
+    }
+
+    private Address findOwned(Long userId, Long addressId) {
+        return addressRepository.findById(addressId)
+                .filter(address -> address.getUser().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Address", "id", addressId));
+    }
+
+    private void requireUser(Long userId) {
+        if (userIdentityCache.getById(userId).isEmpty()) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+    }
+
+    private static Set<Long> distinct(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(distinct::add);
+        }
+        return distinct;
+    }
+
+    private static void applyRequest(Address address, AddressRequest request) {
+        address.setType(request.getType());
+        address.setStreetAddress(request.getStreetAddress());
+        address.setCity(request.getCity());
+        address.setState(request.getState());
+        address.setPostalCode(request.getPostalCode());
+        address.setCountry(request.getCountry());
+    }
+
+    private AddressResponse mapToResponse(Address address) {
+        return mapToResponse(address, address.getUser().getId());
+    }
+
+    private AddressResponse mapToResponse(Address address, Long userId) {
+        return AddressResponse.builder()
+                .id(address.getId())
+                .userId(userId)
+                .type(address.getType())
+                .streetAddress(address.getStreetAddress())
+                .city(address.getCity())
+                .state(address.getState())
+                .postalCode(address.getPostalCode())
+                .country(address.getCountry())
+                .isDefault(address.getIsDefault())
+                .fullAddress(address.getFullAddress())
+                .build();
+    }
+
+    private record CachedDefaults(AddressBatchLookup.DefaultAddresses defaults, long loadedAtNanos) {
+
+        boolean isStale(long ttlNanos) {
+            return System.nanoTime() - loadedAtNanos >= ttlNanos;
+        }
+    }
+}
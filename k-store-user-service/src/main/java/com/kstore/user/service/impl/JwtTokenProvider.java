@@ -2,6 +2,8 @@ package com.kstore.user.service.impl;
 
 import com.kstore.user.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +11,18 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -19,11 +32,19 @@ public class JwtTokenProvider {
 
     private final SecretKey secretKey;
     private final long jwtExpiration;
+    // Immutable and thread-safe once built
+    private final JwtParser jwtParser;
+    private final int claimsCacheMaxEntries;
+    // SHA-256 of the token -> claims that have already passed signature verification
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
 
     public JwtTokenProvider(@Value("${jwt.secret}") String secret,
-                          @Value("${jwt.expiration}") long jwtExpiration) {
+                          @Value("${jwt.expiration}") long jwtExpiration,
+                          @Value("${jwt.claims-cache.max-entries:10000}") int claimsCacheMaxEntries) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
         this.jwtExpiration = jwtExpiration;
+        this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
+        this.claimsCacheMaxEntries = claimsCacheMaxEntries;
     }
 
     public String generateToken(User user) {
@@ -45,6 +66,19 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns everything callers need from it, or empty if the token is
+     * malformed, wrongly signed or expired.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        try {
+            return Optional.of(verifyOrThrow(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token rejected: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -59,11 +93,7 @@ public class JwtTokenProvider {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verifyOrThrow(token).getClaims();
     }
 
     public Boolean isTokenExpired(String token) {
@@ -72,7 +102,112 @@ public class JwtTokenProvider {
     }
 
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = getUsernameFromToken(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        return verify(token)
+                .map(verified -> verified.getUsername().equals(username))
+                .orElse(false);
+    }
+
+    private VerifiedToken verifyOrThrow(String token) {
+        String key = sha256(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            // Fall through so the parser reports the expiry
+            verifiedTokens.remove(key);
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        VerifiedToken verified = new VerifiedToken(claims);
+        if (claims.getExpiration() != null) {
+            // Tokens without an expiry are never cached
+            cache(key, verified);
+        }
+        return verified;
+    }
+
+    private void cache(String key, VerifiedToken verified) {
+        if (verifiedTokens.size() >= claimsCacheMaxEntries) {
+            verifiedTokens.values().removeIf(VerifiedToken::isExpired);
+            // Still nearly full of live tokens: drop an arbitrary tenth so the next few inserts don't rescan
+            if (verifiedTokens.size() > claimsCacheMaxEntries * 9 / 10) {
+                Iterator<String> keys = verifiedTokens.keySet().iterator();
+                for (int i = Math.max(1, claimsCacheMaxEntries / 10); i > 0 && keys.hasNext(); i--) {
+                    keys.next();
+                    keys.remove();
+                }
+            }
+        }
+        verifiedTokens.put(key, verified);
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Claims of a token whose signature has been checked.
+     */
+    public static final class VerifiedToken {
+
+        private final Claims claims;
+        private final Long userId;
+        private final Set<String> roles;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(Claims claims) {
+            this.claims = claims;
+            Object userIdClaim = claims.get("userId");
+            this.userId = userIdClaim instanceof Number number ? number.longValue() : null;
+            this.roles = parseRoles(claims.get("roles", String.class));
+            this.expiresAtMillis = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        }
+
+        private static Set<String> parseRoles(String rolesClaim) {
+            if (rolesClaim == null || rolesClaim.isBlank()) {
+                return Collections.emptySet();
+            }
+            Set<String> roles = new LinkedHashSet<>();
+            for (String role : rolesClaim.split(",")) {
+                if (!role.isBlank()) {
+                    roles.add(role.trim());
+                }
+            }
+            return Collections.unmodifiableSet(roles);
+        }
+
+        public String getUsername() {
+            return claims.getSubject();
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getEmail() {
+            return claims.get("email", String.class);
+        }
+
+        public Set<String> getRoles() {
+            return roles;
+        }
+
+        public Date getExpiration() {
+            return claims.getExpiration();
+        }
+
+        public Claims getClaims() {
+            return claims;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
     }
 }
@@ -0,0 +1,155 @@
+package com.kstore.user.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kstore.user.entity.OutboxEvent;
+import com.kstore.user.repository.OutboxEventRepository;
+import com.kstore.user.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    public static final String EVENT_TYPE_HEADER = "eventType";
+    public static final String EVENT_ID_HEADER = "eventId";
+
+    private final OutboxEventRepository outboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration retention;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxRepository,
+                             KafkaTemplate<String, String> kafkaTemplate,
+                             ObjectMapper objectMapper,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${user.outbox.batch-size:200}") int batchSize,
+                             @Value("${user.outbox.send-timeout:10s}") Duration sendTimeout,
+                             @Value("${user.outbox.retention:7d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String aggregateId, String eventType, String eventId, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise " + eventType + " event", e);
+        }
+        outboxRepository.save(OutboxEvent.builder()
+                .eventId(eventId)
+                .eventType(eventType)
+                .topic(topic)
+                .aggregateId(aggregateId)
+                .payload(payload)
+                .build());
+    }
+
+    @Override
+    public int relayPending() {
+        int total = 0;
+        while (true) {
+            BatchResult batch = transactionTemplate.execute(status -> relayBatch());
+            total += batch.published();
+            // A short batch means the outbox is drained; a batch with no successes means the broker is down
+            if (batch.claimed() < batchSize || batch.published() == 0) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Sends one locked batch and waits for the acks in a single pass, so the producer can pack the
+     * records together.
+     */
+    private BatchResult relayBatch() {
+        List<OutboxEvent> events = outboxRepository.lockUnpublished(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(send(event));
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        LocalDateTime now = LocalDateTime.now();
+        int published = 0;
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                event.setPublishedAt(now);
+                published++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recordFailure(event, e);
+            } catch (ExecutionException | TimeoutException e) {
+                recordFailure(event, e instanceof ExecutionException ? e.getCause() : e);
+            }
+        }
+        if (published < events.size()) {
+            log.warn("Published {} of {} outbox events; the rest will be retried", published, events.size());
+        }
+        return new BatchResult(events.size(), published);
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxEvent event) {
+        ProducerRecord<String, String> record =
+                new ProducerRecord<>(event.getTopic(), event.getAggregateId(), event.getPayload());
+        record.headers().add(EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(EVENT_ID_HEADER, event.getEventId().getBytes(StandardCharsets.UTF_8));
+        try {
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            // Metadata timeouts surface synchronously
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Throwable cause) {
+        event.setAttempts(event.getAttempts() + 1);
+        String message = String.valueOf(cause);
+        event.setLastError(message.length() > 255 ? message.substring(0, 255) : message);
+    }
+
+    @Override
+    @Transactional
+    public int purgePublished() {
+        return outboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private record BatchResult(int claimed, int published) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.kstore.user.service.impl;
+
+import com.kstore.common.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on the bounded passwordHashingExecutor rather than the request thread.
+ * When the queue is full, callers get a RateLimitExceededException (429) straight away.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+    private final Timer registerEncodeTimer;
+    private final Timer upgradeEncodeTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Qualifier("passwordHashingExecutor") ThreadPoolExecutor executor,
+                          MeterRegistry meterRegistry,
+                          @Value("${user.password.retry-after:1s}") Duration retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.matchTimer = Timer.builder("user.password.verify").tag("result", "match").register(meterRegistry);
+        this.mismatchTimer = Timer.builder("user.password.verify").tag("result", "mismatch").register(meterRegistry);
+        this.registerEncodeTimer = Timer.builder("user.password.encode").tag("reason", "register").register(meterRegistry);
+        this.upgradeEncodeTimer = Timer.builder("user.password.encode").tag("reason", "upgrade").register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("user.password.queue.wait").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("user.password.rejected").register(meterRegistry);
+        Gauge.builder("user.password.queue.depth", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+    }
+
+    /**
+     * Checks the password off the request thread. If it matches and the stored hash is weaker than the
+     * current encoding, the result carries a new hash for the caller to store.
+     */
+    public CompletableFuture<Verification> verify(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            long started = System.nanoTime();
+            boolean matched = passwordEncoder.matches(rawPassword, encodedPassword);
+            (matched ? matchTimer : mismatchTimer).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (!matched || !passwordEncoder.upgradeEncoding(encodedPassword)) {
+                return new Verification(matched, null);
+            }
+            return new Verification(true, upgradeEncodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+        });
+    }
+
+    /**
+     * Hashes a new password on the hashing pool and waits for the result.
+     */
+    public String encode(String rawPassword) {
+        try {
+            return submit(() -> registerEncodeTimer.record(() -> passwordEncoder.encode(rawPassword))).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing queue is full ({} waiting), rejecting request", executor.getQueue().size());
+            throw new RateLimitExceededException("Too many sign-in requests, please retry shortly",
+                    "TOO_MANY_REQUESTS", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Outcome of a password check; {@code upgradedHash} is set when the stored hash should be replaced.
+     */
+    public record Verification(boolean matched, String upgradedHash) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.kstore.user.service.impl;
+
+import com.kstore.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over the usernames and emails in the users table. Each replica keeps its own copy:
+ * it is built at startup, takes this replica's writes immediately and picks up other replicas'
+ * registrations on {@link #refresh()}. A negative answer can therefore be up to one refresh interval
+ * stale; it skips the exists query on writes, where the unique constraints have the final say, and
+ * answers availability checks. Until the startup rebuild finishes, every lookup answers "maybe".
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserIdentifierFilter {
+
+    private final UserRepository userRepository;
+
+    @Value("${user.identifier-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user.identifier-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${user.identifier-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+    private volatile boolean ready;
+    private volatile long watermark;
+    private volatile long previousWatermark;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Username/email filter is disabled");
+            return;
+        }
+
+        ready = false;
+        // Registrations that land while streaming are added to these same filters, so none are lost
+        usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+        emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+
+        long started = System.currentTimeMillis();
+        watermark = 0;
+        long count = load(0);
+        previousWatermark = watermark;
+        ready = true;
+        log.info("Username/email filter built from {} users in {} ms ({} bits each)",
+                count, System.currentTimeMillis() - started, usernames.bitSize());
+    }
+
+    /**
+     * Adds users registered since the last refresh, including those written by other replicas. Each pass
+     * re-reads from the watermark of the pass before, so a registration whose id was taken before a
+     * refresh but committed after it is still seen on the next one. Email changes made on other replicas
+     * are not picked up; the unique constraint catches those.
+     */
+    @Transactional(readOnly = true)
+    public long refresh() {
+        if (!ready) {
+            return 0;
+        }
+        long from = previousWatermark;
+        previousWatermark = watermark;
+        return load(from);
+    }
+
+    // Adds users with an id above afterId and raises the watermark to the highest id seen
+    private long load(long afterId) {
+        AtomicLong count = new AtomicLong();
+        try (Stream<Object[]> rows = userRepository.streamIdentifiersAfter(afterId)) {
+            rows.forEach(row -> {
+                watermark = Math.max(watermark, (Long) row[0]);
+                usernames.put((String) row[1]);
+                emails.put((String) row[2]);
+                count.incrementAndGet();
+            });
+        }
+        return count.get();
+    }
+
+    public boolean mightContainUsername(String username) {
+        return !ready || usernames.mightContain(username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return !ready || emails.mightContain(email);
+    }
+
+    public void add(String username, String email) {
+        BloomFilter currentUsernames = usernames;
+        BloomFilter currentEmails = emails;
+        if (currentUsernames != null) {
+            currentUsernames.put(username);
+            if (currentUsernames.insertions() == expectedInsertions) {
+                log.warn("Username/email filter reached its expected {} insertions; false positives will rise "
+                        + "until user.identifier-filter.expected-insertions is raised", expectedInsertions);
+            }
+        }
+        if (currentEmails != null) {
+            currentEmails.put(email);
+        }
+    }
+
+    /**
+     * Lock-free Bloom filter over an AtomicLongArray. Probe positions use the Kirsch-Mitzenmacher
+     * double-hashing scheme over a 64-bit FNV-1a hash of the string.
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bitSize;
+        private final int hashFunctions;
+        private final AtomicLong insertions = new AtomicLong();
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) >>> 6));
+            this.words = new AtomicLongArray(wordCount);
+            this.bitSize = (long) wordCount << 6;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 + 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = words.get(word);
+                while ((current & mask) == 0 && !words.weakCompareAndSetVolatile(word, current, current | mask)) {
+                    current = words.get(word);
+                }
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 + 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long bitSize() {
+            return bitSize;
+        }
+
+        long insertions() {
+            return insertions.get();
+        }
+
+        private static long hash(String value) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB93FE1A85EC3L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.kstore.user.service.impl;
+
+import com.kstore.user.entity.Role;
+import com.kstore.user.entity.User;
+import com.kstore.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of immutable user and role snapshots, keyed by username and by id.
+ * Entries expire after {@code user.identity-cache.ttl}. Writers call {@link #invalidate(User)}, which
+ * takes effect once the surrounding transaction commits.
+ */
+@Slf4j
+@Component
+public class UserIdentityCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, UserIdentity> byUsername = new ConcurrentHashMap<>();
+    private final Map<Long, UserIdentity> byId = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${user.identity-cache.ttl:5m}") Duration ttl,
+                             @Value("${user.identity-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<UserIdentity> getByUsername(String username) {
+        UserIdentity cached = byUsername.get(username);
+        if (cached != null && !cached.isStale(ttlNanos)) {
+            return Optional.of(cached);
+        }
+        return load(() -> userRepository.findByUsernameWithRoles(username));
+    }
+
+    public Optional<UserIdentity> getById(Long id) {
+        UserIdentity cached = byId.get(id);
+        if (cached != null && !cached.isStale(ttlNanos)) {
+            return Optional.of(cached);
+        }
+        return load(() -> userRepository.findByIdWithRoles(id));
+    }
+
+    /**
+     * Drops the user's snapshot after the current transaction commits, or immediately when there is none.
+     */
+    public void invalidate(User user) {
+        Long id = user.getId();
+        String username = user.getUsername();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, username);
+                }
+            });
+        } else {
+            evict(id, username);
+        }
+    }
+
+    private Optional<UserIdentity> load(Supplier<Optional<User>> loader) {
+        long loadGeneration = generation.get();
+        Optional<UserIdentity> loaded = loader.get().map(UserIdentity::new);
+        loaded.ifPresent(identity -> {
+            if (generation.get() == loadGeneration) {
+                put(identity);
+            }
+        });
+        return loaded;
+    }
+
+    private void put(UserIdentity identity) {
+        if (byId.size() >= maxEntries) {
+            byId.values().removeIf(cached -> cached.isStale(ttlNanos));
+            byUsername.values().removeIf(cached -> cached.isStale(ttlNanos));
+            // Still full: drop an arbitrary tenth rather than grow without bound
+            Iterator<UserIdentity> entries = byId.values().iterator();
+            for (int i = maxEntries / 10; i >= 0 && entries.hasNext() && byId.size() >= maxEntries; i--) {
+                byUsername.remove(entries.next().getUsername());
+                entries.remove();
+            }
+        }
+        byId.put(identity.getId(), identity);
+        byUsername.put(identity.getUsername(), identity);
+    }
+
+    private void evict(Long id, String username) {
+        generation.incrementAndGet();
+        UserIdentity removed = id != null ? byId.remove(id) : null;
+        if (removed != null) {
+            byUsername.remove(removed.getUsername());
+        }
+        if (username != null) {
+            byUsername.remove(username);
+        }
+        log.debug("Evicted identity snapshot for user {}", username);
+    }
+
+    /**
+     * Immutable copy of a user and their role names, detached from the persistence context.
+     */
+    public static final class UserIdentity implements UserDetails {
+
+        private final Long id;
+        private final String username;
+        private final String email;
+        private final String password;
+        private final String firstName;
+        private final String lastName;
+        private final String phoneNumber;
+        private final Set<String> roles;
+        private final List<GrantedAuthority> authorities;
+        private final boolean enabled;
+        private final boolean accountNonExpired;
+        private final boolean accountNonLocked;
+        private final boolean credentialsNonExpired;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final long loadedAtNanos = System.nanoTime();
+
+        private UserIdentity(User user) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.email = user.getEmail();
+            this.password = user.getPassword();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.phoneNumber = user.getPhoneNumber();
+            Set<String> roleNames = new LinkedHashSet<>();
+            if (user.getRoles() != null) {
+                for (Role role : user.getRoles()) {
+                    roleNames.add(role.getName());
+                }
+            }
+            this.roles = Collections.unmodifiableSet(roleNames);
+            this.authorities = roleNames.stream()
+                    .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                    .toList();
+            this.enabled = user.isEnabled();
+            this.accountNonExpired = user.isAccountNonExpired();
+            this.accountNonLocked = user.isAccountNonLocked();
+            this.credentialsNonExpired = user.isCredentialsNonExpired();
+            this.createdAt = user.getCreatedAt();
+            this.updatedAt = user.getUpdatedAt();
+        }
+
+        private boolean isStale(long ttlNanos) {
+            return System.nanoTime() - loadedAtNanos >= ttlNanos;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String getPassword() {
+            return password;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public String getPhoneNumber() {
+            return phoneNumber;
+        }
+
+        public Set<String> getRoles() {
+            return roles;
+        }
+
+        @Override
+        public Collection<? extends GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public boolean isAccountNonExpired() {
+            return accountNonExpired;
+        }
+
+        @Override
+        public boolean isAccountNonLocked() {
+            return accountNonLocked;
+        }
+
+        @Override
+        public boolean isCredentialsNonExpired() {
+            return credentialsNonExpired;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
@@ -1,24 +1,37 @@
 package com.kstore.user.service.impl;
 
+import com.kstore.common.event.UserRegisteredEvent;
 import com.kstore.common.exception.BusinessException;
 import com.kstore.common.exception.ResourceNotFoundException;
+import com.kstore.user.dto.AvailabilityResponse;
 import com.kstore.user.dto.UserRegistrationRequest;
 import com.kstore.user.dto.UserLoginRequest;
 import com.kstore.user.dto.UserResponse;
+import com.kstore.user.entity.Role;
 import com.kstore.user.entity.User;
 import com.kstore.user.repository.UserRepository;
+import com.kstore.user.security.LoginRateLimiter;
+import com.kstore.user.service.OutboxService;
 import com.kstore.user.service.UserService;
 import com.kstore.user.service.impl.JwtTokenProvider;
+import com.kstore.user.service.impl.UserIdentityCache.UserIdentity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -26,64 +39,95 @@ import java.util.Set;
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    public static final String USER_REGISTERED = "USER_REGISTERED";
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtTokenProvider jwtTokenProvider;
+    private final UserIdentityCache userIdentityCache;
+    private final UserIdentifierFilter userIdentifierFilter;
+    private final OutboxService outboxService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${user.events.topic:user-events}")
+    private String userEventsTopic;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserResponse register(UserRegistrationRequest request) {
         log.info("Registering new user with username: {}", request.getUsername());
         
-        if (userRepository.existsByUsername(request.getUsername())) {
+        // Filter negatives skip the exists queries; they can be stale, so the unique constraints have the final say
+        if (userIdentifierFilter.mightContainUsername(request.getUsername())
+                && userRepository.existsByUsername(request.getUsername())) {
             throw new BusinessException("Username already exists", "USERNAME_EXISTS");
         }
         
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userIdentifierFilter.mightContainEmail(request.getEmail())
+                && userRepository.existsByEmail(request.getEmail())) {
             throw new BusinessException("Email already exists", "EMAIL_EXISTS");
         }
         
-        User user = User.builder()
-                .username(request.getUsername())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .firstName(request.getFirstName())
-                .lastName(request.getLastName())
-                .phoneNumber(request.getPhoneNumber())
-                .roles(Set.of()) // Initialize with empty roles set
-                .build();
+        // Hashed before the transaction opens, so waiting for the hashing pool never holds a connection
+        String passwordHash = passwordHasher.encode(request.getPassword());
+        User user;
+        try {
+            user = transactionTemplate.execute(status -> insert(request, passwordHash));
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent registration for the same username or email
+            userIdentifierFilter.add(request.getUsername(), request.getEmail());
+            throw duplicateIdentifier(e);
+        }
+        userIdentifierFilter.add(user.getUsername(), user.getEmail());
         
-        user = userRepository.save(user);
         log.info("User registered successfully with ID: {}", user.getId());
         
         return mapToUserResponse(user);
     }
 
     @Override
-    public String login(UserLoginRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<String> login(UserLoginRequest request, String clientIp) {
+        // Throttled attempts are turned away before they cost a query or a password hash
+        loginRateLimiter.checkAllowed(clientIp, request.getUsername());
         log.info("Attempting login for username: {}", request.getUsername());
         
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new BusinessException("Invalid username or password", "INVALID_CREDENTIALS"));
-        
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new BusinessException("Invalid username or password", "INVALID_CREDENTIALS");
-        }
-        
-        if (!user.isEnabled()) {
-            throw new BusinessException("Account is disabled", "ACCOUNT_DISABLED");
-        }
+        User user = userRepository.findByUsernameWithRoles(request.getUsername())
+                .orElseThrow(() -> {
+                    loginRateLimiter.recordFailure(request.getUsername());
+                    return new BusinessException("Invalid username or password", "INVALID_CREDENTIALS");
+                });
+        String storedHash = user.getPassword();
         
-        String token = jwtTokenProvider.generateToken(user);
-        log.info("User logged in successfully: {}", request.getUsername());
-        
-        return token;
+        return passwordHasher.verify(request.getPassword(), storedHash).thenApply(verification -> {
+            if (!verification.matched()) {
+                loginRateLimiter.recordFailure(request.getUsername());
+                throw new BusinessException("Invalid username or password", "INVALID_CREDENTIALS");
+            }
+            
+            if (!user.isEnabled()) {
+                throw new BusinessException("Account is disabled", "ACCOUNT_DISABLED");
+            }
+            
+            if (verification.upgradedHash() != null
+                    && userRepository.updatePasswordHash(user.getId(), storedHash, verification.upgradedHash()) > 0) {
+                userIdentityCache.invalidate(user);
+                log.info("Re-hashed password for user {} with the current encoding", user.getUsername());
+            }
+            
+            String token = jwtTokenProvider.generateToken(user);
+            log.info("User logged in successfully: {}", request.getUsername());
+            
+            return token;
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
     public UserResponse getCurrentUserProfile() {
         String username = getCurrentUsername();
-        User user = userRepository.findByUsername(username)
+        UserIdentity user = userIdentityCache.getByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         return mapToUserResponse(user);
@@ -92,11 +136,12 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserResponse updateProfile(UserRegistrationRequest request) {
         String username = getCurrentUsername();
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsernameWithRoles(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
         // Check if email is being changed and already exists
-        if (!user.getEmail().equals(request.getEmail()) && 
+        boolean emailChanged = !user.getEmail().equals(request.getEmail());
+        if (emailChanged && userIdentifierFilter.mightContainEmail(request.getEmail()) &&
             userRepository.existsByEmail(request.getEmail())) {
             throw new BusinessException("Email already exists", "EMAIL_EXISTS");
         }
@@ -106,21 +151,87 @@ public class UserServiceImpl implements UserService {
         user.setLastName(request.getLastName());
         user.setPhoneNumber(request.getPhoneNumber());
         
-        user = userRepository.save(user);
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateIdentifier(e);
+        }
+        if (emailChanged) {
+            userIdentifierFilter.add(user.getUsername(), user.getEmail());
+        }
+        userIdentityCache.invalidate(user);
         log.info("User profile updated successfully: {}", username);
         
         return mapToUserResponse(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        AvailabilityResponse.AvailabilityResponseBuilder response = AvailabilityResponse.builder();
+        // A filter negative is at most one refresh interval stale, and registering still hits the unique
+        // constraints, so only a "maybe" is worth a query
+        if (username != null) {
+            response.username(username)
+                    .usernameAvailable(!userIdentifierFilter.mightContainUsername(username)
+                            || !userRepository.existsByUsername(username));
+        }
+        if (email != null) {
+            response.email(email)
+                    .emailAvailable(!userIdentifierFilter.mightContainEmail(email)
+                            || !userRepository.existsByEmail(email));
+        }
+        return response.build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
+        UserIdentity user = userIdentityCache.getById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         
         return mapToUserResponse(user);
     }
 
+    private User insert(UserRegistrationRequest request, String passwordHash) {
+        User user = userRepository.saveAndFlush(User.builder()
+                .username(request.getUsername())
+                .email(request.getEmail())
+                .password(passwordHash)
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .phoneNumber(request.getPhoneNumber())
+                .roles(Set.of()) // Initialize with empty roles set
+                .build());
+        
+        // Written in this transaction and relayed to the broker afterwards
+        UserRegisteredEvent event = UserRegisteredEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .userId(user.getId())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .phoneNumber(user.getPhoneNumber())
+                .registeredAt(user.getCreatedAt())
+                .metadata(Map.of("username", user.getUsername()))
+                .build();
+        outboxService.enqueue(userEventsTopic, String.valueOf(user.getId()), USER_REGISTERED,
+                event.getEventId(), event);
+        return user;
+    }
+
+    private RuntimeException duplicateIdentifier(DataIntegrityViolationException e) {
+        // Both H2 and PostgreSQL name the offending column in the constraint violation message
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        if (message.contains("email")) {
+            return new BusinessException("Email already exists", "EMAIL_EXISTS");
+        }
+        if (message.contains("username")) {
+            return new BusinessException("Username already exists", "USERNAME_EXISTS");
+        }
+        return e;
+    }
+
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
@@ -130,6 +241,21 @@ public class UserServiceImpl implements UserService {
     }
 
     private UserResponse mapToUserResponse(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .phoneNumber(user.getPhoneNumber())
+                .roles(user.getRoles().stream().map(Role::getName).collect(Collectors.toSet()))
+                .enabled(user.isEnabled())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+
+    private UserResponse mapToUserResponse(UserIdentity user) {
         return UserResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
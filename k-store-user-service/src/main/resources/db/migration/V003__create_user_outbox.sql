@@ -0,0 +1,18 @@
+-- Transactional outbox for events published by user-service
+CREATE TABLE user_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_id VARCHAR(36) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    topic VARCHAR(100) NOT NULL,
+    aggregate_id VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP,
+    CONSTRAINT uk_user_outbox_event_id UNIQUE (event_id)
+);
+
+-- The relay only ever scans unpublished rows
+CREATE INDEX idx_user_outbox_unpublished ON user_outbox (id) WHERE published_at IS NULL;
+CREATE INDEX idx_user_outbox_published_at ON user_outbox (published_at, id);
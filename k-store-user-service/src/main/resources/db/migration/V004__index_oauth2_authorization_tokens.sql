@@ -0,0 +1,10 @@
+-- Token lookups are equality-only on long TEXT values, so hash indexes keep them off a sequential scan
+CREATE INDEX idx_oauth2_authorization_state ON oauth2_authorization USING hash (state);
+CREATE INDEX idx_oauth2_authorization_code_value ON oauth2_authorization USING hash (authorization_code_value);
+CREATE INDEX idx_oauth2_authorization_access_token_value ON oauth2_authorization USING hash (access_token_value);
+CREATE INDEX idx_oauth2_authorization_refresh_token_value ON oauth2_authorization USING hash (refresh_token_value);
+CREATE INDEX idx_oauth2_authorization_oidc_id_token_value ON oauth2_authorization USING hash (oidc_id_token_value);
+
+-- Clients are upserted by client_id at startup; replicas racing on first boot must not both insert
+DROP INDEX idx_oauth2_registered_client_client_id;
+ALTER TABLE oauth2_registered_client ADD CONSTRAINT uk_oauth2_registered_client_client_id UNIQUE (client_id);
@@ -0,0 +1,9 @@
+-- The User entity maps phone_number; V001 created the column as phone. Databases baselined from a
+-- Hibernate-generated schema already have phone_number.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'phone') THEN
+        ALTER TABLE users RENAME COLUMN phone TO phone_number;
+    END IF;
+END $$;
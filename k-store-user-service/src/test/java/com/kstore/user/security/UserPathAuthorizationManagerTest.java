@@ -0,0 +1,75 @@
+package com.kstore.user.security;
+
+import com.kstore.user.service.impl.UserIdentityCache;
+import com.kstore.user.service.impl.UserIdentityCache.UserIdentity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserPathAuthorizationManagerTest {
+
+    private UserPathAuthorizationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        UserIdentityCache userIdentityCache = mock(UserIdentityCache.class);
+        UserIdentity alice = mock(UserIdentity.class);
+        when(alice.getId()).thenReturn(7L);
+        when(userIdentityCache.getByUsername("alice")).thenReturn(Optional.of(alice));
+        when(userIdentityCache.getByUsername("ghost")).thenReturn(Optional.empty());
+        manager = new UserPathAuthorizationManager(userIdentityCache);
+    }
+
+    @Test
+    void userMayOnlyReachTheirOwnPaths() {
+        Authentication alice = session("alice", "ROLE_USER");
+
+        assertThat(granted(alice, "7")).isTrue();
+        assertThat(granted(alice, "8")).isFalse();
+        assertThat(granted(alice, "not-a-number")).isFalse();
+        assertThat(granted(session("ghost", "ROLE_USER"), "7")).isFalse();
+    }
+
+    @Test
+    void adminMayReachAnyUser() {
+        assertThat(granted(session("root", "ROLE_ADMIN"), "8")).isTrue();
+    }
+
+    @Test
+    void clientTokensAndAnonymousCallersAreRefused() {
+        // A client_credentials token whose subject happens to equal a username must not pass as that user
+        Authentication client = new TestingAuthenticationToken("alice", null, "SCOPE_addresses.read");
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertThat(granted(client, "7")).isFalse();
+        assertThat(granted(anonymous, "7")).isFalse();
+        assertThat(granted(null, "7")).isFalse();
+    }
+
+    private boolean granted(Authentication authentication, String userId) {
+        RequestAuthorizationContext context = new RequestAuthorizationContext(new MockHttpServletRequest(),
+                Map.of("userId", userId));
+        return manager.check(() -> authentication, context).isGranted();
+    }
+
+    private static Authentication session(String username, String role) {
+        UserDetails user = User.withUsername(username).password("n/a").authorities(role).build();
+        return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+    }
+}
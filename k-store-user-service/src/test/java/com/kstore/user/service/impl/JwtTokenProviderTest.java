@@ -0,0 +1,128 @@
+package com.kstore.user.service.impl;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "k-store-test-secret-that-is-long-enough-for-hs256";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void cachesVerifiedClaims() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3_600_000, 100);
+        String token = token("alice", 60_000);
+
+        JwtTokenProvider.VerifiedToken first = provider.verify(token).orElseThrow();
+        JwtTokenProvider.VerifiedToken second = provider.verify(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getUsername()).isEqualTo("alice");
+        assertThat(first.getUserId()).isEqualTo(7L);
+        assertThat(first.getRoles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(cache(provider)).hasSize(1);
+    }
+
+    @Test
+    void rejectsAndEvictsACachedTokenOnceItExpires() throws InterruptedException {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3_600_000, 100);
+        // exp has second precision, so give the token a full second to be verified and cached
+        String token = token("alice", 2_000);
+        JwtTokenProvider.VerifiedToken verified = provider.verify(token).orElseThrow();
+        assertThat(cache(provider)).hasSize(1);
+
+        Thread.sleep(verified.getExpiration().getTime() - System.currentTimeMillis() + 50);
+
+        assertThat(provider.verify(token)).isEmpty();
+        assertThat(cache(provider)).isEmpty();
+    }
+
+    @Test
+    void doesNotCacheTokensWithoutExpiry() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3_600_000, 100);
+        String token = Jwts.builder().subject("alice").signWith(KEY).compact();
+
+        assertThat(provider.verify(token)).isPresent();
+        assertThat(cache(provider)).isEmpty();
+    }
+
+    @Test
+    void doesNotCacheRejectedTokens() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3_600_000, 100);
+        SecretKey otherKey = Keys.hmacShaKeyFor("another-secret-that-is-long-enough-for-hs256".getBytes(StandardCharsets.UTF_8));
+        String forged = Jwts.builder().subject("alice").expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(otherKey).compact();
+
+        assertThat(provider.verify(forged)).isEmpty();
+        assertThat(provider.verify("not-a-token")).isEmpty();
+        assertThat(cache(provider)).isEmpty();
+    }
+
+    @Test
+    void fullCacheDropsExpiredTokensFirst() throws InterruptedException {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3_600_000, 10);
+        List<String> live = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            provider.verify(token("short-" + i, 1_000)).orElseThrow();
+            String token = token("live-" + i, 60_000);
+            provider.verify(token).orElseThrow();
+            live.add(token);
+        }
+        assertThat(cache(provider)).hasSize(10);
+
+        Thread.sleep(2_000);
+        String latest = token("latest", 60_000);
+        provider.verify(latest).orElseThrow();
+
+        assertThat(cache(provider)).hasSize(6);
+        for (String token : live) {
+            JwtTokenProvider.VerifiedToken cached = provider.verify(token).orElseThrow();
+            assertThat(provider.verify(token).orElseThrow()).isSameAs(cached);
+        }
+        assertThat(cache(provider)).hasSize(6);
+    }
+
+    @Test
+    void fullCacheOfLiveTokensStaysBounded() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3_600_000, 20);
+        for (int i = 0; i < 20; i++) {
+            provider.verify(token("user-" + i, 60_000)).orElseThrow();
+        }
+        assertThat(cache(provider)).hasSize(20);
+
+        String latest = token("latest", 60_000);
+        JwtTokenProvider.VerifiedToken verified = provider.verify(latest).orElseThrow();
+
+        assertThat(cache(provider)).hasSize(19).containsValue(verified);
+        for (int i = 0; i < 100; i++) {
+            provider.verify(token("more-" + i, 60_000)).orElseThrow();
+            assertThat(cache(provider)).hasSizeLessThanOrEqualTo(20);
+        }
+    }
+
+    private static String token(String username, long ttlMillis) {
+        return Jwts.builder()
+                .subject(username)
+                .claim("userId", 7L)
+                .claim("roles", "ROLE_USER,ROLE_ADMIN")
+                .expiration(new Date(System.currentTimeMillis() + ttlMillis))
+                .signWith(KEY)
+                .compact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, JwtTokenProvider.VerifiedToken> cache(JwtTokenProvider provider) {
+        return (Map<String, JwtTokenProvider.VerifiedToken>) ReflectionTestUtils.getField(provider, "verifiedTokens");
+    }
+}
@@ -0,0 +1,71 @@
+package com.kstore.user.service.impl;
+
+import com.kstore.common.exception.RateLimitExceededException;
+import com.kstore.user.config.PasswordConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fullQueueIsTurnedAwayWithRetryAfter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.matches(anyString(), anyString())).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+        PasswordHasher hasher = new PasswordHasher(encoder, executor, meterRegistry, Duration.ofSeconds(2));
+
+        // One hash running on the single thread and one waiting in the queue of one
+        hasher.verify("secret", "hash");
+        hasher.verify("secret", "hash");
+
+        assertThatThrownBy(() -> hasher.encode("secret"))
+                .isInstanceOfSatisfying(RateLimitExceededException.class, e -> {
+                    assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(2);
+                });
+        assertThat(meterRegistry.counter("user.password.rejected").count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void weakerStoredHashIsUpgradedOnMatch() {
+        PasswordEncoder encoder = new PasswordConfig().passwordEncoder("bcrypt", 4);
+        PasswordHasher hasher = new PasswordHasher(encoder, executor, meterRegistry, Duration.ofSeconds(1));
+        // Stored before the delegating encoder, without the {bcrypt} prefix
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        PasswordHasher.Verification verification = hasher.verify("secret", legacyHash).join();
+        assertThat(verification.matched()).isTrue();
+        assertThat(verification.upgradedHash()).startsWith("{bcrypt}");
+        assertThat(encoder.matches("secret", verification.upgradedHash())).isTrue();
+
+        assertThat(hasher.verify("secret", verification.upgradedHash()).join().upgradedHash()).isNull();
+        assertThat(hasher.verify("wrong", legacyHash).join())
+                .isEqualTo(new PasswordHasher.Verification(false, null));
+    }
+}
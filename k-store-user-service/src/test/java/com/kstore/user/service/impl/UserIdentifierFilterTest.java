@@ -0,0 +1,98 @@
+package com.kstore.user.service.impl;
+
+import com.kstore.user.dto.AvailabilityResponse;
+import com.kstore.user.repository.UserRepository;
+import com.kstore.user.security.LoginRateLimiter;
+import com.kstore.user.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserIdentifierFilterTest {
+
+    private UserRepository userRepository;
+    private UserIdentifierFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        filter = new UserIdentifierFilter(userRepository);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+    }
+
+    @Test
+    void answersMaybeUntilBuilt() {
+        assertThat(filter.mightContainUsername("anyone")).isTrue();
+        assertThat(filter.refresh()).isZero();
+    }
+
+    @Test
+    void refreshPicksUpUsersRegisteredElsewhere() {
+        when(userRepository.streamIdentifiersAfter(0L)).thenReturn(Stream.<Object[]>of(user(1, "alice"), user(2, "bob")));
+        filter.rebuild();
+        assertThat(filter.mightContainUsername("alice")).isTrue();
+        assertThat(filter.mightContainEmail("bob@kstore.com")).isTrue();
+        assertThat(filter.mightContainUsername("carol")).isFalse();
+
+        // Another replica registered carol (id 4); id 3 is still in flight there
+        when(userRepository.streamIdentifiersAfter(2L)).thenReturn(Stream.<Object[]>of(user(4, "carol")));
+        assertThat(filter.refresh()).isEqualTo(1);
+        assertThat(filter.mightContainUsername("carol")).isTrue();
+
+        // The next pass re-reads from the previous watermark, so id 3 committing late is not skipped
+        when(userRepository.streamIdentifiersAfter(2L)).thenReturn(Stream.<Object[]>of(user(3, "dave"), user(4, "carol")));
+        assertThat(filter.refresh()).isEqualTo(2);
+        assertThat(filter.mightContainUsername("dave")).isTrue();
+
+        when(userRepository.streamIdentifiersAfter(4L)).thenReturn(Stream.empty());
+        assertThat(filter.refresh()).isZero();
+        verify(userRepository).streamIdentifiersAfter(4L);
+    }
+
+    @Test
+    void localWritesAreVisibleImmediately() {
+        when(userRepository.streamIdentifiersAfter(0L)).thenReturn(Stream.empty());
+        filter.rebuild();
+
+        filter.add("erin", "erin@kstore.com");
+
+        assertThat(filter.mightContainUsername("erin")).isTrue();
+        assertThat(filter.mightContainEmail("erin@kstore.com")).isTrue();
+    }
+
+    @Test
+    void availabilityOnlyQueriesTheDatabaseOnAMaybe() {
+        when(userRepository.streamIdentifiersAfter(0L)).thenReturn(Stream.<Object[]>of(user(1, "alice")));
+        filter.rebuild();
+        UserServiceImpl userService = new UserServiceImpl(userRepository, mock(PasswordHasher.class),
+                mock(JwtTokenProvider.class), mock(UserIdentityCache.class), filter, mock(OutboxService.class),
+                mock(LoginRateLimiter.class), mock(TransactionTemplate.class));
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+
+        AvailabilityResponse taken = userService.checkAvailability("alice", null);
+        AvailabilityResponse free = userService.checkAvailability("zed", "zed@kstore.com");
+
+        assertThat(taken.getUsernameAvailable()).isFalse();
+        assertThat(free.getUsernameAvailable()).isTrue();
+        assertThat(free.getEmailAvailable()).isTrue();
+        verify(userRepository).existsByUsername("alice");
+        verify(userRepository, never()).existsByUsername("zed");
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    private static Object[] user(long id, String username) {
+        return new Object[]{id, username, username + "@kstore.com"};
+    }
+}
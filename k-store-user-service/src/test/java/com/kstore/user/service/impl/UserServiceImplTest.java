@@ -0,0 +1,123 @@
+package com.kstore.user.service.impl;
+
+import com.kstore.common.exception.RateLimitExceededException;
+import com.kstore.user.dto.UserLoginRequest;
+import com.kstore.user.dto.UserRegistrationRequest;
+import com.kstore.user.entity.User;
+import com.kstore.user.repository.UserRepository;
+import com.kstore.user.security.LoginRateLimiter;
+import com.kstore.user.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTest {
+
+    private UserRepository userRepository;
+    private PasswordHasher passwordHasher;
+    private UserIdentityCache userIdentityCache;
+    private OutboxService outboxService;
+    private TransactionTemplate transactionTemplate;
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        passwordHasher = mock(PasswordHasher.class);
+        userIdentityCache = mock(UserIdentityCache.class);
+        outboxService = mock(OutboxService.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        JwtTokenProvider jwtTokenProvider = mock(JwtTokenProvider.class);
+        when(jwtTokenProvider.generateToken(any())).thenReturn("token");
+        userService = new UserServiceImpl(userRepository, passwordHasher, jwtTokenProvider, userIdentityCache,
+                mock(UserIdentifierFilter.class), outboxService, mock(LoginRateLimiter.class), transactionTemplate);
+        ReflectionTestUtils.setField(userService, "userEventsTopic", "user-events");
+    }
+
+    @Test
+    void registerHashesBeforeOpeningTheTransaction() {
+        when(passwordHasher.encode("secret")).thenReturn("{bcrypt}hash");
+        when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(1L);
+            return user;
+        });
+
+        assertThat(userService.register(registration()).getId()).isEqualTo(1L);
+
+        InOrder inOrder = inOrder(passwordHasher, transactionTemplate, userRepository, outboxService);
+        inOrder.verify(passwordHasher).encode("secret");
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(userRepository).saveAndFlush(any());
+        inOrder.verify(outboxService).enqueue(eq("user-events"), eq("1"), eq(UserServiceImpl.USER_REGISTERED), anyString(), any());
+    }
+
+    @Test
+    void registerTurnedAwayByTheHashingPoolOpensNoTransaction() {
+        when(passwordHasher.encode("secret")).thenThrow(
+                new RateLimitExceededException("Too many sign-in requests, please retry shortly", "TOO_MANY_REQUESTS", 1));
+
+        assertThatThrownBy(() -> userService.register(registration()))
+                .isInstanceOf(RateLimitExceededException.class);
+        verifyNoInteractions(transactionTemplate, outboxService);
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void loginStoresTheUpgradedHash() {
+        User user = User.builder().id(1L).username("alice").password("legacy").roles(Set.of()).build();
+        when(userRepository.findByUsernameWithRoles("alice")).thenReturn(Optional.of(user));
+        when(passwordHasher.verify("secret", "legacy")).thenReturn(
+                CompletableFuture.completedFuture(new PasswordHasher.Verification(true, "{bcrypt}upgraded")));
+        when(userRepository.updatePasswordHash(1L, "legacy", "{bcrypt}upgraded")).thenReturn(1);
+
+        assertThat(userService.login(new UserLoginRequest("alice", "secret"), "10.0.0.1").join()).isEqualTo("token");
+
+        verify(userRepository).updatePasswordHash(1L, "legacy", "{bcrypt}upgraded");
+        verify(userIdentityCache).invalidate(user);
+    }
+
+    @Test
+    void loginLeavesACurrentHashAlone() {
+        User user = User.builder().id(1L).username("alice").password("{bcrypt}current").roles(Set.of()).build();
+        when(userRepository.findByUsernameWithRoles("alice")).thenReturn(Optional.of(user));
+        when(passwordHasher.verify("secret", "{bcrypt}current")).thenReturn(
+                CompletableFuture.completedFuture(new PasswordHasher.Verification(true, null)));
+
+        userService.login(new UserLoginRequest("alice", "secret"), "10.0.0.1").join();
+
+        verify(userRepository, never()).updatePasswordHash(any(), any(), any());
+        verifyNoInteractions(userIdentityCache);
+    }
+
+    private static UserRegistrationRequest registration() {
+        return UserRegistrationRequest.builder()
+                .username("alice")
+                .email("alice@kstore.com")
+                .password("secret")
+                .firstName("Alice")
+                .lastName("Smith")
+                .build();
+    }
+}